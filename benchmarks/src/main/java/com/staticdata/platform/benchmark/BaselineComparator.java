@@ -0,0 +1,109 @@
+package com.staticdata.platform.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON results (-rf json), e.g. the baseline of the last release and the
+ * current build. Prints score and allocated bytes per operation (with -prof gc) of every
+ * benchmark and parameter combination, and exits with status 1 when a score got worse by more
+ * than the threshold.
+ * <p>
+ * Usage: BaselineComparator baseline.json current.json [threshold-percent, default 10]
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator baseline.json current.json "
+                    + "[threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s %12s %12s%n", "Benchmark", "Baseline",
+                "Current", "Change", "B/op base", "B/op now");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s %12s %12s%n", entry.getKey(), "-",
+                        now.score, "new", "-", bytes(now.bytesPerOp));
+                continue;
+            }
+            // Positive change means slower, whatever the mode
+            double change = (now.score - before.score) / before.score * 100.0;
+            if (now.higherIsBetter) {
+                change = -change;
+            }
+            boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%% %12s %12s%s%n", entry.getKey(),
+                    before.score, now.score, change, bytes(before.bytesPerOp),
+                    bytes(now.bytesPerOp), regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-80s (not in current results)%n", missing);
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) slower than the baseline by more than %.1f%%%n",
+                    regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Map<String, String> params = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+            fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+            if (!params.isEmpty()) {
+                key.append(params);
+            }
+            String mode = run.path("mode").asText();
+            JsonNode primary = run.path("primaryMetric");
+            Double bytesPerOp = null;
+            Iterator<Map.Entry<String, JsonNode>> secondary =
+                    run.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                Map.Entry<String, JsonNode> metric = secondary.next();
+                // Older JMH versions prefix profiler metrics with a middle dot
+                if (metric.getKey().replace("\u00b7", "").equals(ALLOCATION_METRIC)) {
+                    bytesPerOp = metric.getValue().path("score").asDouble();
+                }
+            }
+            results.put(key.toString() + " (" + mode + ", "
+                    + primary.path("scoreUnit").asText() + ")", new Result(
+                            primary.path("score").asDouble(), "thrpt".equals(mode), bytesPerOp));
+        }
+        return results;
+    }
+
+    private static String bytes(Double bytesPerOp) {
+        return bytesPerOp != null ? String.format("%.0f", bytesPerOp) : "-";
+    }
+
+    private record Result(double score, boolean higherIsBetter, Double bytesPerOp) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.staticdata.platform.benchmark;
+
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.entity.OrganizationNode;
+import com.staticdata.platform.entity.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic test data shared by the benchmarks (fixed seeds, so that runs of different
+ * releases measure the same input)
+ */
+public final class BenchmarkData {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Organization tree of the given size, each node having up to fanOut children, in
+     * shuffled order as returned by findAll
+     */
+    public static List<OrganizationNode> organizationNodes(int size, int fanOut) {
+        Random random = new Random(42);
+        List<OrganizationNode> nodes = new ArrayList<>(size);
+        OrganizationNode.NodeType[] types = OrganizationNode.NodeType.values();
+        for (int i = 0; i < size; i++) {
+            long id = i + 1L;
+            Long parentId = i == 0 ? null : (long) (i - 1) / fanOut + 1;
+            int depth = 0;
+            for (long parent = i; parent > 0; parent = (parent - 1) / fanOut) {
+                depth++;
+            }
+            OrganizationNode node = new OrganizationNode()
+                    .setName("node-" + random.nextInt(size * 10))
+                    .setDescription("Organization node " + id)
+                    .setType(types[Math.min(depth, types.length - 1)])
+                    .setParentId(parentId)
+                    .setSortOrder(random.nextInt(5));
+            node.setId(id).setCreatedAt(CREATED_AT).setUpdatedAt(CREATED_AT)
+                    .setCreatedBy("admin").setUpdatedBy("admin");
+            nodes.add(node);
+        }
+        Collections.shuffle(nodes, random);
+        return nodes;
+    }
+
+    /**
+     * Inline data file with the given number of rows of mixed column types, owned by a node
+     * three levels down the organization tree
+     */
+    public static DataFile dataFile(int rowCount, List<OrganizationNode> organization) {
+        OrganizationNode node = organization.stream()
+                .filter(candidate -> candidate.getType() == OrganizationNode.NodeType.MODULE)
+                .findFirst()
+                .orElse(organization.get(0));
+        User owner = new User().setUsername("owner").setFullName("File Owner");
+        owner.setId(7L);
+        List<DataFile.ColumnDefinition> columns = new ArrayList<>();
+        columns.add(column("id", DataFile.ColumnDefinition.DataType.INTEGER, true));
+        columns.add(column("name", DataFile.ColumnDefinition.DataType.STRING, true));
+        columns.add(column("price", DataFile.ColumnDefinition.DataType.DECIMAL, false));
+        columns.add(column("active", DataFile.ColumnDefinition.DataType.BOOLEAN, false));
+        columns.add(column("created", DataFile.ColumnDefinition.DataType.DATE, false));
+        columns.add(column("notes", DataFile.ColumnDefinition.DataType.STRING, false));
+        List<Map<String, Object>> rows = rows(rowCount);
+        DataFile dataFile = new DataFile()
+                .setName("benchmark-file")
+                .setDescription("Data file used by the benchmarks")
+                .setOrganizationNode(node)
+                .setOwner(owner)
+                .setColumnDefinitions(columns)
+                .setDataRows(rows)
+                .setRowCount(rows.size())
+                .setColumnCount(columns.size());
+        dataFile.setId(1L).setCreatedAt(CREATED_AT).setUpdatedAt(CREATED_AT)
+                .setCreatedBy("owner").setUpdatedBy("owner");
+        return dataFile;
+    }
+
+    /**
+     * Rows as stored in data_rows: ids, short strings, decimals, booleans, ISO dates and
+     * some nulls
+     */
+    public static List<Map<String, Object>> rows(int count) {
+        Random random = new Random(7);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i + 1);
+            row.put("name", "item-" + Integer.toString(random.nextInt(1_000_000), 36));
+            row.put("price", Math.round(random.nextDouble() * 100_000) / 100.0);
+            row.put("active", random.nextBoolean());
+            row.put("created", LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)).toString());
+            row.put("notes", random.nextInt(4) == 0 ? null : "note " + random.nextInt(100));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType dataType, boolean required) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(dataType)
+                .setRequired(required);
+    }
+}
@@ -0,0 +1,50 @@
+package com.staticdata.platform.benchmark;
+
+import com.staticdata.platform.entity.OrganizationNode;
+import com.staticdata.platform.repository.OrganizationNodeRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Organization node repository answering the lookups of the DTO conversions (findById and
+ * countChildrenByParentId) from memory, so that benchmarks measure the service code rather
+ * than the database. Mocks are avoided on purpose: they record every invocation.
+ */
+public final class InMemoryOrganizationNodes {
+
+    private InMemoryOrganizationNodes() {
+    }
+
+    public static OrganizationNodeRepository repository(Collection<OrganizationNode> nodes) {
+        Map<Long, OrganizationNode> byId = new HashMap<>();
+        Map<Long, Long> childCounts = new HashMap<>();
+        for (OrganizationNode node : nodes) {
+            byId.put(node.getId(), node);
+            if (node.getParentId() != null) {
+                childCounts.merge(node.getParentId(), 1L, Long::sum);
+            }
+        }
+        return (OrganizationNodeRepository) Proxy.newProxyInstance(
+                OrganizationNodeRepository.class.getClassLoader(),
+                new Class<?>[] {OrganizationNodeRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findById":
+                            return Optional.ofNullable(byId.get((Long) args[0]));
+                        case "countChildrenByParentId":
+                            return childCounts.getOrDefault((Long) args[0], 0L);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "InMemoryOrganizationNodes(" + byId.size() + " nodes)";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
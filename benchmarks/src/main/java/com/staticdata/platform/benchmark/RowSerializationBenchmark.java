@@ -0,0 +1,51 @@
+package com.staticdata.platform.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of data rows (List of Map), as done for row pages, inline data_rows
+ * and JSON exports
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class RowSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int rowCount;
+
+    private ObjectMapper objectMapper;
+    private List<Map<String, Object>> rows;
+
+    @Setup
+    public void setUp() {
+        // Same modules as the mapper Spring Boot configures for the application
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        rows = BenchmarkData.rows(rowCount);
+    }
+
+    @Benchmark
+    public byte[] writeRows() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rows);
+    }
+}
@@ -0,0 +1,55 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.benchmark.BenchmarkData;
+import com.staticdata.platform.benchmark.InMemoryOrganizationNodes;
+import com.staticdata.platform.dto.DataFileDto;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.entity.OrganizationNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataFileService.convertToDto, the conversion behind every data file response. The
+ * organization path is looked up node by node, from memory here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DataFileServiceBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int rowCount;
+
+    private DataFileService dataFileService;
+    private DataFile dataFile;
+
+    @Setup
+    public void setUp() {
+        List<OrganizationNode> organization = BenchmarkData.organizationNodes(200, 10);
+        // The conversion only uses the organization node repository
+        dataFileService = new DataFileService(null,
+                InMemoryOrganizationNodes.repository(organization), null, null, null, null, null,
+                null, null, null);
+        dataFile = BenchmarkData.dataFile(rowCount, organization);
+    }
+
+    @Benchmark
+    public DataFileDto convertToDto() {
+        return dataFileService.convertToDto(dataFile);
+    }
+}
@@ -0,0 +1,93 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.benchmark.BenchmarkData;
+import com.staticdata.platform.benchmark.InMemoryOrganizationNodes;
+import com.staticdata.platform.dto.OrganizationNodeDto;
+import com.staticdata.platform.entity.OrganizationNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrganizationService.buildTree (DTO conversion of every node, then linking and sorting) and
+ * sortChildren alone, for organizations of growing size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class OrganizationServiceBenchmark {
+
+    private static final int FAN_OUT = 10;
+
+    @Param({"100", "1000", "10000"})
+    private int nodeCount;
+
+    private OrganizationService organizationService;
+    private List<OrganizationNode> nodes;
+
+    @Setup
+    public void setUp() {
+        nodes = BenchmarkData.organizationNodes(nodeCount, FAN_OUT);
+        // Tree building only uses the organization node repository
+        organizationService = new OrganizationService(
+                InMemoryOrganizationNodes.repository(nodes), null, null);
+    }
+
+    @Benchmark
+    public List<OrganizationNodeDto> buildTree() {
+        return organizationService.buildTree(nodes);
+    }
+
+    @Benchmark
+    public List<OrganizationNodeDto> sortChildren(UnsortedTree tree) {
+        organizationService.sortChildren(tree.roots);
+        return tree.roots;
+    }
+
+    /**
+     * A built tree whose child lists are shuffled again before every invocation, as sorting
+     * an already sorted list is much cheaper. Per-invocation setup adds timing overhead that
+     * shows in the smallest tree; compare the larger trees between releases.
+     */
+    @State(Scope.Thread)
+    public static class UnsortedTree {
+
+        private final Random random = new Random(42);
+        private List<OrganizationNodeDto> roots;
+
+        @Setup(Level.Trial)
+        public void build(OrganizationServiceBenchmark benchmark) {
+            roots = benchmark.organizationService.buildTree(benchmark.nodes);
+        }
+
+        @Setup(Level.Invocation)
+        public void shuffle() {
+            shuffle(roots);
+        }
+
+        private void shuffle(List<OrganizationNodeDto> children) {
+            if (children == null) {
+                return;
+            }
+            Collections.shuffle(children, random);
+            children.forEach(child -> shuffle(child.getChildren()));
+        }
+    }
+}
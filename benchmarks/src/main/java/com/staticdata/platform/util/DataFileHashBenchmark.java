@@ -0,0 +1,45 @@
+package com.staticdata.platform.util;
+
+import com.staticdata.platform.benchmark.BenchmarkData;
+import com.staticdata.platform.entity.DataFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content hash of inline data files (DataFileService.generateFileHash delegates to
+ * DataFileHashUtils), which renders all rows to a string before digesting them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DataFileHashBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int rowCount;
+
+    private DataFile dataFile;
+
+    @Setup
+    public void setUp() {
+        dataFile = BenchmarkData.dataFile(rowCount, BenchmarkData.organizationNodes(200, 10));
+    }
+
+    @Benchmark
+    public String generateFileHash() {
+        return DataFileHashUtils.generateFileHash(dataFile);
+    }
+}
@@ -0,0 +1,18 @@
+package com.staticdata.platform.audit;
+
+import com.staticdata.platform.entity.AuditLog;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audited action, captured when it happens and written to audit_logs after its transaction
+ * commits
+ *
+ * @param occurredAt    when the action was taken; becomes the created_at of the audit log
+ * @param userId        acting user, 0 when not known (e.g. an unauthenticated caller)
+ * @param resourceType  e.g. DATA_FILE, ORGANIZATION_NODE, USER
+ */
+public record AuditEvent(LocalDateTime occurredAt, Long userId, String username,
+        AuditLog.ActionType actionType, String resourceType, Long resourceId,
+        String resourceName, String description, String clientIp, String userAgent) {
+}
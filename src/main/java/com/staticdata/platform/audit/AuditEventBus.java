@@ -0,0 +1,183 @@
+package com.staticdata.platform.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.repository.AuditLogStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carries audit events from the transactions that caused them to audit_logs without making
+ * those transactions wait. Events are taken only once their transaction has committed (so
+ * rolled back actions are not audited) and put into a bounded queue; a writer thread inserts
+ * them in batches. When the queue is full or a batch cannot be written, because the database is
+ * slow or down, the events go to an append-only spill file instead, which the writer replays
+ * once the database keeps up again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditEventBus {
+
+    private final AuditLogStore auditLogStore;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.queue-size:10000}")
+    private int queueSize;
+
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.spill-dir:${java.io.tmpdir}/sdp-audit}")
+    private String spillDir;
+
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private BlockingQueue<AuditEvent> queue;
+    private AuditSpillFile spillFile;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            spillFile = new AuditSpillFile(Path.of(spillDir), objectMapper);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit spill directory " + spillDir, e);
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written").register(meterRegistry);
+        Gauge.builder("audit.spilled", spilled, AtomicLong::get)
+                .description("Audit events written to the spill file").register(meterRegistry);
+        Gauge.builder("audit.lost", lost, AtomicLong::get)
+                .description("Audit events that could not be stored at all")
+                .register(meterRegistry);
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(5));
+        // Whatever the writer could not insert in time is kept for the next start
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        spill(remaining);
+    }
+
+    /**
+     * Queue an event once the transaction publishing it has committed (or right away outside a
+     * transaction); never blocks on the database
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuditEvent(AuditEvent event) {
+        if (queue != null && !queue.offer(event)) {
+            spill(List.of(event));
+        }
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            AuditEvent first;
+            try {
+                first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                // Idle: the database keeps up with new events, so catch up on spilled ones
+                if (running) {
+                    replaySpill();
+                }
+                continue;
+            }
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            if (!write(batch) && running) {
+                // Back off; meanwhile new events fill the queue and overflow to the spill file
+                try {
+                    Thread.sleep(flushIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean write(List<AuditEvent> batch) {
+        try {
+            auditLogStore.insertEvents(batch);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Unable to write {} audit events, spilling them: {}", batch.size(),
+                    e.getMessage());
+            spill(batch);
+            return false;
+        }
+    }
+
+    private void replaySpill() {
+        if (!spillFile.hasPending()) {
+            return;
+        }
+        try {
+            long replayed = spillFile.replay(auditLogStore::insertEvents, batchSize);
+            log.info("Replayed {} spilled audit events", replayed);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Replay of spilled audit events failed: {}", e.getMessage());
+        }
+    }
+
+    private void spill(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            spillFile.append(events);
+            spilled.addAndGet(events.size());
+        } catch (IOException e) {
+            lost.addAndGet(events.size());
+            log.error("Lost {} audit events: {}", events.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.staticdata.platform.audit;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Naming and DDL of the monthly partitions of audit_logs. Partition audit_logs_pYYYYMM holds
+ * the audit logs created in that month; audit_logs_default catches rows of months without a
+ * partition (clock skew, replayed events of old months) until they are moved to one.
+ */
+public final class AuditPartitions {
+
+    public static final String TABLE = "audit_logs";
+
+    public static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{4})(\\d{2})");
+
+    private AuditPartitions() {
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("%s_p%04d%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * Month of a partition name, null for tables that are not monthly audit partitions
+     */
+    public static YearMonth monthOf(String tableName) {
+        Matcher matcher = PARTITION_NAME.matcher(tableName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int month = Integer.parseInt(matcher.group(2));
+        return month >= 1 && month <= 12 ? YearMonth.of(Integer.parseInt(matcher.group(1)), month)
+                : null;
+    }
+
+    public static String createPartitionSql(YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    public static String createDefaultPartitionSql() {
+        return "CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE
+                + " DEFAULT";
+    }
+
+    /**
+     * Table with the columns of audit_logs, to be filled and then attached as the partition of
+     * a month (the identity stays on audit_logs)
+     */
+    public static String createStandalonePartitionSql(YearMonth month) {
+        return "CREATE TABLE " + partitionName(month) + " (LIKE " + TABLE
+                + " INCLUDING DEFAULTS)";
+    }
+
+    public static String attachPartitionSql(YearMonth month) {
+        return "ALTER TABLE " + TABLE + " ATTACH PARTITION " + partitionName(month)
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    /**
+     * Months from first to last, both included
+     */
+    public static List<YearMonth> monthsBetween(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    /**
+     * Partitions entirely older than the retention: those of months before current minus
+     * retention months
+     */
+    public static List<String> expired(Collection<String> partitions, YearMonth current,
+            int retentionMonths) {
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            YearMonth month = monthOf(partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                expired.add(partition);
+            }
+        }
+        expired.sort(null);
+        return expired;
+    }
+}
@@ -0,0 +1,117 @@
+package com.staticdata.platform.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only overflow file of audit events, one JSON line each, holding the events the
+ * database could not take in time. Replaying moves the file aside first, so events spilled
+ * meanwhile go to a fresh file; a replay that fails keeps the moved file and resumes later.
+ * Replay is at least once: a batch may be written again if a later batch fails.
+ */
+@Slf4j
+public final class AuditSpillFile {
+
+    private static final String ACTIVE = "audit-spill.jsonl";
+    private static final String REPLAYING = "audit-spill.replaying.jsonl";
+
+    private final Path active;
+    private final Path replaying;
+    private final ObjectMapper objectMapper;
+
+    public AuditSpillFile(Path directory, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        this.active = directory.resolve(ACTIVE);
+        this.replaying = directory.resolve(REPLAYING);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Append events to the end of the file, flushed to the operating system before returning
+     */
+    public synchronized void append(Collection<AuditEvent> events) throws IOException {
+        if (events.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        }
+    }
+
+    public boolean hasPending() {
+        return Files.exists(replaying) || Files.exists(active);
+    }
+
+    /**
+     * Pass the spilled events to the writer in batches, oldest first, and remove them once all
+     * were written; only one thread may replay
+     *
+     * @return number of events replayed
+     * @throws RuntimeException from the writer, leaving the events to the next replay
+     */
+    public long replay(Consumer<List<AuditEvent>> writer, int batchSize) throws IOException {
+        if (!Files.exists(replaying)) {
+            synchronized (this) {
+                if (!Files.exists(active)) {
+                    return 0;
+                }
+                Files.move(active, replaying, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        long replayed = 0;
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                AuditEvent event = readEvent(line);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+                if (batch.size() == batchSize) {
+                    writer.accept(batch);
+                    replayed += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writer.accept(batch);
+            replayed += batch.size();
+        }
+        Files.delete(replaying);
+        return replayed;
+    }
+
+    /**
+     * The event of a line, null for a line cut short by a crash while appending
+     */
+    private AuditEvent readEvent(String line) {
+        try {
+            return objectMapper.readValue(line, AuditEvent.class);
+        } catch (IOException e) {
+            log.warn("Skipping unreadable audit spill line: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,616 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One column of a {@link ColumnarTable}, stored in a primitive array chosen by the column's data
+ * type. Null cells are tracked in a bitmap, with a second bitmap marking the null cells whose key
+ * was absent from the row, so that explicit JSON nulls survive. Cells whose value does not have
+ * the canonical form of
+ * the column type (e.g. the text "12" in an INTEGER column) are kept as-is in a side map so that
+ * the column always reproduces the original row values.
+ */
+public abstract class ColumnVector {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String name;
+    private final DataFile.ColumnDefinition.DataType dataType;
+    private final BitSet nulls = new BitSet();
+    private final BitSet missing = new BitSet();
+    private final BitSet exceptional = new BitSet();
+    private final Map<Integer, Object> exceptions = new HashMap<>();
+    private int size;
+
+    ColumnVector(String name, DataFile.ColumnDefinition.DataType dataType) {
+        this.name = name;
+        this.dataType = dataType;
+    }
+
+    /**
+     * Create an empty vector for a column of the given type (null for columns that are not
+     * defined in the schema)
+     */
+    static ColumnVector forType(String name, DataFile.ColumnDefinition.DataType dataType,
+            int capacity) {
+        int initial = Math.max(capacity, INITIAL_CAPACITY);
+        if (dataType == null) {
+            return new ObjectVector(name, null, initial);
+        }
+        return switch (dataType) {
+            case INTEGER -> new LongVector(name, initial);
+            case DECIMAL -> new DoubleVector(name, initial);
+            case BOOLEAN -> new BooleanVector(name);
+            case STRING -> new StringVector(name, initial);
+            case DATE -> new DateVector(name, initial);
+            case DATETIME -> new DateTimeVector(name, initial);
+            default -> new ObjectVector(name, dataType, initial);
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataFile.ColumnDefinition.DataType getDataType() {
+        return dataType;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * Whether a null cell had no key in the row, as opposed to an explicit null value
+     */
+    public boolean isMissing(int row) {
+        return missing.get(row);
+    }
+
+    /**
+     * Whether a non-null cell could not be stored in the typed array
+     */
+    public boolean isExceptional(int row) {
+        return exceptional.get(row);
+    }
+
+    /**
+     * Whether a cell holds a typed (non-null, non-exceptional) value
+     */
+    public boolean isTyped(int row) {
+        return !nulls.get(row) && !exceptional.get(row);
+    }
+
+    public int getExceptionCount() {
+        return exceptions.size();
+    }
+
+    /**
+     * The cell value as it would appear in a row map
+     */
+    public Object get(int row) {
+        if (nulls.get(row)) {
+            return null;
+        }
+        if (exceptional.get(row)) {
+            return exceptions.get(row);
+        }
+        return typedValue(row);
+    }
+
+    /**
+     * Write a non-null cell value to a JSON generator
+     */
+    public void write(JsonGenerator generator, int row) throws IOException {
+        if (exceptional.get(row)) {
+            generator.writeObject(exceptions.get(row));
+        } else {
+            writeTyped(generator, row);
+        }
+    }
+
+    /**
+     * Rough heap footprint of the vector, used to bound table caches
+     */
+    public long estimatedBytes() {
+        return arrayBytes() + (nulls.size() + missing.size() + exceptional.size()) / 8
+                + exceptions.size() * 64L;
+    }
+
+    void append(Object value) {
+        int row = size++;
+        ensureCapacity(size);
+        if (value == null) {
+            nulls.set(row);
+        } else if (!appendTyped(row, value)) {
+            exceptional.set(row);
+            exceptions.put(row, value);
+        }
+    }
+
+    /**
+     * Append a cell whose key is absent from the row
+     */
+    void appendMissing() {
+        append(null);
+        missing.set(size - 1);
+    }
+
+    /**
+     * Shrink the arrays to the final size once all rows are appended
+     */
+    void trim() {
+        resize(size);
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = capacity();
+        if (required > capacity) {
+            resize(Math.max(required, capacity + (capacity >> 1)));
+        }
+    }
+
+    /**
+     * Box a whole number the way Jackson reads it: Integer when it fits, Long otherwise
+     */
+    private static Number boxIntegral(long value) {
+        if (value == (int) value) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    abstract int capacity();
+
+    abstract void resize(int capacity);
+
+    abstract long arrayBytes();
+
+    /**
+     * Store the value in the typed array, or return false when it is not in canonical form
+     */
+    abstract boolean appendTyped(int row, Object value);
+
+    abstract Object typedValue(int row);
+
+    abstract void writeTyped(JsonGenerator generator, int row) throws IOException;
+
+    /**
+     * INTEGER column: Integer/Long/Short/Byte values as long
+     */
+    public static final class LongVector extends ColumnVector {
+
+        private long[] values;
+
+        LongVector(String name, int capacity) {
+            super(name, DataFile.ColumnDefinition.DataType.INTEGER);
+            values = new long[capacity];
+        }
+
+        public long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        long arrayBytes() {
+            return values.length * 8L;
+        }
+
+        @Override
+        boolean appendTyped(int row, Object value) {
+            if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte) {
+                values[row] = ((Number) value).longValue();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Object typedValue(int row) {
+            return boxIntegral(values[row]);
+        }
+
+        @Override
+        void writeTyped(JsonGenerator generator, int row) throws IOException {
+            generator.writeNumber(values[row]);
+        }
+    }
+
+    /**
+     * DECIMAL column: floating point values as double; whole numbers remember that they were
+     * integral so they are written back without a fraction
+     */
+    public static final class DoubleVector extends ColumnVector {
+
+        private static final long MAX_EXACT = 1L << 53;
+
+        private double[] values;
+        private final BitSet integral = new BitSet();
+
+        DoubleVector(String name, int capacity) {
+            super(name, DataFile.ColumnDefinition.DataType.DECIMAL);
+            values = new double[capacity];
+        }
+
+        public double getDouble(int row) {
+            return values[row];
+        }
+
+        /**
+         * Whether a typed cell was a whole number
+         */
+        public boolean isIntegral(int row) {
+            return integral.get(row);
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        long arrayBytes() {
+            return values.length * 8L + integral.size() / 8;
+        }
+
+        @Override
+        boolean appendTyped(int row, Object value) {
+            if (value instanceof Double || value instanceof Float) {
+                values[row] = ((Number) value).doubleValue();
+                return true;
+            }
+            if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte) {
+                long whole = ((Number) value).longValue();
+                if (Math.abs(whole) > MAX_EXACT) {
+                    return false;
+                }
+                values[row] = whole;
+                integral.set(row);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Object typedValue(int row) {
+            if (integral.get(row)) {
+                return boxIntegral((long) values[row]);
+            }
+            return values[row];
+        }
+
+        @Override
+        void writeTyped(JsonGenerator generator, int row) throws IOException {
+            if (integral.get(row)) {
+                generator.writeNumber((long) values[row]);
+            } else {
+                generator.writeNumber(values[row]);
+            }
+        }
+    }
+
+    /**
+     * BOOLEAN column: values as a bitmap
+     */
+    public static final class BooleanVector extends ColumnVector {
+
+        private final BitSet values = new BitSet();
+        private int capacity = INITIAL_CAPACITY;
+
+        BooleanVector(String name) {
+            super(name, DataFile.ColumnDefinition.DataType.BOOLEAN);
+        }
+
+        public boolean getBoolean(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        int capacity() {
+            return capacity;
+        }
+
+        @Override
+        void resize(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        long arrayBytes() {
+            return values.size() / 8;
+        }
+
+        @Override
+        boolean appendTyped(int row, Object value) {
+            if (value instanceof Boolean bool) {
+                values.set(row, bool);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Object typedValue(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        void writeTyped(JsonGenerator generator, int row) throws IOException {
+            generator.writeBoolean(values.get(row));
+        }
+    }
+
+    /**
+     * STRING column: dictionary encoded, each distinct string is stored once and cells hold its
+     * code
+     */
+    public static final class StringVector extends ColumnVector {
+
+        private int[] codes;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+        private long dictionaryChars;
+
+        StringVector(String name, int capacity) {
+            super(name, DataFile.ColumnDefinition.DataType.STRING);
+            codes = new int[capacity];
+        }
+
+        /**
+         * Dictionary code of a typed cell
+         */
+        public int getCode(int row) {
+            return codes[row];
+        }
+
+        /**
+         * Code of a string in the dictionary, or -1 when no cell holds it
+         */
+        public int codeOf(String value) {
+            Integer code = dictionaryIndex.get(value);
+            return code != null ? code : -1;
+        }
+
+        public List<String> getDictionary() {
+            return Collections.unmodifiableList(dictionary);
+        }
+
+        public String getString(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        int capacity() {
+            return codes.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            codes = Arrays.copyOf(codes, capacity);
+        }
+
+        @Override
+        long arrayBytes() {
+            return codes.length * 4L + dictionary.size() * 80L + dictionaryChars * 2;
+        }
+
+        @Override
+        boolean appendTyped(int row, Object value) {
+            if (!(value instanceof String text)) {
+                return false;
+            }
+            Integer code = dictionaryIndex.get(text);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(text);
+                dictionaryIndex.put(text, code);
+                dictionaryChars += text.length();
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @Override
+        Object typedValue(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        void writeTyped(JsonGenerator generator, int row) throws IOException {
+            generator.writeString(dictionary.get(codes[row]));
+        }
+    }
+
+    /**
+     * DATE column: yyyy-MM-dd text as days since 1970-01-01
+     */
+    public static final class DateVector extends ColumnVector {
+
+        private int[] days;
+
+        DateVector(String name, int capacity) {
+            super(name, DataFile.ColumnDefinition.DataType.DATE);
+            days = new int[capacity];
+        }
+
+        public int getEpochDay(int row) {
+            return days[row];
+        }
+
+        @Override
+        int capacity() {
+            return days.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            days = Arrays.copyOf(days, capacity);
+        }
+
+        @Override
+        long arrayBytes() {
+            return days.length * 4L;
+        }
+
+        @Override
+        boolean appendTyped(int row, Object value) {
+            if (value instanceof String text) {
+                long epochDay = ValueParsers.parseEpochDay(text);
+                if (epochDay != ValueParsers.INVALID) {
+                    days[row] = (int) epochDay;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Object typedValue(int row) {
+            char[] buffer = new char[10];
+            return new String(buffer, 0, ValueParsers.formatEpochDay(days[row], buffer, 0));
+        }
+
+        @Override
+        void writeTyped(JsonGenerator generator, int row) throws IOException {
+            char[] buffer = new char[10];
+            generator.writeString(buffer, 0, ValueParsers.formatEpochDay(days[row], buffer, 0));
+        }
+    }
+
+    /**
+     * DATETIME column: yyyy-MM-ddTHH:mm:ss text (no fraction or offset) as epoch seconds; other
+     * accepted date-time forms are kept as exceptions so their text is preserved
+     */
+    public static final class DateTimeVector extends ColumnVector {
+
+        private static final int CANONICAL_LENGTH = 19;
+
+        private long[] seconds;
+
+        DateTimeVector(String name, int capacity) {
+            super(name, DataFile.ColumnDefinition.DataType.DATETIME);
+            seconds = new long[capacity];
+        }
+
+        public long getEpochSecond(int row) {
+            return seconds[row];
+        }
+
+        @Override
+        int capacity() {
+            return seconds.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            seconds = Arrays.copyOf(seconds, capacity);
+        }
+
+        @Override
+        long arrayBytes() {
+            return seconds.length * 8L;
+        }
+
+        @Override
+        boolean appendTyped(int row, Object value) {
+            if (value instanceof String text && text.length() == CANONICAL_LENGTH
+                    && text.charAt(10) == 'T') {
+                long millis = ValueParsers.parseEpochMillis(text);
+                if (millis != ValueParsers.INVALID) {
+                    seconds[row] = millis / 1000;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Object typedValue(int row) {
+            char[] buffer = new char[CANONICAL_LENGTH];
+            return new String(buffer, 0, ValueParsers.formatEpochSecond(seconds[row], buffer, 0));
+        }
+
+        @Override
+        void writeTyped(JsonGenerator generator, int row) throws IOException {
+            char[] buffer = new char[CANONICAL_LENGTH];
+            generator.writeString(buffer, 0,
+                    ValueParsers.formatEpochSecond(seconds[row], buffer, 0));
+        }
+    }
+
+    /**
+     * JSON columns and columns missing from the schema: values kept as objects
+     */
+    public static final class ObjectVector extends ColumnVector {
+
+        private Object[] values;
+
+        ObjectVector(String name, DataFile.ColumnDefinition.DataType dataType, int capacity) {
+            super(name, dataType);
+            values = new Object[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        long arrayBytes() {
+            return values.length * 48L;
+        }
+
+        @Override
+        boolean appendTyped(int row, Object value) {
+            values[row] = value;
+            return true;
+        }
+
+        @Override
+        Object typedValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void writeTyped(JsonGenerator generator, int row) throws IOException {
+            generator.writeObject(values[row]);
+        }
+    }
+}
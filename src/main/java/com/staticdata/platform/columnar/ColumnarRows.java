@@ -0,0 +1,118 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.staticdata.platform.entity.DataFile;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read access to rows stored column by column, either in heap vectors ({@link ColumnarTable}) or
+ * in a memory-mapped file ({@link ColumnarSnapshot}). Cells are addressed by column position and
+ * 0-based row index and written directly to JSON.
+ */
+public interface ColumnarRows {
+
+    int getRowCount();
+
+    int getColumnCount();
+
+    String columnName(int column);
+
+    /**
+     * Position of a column, or -1 when there is no such column
+     */
+    int columnIndex(String name);
+
+    /**
+     * Declared data type of a column (null for columns missing from the schema)
+     */
+    DataFile.ColumnDefinition.DataType getDataType(int column);
+
+    boolean isNull(int column, int row);
+
+    /**
+     * Whether a null cell had no key in the stored row, as opposed to an explicit JSON null
+     * (every null cell counts as missing where the two are not told apart)
+     */
+    default boolean isMissing(int column, int row) {
+        return isNull(column, row);
+    }
+
+    /**
+     * Whether a cell is held in the typed encoding of its column (false for null, exceptional
+     * and JSON cells); only then may the typed getters below be used
+     */
+    boolean isTyped(int column, int row);
+
+    /**
+     * Typed INTEGER value, DATE epoch day or DATETIME epoch second
+     */
+    long getLong(int column, int row);
+
+    /**
+     * Typed DECIMAL value
+     */
+    double getDouble(int column, int row);
+
+    boolean getBoolean(int column, int row);
+
+    /**
+     * Dictionary code of a typed STRING cell
+     */
+    int getCode(int column, int row);
+
+    int getDictionarySize(int column);
+
+    String getDictionaryValue(int column, int code);
+
+    /**
+     * Any non-null cell as it appears in a row map (boxes the value)
+     */
+    Object getValue(int column, int row);
+
+    /**
+     * Write a non-null cell value to a JSON generator
+     */
+    void writeCell(JsonGenerator generator, int column, int row) throws IOException;
+
+    /**
+     * A row as a map of the keys of the stored row (explicit nulls included), in column order
+     */
+    default Map<String, Object> row(int row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int column = 0; column < getColumnCount(); column++) {
+            if (!isMissing(column, row)) {
+                values.put(columnName(column),
+                        isNull(column, row) ? null : getValue(column, row));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Positions of some columns, skipping unknown names (all columns when null or empty)
+     */
+    default int[] columnIndexes(List<String> columnNames) {
+        if (columnNames == null || columnNames.isEmpty()) {
+            int[] all = new int[getColumnCount()];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        return columnNames.stream().mapToInt(this::columnIndex).filter(i -> i >= 0).toArray();
+    }
+
+    /**
+     * A serializable window of rows [from, to) restricted to some columns (all when null)
+     */
+    default RowWindow window(int from, int to, List<String> columnNames) {
+        int rowCount = getRowCount();
+        int start = Math.max(0, Math.min(from, rowCount));
+        return new RowWindow(this, columnIndexes(columnNames), start,
+                Math.max(start, Math.min(to, rowCount)));
+    }
+}
@@ -0,0 +1,544 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable binary snapshot of columnar rows, read through a memory-mapped file so that the
+ * operating system page cache is shared by all requests and no cell is parsed or turned into a
+ * Java object before it is written to JSON. The layout (big-endian) is:
+ * <pre>
+ * header     magic "SDPC", format version, row count, column count
+ * columns    per column: null bitmap, missing bitmap, exception bitmap, values, extra, blob,
+ *            exceptions
+ * directory  per column: name, data type, encoding and the offsets of its sections
+ * footer     offset of the directory
+ * </pre>
+ * Values use the encodings of the heap vectors (long, double, bitmap, dictionary codes, epoch
+ * days and seconds); variable-length data (dictionary strings, JSON cells, exceptional values)
+ * sits in blobs addressed through offset arrays. The missing bitmap marks the null cells whose
+ * key was absent from the row, so explicit JSON nulls are reproduced. Snapshots are limited to
+ * 2 GB; files of an older format version are refused so that they get rebuilt.
+ */
+public final class ColumnarSnapshot implements ColumnarRows {
+
+    static final int MAGIC = 0x53445043;
+    static final int VERSION = 2;
+
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte STRING = 4;
+    private static final byte DATE = 5;
+    private static final byte DATETIME = 6;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int FOOTER_SIZE = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final String[] names;
+    private final DataFile.ColumnDefinition.DataType[] types;
+    private final byte[] encodings;
+    private final int[] nullsAt;
+    private final int[] missingAt;
+    private final int[] exceptionalAt;
+    private final int[] valuesAt;
+    private final int[] extraAt;
+    private final int[] blobAt;
+    private final int[] exceptionsAt;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+
+    private ColumnarSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE + FOOTER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a columnar snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        rowCount = buffer.getInt(8);
+        int columnCount = buffer.getInt(12);
+        names = new String[columnCount];
+        types = new DataFile.ColumnDefinition.DataType[columnCount];
+        encodings = new byte[columnCount];
+        nullsAt = new int[columnCount];
+        missingAt = new int[columnCount];
+        exceptionalAt = new int[columnCount];
+        valuesAt = new int[columnCount];
+        extraAt = new int[columnCount];
+        blobAt = new int[columnCount];
+        exceptionsAt = new int[columnCount];
+
+        int pos = (int) buffer.getLong(buffer.capacity() - FOOTER_SIZE);
+        DataFile.ColumnDefinition.DataType[] dataTypes =
+                DataFile.ColumnDefinition.DataType.values();
+        for (int c = 0; c < columnCount; c++) {
+            byte[] name = new byte[buffer.getShort(pos) & 0xFFFF];
+            buffer.get(pos + 2, name);
+            pos += 2 + name.length;
+            names[c] = new String(name, StandardCharsets.UTF_8);
+            byte type = buffer.get(pos);
+            types[c] = type >= 0 ? dataTypes[type] : null;
+            encodings[c] = buffer.get(pos + 1);
+            nullsAt[c] = buffer.getInt(pos + 2);
+            missingAt[c] = buffer.getInt(pos + 6);
+            exceptionalAt[c] = buffer.getInt(pos + 10);
+            valuesAt[c] = buffer.getInt(pos + 14);
+            extraAt[c] = buffer.getInt(pos + 18);
+            blobAt[c] = buffer.getInt(pos + 22);
+            exceptionsAt[c] = buffer.getInt(pos + 26);
+            pos += 30;
+            columnIndex.put(names[c], c);
+        }
+    }
+
+    /**
+     * Map a snapshot file into memory; the mapping stays valid after the file is deleted
+     */
+    public static ColumnarSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot exceeds 2 GB: " + path);
+            }
+            return new ColumnarSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Write a table as a snapshot file
+     */
+    public static void write(ColumnarTable table, Path target, ObjectMapper objectMapper)
+            throws IOException {
+        List<ColumnVector> columns = table.getColumns();
+        int rowCount = table.getRowCount();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rowCount);
+            out.writeInt(columns.size());
+            int[][] sections = new int[columns.size()][];
+            for (int c = 0; c < columns.size(); c++) {
+                sections[c] = writeColumn(out, columns.get(c), rowCount, objectMapper);
+            }
+            long directoryAt = position(out);
+            for (int c = 0; c < columns.size(); c++) {
+                ColumnVector column = columns.get(c);
+                byte[] name = column.getName().getBytes(StandardCharsets.UTF_8);
+                if (name.length > 0xFFFF) {
+                    throw new IOException("Column name too long for a snapshot");
+                }
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeByte(column.getDataType() != null ? column.getDataType().ordinal() : -1);
+                out.writeByte(encoding(column));
+                for (int section : sections[c]) {
+                    out.writeInt(section);
+                }
+            }
+            out.writeLong(directoryAt);
+            position(out);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    @Override
+    public String columnName(int column) {
+        return names[column];
+    }
+
+    @Override
+    public DataFile.ColumnDefinition.DataType getDataType(int column) {
+        return types[column];
+    }
+
+    @Override
+    public int columnIndex(String name) {
+        Integer index = columnIndex.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Size of the mapped file in bytes
+     */
+    public int getSize() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public boolean isNull(int column, int row) {
+        return bit(nullsAt[column], row);
+    }
+
+    @Override
+    public boolean isMissing(int column, int row) {
+        return bit(missingAt[column], row);
+    }
+
+    @Override
+    public boolean isTyped(int column, int row) {
+        return encodings[column] != OBJECT && !bit(nullsAt[column], row)
+                && !bit(exceptionalAt[column], row);
+    }
+
+    @Override
+    public long getLong(int column, int row) {
+        if (encodings[column] == DATE) {
+            return buffer.getInt(valuesAt[column] + row * 4);
+        }
+        return buffer.getLong(valuesAt[column] + row * 8);
+    }
+
+    @Override
+    public double getDouble(int column, int row) {
+        return buffer.getDouble(valuesAt[column] + row * 8);
+    }
+
+    @Override
+    public boolean getBoolean(int column, int row) {
+        return bit(valuesAt[column], row);
+    }
+
+    @Override
+    public int getCode(int column, int row) {
+        return buffer.getInt(valuesAt[column] + row * 4);
+    }
+
+    @Override
+    public int getDictionarySize(int column) {
+        return encodings[column] == STRING ? buffer.getInt(extraAt[column]) : 0;
+    }
+
+    @Override
+    public String getDictionaryValue(int column, int code) {
+        int offsets = extraAt[column] + 4 + code * 4;
+        return text(blobAt[column] + buffer.getInt(offsets),
+                buffer.getInt(offsets + 4) - buffer.getInt(offsets));
+    }
+
+    @Override
+    public Object getValue(int column, int row) {
+        if (bit(nullsAt[column], row)) {
+            return null;
+        }
+        if (bit(exceptionalAt[column], row)) {
+            return json(exceptionValueAt(column, row));
+        }
+        int values = valuesAt[column];
+        return switch (encodings[column]) {
+            case LONG -> boxIntegral(buffer.getLong(values + row * 8));
+            case DOUBLE -> bit(extraAt[column], row)
+                    ? boxIntegral((long) buffer.getDouble(values + row * 8))
+                    : (Object) buffer.getDouble(values + row * 8);
+            case BOOLEAN -> bit(values, row);
+            case STRING -> getDictionaryValue(column, getCode(column, row));
+            case DATE -> {
+                char[] text = new char[10];
+                yield new String(text, 0,
+                        ValueParsers.formatEpochDay(getLong(column, row), text, 0));
+            }
+            case DATETIME -> {
+                char[] text = new char[19];
+                yield new String(text, 0,
+                        ValueParsers.formatEpochSecond(getLong(column, row), text, 0));
+            }
+            default -> {
+                int start = buffer.getInt(values + row * 4);
+                yield json(new int[] {blobAt[column] + start,
+                        buffer.getInt(values + row * 4 + 4) - start});
+            }
+        };
+    }
+
+    @Override
+    public void writeCell(JsonGenerator generator, int column, int row) throws IOException {
+        if (bit(exceptionalAt[column], row)) {
+            int[] range = exceptionValueAt(column, row);
+            writeRaw(generator, range[0], range[1]);
+            return;
+        }
+        int values = valuesAt[column];
+        switch (encodings[column]) {
+            case LONG -> generator.writeNumber(buffer.getLong(values + row * 8));
+            case DOUBLE -> {
+                double value = buffer.getDouble(values + row * 8);
+                if (bit(extraAt[column], row)) {
+                    generator.writeNumber((long) value);
+                } else {
+                    generator.writeNumber(value);
+                }
+            }
+            case BOOLEAN -> generator.writeBoolean(bit(values, row));
+            case STRING -> {
+                int offsets = extraAt[column] + 4 + buffer.getInt(values + row * 4) * 4;
+                writeUtf8(generator, blobAt[column] + buffer.getInt(offsets),
+                        buffer.getInt(offsets + 4) - buffer.getInt(offsets));
+            }
+            case DATE -> {
+                char[] text = new char[10];
+                generator.writeString(text, 0,
+                        ValueParsers.formatEpochDay(buffer.getInt(values + row * 4), text, 0));
+            }
+            case DATETIME -> {
+                char[] text = new char[19];
+                generator.writeString(text, 0,
+                        ValueParsers.formatEpochSecond(buffer.getLong(values + row * 8), text, 0));
+            }
+            default -> {
+                int start = buffer.getInt(values + row * 4);
+                writeRaw(generator, blobAt[column] + start,
+                        buffer.getInt(values + row * 4 + 4) - start);
+            }
+        }
+    }
+
+    /**
+     * Position and length of the JSON text of an exceptional cell
+     */
+    private int[] exceptionValueAt(int column, int row) {
+        int table = exceptionsAt[column];
+        int count = buffer.getInt(table);
+        int rows = table + 4;
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = buffer.getInt(rows + middle * 4);
+            if (value < row) {
+                low = middle + 1;
+            } else if (value > row) {
+                high = middle - 1;
+            } else {
+                int offsets = rows + count * 4 + middle * 4;
+                int blob = rows + count * 4 + (count + 1) * 4;
+                return new int[] {blob + buffer.getInt(offsets),
+                        buffer.getInt(offsets + 4) - buffer.getInt(offsets)};
+            }
+        }
+        throw new IllegalStateException("Corrupted snapshot: no exception value for row " + row
+                + " of column " + names[column]);
+    }
+
+    private void writeUtf8(JsonGenerator generator, int position, int length) throws IOException {
+        byte[] bytes = scratch(length);
+        buffer.get(position, bytes, 0, length);
+        if (generator instanceof UTF8JsonGenerator) {
+            // Byte based output (HTTP responses) copies the bytes without decoding them
+            generator.writeUTF8String(bytes, 0, length);
+        } else {
+            generator.writeString(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeRaw(JsonGenerator generator, int position, int length) throws IOException {
+        generator.writeRawValue(text(position, length));
+    }
+
+    private String text(int position, int length) {
+        byte[] bytes = scratch(length);
+        buffer.get(position, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private Object json(int[] range) {
+        try {
+            return JSON.readValue(text(range[0], range[1]), Object.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                    "Corrupted snapshot value: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static Number boxIntegral(long value) {
+        if (value == (int) value) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    private boolean bit(int bitmap, int row) {
+        return (buffer.getLong(bitmap + (row >>> 6) * 8) >>> (row & 63) & 1L) != 0;
+    }
+
+    private static byte[] scratch(int length) {
+        byte[] bytes = SCRATCH.get();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+            SCRATCH.set(bytes);
+        }
+        return bytes;
+    }
+
+    private static byte encoding(ColumnVector column) {
+        if (column instanceof ColumnVector.LongVector) {
+            return LONG;
+        } else if (column instanceof ColumnVector.DoubleVector) {
+            return DOUBLE;
+        } else if (column instanceof ColumnVector.BooleanVector) {
+            return BOOLEAN;
+        } else if (column instanceof ColumnVector.StringVector) {
+            return STRING;
+        } else if (column instanceof ColumnVector.DateVector) {
+            return DATE;
+        } else if (column instanceof ColumnVector.DateTimeVector) {
+            return DATETIME;
+        }
+        return OBJECT;
+    }
+
+    /**
+     * Write the sections of one column, returning their offsets
+     */
+    private static int[] writeColumn(DataOutputStream out, ColumnVector column, int rowCount,
+            ObjectMapper objectMapper) throws IOException {
+        int nulls = position(out);
+        writeBitmap(out, rowCount, column::isNull);
+        int missing = position(out);
+        writeBitmap(out, rowCount, column::isMissing);
+        int exceptional = position(out);
+        writeBitmap(out, rowCount, column::isExceptional);
+        int values = position(out);
+        int extra = -1;
+        int blob = -1;
+
+        if (column instanceof ColumnVector.LongVector longs) {
+            for (int row = 0; row < rowCount; row++) {
+                out.writeLong(longs.isTyped(row) ? longs.getLong(row) : 0L);
+            }
+        } else if (column instanceof ColumnVector.DoubleVector doubles) {
+            for (int row = 0; row < rowCount; row++) {
+                out.writeDouble(doubles.isTyped(row) ? doubles.getDouble(row) : 0d);
+            }
+            extra = position(out);
+            writeBitmap(out, rowCount, row -> doubles.isTyped(row) && doubles.isIntegral(row));
+        } else if (column instanceof ColumnVector.BooleanVector booleans) {
+            writeBitmap(out, rowCount, row -> booleans.isTyped(row) && booleans.getBoolean(row));
+        } else if (column instanceof ColumnVector.StringVector strings) {
+            for (int row = 0; row < rowCount; row++) {
+                out.writeInt(strings.isTyped(row) ? strings.getCode(row) : -1);
+            }
+            List<byte[]> dictionary = new ArrayList<>(strings.getDictionary().size());
+            for (String value : strings.getDictionary()) {
+                dictionary.add(value.getBytes(StandardCharsets.UTF_8));
+            }
+            extra = position(out);
+            out.writeInt(dictionary.size());
+            writeOffsets(out, dictionary);
+            blob = position(out);
+            writeBlob(out, dictionary);
+        } else if (column instanceof ColumnVector.DateVector dates) {
+            for (int row = 0; row < rowCount; row++) {
+                out.writeInt(dates.isTyped(row) ? dates.getEpochDay(row) : 0);
+            }
+        } else if (column instanceof ColumnVector.DateTimeVector dateTimes) {
+            for (int row = 0; row < rowCount; row++) {
+                out.writeLong(dateTimes.isTyped(row) ? dateTimes.getEpochSecond(row) : 0L);
+            }
+        } else {
+            List<byte[]> cells = new ArrayList<>(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                cells.add(column.isNull(row) ? new byte[0]
+                        : objectMapper.writeValueAsBytes(column.get(row)));
+            }
+            writeOffsets(out, cells);
+            blob = position(out);
+            writeBlob(out, cells);
+        }
+
+        int exceptions = position(out);
+        List<Integer> rows = new ArrayList<>(column.getExceptionCount());
+        List<byte[]> exceptionValues = new ArrayList<>(column.getExceptionCount());
+        for (int row = 0; row < rowCount && rows.size() < column.getExceptionCount(); row++) {
+            if (column.isExceptional(row)) {
+                rows.add(row);
+                exceptionValues.add(objectMapper.writeValueAsBytes(column.get(row)));
+            }
+        }
+        out.writeInt(rows.size());
+        for (int row : rows) {
+            out.writeInt(row);
+        }
+        writeOffsets(out, exceptionValues);
+        writeBlob(out, exceptionValues);
+        return new int[] {nulls, missing, exceptional, values, extra, blob, exceptions};
+    }
+
+    private static void writeBitmap(DataOutputStream out, int rowCount, IntPredicate set)
+            throws IOException {
+        for (int base = 0; base < rowCount; base += 64) {
+            long word = 0;
+            for (int bit = 0; bit < 64 && base + bit < rowCount; bit++) {
+                if (set.test(base + bit)) {
+                    word |= 1L << bit;
+                }
+            }
+            out.writeLong(word);
+        }
+        // Keep a readable word for tables without rows
+        if (rowCount == 0) {
+            out.writeLong(0L);
+        }
+    }
+
+    private static void writeOffsets(DataOutputStream out, List<byte[]> values) throws IOException {
+        long offset = 0;
+        out.writeInt(0);
+        for (byte[] value : values) {
+            offset += value.length;
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot exceeds 2 GB");
+            }
+            out.writeInt((int) offset);
+        }
+    }
+
+    private static void writeBlob(DataOutputStream out, List<byte[]> values) throws IOException {
+        for (byte[] value : values) {
+            out.write(value);
+        }
+    }
+
+    /**
+     * Current file offset; DataOutputStream stops counting at Integer.MAX_VALUE
+     */
+    private static int position(DataOutputStream out) throws IOException {
+        if (out.size() == Integer.MAX_VALUE) {
+            throw new IOException("Snapshot exceeds 2 GB");
+        }
+        return out.size();
+    }
+}
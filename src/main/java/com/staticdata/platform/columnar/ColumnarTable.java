@@ -0,0 +1,244 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.RowSink;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory rows of a data file in columnar form: one typed {@link ColumnVector} per
+ * column instead of one map per row, so cells are primitives without per-cell keys or boxes.
+ * Columns follow the column definitions; keys found in rows but not defined are appended as
+ * object columns.
+ */
+public final class ColumnarTable implements ColumnarRows {
+
+    private final List<ColumnVector> columns;
+    private final Map<String, Integer> columnIndex;
+    private final int rowCount;
+
+    private ColumnarTable(List<ColumnVector> columns, Map<String, Integer> columnIndex,
+            int rowCount) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.columnIndex = columnIndex;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Start building a table for the given column definitions
+     */
+    public static Builder builder(List<DataFile.ColumnDefinition> columnDefinitions,
+            int expectedRows) {
+        return new Builder(columnDefinitions, expectedRows);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    public List<ColumnVector> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public String columnName(int column) {
+        return columns.get(column).getName();
+    }
+
+    @Override
+    public boolean isNull(int column, int row) {
+        return columns.get(column).isNull(row);
+    }
+
+    @Override
+    public boolean isMissing(int column, int row) {
+        return columns.get(column).isMissing(row);
+    }
+
+    @Override
+    public DataFile.ColumnDefinition.DataType getDataType(int column) {
+        return columns.get(column).getDataType();
+    }
+
+    @Override
+    public boolean isTyped(int column, int row) {
+        ColumnVector vector = columns.get(column);
+        return !(vector instanceof ColumnVector.ObjectVector) && vector.isTyped(row);
+    }
+
+    @Override
+    public long getLong(int column, int row) {
+        ColumnVector vector = columns.get(column);
+        if (vector instanceof ColumnVector.DateVector dates) {
+            return dates.getEpochDay(row);
+        } else if (vector instanceof ColumnVector.DateTimeVector dateTimes) {
+            return dateTimes.getEpochSecond(row);
+        }
+        return ((ColumnVector.LongVector) vector).getLong(row);
+    }
+
+    @Override
+    public double getDouble(int column, int row) {
+        return ((ColumnVector.DoubleVector) columns.get(column)).getDouble(row);
+    }
+
+    @Override
+    public boolean getBoolean(int column, int row) {
+        return ((ColumnVector.BooleanVector) columns.get(column)).getBoolean(row);
+    }
+
+    @Override
+    public int getCode(int column, int row) {
+        return ((ColumnVector.StringVector) columns.get(column)).getCode(row);
+    }
+
+    @Override
+    public int getDictionarySize(int column) {
+        return columns.get(column) instanceof ColumnVector.StringVector strings
+                ? strings.getDictionary().size() : 0;
+    }
+
+    @Override
+    public String getDictionaryValue(int column, int code) {
+        return ((ColumnVector.StringVector) columns.get(column)).getDictionary().get(code);
+    }
+
+    @Override
+    public Object getValue(int column, int row) {
+        return columns.get(column).get(row);
+    }
+
+    @Override
+    public void writeCell(JsonGenerator generator, int column, int row) throws IOException {
+        columns.get(column).write(generator, row);
+    }
+
+    @Override
+    public int columnIndex(String name) {
+        Integer index = columnIndex.get(name);
+        return index != null ? index : -1;
+    }
+
+    public ColumnVector column(String name) {
+        Integer index = columnIndex.get(name);
+        return index != null ? columns.get(index) : null;
+    }
+
+    /**
+     * Rebuild one row as a map (keys absent from the stored row are left out, explicit nulls
+     * are kept)
+     */
+    @Override
+    public Map<String, Object> row(int row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ColumnVector column : columns) {
+            if (!column.isMissing(row)) {
+                values.put(column.getName(), column.get(row));
+            }
+        }
+        return values;
+    }
+
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (ColumnVector column : columns) {
+            bytes += column.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Appends rows column by column; use as the sink of a row stream, then call {@link #build()}
+     */
+    public static final class Builder implements RowSink {
+
+        private final List<ColumnVector> columns = new ArrayList<>();
+        private final Map<String, Integer> columnIndex = new HashMap<>();
+        private final int definedColumns;
+        private int rowCount;
+
+        private Builder(List<DataFile.ColumnDefinition> columnDefinitions, int expectedRows) {
+            if (columnDefinitions != null) {
+                for (DataFile.ColumnDefinition definition : columnDefinitions) {
+                    if (definition.getName() != null
+                            && !columnIndex.containsKey(definition.getName())) {
+                        columnIndex.put(definition.getName(), columns.size());
+                        columns.add(ColumnVector.forType(definition.getName(),
+                                definition.getDataType(), expectedRows));
+                    }
+                }
+            }
+            definedColumns = columns.size();
+        }
+
+        @Override
+        public void accept(Map<String, Object> row) {
+            int matched = 0;
+            for (int i = 0; i < definedColumns; i++) {
+                ColumnVector column = columns.get(i);
+                Object value = row.get(column.getName());
+                if (value != null || row.containsKey(column.getName())) {
+                    matched++;
+                    column.append(value);
+                } else {
+                    column.appendMissing();
+                }
+            }
+            if (row.size() > matched) {
+                appendUndefined(row);
+            }
+            rowCount++;
+            // Undefined columns missing from this row
+            for (int i = definedColumns; i < columns.size(); i++) {
+                if (columns.get(i).size() < rowCount) {
+                    columns.get(i).appendMissing();
+                }
+            }
+        }
+
+        private void appendUndefined(Map<String, Object> row) {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                Integer index = columnIndex.get(entry.getKey());
+                if (index != null && index < definedColumns) {
+                    continue;
+                }
+                ColumnVector column;
+                if (index == null) {
+                    columnIndex.put(entry.getKey(), columns.size());
+                    column = ColumnVector.forType(entry.getKey(), null, 0);
+                    columns.add(column);
+                    for (int i = 0; i < rowCount; i++) {
+                        column.appendMissing();
+                    }
+                } else {
+                    column = columns.get(index);
+                }
+                column.append(entry.getValue());
+            }
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public ColumnarTable build() {
+            for (ColumnVector column : columns) {
+                column.trim();
+            }
+            return new ColumnarTable(columns, Map.copyOf(columnIndex), rowCount);
+        }
+    }
+}
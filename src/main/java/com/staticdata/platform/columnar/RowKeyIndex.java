@@ -0,0 +1,109 @@
+package com.staticdata.platform.columnar;
+
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.math.BigDecimal;
+
+/**
+ * Hash index from the values of a key column to row positions. The open-addressing table holds
+ * only row numbers (4 bytes per slot, at most half full); keys are read back from the columns
+ * to resolve collisions, so the index adds no copy of the key values. Numbers are keyed by
+ * their canonical decimal text, so "42", "42.0" and 42 find the same row.
+ */
+public final class RowKeyIndex {
+
+    private final ColumnarRows rows;
+    private final int column;
+    private final boolean numeric;
+    private final int[] slots;
+    private final int mask;
+    private final int size;
+    private final int duplicates;
+
+    private RowKeyIndex(ColumnarRows rows, int column) {
+        this.rows = rows;
+        this.column = column;
+        DataFile.ColumnDefinition.DataType type = rows.getDataType(column);
+        this.numeric = type == DataFile.ColumnDefinition.DataType.INTEGER
+                || type == DataFile.ColumnDefinition.DataType.DECIMAL;
+        int capacity = Integer.highestOneBit(Math.max(2, rows.getRowCount()) * 2 - 1) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        int indexed = 0;
+        int duplicated = 0;
+        for (int row = 0; row < rows.getRowCount(); row++) {
+            String key = keyAt(row);
+            if (key == null) {
+                continue;
+            }
+            int slot = find(key);
+            if (slots[slot] != 0) {
+                // The first row with a key wins
+                duplicated++;
+            } else {
+                slots[slot] = row + 1;
+                indexed++;
+            }
+        }
+        this.size = indexed;
+        this.duplicates = duplicated;
+    }
+
+    /**
+     * Index the non-null scalar cells of a column
+     */
+    public static RowKeyIndex build(ColumnarRows rows, String keyColumn) {
+        int column = rows.columnIndex(keyColumn);
+        if (column < 0) {
+            throw new IllegalArgumentException("Unknown key column: " + keyColumn);
+        }
+        return new RowKeyIndex(rows, column);
+    }
+
+    /**
+     * Row position of a key given as text, or -1 when no row has it
+     */
+    public int lookup(String value) {
+        String key = numeric && ValueParsers.isDecimal(value.trim())
+                ? ValueParsers.canonicalText(new BigDecimal(value.trim())) : value;
+        return slots[find(key)] - 1;
+    }
+
+    public ColumnarRows getRows() {
+        return rows;
+    }
+
+    /**
+     * Number of distinct keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows whose key was already taken by an earlier row
+     */
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it belongs
+     */
+    private int find(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (slots[slot] != 0 && !key.equals(keyAt(slots[slot] - 1))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private String keyAt(int row) {
+        if (rows.isNull(column, row)) {
+            return null;
+        }
+        return ValueParsers.canonicalText(rows.getValue(column, row));
+    }
+}
@@ -0,0 +1,39 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Arbitrary rows of columnar rows (for example the matches of a query, in sort order)
+ * restricted to some columns. Serialized like {@link RowWindow}.
+ */
+@JsonSerialize(using = RowSelection.Serializer.class)
+public record RowSelection(ColumnarRows source, int[] columns, int[] rows) {
+
+    public int size() {
+        return rows.length;
+    }
+
+    static final class Serializer extends StdSerializer<RowSelection> {
+
+        Serializer() {
+            super(RowSelection.class);
+        }
+
+        @Override
+        public void serialize(RowSelection selection, JsonGenerator generator,
+                SerializerProvider provider) throws IOException {
+            String[] names = RowWindow.Serializer.names(selection.source(), selection.columns());
+            generator.writeStartArray(selection, selection.size());
+            for (int row : selection.rows()) {
+                RowWindow.Serializer.writeRow(generator, selection.source(), selection.columns(),
+                        names, row);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
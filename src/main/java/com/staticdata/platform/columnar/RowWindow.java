@@ -0,0 +1,66 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Rows [from, to) of columnar rows restricted to some columns. Serialized as a JSON array of
+ * row objects written straight from the columns, without building row maps.
+ */
+@JsonSerialize(using = RowWindow.Serializer.class)
+public record RowWindow(ColumnarRows source, int[] columns, int from, int to) {
+
+    public int size() {
+        return to - from;
+    }
+
+    static final class Serializer extends StdSerializer<RowWindow> {
+
+        Serializer() {
+            super(RowWindow.class);
+        }
+
+        @Override
+        public void serialize(RowWindow window, JsonGenerator generator,
+                SerializerProvider provider) throws IOException {
+            String[] names = names(window.source(), window.columns());
+            generator.writeStartArray(window, window.size());
+            for (int row = window.from(); row < window.to(); row++) {
+                writeRow(generator, window.source(), window.columns(), names, row);
+            }
+            generator.writeEndArray();
+        }
+
+        static String[] names(ColumnarRows source, int[] columns) {
+            String[] names = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                names[i] = source.columnName(columns[i]);
+            }
+            return names;
+        }
+
+        /**
+         * Write one row as a JSON object, omitting cells whose key is absent from the stored row
+         */
+        static void writeRow(JsonGenerator generator, ColumnarRows source, int[] columns,
+                String[] names, int row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                if (source.isMissing(columns[i], row)) {
+                    continue;
+                }
+                generator.writeFieldName(names[i]);
+                if (source.isNull(columns[i], row)) {
+                    generator.writeNull();
+                } else {
+                    source.writeCell(generator, columns[i], row);
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
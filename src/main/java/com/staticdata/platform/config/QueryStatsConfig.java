@@ -0,0 +1,35 @@
+package com.staticdata.platform.config;
+
+import com.staticdata.platform.querystats.QueryCountingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL counting configuration: wraps the data source so that all JDBC work is
+ * counted, see QueryStatsFilter
+ */
+@Configuration
+public class QueryStatsConfig {
+
+    /**
+     * Static, as bean post processors are created before the other beans
+     */
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor(
+            @Value("${app.query-stats.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource
+                        && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.staticdata.platform.controller;
+
+import com.staticdata.platform.dto.AuditLogPageDto;
+import com.staticdata.platform.dto.AuditLogQuery;
+import com.staticdata.platform.service.AuditService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Audit Log Controller Handles audit log queries of administrators
+ */
+@RestController
+@RequestMapping("/admin/audit")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Audit Logs", description = "Audit log query related APIs")
+public class AdminAuditController {
+
+    private final AuditService auditService;
+
+    /**
+     * Query audit logs
+     */
+    @GetMapping
+    @Operation(summary = "Query audit logs",
+            description = "Get audit logs matching the filters, newest first. Pass the returned "
+                    + "cursor to get the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AuditLogPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filters or cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditLogPageDto> queryAuditLogs(
+            @Valid @ModelAttribute AuditLogQuery query) {
+
+        log.info("Querying audit logs: {}", query);
+
+        return ResponseEntity.ok(auditService.queryAuditLogs(query));
+    }
+}
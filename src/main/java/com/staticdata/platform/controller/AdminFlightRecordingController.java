@@ -0,0 +1,152 @@
+package com.staticdata.platform.controller;
+
+import com.staticdata.platform.dto.FlightRecordingDto;
+import com.staticdata.platform.service.FlightRecordingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Flight Recording Controller Handles on-demand JDK Flight Recorder recordings of
+ * administrators
+ */
+@RestController
+@RequestMapping("/admin/jfr")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Flight Recordings", description = "On-demand JDK Flight Recorder profiling APIs")
+public class AdminFlightRecordingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    /**
+     * Get recording state
+     */
+    @GetMapping
+    @Operation(summary = "Get flight recording", description = "Get the state of the recording")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retrieved successfully",
+                    content = @Content(schema = @Schema(
+                            implementation = FlightRecordingDto.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FlightRecordingDto> getRecording() {
+        return ResponseEntity.ok(flightRecordingService.getStatus());
+    }
+
+    /**
+     * Start recording
+     */
+    @PostMapping("/start")
+    @Operation(summary = "Start flight recording",
+            description = "Start a recording bounded by the configured maximum age and size, "
+                    + "replacing the previous stopped recording")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Started successfully",
+                    content = @Content(schema = @Schema(
+                            implementation = FlightRecordingDto.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Already running or invalid settings"),
+            @ApiResponse(responseCode = "401", description = "Unauthenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FlightRecordingDto> startRecording(
+            @Parameter(description = "Recording settings: default or profile")
+            @RequestParam(required = false) String settings) {
+
+        log.info("Starting flight recording with settings: {}", settings);
+
+        return ResponseEntity.ok(flightRecordingService.start(settings));
+    }
+
+    /**
+     * Stop recording
+     */
+    @PostMapping("/stop")
+    @Operation(summary = "Stop flight recording",
+            description = "Stop the running recording, keeping its data for download")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stopped successfully",
+                    content = @Content(schema = @Schema(
+                            implementation = FlightRecordingDto.class))),
+            @ApiResponse(responseCode = "400", description = "No recording is running"),
+            @ApiResponse(responseCode = "401", description = "Unauthenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FlightRecordingDto> stopRecording() {
+
+        log.info("Stopping flight recording");
+
+        return ResponseEntity.ok(flightRecordingService.stop());
+    }
+
+    /**
+     * Download recording
+     */
+    @GetMapping("/download")
+    @Operation(summary = "Download flight recording",
+            description = "Download the recorded data as a .jfr file, to be opened with JDK "
+                    + "Mission Control or the jfr tool. A running recording keeps running")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording file"),
+            @ApiResponse(responseCode = "401", description = "Unauthenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+            @ApiResponse(responseCode = "404", description = "No recording has been started")})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadRecording() {
+        Path file = flightRecordingService.dump();
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        }
+        log.info("Downloading flight recording of {} bytes", size);
+
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                deleteQuietly(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete flight recording dump {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.staticdata.platform.controller;
+
+import com.staticdata.platform.dto.UsageReportDto;
+import com.staticdata.platform.service.ApiUsageAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * API Usage Controller Handles usage analytics requests of administrators
+ */
+@RestController
+@RequestMapping("/admin/usage")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "API Usage", description = "API usage analytics related APIs")
+public class AdminUsageController {
+
+    private final ApiUsageAnalyticsService apiUsageAnalyticsService;
+
+    /**
+     * Get usage percentiles, throughput and error rates over a time range
+     */
+    @GetMapping
+    @Operation(summary = "Get API usage",
+            description = "Get latency percentiles, throughput and error rates per endpoint "
+                    + "over a time range (default: the last hour)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = UsageReportDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid time range"),
+            @ApiResponse(responseCode = "401", description = "Unauthenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UsageReportDto> getUsage(
+            @Parameter(description = "Start of the range, e.g. 2024-01-01T00:00:00") @RequestParam(
+                    required = false) @DateTimeFormat(
+                            iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the range (exclusive), default now") @RequestParam(
+                    required = false) @DateTimeFormat(
+                            iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Route pattern, e.g. /data-files/{id}") @RequestParam(
+                    required = false) String path,
+            @Parameter(description = "HTTP method") @RequestParam(
+                    required = false) String method) {
+
+        log.info("Getting API usage from {} to {}", from, to);
+
+        return ResponseEntity.ok(apiUsageAnalyticsService.getReport(from, to, path,
+                method != null ? method.toUpperCase() : null));
+    }
+}
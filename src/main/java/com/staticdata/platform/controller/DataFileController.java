@@ -2,7 +2,17 @@ package com.staticdata.platform.controller;
 
 import com.staticdata.platform.dto.*;
 import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.ExportFormat;
+import com.staticdata.platform.export.RangeFileResponder;
+import com.staticdata.platform.service.ChunkedUploadService;
+import com.staticdata.platform.service.DataFileExportService;
+import com.staticdata.platform.service.DataFileGeneratorService;
+import com.staticdata.platform.service.DataFileImportService;
+import com.staticdata.platform.service.DataFileJoinService;
 import com.staticdata.platform.service.DataFileService;
+import com.staticdata.platform.service.ExportJobService;
+import com.staticdata.platform.service.RowQueryService;
+import com.staticdata.platform.service.SqlQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,13 +20,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import java.util.List;
 import java.util.Map;
@@ -29,6 +49,14 @@ import java.util.Map;
 public class DataFileController {
 
         private final DataFileService dataFileService;
+        private final DataFileImportService dataFileImportService;
+        private final DataFileExportService dataFileExportService;
+        private final DataFileJoinService dataFileJoinService;
+        private final DataFileGeneratorService dataFileGeneratorService;
+        private final ExportJobService exportJobService;
+        private final ChunkedUploadService chunkedUploadService;
+        private final RowQueryService rowQueryService;
+        private final SqlQueryService sqlQueryService;
 
         @PostMapping
         @Operation(summary = "Create data file",
@@ -50,6 +78,48 @@ public class DataFileController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(newDataFile);
         }
 
+        @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Create data file (streamed)",
+                        description = "Create a data file from a large JSON body. Same body as create, but dataRows is parsed row by row, validated against the column definitions and stored in batches. dataRows must be the last field")
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+                        content = @Content(schema = @Schema(
+                                        implementation = CreateDataFileRequest.class)))
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201",
+                                        description = "Data file created successfully",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = DataFileDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid request body, invalid row or business logic error"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Organization node does not exist")})
+        public ResponseEntity<DataFileDto> createDataFileStreamed(HttpServletRequest request)
+                        throws IOException {
+                log.info("Received request to create data file from streamed body ({} bytes)",
+                                request.getContentLengthLong());
+                DataFileDto newDataFile = dataFileService.createDataFile(request.getInputStream());
+                return ResponseEntity.status(HttpStatus.CREATED).body(newDataFile);
+        }
+
+        @PostMapping(value = "/import/xlsx", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        @Operation(summary = "Import XLSX workbook",
+                        description = "Stream an XLSX workbook into new data files, one per sheet. The first row of each sheet is used as header and column types are inferred")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201",
+                                        description = "Workbook imported, see per-sheet results"),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid workbook or business logic error"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Organization node does not exist")})
+        public ResponseEntity<List<DataFileImportResult>> importXlsx(
+                        @Parameter(description = "XLSX workbook",
+                                        required = true) @RequestParam("file") MultipartFile file,
+                        @Valid @ModelAttribute DataFileImportRequest request) {
+                log.info("Received request to import XLSX workbook: {}", file.getOriginalFilename());
+                List<DataFileImportResult> results = dataFileImportService.importXlsx(file, request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(results);
+        }
+
         @PutMapping("/{id}")
         @Operation(summary = "Update data file",
                         description = "Update data file information by specified ID")
@@ -72,6 +142,30 @@ public class DataFileController {
                 return ResponseEntity.ok(updatedDataFile);
         }
 
+        @PutMapping(value = "/{id}/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Update data file (streamed)",
+                        description = "Update a data file from a large JSON body. Same body as update; dataRows, when present, replaces all rows and is parsed row by row. dataRows must be the last field")
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+                        content = @Content(schema = @Schema(
+                                        implementation = UpdateDataFileRequest.class)))
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Data file updated successfully",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = DataFileDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid request body, invalid row or business logic error"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<DataFileDto> updateDataFileStreamed(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        HttpServletRequest request) throws IOException {
+                log.info("Received request to update data file with ID: {} from streamed body", id);
+                DataFileDto updatedDataFile = dataFileService.updateDataFile(id, request.getInputStream());
+                return ResponseEntity.ok(updatedDataFile);
+        }
+
         @DeleteMapping("/{id}")
         @Operation(summary = "Delete data file", description = "Delete data file by specified ID")
         @ApiResponses(value = {
@@ -106,6 +200,382 @@ public class DataFileController {
                 return ResponseEntity.ok(dataFile);
         }
 
+        @GetMapping("/{id}/rows")
+        @Operation(summary = "Get data rows",
+                        description = "Get a window of rows of a data file, optionally restricted to some columns")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Successfully retrieved data rows",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = DataRowsDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid window or unknown column"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<DataRowsDto> getDataRows(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Parameter(description = "Index of the first row (0-based)")
+                        @RequestParam(defaultValue = "0") int offset,
+                        @Parameter(description = "Maximum number of rows")
+                        @RequestParam(defaultValue = "100") int limit,
+                        @Parameter(description = "Columns to return (all when omitted)")
+                        @RequestParam(required = false) List<String> columns) {
+                log.info("Received request to get rows {}+{} of data file: {}", offset, limit, id);
+                return ResponseEntity.ok(dataFileService.getDataRows(id, offset, limit, columns));
+        }
+
+        @GetMapping("/{id}/columns/stats")
+        @Operation(summary = "Get column statistics",
+                        description = "Get null counts, min/max, distinct estimates, frequent values and average text length per column")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Successfully retrieved column statistics",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = ColumnStatsDto.class))),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<ColumnStatsDto> getColumnStats(@Parameter(description = "Data file ID",
+                        required = true) @PathVariable Long id) {
+                log.info("Received request to get column statistics of data file: {}", id);
+                return ResponseEntity.ok(dataFileService.getColumnStats(id));
+        }
+
+        @GetMapping("/{id}/rows/by-key/{key}")
+        @Operation(summary = "Get data row by key",
+                        description = "Look up the row whose key column holds a value through the file's key index")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Successfully retrieved data row",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = DataRowDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Data file has no key column"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file or row does not exist")})
+        public ResponseEntity<DataRowDto> getDataRowByKey(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Parameter(description = "Key value",
+                                        required = true) @PathVariable String key) {
+                log.info("Received request to get row with key {} of data file: {}", key, id);
+                return ResponseEntity.ok(dataFileService.getDataRowByKey(id, key));
+        }
+
+        @PostMapping("/{id}/rows/query")
+        @Operation(summary = "Query data rows",
+                        description = "Filter, project, sort and page the rows of a data file; continue with the returned cursor")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Successfully queried data rows",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = RowQueryResult.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid filter, limit or cursor"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<RowQueryResult> queryDataRows(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Valid @RequestBody RowQueryRequest request) {
+                log.info("Received request to query rows of data file: {}", id);
+                return ResponseEntity.ok(rowQueryService.query(id, request));
+        }
+
+        @PostMapping("/{id}/rows/aggregate")
+        @Operation(summary = "Aggregate data rows",
+                        description = "Group the rows of a data file matching the filters and compute COUNT, SUM, AVG, MIN or MAX per group")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Successfully aggregated data rows",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = RowAggregateResult.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid filter, aggregate or limit"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<RowAggregateResult> aggregateDataRows(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Valid @RequestBody RowAggregateRequest request) {
+                log.info("Received request to aggregate rows of data file: {}", id);
+                return ResponseEntity.ok(rowQueryService.aggregate(id, request));
+        }
+
+        @PostMapping("/{id}/rows/generate")
+        @Operation(summary = "Generate data rows",
+                        description = "Replace all rows of a data file with synthetic rows generated from its column definitions and the given per-column generators. The same seed always gives the same rows")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Successfully generated data rows",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = DataFileDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid generator or too many rows"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<DataFileDto> generateDataRows(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Valid @RequestBody RowGenerateRequest request) {
+                log.info("Received request to generate {} rows into data file: {}",
+                                request.getRowCount(), id);
+                return ResponseEntity.ok(dataFileGeneratorService.generateRows(id, request));
+        }
+
+        @PostMapping(value = "/{id}/rows/generate/download", produces = "text/csv")
+        @Operation(summary = "Download generated data rows",
+                        description = "Stream synthetic rows generated from the column definitions of a data file as CSV, without storing them")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Generated row stream"),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid generator or too many rows"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<StreamingResponseBody> downloadGeneratedDataRows(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Valid @RequestBody RowGenerateRequest request) {
+                log.info("Received request to download {} generated rows of data file: {}",
+                                request.getRowCount(), id);
+                DataFileGeneratorService.PreparedGeneration generation =
+                                dataFileGeneratorService.prepare(id, request);
+                StreamingResponseBody body = out -> dataFileGeneratorService.download(generation, out);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(ExportFormat.CSV.getContentType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition
+                                                .attachment()
+                                                .filename(DataFileExportService.fileName(
+                                                                generation.dataFile(), ExportFormat.CSV),
+                                                                StandardCharsets.UTF_8)
+                                                .build().toString())
+                                .body(body);
+        }
+
+        @GetMapping("/{id}/validation")
+        @Operation(summary = "Validate data rows",
+                        description = "Check all stored rows of a data file against its column definitions")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Validation report",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = RowValidationReport.class))),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<RowValidationReport> validateDataFile(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Parameter(description = "Maximum number of errors to list (1-1000)")
+                        @RequestParam(defaultValue = "100") int maxErrors) {
+                log.info("Received request to validate data file: {}", id);
+                return ResponseEntity.ok(dataFileService.validateDataFile(id, maxErrors));
+        }
+
+        @GetMapping("/{id}/export")
+        @Operation(summary = "Export data file",
+                        description = "Stream all rows of a data file as an XLSX workbook or CSV file")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Export stream"),
+                        @ApiResponse(responseCode = "400", description = "Unsupported format"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<StreamingResponseBody> exportDataFile(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Parameter(description = "Export format: xlsx or csv") @RequestParam(
+                                        defaultValue = "xlsx") String format) {
+                log.info("Received request to export data file {} as {}", id, format);
+                ExportFormat exportFormat = ExportFormat.fromParameter(format);
+                DataFileMetadata dataFile = dataFileService.getAccessibleMetadata(id);
+                StreamingResponseBody body =
+                                out -> dataFileExportService.export(dataFile, exportFormat, out);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition
+                                                .attachment()
+                                                .filename(DataFileExportService.fileName(dataFile,
+                                                                exportFormat), StandardCharsets.UTF_8)
+                                                .build().toString())
+                                .body(body);
+        }
+
+        @PostMapping("/sql")
+        @Operation(summary = "Run SQL over data files",
+                        description = "Run a read-only SELECT over data files named by organization path, e.g. SELECT a, b FROM \"Module/file\" WHERE c > 5 ORDER BY a LIMIT 100")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200",
+                                        description = "Successfully ran the query",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = SqlQueryResult.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Syntax error or invalid query"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<SqlQueryResult> querySql(@Parameter(
+                        description = "Query request body",
+                        required = true) @Valid @RequestBody SqlQueryRequest request) {
+                log.info("Received query over data files");
+                return ResponseEntity.ok(sqlQueryService.query(request));
+        }
+
+        @PostMapping(value = "/join", produces = "application/x-ndjson")
+        @Operation(summary = "Join data files",
+                        description = "Join the rows of two data files on a key column each and stream the joined rows as JSON lines of {\"left\": ..., \"right\": ...}")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Joined row stream"),
+                        @ApiResponse(responseCode = "400", description = "Unknown key column"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<StreamingResponseBody> joinDataFiles(@Parameter(
+                        description = "Join request body",
+                        required = true) @Valid @RequestBody RowJoinRequest request) {
+                log.info("Received request to join data files {} and {}", request.getLeftFileId(),
+                                request.getRightFileId());
+                DataFileJoinService.PreparedJoin join = dataFileJoinService.prepare(request);
+                StreamingResponseBody body = out -> dataFileJoinService.join(join, out);
+                return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson"))
+                                .body(body);
+        }
+
+        @PostMapping("/uploads")
+        @Operation(summary = "Start chunked upload",
+                        description = "Start a resumable upload of a large CSV, XLSX or JSON file. Send the chunks with PUT, then complete the upload to import it")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Upload started",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = ChunkedUploadDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid request parameters or file too large"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Organization node does not exist")})
+        public ResponseEntity<ChunkedUploadDto> initUpload(@Parameter(
+                        description = "Chunked upload request body",
+                        required = true) @Valid @RequestBody ChunkedUploadInitRequest request) {
+                log.info("Received request to start chunked upload of {}", request.getFileName());
+                ChunkedUploadDto upload = chunkedUploadService.init(request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(upload);
+        }
+
+        @GetMapping("/uploads/{uploadId}")
+        @Operation(summary = "Get chunked upload",
+                        description = "Get the chunks received so far, to resume an interrupted upload")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Upload found",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = ChunkedUploadDto.class))),
+                        @ApiResponse(responseCode = "404", description = "Upload does not exist")})
+        public ResponseEntity<ChunkedUploadDto> getUpload(@Parameter(description = "Upload ID",
+                        required = true) @PathVariable String uploadId) {
+                return ResponseEntity.ok(chunkedUploadService.getUpload(uploadId));
+        }
+
+        @PutMapping(value = "/uploads/{uploadId}/chunks/{index}",
+                        consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+        @Operation(summary = "Upload chunk",
+                        description = "Upload one chunk (0-based index) as raw bytes. The X-Chunk-Checksum header carries the hex MD5 of the chunk; re-sending a chunk replaces it")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Chunk stored",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = ChunkedUploadDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Invalid index, size or checksum mismatch"),
+                        @ApiResponse(responseCode = "404", description = "Upload does not exist")})
+        public ResponseEntity<ChunkedUploadDto> uploadChunk(
+                        @Parameter(description = "Upload ID",
+                                        required = true) @PathVariable String uploadId,
+                        @Parameter(description = "Chunk index",
+                                        required = true) @PathVariable int index,
+                        @Parameter(description = "Hex MD5 checksum of the chunk",
+                                        required = true) @RequestHeader("X-Chunk-Checksum") String checksum,
+                        HttpServletRequest request) throws IOException {
+                log.debug("Received chunk {} of upload {}", index, uploadId);
+                return ResponseEntity.ok(chunkedUploadService.putChunk(uploadId, index, checksum,
+                                request.getInputStream()));
+        }
+
+        @PostMapping("/uploads/{uploadId}/complete")
+        @Operation(summary = "Complete chunked upload",
+                        description = "Assemble all chunks and import the file. XLSX workbooks create one data file per sheet")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201",
+                                        description = "File imported, see per-table results"),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Missing chunks or business logic error"),
+                        @ApiResponse(responseCode = "404", description = "Upload does not exist")})
+        public ResponseEntity<List<DataFileImportResult>> completeUpload(@Parameter(
+                        description = "Upload ID", required = true) @PathVariable String uploadId) {
+                log.info("Received request to complete chunked upload {}", uploadId);
+                List<DataFileImportResult> results = chunkedUploadService.complete(uploadId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(results);
+        }
+
+        @DeleteMapping("/uploads/{uploadId}")
+        @Operation(summary = "Abort chunked upload", description = "Discard an upload and its chunks")
+        @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Upload discarded"),
+                        @ApiResponse(responseCode = "404", description = "Upload does not exist")})
+        public ResponseEntity<Void> abortUpload(@Parameter(description = "Upload ID",
+                        required = true) @PathVariable String uploadId) {
+                log.info("Received request to abort chunked upload {}", uploadId);
+                chunkedUploadService.abort(uploadId);
+                return ResponseEntity.noContent().build();
+        }
+
+        @PostMapping("/{id}/export-jobs")
+        @Operation(summary = "Submit export job",
+                        description = "Export a data file in the background. Poll the job and download the artifact once completed; an unchanged file reuses its previous artifact")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Export job accepted",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = ExportJobDto.class))),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Unsupported format or export queue full"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Data file does not exist")})
+        public ResponseEntity<ExportJobDto> submitExportJob(
+                        @Parameter(description = "Data file ID",
+                                        required = true) @PathVariable Long id,
+                        @Parameter(description = "Export format: xlsx or csv") @RequestParam(
+                                        defaultValue = "xlsx") String format) {
+                log.info("Received request to submit export job for data file {} as {}", id, format);
+                ExportJobDto job = exportJobService.submit(id, ExportFormat.fromParameter(format));
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        }
+
+        @GetMapping("/export-jobs/{jobId}")
+        @Operation(summary = "Get export job", description = "Get status and progress of an export job")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Export job found",
+                                        content = @Content(schema = @Schema(
+                                                        implementation = ExportJobDto.class))),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Export job does not exist")})
+        public ResponseEntity<ExportJobDto> getExportJob(@Parameter(description = "Export job ID",
+                        required = true) @PathVariable String jobId) {
+                return ResponseEntity.ok(exportJobService.getJob(jobId));
+        }
+
+        @GetMapping("/export-jobs/{jobId}/download")
+        @Operation(summary = "Download export artifact",
+                        description = "Download the artifact of a completed export job. Supports single HTTP byte ranges for resuming")
+        @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Whole artifact"),
+                        @ApiResponse(responseCode = "206", description = "Requested byte range"),
+                        @ApiResponse(responseCode = "400",
+                                        description = "Export job not completed or failed"),
+                        @ApiResponse(responseCode = "404",
+                                        description = "Export job or artifact does not exist"),
+                        @ApiResponse(responseCode = "416",
+                                        description = "Requested range not satisfiable")})
+        public void downloadExport(
+                        @Parameter(description = "Export job ID",
+                                        required = true) @PathVariable String jobId,
+                        HttpServletRequest request, HttpServletResponse response)
+                        throws IOException {
+                log.info("Received request to download export job {}", jobId);
+                ExportJobService.Artifact artifact = exportJobService.getArtifact(jobId);
+                RangeFileResponder.send(artifact.path(), artifact.contentType(),
+                                artifact.fileName(), artifact.etag(), request, response);
+        }
+
         @PostMapping("/query")
         @Operation(summary = "Query data files",
                         description = "Query data files with pagination based on conditions")
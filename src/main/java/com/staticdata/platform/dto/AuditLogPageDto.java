@@ -0,0 +1,66 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.entity.AuditLog;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of audit logs, newest first
+ */
+@Data
+@Builder
+@Schema(description = "Audit log page")
+public class AuditLogPageDto {
+
+    @Schema(description = "Audit logs, newest first")
+    private List<AuditLogDto> items;
+
+    @Schema(description = "Cursor of the next page, null on the last page")
+    private String nextCursor;
+
+    /**
+     * One audited action
+     */
+    @Data
+    @Builder
+    @Schema(description = "Audit log")
+    public static class AuditLogDto {
+
+        @Schema(description = "Audit log ID")
+        private Long id;
+
+        @Schema(description = "Action time")
+        private LocalDateTime createdAt;
+
+        @Schema(description = "Acting user ID")
+        private Long userId;
+
+        @Schema(description = "Acting username")
+        private String username;
+
+        @Schema(description = "Action type")
+        private AuditLog.ActionType actionType;
+
+        @Schema(description = "Resource type", example = "DATA_FILE")
+        private String resourceType;
+
+        @Schema(description = "Resource ID")
+        private Long resourceId;
+
+        @Schema(description = "Resource name")
+        private String resourceName;
+
+        @Schema(description = "Description")
+        private String description;
+
+        @Schema(description = "Client IP")
+        private String clientIp;
+
+        @Schema(description = "Client user agent")
+        private String userAgent;
+    }
+}
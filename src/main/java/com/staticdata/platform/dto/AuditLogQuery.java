@@ -0,0 +1,48 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.entity.AuditLog;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit log query (query parameters); all filters are optional and combined with AND
+ */
+@Data
+public class AuditLogQuery {
+
+    @Schema(description = "Acting user ID")
+    private Long userId;
+
+    @Schema(description = "Acting username", example = "admin")
+    private String username;
+
+    @Schema(description = "Action type", example = "UPDATE")
+    private AuditLog.ActionType actionType;
+
+    @Schema(description = "Resource type", example = "DATA_FILE")
+    private String resourceType;
+
+    @Schema(description = "Resource ID, used together with the resource type", example = "42")
+    private Long resourceId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Earliest action time (inclusive)", example = "2024-01-01T00:00:00")
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Latest action time (exclusive)", example = "2024-02-01T00:00:00")
+    private LocalDateTime to;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 1000, message = "Limit cannot exceed 1000")
+    @Schema(description = "Maximum number of audit logs returned", example = "50")
+    private Integer limit = 50;
+
+    @Schema(description = "Cursor of the next page, as returned with the previous page")
+    private String cursor;
+}
@@ -0,0 +1,45 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.ImportFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Chunked upload session state, used by clients to resume an interrupted upload
+ */
+@Data
+@Builder
+@Schema(description = "Chunked upload information")
+public class ChunkedUploadDto {
+
+    @Schema(description = "Upload ID")
+    private String uploadId;
+
+    @Schema(description = "Uploaded file name")
+    private String fileName;
+
+    @Schema(description = "Import format")
+    private ImportFormat format;
+
+    @Schema(description = "Total file size in bytes")
+    private Long totalSize;
+
+    @Schema(description = "Chunk size in bytes")
+    private Integer chunkSize;
+
+    @Schema(description = "Number of chunks")
+    private Integer chunkCount;
+
+    @Schema(description = "Indexes of chunks received and verified so far")
+    private List<Integer> receivedChunks;
+
+    @Schema(description = "Bytes received and verified so far")
+    private Long receivedBytes;
+
+    @Schema(description = "Time after which an unfinished upload is discarded")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,36 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Start of a chunked upload: the file to be uploaded and where to import it
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ChunkedUploadInitRequest extends DataFileImportRequest {
+
+    @NotBlank(message = "File name cannot be empty")
+    @Size(max = 255, message = "File name length cannot exceed 255 characters")
+    @Schema(description = "Uploaded file name, its extension selects the format unless format is set",
+            example = "users.csv")
+    private String fileName;
+
+    @Schema(description = "Import format: csv, xlsx or json", example = "csv")
+    private String format;
+
+    @NotNull(message = "Total size cannot be empty")
+    @Positive(message = "Total size must be positive")
+    @Schema(description = "Total file size in bytes", example = "524288000")
+    private Long totalSize;
+
+    @NotNull(message = "Chunk size cannot be empty")
+    @Positive(message = "Chunk size must be positive")
+    @Schema(description = "Size of every chunk except the last, in bytes", example = "8388608")
+    private Integer chunkSize;
+}
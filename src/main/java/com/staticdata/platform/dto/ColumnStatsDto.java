@@ -0,0 +1,26 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.entity.DataFile;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Column statistics of a data file
+ */
+@Data
+@Builder
+@Schema(description = "Column statistics")
+public class ColumnStatsDto {
+
+    @Schema(description = "Data file ID")
+    private Long dataFileId;
+
+    @Schema(description = "Total rows of the data file")
+    private Integer rowCount;
+
+    @Schema(description = "Statistics per column: defined columns first, then undefined ones")
+    private List<DataFile.ColumnStats> columns;
+}
@@ -57,6 +57,10 @@ public class CreateDataFileRequest {
         @Schema(description = "Maximum length", example = "50")
         private Integer maxLength;
         
+        @Schema(description = "Whether the column identifies rows (at most one key column)",
+                example = "false")
+        private Boolean key = false;
+        
         @Size(max = 200, message = "Column description length cannot exceed 200 characters")
         @Schema(description = "Column description", example = "User login name")
         private String description;
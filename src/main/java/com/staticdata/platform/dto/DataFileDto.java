@@ -21,6 +21,7 @@ public class DataFileDto {
     private Long ownerId;
     private String ownerName;
     private DataFile.AccessLevel accessLevel;
+    private DataFile.RowStorage rowStorage; // INLINE or ROW_STORE (streamed imports)
     private List<ColumnDefinitionDto> columnDefinitions;
     private List<Map<String, Object>> dataRows;
     private Integer rowCount;
@@ -41,6 +42,7 @@ public class DataFileDto {
         private Boolean required;
         private String defaultValue;
         private Integer maxLength;
+        private Boolean key; // Whether the column identifies rows
         private String description; // Column description
         private String validationRule; // Validation rule
         private Integer sortOrder; // Column sort order
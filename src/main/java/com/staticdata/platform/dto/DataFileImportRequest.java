@@ -0,0 +1,37 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.entity.DataFile;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data file import request (form fields sent alongside the uploaded file)
+ */
+@Data
+public class DataFileImportRequest {
+
+    @NotNull(message = "Module cannot be empty")
+    @Schema(description = "Organization module ID", example = "1")
+    private Long organizationNodeId;
+
+    @Size(min = 2, max = 100, message = "File name length must be between 2 and 100 characters")
+    @Schema(description = "Data File name, defaults to the uploaded file name. Workbooks with several sheets create one data file per sheet named '<name> - <sheet>'",
+            example = "User basic data table")
+    private String name;
+
+    @Size(max = 500, message = "Description length cannot exceed 500 characters")
+    @Schema(description = "Data File description")
+    private String description;
+
+    @Schema(description = "Access level", example = "PRIVATE", allowableValues = {"PRIVATE", "PUBLIC"})
+    private DataFile.AccessLevel accessLevel = DataFile.AccessLevel.PRIVATE;
+
+    @Valid
+    @Schema(description = "Masking applied to the rows before they are stored, e.g. to anonymize production extracts")
+    private List<MaskingRule> masking;
+}
@@ -0,0 +1,38 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Result of importing one table (sheet) into a data file
+ */
+@Data
+@Builder
+@Schema(description = "Import result of one sheet")
+public class DataFileImportResult {
+
+    @Schema(description = "Source sheet name")
+    private String sheetName;
+
+    @Schema(description = "Created data file ID")
+    private Long dataFileId;
+
+    @Schema(description = "Created data file name")
+    private String name;
+
+    @Schema(description = "Imported row count")
+    private Integer rowCount;
+
+    @Schema(description = "Inferred column count")
+    private Integer columnCount;
+
+    @Schema(description = "Import duration (milliseconds)")
+    private Long durationMs;
+
+    @Schema(description = "Whether the sheet was imported")
+    private Boolean success;
+
+    @Schema(description = "Failure reason")
+    private String errorMessage;
+}
@@ -0,0 +1,32 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.entity.DataFile;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data file metadata without rows, loaded by row-level operations (export, row queries) that read
+ * rows through the row store instead of materializing the data_rows column
+ */
+@Data
+@AllArgsConstructor
+public class DataFileMetadata {
+    private Long id;
+    private String name;
+    private String fileHash;
+    private DataFile.AccessLevel accessLevel;
+    private Long ownerId;
+    private Long organizationNodeId;
+    private DataFile.RowStorage rowStorage;
+    private Integer rowCount;
+    private List<DataFile.ColumnDefinition> columnDefinitions;
+    private LocalDateTime updatedAt;
+    private List<DataFile.ColumnStats> columnStats;
+
+    public boolean isRowStore() {
+        return rowStorage == DataFile.RowStorage.ROW_STORE;
+    }
+}
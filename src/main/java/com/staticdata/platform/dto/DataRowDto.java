@@ -0,0 +1,28 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * A single data row found by its key
+ */
+@Data
+@Builder
+@Schema(description = "Data row")
+public class DataRowDto {
+
+    @Schema(description = "Data file ID")
+    private Long dataFileId;
+
+    @Schema(description = "Key column name")
+    private String keyColumn;
+
+    @Schema(description = "Index of the row in the data file (0-based)")
+    private Integer rowIndex;
+
+    @Schema(description = "Row cells keyed by column name")
+    private Map<String, Object> row;
+}
@@ -0,0 +1,35 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.columnar.RowWindow;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A window of data rows, serialized straight from the columnar representation
+ */
+@Data
+@Builder
+@Schema(description = "Data rows window")
+public class DataRowsDto {
+
+    @Schema(description = "Data file ID")
+    private Long dataFileId;
+
+    @Schema(description = "Index of the first returned row (0-based)")
+    private Integer offset;
+
+    @Schema(description = "Number of returned rows")
+    private Integer count;
+
+    @Schema(description = "Total rows of the data file")
+    private Integer totalRows;
+
+    @Schema(description = "Returned columns")
+    private List<String> columns;
+
+    @Schema(description = "Rows as objects keyed by column name", type = "array")
+    private RowWindow rows;
+}
@@ -0,0 +1,54 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.ExportFormat;
+import com.staticdata.platform.enums.ExportJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Asynchronous export job state
+ */
+@Data
+@Builder
+@Schema(description = "Export job information")
+public class ExportJobDto {
+
+    @Schema(description = "Job ID")
+    private String jobId;
+
+    @Schema(description = "Exported data file ID")
+    private Long dataFileId;
+
+    @Schema(description = "Export format")
+    private ExportFormat format;
+
+    @Schema(description = "Job status")
+    private ExportJobStatus status;
+
+    @Schema(description = "Rows written so far")
+    private Long rowsWritten;
+
+    @Schema(description = "Total rows of the data file")
+    private Integer totalRows;
+
+    @Schema(description = "Progress percentage (0-100)")
+    private Integer progress;
+
+    @Schema(description = "Artifact size in bytes, once completed")
+    private Long sizeBytes;
+
+    @Schema(description = "Whether an existing artifact of the same file version was reused")
+    private Boolean reused;
+
+    @Schema(description = "Failure reason")
+    private String errorMessage;
+
+    @Schema(description = "Submission time")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Completion time")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,37 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the on-demand flight recording
+ */
+@Data
+@Builder
+@Schema(description = "Flight recording")
+public class FlightRecordingDto {
+
+    @Schema(description = "Recording state: NONE, RUNNING, STOPPED", example = "RUNNING")
+    private String state;
+
+    @Schema(description = "Recording settings: default or profile", example = "default")
+    private String settings;
+
+    @Schema(description = "Start time")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Stop time, null while running")
+    private LocalDateTime stoppedAt;
+
+    @Schema(description = "Events older than this are dropped, in minutes", example = "30")
+    private Long maxAgeMinutes;
+
+    @Schema(description = "Oldest events are dropped beyond this size, in bytes")
+    private Long maxSizeBytes;
+
+    @Schema(description = "Size of the recorded data so far, in bytes")
+    private Long sizeBytes;
+}
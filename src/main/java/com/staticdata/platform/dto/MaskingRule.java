@@ -0,0 +1,43 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.MaskingStrategy;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Masking of one column of imported rows; columns missing from a table are left alone
+ */
+@Data
+public class MaskingRule {
+
+    @NotBlank(message = "Masked column cannot be empty")
+    @Schema(description = "Column name", example = "email")
+    private String column;
+
+    @NotNull(message = "Masking strategy cannot be empty")
+    @Schema(description = "Masking strategy", example = "TOKENIZE")
+    private MaskingStrategy strategy;
+
+    @Positive(message = "Shift range must be positive")
+    @Schema(description = "SHIFT: largest offset either way, in days for dates and date-times",
+            example = "30")
+    private Long range;
+
+    @Schema(description = "SHIFT: column whose original value picks the offset, so that all "
+            + "cells of one entity move alike (the cell itself when omitted)",
+            example = "patientId")
+    private String offsetColumn;
+
+    @Size(max = 50, message = "Token namespace length cannot exceed 50 characters")
+    @Schema(description = "TOKENIZE: values get the same token wherever the namespace is the "
+            + "same", example = "customer")
+    private String namespace;
+
+    @Size(max = 20, message = "Token prefix length cannot exceed 20 characters")
+    @Schema(description = "TOKENIZE: text put before every token", example = "CUST-")
+    private String prefix;
+}
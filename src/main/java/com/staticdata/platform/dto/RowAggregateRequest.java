@@ -0,0 +1,51 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.AggregateFunction;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Group-by aggregation over the rows of one data file
+ */
+@Data
+public class RowAggregateRequest {
+
+    @Valid
+    @Schema(description = "Filters applied before grouping, all of which must match")
+    private List<RowQueryRequest.RowFilter> filters;
+
+    @Schema(description = "Columns to group by (one group over all rows when omitted)",
+            example = "[\"city\"]")
+    private List<String> groupBy;
+
+    @Valid
+    @NotEmpty(message = "At least one aggregate is required")
+    @Schema(description = "Aggregates computed per group")
+    private List<RowAggregate> aggregates;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Schema(description = "Maximum number of groups to return", example = "1000")
+    private Integer limit = 1000;
+
+    @Data
+    public static class RowAggregate {
+
+        @NotNull(message = "Aggregate function cannot be empty")
+        @Schema(description = "Function", example = "AVG")
+        private AggregateFunction function;
+
+        @Schema(description = "Aggregated column (COUNT counts rows when omitted)",
+                example = "price")
+        private String column;
+
+        @Schema(description = "Name of the result (function_column when omitted)",
+                example = "avg_price")
+        private String alias;
+    }
+}
@@ -0,0 +1,35 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups of a row aggregation, ordered by their group columns
+ */
+@Data
+@Builder
+@Schema(description = "Row aggregation result")
+public class RowAggregateResult {
+
+    @Schema(description = "Data file ID")
+    private Long dataFileId;
+
+    @Schema(description = "Number of rows matching the filters")
+    private Long totalMatched;
+
+    @Schema(description = "Number of groups")
+    private Integer groupCount;
+
+    @Schema(description = "Whether groups were left out because of the limit")
+    private Boolean truncated;
+
+    @Schema(description = "Group columns followed by aggregate names")
+    private List<String> columns;
+
+    @Schema(description = "One object per group keyed by the returned columns")
+    private List<Map<String, Object>> groups;
+}
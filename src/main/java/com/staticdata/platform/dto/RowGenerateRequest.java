@@ -0,0 +1,85 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.ValueDistribution;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Synthetic rows for the columns of a data file. Columns without a generator get one from their
+ * definition: key columns a unique sequence, other columns uniform values of their type.
+ */
+@Data
+public class RowGenerateRequest {
+
+    @NotNull(message = "Row count cannot be empty")
+    @Min(value = 1, message = "Row count must be at least 1")
+    @Schema(description = "Number of rows to generate", example = "1000000")
+    private Long rowCount;
+
+    @Schema(description = "Seed; the same seed and generators always give the same rows",
+            example = "42")
+    private Long seed = 0L;
+
+    @Valid
+    @Schema(description = "Generators of individual columns")
+    private List<ColumnGenerator> columns;
+
+    @Data
+    public static class ColumnGenerator {
+
+        @NotBlank(message = "Generated column cannot be empty")
+        @Schema(description = "Column name", example = "price")
+        private String column;
+
+        @Schema(description = "Distribution (SEQUENCE for key columns, UNIFORM otherwise)",
+                example = "NORMAL")
+        private ValueDistribution distribution;
+
+        @Schema(description = "Smallest value of INTEGER, DECIMAL, DATE and DATETIME columns",
+                example = "10")
+        private String min;
+
+        @Schema(description = "Largest value of INTEGER, DECIMAL, DATE and DATETIME columns",
+                example = "500")
+        private String max;
+
+        @Schema(description = "Mean of a NORMAL distribution (middle of the range when omitted)",
+                example = "120")
+        private String mean;
+
+        @Schema(description = "Standard deviation of a NORMAL distribution, in days for DATE and "
+                + "seconds for DATETIME columns (a sixth of the range when omitted)",
+                example = "25")
+        private Double stddev;
+
+        @Min(value = 0, message = "Scale cannot be negative")
+        @Schema(description = "Decimal places of DECIMAL values", example = "2")
+        private Integer scale;
+
+        @Min(value = 1, message = "Step must be at least 1")
+        @Schema(description = "Increment of a SEQUENCE", example = "1")
+        private Long step;
+
+        @Schema(description = "Pattern of STRING values: # digit, ? letter, * letter or digit, "
+                + "\\ escapes the next character", example = "ORD-####-??")
+        private String pattern;
+
+        @Schema(description = "Dictionary of values to pick from")
+        private List<Object> values;
+
+        @Schema(description = "Relative weight of each dictionary value (equal when omitted)")
+        private List<Double> weights;
+
+        @Schema(description = "Whether no two rows may have the same value (true for key columns)")
+        private Boolean unique;
+
+        @Schema(description = "Share of rows left empty, from 0 to 1", example = "0.05")
+        private Double nullRate;
+    }
+}
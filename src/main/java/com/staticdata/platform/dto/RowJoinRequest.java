@@ -0,0 +1,41 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.JoinType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Equi-join of the rows of two data files on one key column each
+ */
+@Data
+public class RowJoinRequest {
+
+    @NotNull(message = "Left data file ID cannot be empty")
+    @Schema(description = "Left data file ID", example = "1")
+    private Long leftFileId;
+
+    @NotBlank(message = "Left key column cannot be empty")
+    @Schema(description = "Key column of the left file", example = "customerId")
+    private String leftKey;
+
+    @NotNull(message = "Right data file ID cannot be empty")
+    @Schema(description = "Right data file ID", example = "2")
+    private Long rightFileId;
+
+    @NotBlank(message = "Right key column cannot be empty")
+    @Schema(description = "Key column of the right file", example = "id")
+    private String rightKey;
+
+    @Schema(description = "Join type", example = "INNER")
+    private JoinType type = JoinType.INNER;
+
+    @Schema(description = "Columns of the left rows to return (all when omitted)")
+    private List<String> leftColumns;
+
+    @Schema(description = "Columns of the right rows to return (all when omitted)")
+    private List<String> rightColumns;
+}
@@ -0,0 +1,70 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.RowFilterOperator;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Row query within one data file: filters (combined with AND), projection, sort and paging
+ */
+@Data
+public class RowQueryRequest {
+
+    @Valid
+    @Schema(description = "Filters, all of which must match")
+    private List<RowFilter> filters;
+
+    @Schema(description = "Columns to return (all when omitted)", example = "[\"id\", \"name\"]")
+    private List<String> columns;
+
+    @Valid
+    @Schema(description = "Sort order (row order when omitted)")
+    private List<RowSort> sort;
+
+    @Min(value = 0, message = "Offset must not be negative")
+    @Schema(description = "Number of matching rows to skip", example = "0")
+    private Integer offset = 0;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Schema(description = "Maximum number of rows to return", example = "100")
+    private Integer limit = 100;
+
+    @Schema(description = "Cursor returned by the previous page (replaces offset)")
+    private String cursor;
+
+    @Data
+    public static class RowFilter {
+
+        @NotBlank(message = "Filter column cannot be empty")
+        @Schema(description = "Column name", example = "age")
+        private String column;
+
+        @NotNull(message = "Filter operator cannot be empty")
+        @Schema(description = "Operator", example = "GTE")
+        private RowFilterOperator operator;
+
+        @Schema(description = "Value compared with the cells", example = "18")
+        private Object value;
+
+        @Schema(description = "Values of an IN filter")
+        private List<Object> values;
+    }
+
+    @Data
+    public static class RowSort {
+
+        @NotBlank(message = "Sort column cannot be empty")
+        @Schema(description = "Column name", example = "name")
+        private String column;
+
+        @Schema(description = "Sort direction", example = "ASC")
+        private Sort.Direction direction = Sort.Direction.ASC;
+    }
+}
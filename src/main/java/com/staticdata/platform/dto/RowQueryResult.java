@@ -0,0 +1,41 @@
+package com.staticdata.platform.dto;
+
+import com.staticdata.platform.enums.RowQueryStrategy;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of rows matching a row query
+ */
+@Data
+@Builder
+@Schema(description = "Row query result")
+public class RowQueryResult {
+
+    @Schema(description = "Data file ID")
+    private Long dataFileId;
+
+    @Schema(description = "Number of rows matching the filters")
+    private Long totalMatched;
+
+    @Schema(description = "Index of the first returned row among the matching rows")
+    private Integer offset;
+
+    @Schema(description = "Number of returned rows")
+    private Integer count;
+
+    @Schema(description = "Returned columns (all when empty)")
+    private List<String> columns;
+
+    @Schema(description = "Matching rows as objects keyed by column name", type = "array")
+    private Object rows;
+
+    @Schema(description = "Cursor of the next page, absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "How the query was executed")
+    private RowQueryStrategy strategy;
+}
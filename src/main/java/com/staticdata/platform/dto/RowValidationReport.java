@@ -0,0 +1,47 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Result of validating data rows against column definitions. Only the first errors are listed,
+ * errorCount holds the total.
+ */
+@Data
+@Builder
+@Schema(description = "Row validation report")
+public class RowValidationReport {
+
+    @Schema(description = "Whether all rows are valid")
+    private Boolean valid;
+
+    @Schema(description = "Number of validated rows")
+    private Long rowsChecked;
+
+    @Schema(description = "Total number of invalid cells")
+    private Long errorCount;
+
+    @Schema(description = "Whether more errors were found than listed")
+    private Boolean truncated;
+
+    @Schema(description = "First errors, in row order")
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+
+        @Schema(description = "Row number (1-based)")
+        private Long row;
+
+        @Schema(description = "Column name")
+        private String column;
+
+        @Schema(description = "Error description")
+        private String message;
+    }
+}
@@ -0,0 +1,18 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * Read-only query over data files in the query language
+ */
+@Data
+public class SqlQueryRequest {
+
+    @NotBlank(message = "Query cannot be empty")
+    @Schema(description = "SELECT statement; files are named by organization path or ID",
+            example = "SELECT id, name FROM \"Payments/Cards/Issuing/Core/customers\" "
+                    + "WHERE age >= 18 ORDER BY name LIMIT 100")
+    private String query;
+}
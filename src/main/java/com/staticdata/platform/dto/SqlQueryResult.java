@@ -0,0 +1,32 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows returned by a query in the query language
+ */
+@Data
+@Builder
+@Schema(description = "Query language result")
+public class SqlQueryResult {
+
+    @Schema(description = "Result columns")
+    private List<String> columns;
+
+    @Schema(description = "Returned rows as objects keyed by result column")
+    private List<Map<String, Object>> rows;
+
+    @Schema(description = "Number of returned rows")
+    private Integer count;
+
+    @Schema(description = "Whether more rows follow beyond the LIMIT")
+    private Boolean hasMore;
+
+    @Schema(description = "Operators of the executed plan, inputs indented below their consumer")
+    private List<String> plan;
+}
@@ -0,0 +1,71 @@
+package com.staticdata.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * API usage over a time range, in total and per endpoint
+ */
+@Data
+@Builder
+@Schema(description = "API usage report")
+public class UsageReportDto {
+
+    @Schema(description = "Start of the range, rounded down to the minute")
+    private LocalDateTime from;
+
+    @Schema(description = "End of the range (exclusive), rounded up to the minute")
+    private LocalDateTime to;
+
+    @Schema(description = "Usage of all matching endpoints together")
+    private EndpointUsage total;
+
+    @Schema(description = "Usage per endpoint, busiest first")
+    private List<EndpointUsage> endpoints;
+
+    /**
+     * Usage of one endpoint (or of all, with no path and method)
+     */
+    @Data
+    @Builder
+    @Schema(description = "Endpoint usage")
+    public static class EndpointUsage {
+
+        @Schema(description = "Route pattern", example = "/data-files/{id}")
+        private String path;
+
+        @Schema(description = "HTTP method", example = "GET")
+        private String method;
+
+        @Schema(description = "Number of requests")
+        private Long requestCount;
+
+        @Schema(description = "Requests per second over the range")
+        private Double throughput;
+
+        @Schema(description = "Share of requests answered with a 5xx status")
+        private Double errorRate;
+
+        @Schema(description = "Share of requests answered with a 4xx status")
+        private Double clientErrorRate;
+
+        @Schema(description = "Mean response time in milliseconds")
+        private Double meanMs;
+
+        @Schema(description = "Median response time in milliseconds")
+        private Double p50Ms;
+
+        @Schema(description = "95th percentile response time in milliseconds")
+        private Double p95Ms;
+
+        @Schema(description = "99th percentile response time in milliseconds")
+        private Double p99Ms;
+
+        @Schema(description = "Slowest response time in milliseconds")
+        private Double maxMs;
+    }
+}
@@ -0,0 +1,57 @@
+package com.staticdata.platform.entity;
+
+import com.staticdata.platform.enums.UsageResolution;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * API Usage Sketch Entity. One record per resolution, bucket and endpoint, holding the request
+ * and error counts and a mergeable latency histogram; minute sketches are rolled up into hour
+ * and day sketches so usage queries read a bounded number of records whatever the range.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Accessors(chain = true)
+@Entity
+@Table(name = "api_usage_sketches", indexes = {
+        @Index(name = "idx_api_usage_sketches_bucket", columnList = "resolution, bucket_start")})
+public class ApiUsageSketch extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", nullable = false, length = 16)
+    private UsageResolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "api_path", nullable = false)
+    private String apiPath;
+
+    @Column(name = "http_method", nullable = false)
+    private String httpMethod;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    /**
+     * Responses with a 4xx status
+     */
+    @Column(name = "client_error_count", nullable = false)
+    private Long clientErrorCount;
+
+    /**
+     * Responses with a 5xx status
+     */
+    @Column(name = "server_error_count", nullable = false)
+    private Long serverErrorCount;
+
+    /**
+     * Compressed HdrHistogram of the response times in microseconds
+     */
+    @Column(name = "latency_histogram", nullable = false, columnDefinition = "bytea")
+    private byte[] latencyHistogram;
+}
@@ -5,19 +5,26 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
 
+import java.time.LocalDateTime;
+
 /**
- * API Usage Statistics Entity
+ * API Usage Statistics Entity. Requests are recorded pre-aggregated: one record per minute,
+ * endpoint, method and status, with totals over the requests of that minute.
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Accessors(chain = true)
 @Entity
-@Table(name = "api_usage_stats")
+@Table(name = "api_usage_stats", indexes = {
+        @Index(name = "idx_api_usage_stats_bucket", columnList = "bucket_start")})
 public class ApiUsageStats extends BaseEntity {
     
     @Column(name = "user_id")
     private Long userId;
     
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+    
     @Column(name = "api_path", nullable = false)
     private String apiPath;
     
@@ -27,15 +34,27 @@ public class ApiUsageStats extends BaseEntity {
     @Column(name = "response_status", nullable = false)
     private Integer responseStatus;
     
+    @Column(name = "request_count")
+    private Long requestCount;
+    
+    /**
+     * Total response time of the requests
+     */
     @Column(name = "response_time_ms", nullable = false)
     private Long responseTimeMs;
     
+    @Column(name = "max_response_time_ms")
+    private Long maxResponseTimeMs;
+    
     @Column(name = "client_ip")
     private String clientIp;
     
     @Column(name = "user_agent")
     private String userAgent;
     
+    /**
+     * Total bytes of the request and response bodies
+     */
     @Column(name = "request_size")
     private Long requestSize;
     
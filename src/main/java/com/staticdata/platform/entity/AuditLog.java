@@ -6,7 +6,8 @@ import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
 
 /**
- * Audit Log Entity
+ * Audit Log Entity. The table is partitioned by month of created_at and written with plain
+ * JDBC, see AuditPartitionService and AuditLogStore.
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -44,6 +44,10 @@ public class DataFile extends BaseEntity {
     @JdbcTypeCode(SqlTypes.JSON)
     private List<ColumnDefinition> columnDefinitions;
     
+    @Column(name = "column_stats", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<ColumnStats> columnStats;
+    
     @Column(name = "data_rows", columnDefinition = "jsonb")
     @JdbcTypeCode(SqlTypes.JSON)
     private List<Map<String, Object>> dataRows;
@@ -54,6 +58,13 @@ public class DataFile extends BaseEntity {
     @Column(name = "column_count")
     private Integer columnCount = 0;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "row_storage")
+    private RowStorage rowStorage = RowStorage.INLINE;
+    
+    @Column(name = "rows_digest", length = 32)
+    private String rowsDigest;
+    
     @OneToMany(mappedBy = "dataFile", cascade = CascadeType.ALL)
     private List<DataFileVersion> versions;
     
@@ -61,6 +72,18 @@ public class DataFile extends BaseEntity {
         PRIVATE, PUBLIC
     }
     
+    /**
+     * Where the rows of a file live: inline in the data_rows jsonb column, or one row per record
+     * in the data_file_rows table (used by streaming imports)
+     */
+    public enum RowStorage {
+        INLINE, ROW_STORE
+    }
+    
+    public boolean isRowStore() {
+        return rowStorage == RowStorage.ROW_STORE;
+    }
+    
     @Data
     @Accessors(chain = true)
     public static class ColumnDefinition {
@@ -69,9 +92,35 @@ public class DataFile extends BaseEntity {
         private Boolean required = false;
         private String defaultValue;
         private Integer maxLength;
+        private Boolean key = false;
         
         public enum DataType {
             STRING, INTEGER, DECIMAL, BOOLEAN, DATE, DATETIME, JSON
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Profile of one column computed while the rows are written. Min and max only cover cells
+     * of the column's type (numbers, text or booleans); JSON columns have none.
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class ColumnStats {
+        private String name;
+        private ColumnDefinition.DataType dataType;
+        private Long nullCount;
+        private Long nonNullCount;
+        private Object min;
+        private Object max;
+        private Long distinctEstimate;
+        private List<ValueCount> topValues;
+        private Double averageLength;
+        
+        @Data
+        @Accessors(chain = true)
+        public static class ValueCount {
+            private String value;
+            private Long count;
+        }
+    }
+}
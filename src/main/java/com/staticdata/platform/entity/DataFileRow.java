@@ -0,0 +1,43 @@
+package com.staticdata.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Data File Row Entity (row store for large files, one record per data row)
+ */
+@Data
+@Accessors(chain = true)
+@Entity
+@Table(name = "data_file_rows")
+@IdClass(DataFileRow.RowId.class)
+public class DataFileRow {
+    
+    @Id
+    @Column(name = "data_file_id", nullable = false)
+    private Long dataFileId;
+    
+    @Id
+    @Column(name = "row_index", nullable = false)
+    private Integer rowIndex;
+    
+    @Column(name = "row_data", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> rowData;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowId implements Serializable {
+        private Long dataFileId;
+        private Integer rowIndex;
+    }
+}
@@ -0,0 +1,38 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Aggregate Function Enum
+ */
+public enum AggregateFunction {
+    /**
+     * Number of rows, or of non-null cells when a column is given
+     */
+    COUNT,
+
+    /**
+     * Sum of the numeric cells
+     */
+    SUM,
+
+    /**
+     * Average of the numeric cells
+     */
+    AVG,
+
+    /**
+     * Smallest cell, compared the way row queries sort
+     */
+    MIN,
+
+    /**
+     * Largest cell, compared the way row queries sort
+     */
+    MAX;
+
+    /**
+     * Whether the function only accepts numeric columns
+     */
+    public boolean isNumeric() {
+        return this == SUM || this == AVG;
+    }
+}
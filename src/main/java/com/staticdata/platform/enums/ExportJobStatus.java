@@ -0,0 +1,26 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Export Job Status Enum
+ */
+public enum ExportJobStatus {
+    /**
+     * Waiting for a free export worker
+     */
+    QUEUED,
+
+    /**
+     * Rows are being written to the spool directory
+     */
+    RUNNING,
+
+    /**
+     * Artifact is ready for download
+     */
+    COMPLETED,
+
+    /**
+     * Export failed, see the error message
+     */
+    FAILED
+}
@@ -0,0 +1,55 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Data File Import Format Enum
+ */
+public enum ImportFormat {
+    /**
+     * Excel workbook, one data file per sheet
+     */
+    XLSX("xlsx"),
+
+    /**
+     * Comma separated values with a header line
+     */
+    CSV("csv"),
+
+    /**
+     * JSON array of row objects, or an object with a dataRows array
+     */
+    JSON("json");
+
+    private final String extension;
+
+    ImportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Parse a format parameter case-insensitively
+     */
+    public static ImportFormat fromParameter(String value) {
+        for (ImportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + value);
+    }
+
+    /**
+     * Detect the format from a file name extension
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        int dot = fileName != null ? fileName.lastIndexOf('.') : -1;
+        if (dot < 0) {
+            throw new IllegalArgumentException(
+                    "Cannot detect import format of file without extension: " + fileName);
+        }
+        return fromParameter(fileName.substring(dot + 1));
+    }
+}
@@ -0,0 +1,16 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Join Type Enum
+ */
+public enum JoinType {
+    /**
+     * Only pairs of rows whose keys match
+     */
+    INNER,
+
+    /**
+     * Every left row, with a null right row when no key matches
+     */
+    LEFT
+}
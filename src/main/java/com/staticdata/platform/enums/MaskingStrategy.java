@@ -0,0 +1,27 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Masking Strategy Enum, how the cells of a column are anonymized on import
+ */
+public enum MaskingStrategy {
+    /**
+     * Keyed hash keeping the shape of the value: digits stay digits, letters stay letters of
+     * the same case, other characters are kept
+     */
+    HASH,
+
+    /**
+     * Opaque token; the same value always gets the same token, in every file
+     */
+    TOKENIZE,
+
+    /**
+     * Cell removed
+     */
+    NULL,
+
+    /**
+     * Numbers moved by a keyed offset, dates and date-times by a keyed number of days
+     */
+    SHIFT
+}
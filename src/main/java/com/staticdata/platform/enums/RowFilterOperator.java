@@ -0,0 +1,37 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Row Filter Operator Enum
+ */
+public enum RowFilterOperator {
+    EQ, NE, GT, GTE, LT, LTE, IN, CONTAINS, STARTS_WITH, IS_NULL, NOT_NULL;
+
+    /**
+     * Whether a comparison result (cell compared to the filter value) satisfies the operator
+     */
+    public boolean accepts(int comparison) {
+        return switch (this) {
+            case EQ, IN -> comparison == 0;
+            case NE -> comparison != 0;
+            case GT -> comparison > 0;
+            case GTE -> comparison >= 0;
+            case LT -> comparison < 0;
+            case LTE -> comparison <= 0;
+            default -> false;
+        };
+    }
+
+    /**
+     * Whether the operator takes no value
+     */
+    public boolean isNullCheck() {
+        return this == IS_NULL || this == NOT_NULL;
+    }
+
+    /**
+     * Whether the operator works on text only
+     */
+    public boolean isTextMatch() {
+        return this == CONTAINS || this == STARTS_WITH;
+    }
+}
@@ -0,0 +1,26 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Row Query Strategy Enum
+ */
+public enum RowQueryStrategy {
+    /**
+     * Column-at-a-time scan of the file's mapped columnar snapshot
+     */
+    SNAPSHOT_SCAN,
+
+    /**
+     * Filter, sort and paging translated to jsonb SQL and run in PostgreSQL
+     */
+    PUSHDOWN,
+
+    /**
+     * Rows streamed through a cursor, filtered in memory and sorted with spilling to disk
+     */
+    STREAM_SORT,
+
+    /**
+     * No rows read: the column statistics prove that no row matches
+     */
+    STATS
+}
@@ -0,0 +1,42 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Usage Sketch Resolution Enum (length of the time bucket a latency sketch covers)
+ */
+public enum UsageResolution {
+    /**
+     * Written by the usage recorder
+     */
+    MINUTE(60_000L),
+
+    /**
+     * Rolled up from minute sketches
+     */
+    HOUR(3_600_000L),
+
+    /**
+     * Rolled up from hour sketches, days in UTC
+     */
+    DAY(86_400_000L);
+
+    private final long millis;
+
+    UsageResolution(long millis) {
+        this.millis = millis;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Start of the bucket containing the epoch milliseconds
+     */
+    public long floor(long epochMillis) {
+        return Math.floorDiv(epochMillis, millis) * millis;
+    }
+
+    public long ceil(long epochMillis) {
+        return -Math.floorDiv(-epochMillis, millis) * millis;
+    }
+}
@@ -0,0 +1,21 @@
+package com.staticdata.platform.enums;
+
+/**
+ * Distribution of Generated Values Enum
+ */
+public enum ValueDistribution {
+    /**
+     * Values in order from the minimum, one step per row, wrapping after the maximum
+     */
+    SEQUENCE,
+
+    /**
+     * Every value of the range equally likely
+     */
+    UNIFORM,
+
+    /**
+     * Bell curve around a mean, redrawn when outside the range
+     */
+    NORMAL
+}
@@ -0,0 +1,79 @@
+package com.staticdata.platform.export;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import com.staticdata.platform.entity.DataFile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV writer streaming straight to the response, nothing but the current row is buffered
+ */
+public class CsvStreamingWriter implements TabularWriter {
+
+    private final CSVWriter csv;
+    private final ObjectMapper objectMapper;
+    private String[] names;
+    private String[] line;
+
+    public CsvStreamingWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.csv = new CSVWriter(new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024));
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writer continuing a document whose header was written elsewhere, e.g. for one chunk of rows
+     */
+    public CsvStreamingWriter(OutputStream out, ObjectMapper objectMapper,
+            List<DataFile.ColumnDefinition> columns) {
+        this(out, objectMapper);
+        setColumns(columns);
+    }
+
+    @Override
+    public void writeHeader(List<DataFile.ColumnDefinition> columns) {
+        setColumns(columns);
+        csv.writeNext(names, false);
+    }
+
+    @Override
+    public void writeRow(Map<String, Object> row) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            line[i] = format(row.get(names[i]));
+        }
+        csv.writeNext(line, false);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        csv.flush();
+    }
+
+    @Override
+    public void close() {
+        // Underlying stream belongs to the caller
+    }
+
+    private void setColumns(List<DataFile.ColumnDefinition> columns) {
+        names = columns.stream().map(DataFile.ColumnDefinition::getName).toArray(String[]::new);
+        line = new String[names.length];
+    }
+
+    private String format(Object value) throws JsonProcessingException {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Map || value instanceof List) {
+            return objectMapper.writeValueAsString(value);
+        }
+        return value.toString();
+    }
+}
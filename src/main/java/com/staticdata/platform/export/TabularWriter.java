@@ -0,0 +1,34 @@
+package com.staticdata.platform.export;
+
+import com.staticdata.platform.entity.DataFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows of a data file to an output stream one at a time
+ */
+public interface TabularWriter extends AutoCloseable {
+
+    /**
+     * Write the header; called once before the first row
+     */
+    void writeHeader(List<DataFile.ColumnDefinition> columns) throws IOException;
+
+    /**
+     * Write one row, values are looked up by column name
+     */
+    void writeRow(Map<String, Object> row) throws IOException;
+
+    /**
+     * Complete the document and flush it to the output stream (the stream is not closed)
+     */
+    void finish() throws IOException;
+
+    /**
+     * Release temporary resources
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,144 @@
+package com.staticdata.platform.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.entity.DataFile;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * XLSX writer based on SXSSF: only a sliding window of rows stays in memory, older rows are
+ * flushed to compressed temporary files. Rows beyond the sheet limit roll over to a new sheet.
+ */
+public class XlsxStreamingWriter implements TabularWriter {
+
+    private static final int MAX_DATA_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    private final SXSSFWorkbook workbook;
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+    private final String sheetName;
+    private final CellStyle headerStyle;
+    private final CellStyle dateStyle;
+    private final CellStyle dateTimeStyle;
+
+    private List<DataFile.ColumnDefinition> columns;
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int nextRow;
+
+    public XlsxStreamingWriter(OutputStream out, ObjectMapper objectMapper, String sheetName,
+            int rowWindow) {
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.out = out;
+        this.objectMapper = objectMapper;
+        this.sheetName = sanitizeSheetName(sheetName);
+
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        this.headerStyle = workbook.createCellStyle();
+        this.headerStyle.setFont(bold);
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.setDataFormat(
+                workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        this.dateTimeStyle = workbook.createCellStyle();
+        this.dateTimeStyle.setDataFormat(
+                workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+    }
+
+    @Override
+    public void writeHeader(List<DataFile.ColumnDefinition> columns) {
+        this.columns = columns;
+        newSheet();
+    }
+
+    @Override
+    public void writeRow(Map<String, Object> values) throws IOException {
+        if (nextRow > MAX_DATA_ROWS) {
+            newSheet();
+        }
+        Row row = sheet.createRow(nextRow++);
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = values.get(columns.get(i).getName());
+            if (value != null) {
+                setCell(row.createCell(i), value, columns.get(i).getDataType());
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Also deletes the temporary files backing flushed rows
+        workbook.close();
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(
+                sheetCount == 1 ? sheetName : sheetName + " (" + sheetCount + ")");
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(columns.get(i).getName());
+            cell.setCellStyle(headerStyle);
+        }
+        nextRow = 1;
+    }
+
+    private void setCell(Cell cell, Object value, DataFile.ColumnDefinition.DataType type)
+            throws IOException {
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            cell.setCellValue(bool);
+        } else if (value instanceof String text) {
+            setTextCell(cell, text, type);
+        } else {
+            cell.setCellValue(objectMapper.writeValueAsString(value));
+        }
+    }
+
+    private void setTextCell(Cell cell, String text, DataFile.ColumnDefinition.DataType type) {
+        try {
+            if (type == DataFile.ColumnDefinition.DataType.DATE) {
+                cell.setCellValue(LocalDate.parse(text));
+                cell.setCellStyle(dateStyle);
+                return;
+            }
+            if (type == DataFile.ColumnDefinition.DataType.DATETIME) {
+                cell.setCellValue(LocalDateTime.parse(text.replace(' ', 'T')));
+                cell.setCellStyle(dateTimeStyle);
+                return;
+            }
+        } catch (DateTimeParseException e) {
+            // Not ISO formatted, keep the original text
+        }
+        cell.setCellValue(text);
+    }
+
+    private static String sanitizeSheetName(String name) {
+        String cleaned = name == null || name.isBlank() ? "Data"
+                : name.replaceAll("[\\\\/?*\\[\\]:]", "_");
+        // Leave room for the " (n)" suffix of rollover sheets
+        return cleaned.length() > 25 ? cleaned.substring(0, 25) : cleaned;
+    }
+}
@@ -0,0 +1,51 @@
+package com.staticdata.platform.generate;
+
+/**
+ * Keyed pseudo-random permutation of 0..size-1, so that row numbers map to distinct values in
+ * random order without remembering the values already used. A four round Feistel network
+ * shuffles the smallest power of four covering the size; results outside the range are fed back
+ * in until one falls inside (cycle walking), which takes fewer than four rounds on average.
+ */
+final class IndexPermutation {
+
+    static final long MAX_SIZE = 1L << 62;
+
+    private static final int ROUNDS = 4;
+
+    private final long size;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] keys = new long[ROUNDS];
+
+    IndexPermutation(long size, long key) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Permutation size out of range: " + size);
+        }
+        this.size = size;
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(size - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        for (int round = 0; round < ROUNDS; round++) {
+            keys[round] = RowGenerator.mix(key + round * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    long apply(long index) {
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (value >= size);
+        return value;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long key : keys) {
+            long next = left ^ (RowGenerator.mix(right ^ key) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+}
@@ -0,0 +1,674 @@
+package com.staticdata.platform.generate;
+
+import com.staticdata.platform.dto.RowGenerateRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.ValueDistribution;
+import com.staticdata.platform.ingest.CompiledRowValidator;
+import com.staticdata.platform.ingest.RowSink;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Synthetic rows compiled from the column definitions of a data file and per-column generator
+ * specs. Rows are made in chunks of {@link #CHUNK_ROWS}; each chunk draws from its own
+ * SplittableRandom seeded from the seed and the chunk number, split once per column, so chunks
+ * are generated in parallel on the common fork/join pool and the rows are still the same for the
+ * same seed whatever the number of threads. Unique columns do not draw at random but map the row
+ * number through a keyed permutation of their values.
+ */
+public final class RowGenerator {
+
+    public static final int CHUNK_ROWS = 8_192;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int NORMAL_ATTEMPTS = 8;
+    private static final int DEFAULT_TEXT_LENGTH = 10;
+    private static final int MAX_SCALE = 18;
+
+    private final Column[] columns;
+    private final long rowCount;
+    private final long seed;
+
+    private RowGenerator(Column[] columns, long rowCount, long seed) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.seed = seed;
+    }
+
+    /**
+     * Compile generators for all defined columns; columns without a spec get a default one
+     *
+     * @throws IllegalArgumentException when a spec does not fit its column, or a unique column
+     *                                  has fewer values than rows
+     */
+    public static RowGenerator compile(List<DataFile.ColumnDefinition> definitions,
+            List<RowGenerateRequest.ColumnGenerator> generators, long rowCount, long seed) {
+        Map<String, RowGenerateRequest.ColumnGenerator> specs = new HashMap<>();
+        if (generators != null) {
+            for (RowGenerateRequest.ColumnGenerator generator : generators) {
+                String name = generator.getColumn();
+                if (definitions.stream().noneMatch(d -> d.getName().equals(name))) {
+                    throw new IllegalArgumentException("Unknown generated column: " + name);
+                }
+                if (specs.put(name, generator) != null) {
+                    throw new IllegalArgumentException("Duplicate generator of column: " + name);
+                }
+            }
+        }
+        Column[] columns = new Column[definitions.size()];
+        for (int i = 0; i < columns.length; i++) {
+            DataFile.ColumnDefinition definition = definitions.get(i);
+            columns[i] = Column.compile(definition, specs.getOrDefault(definition.getName(),
+                    new RowGenerateRequest.ColumnGenerator()), rowCount,
+                    mix(seed ^ (i + 1) * GOLDEN_GAMMA));
+        }
+        return new RowGenerator(columns, rowCount, seed);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getChunkCount() {
+        return (rowCount + CHUNK_ROWS - 1) / CHUNK_ROWS;
+    }
+
+    /**
+     * Rows of one chunk, a pure function of the seed and the chunk number
+     */
+    public List<Map<String, Object>> chunk(long chunk) {
+        long first = chunk * CHUNK_ROWS;
+        int count = (int) Math.min(CHUNK_ROWS, rowCount - first);
+        SplittableRandom chunkRandom = new SplittableRandom(mix(seed + chunk * GOLDEN_GAMMA));
+        SplittableRandom[] randoms = new SplittableRandom[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            randoms[column] = chunkRandom.split();
+        }
+        int capacity = columns.length * 4 / 3 + 1;
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>(capacity);
+            for (int column = 0; column < columns.length; column++) {
+                Object value = columns[column].value(first + i, randoms[column]);
+                if (value != null) {
+                    row.put(columns[column].name, value);
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Pass all rows to the sink in order, on the calling thread
+     */
+    public void generate(RowSink sink) {
+        generate(rows -> rows, rows -> rows.forEach(sink::accept));
+    }
+
+    /**
+     * Generate and encode chunks in parallel and pass the encoded chunks to the consumer in
+     * order, on the calling thread. A few chunks per core are in flight at a time, so memory use
+     * does not depend on the number of rows.
+     */
+    public <T> void generate(Function<List<Map<String, Object>>, T> encoder,
+            Consumer<T> consumer) {
+        long chunks = getChunkCount();
+        int window = 2 * Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        ArrayDeque<ForkJoinTask<T>> pending = new ArrayDeque<>(window);
+        long next = 0;
+        try {
+            while (next < chunks || !pending.isEmpty()) {
+                while (next < chunks && pending.size() < window) {
+                    long chunk = next++;
+                    pending.add(ForkJoinPool.commonPool()
+                            .submit(() -> encoder.apply(chunk(chunk))));
+                }
+                consumer.accept(pending.poll().join());
+            }
+        } finally {
+            pending.forEach(task -> task.cancel(false));
+        }
+    }
+
+    /**
+     * 64-bit finalizer of SplittableRandom, spreading seeds that differ in a few bits
+     */
+    static long mix(long value) {
+        long z = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static IllegalArgumentException invalid(String column, String message) {
+        return new IllegalArgumentException("Generator of column " + column + ": " + message);
+    }
+
+    /**
+     * Generator of one column: picks an ordinal (position in the values of the column) and lets
+     * the codec turn it into a value
+     */
+    private static final class Column {
+
+        private final String name;
+        private final Codec codec;
+        private final ValueDistribution distribution;
+        private final double nullRate;
+        private final long step;
+        private final IndexPermutation permutation;
+        private final double mean;
+        private final double stddev;
+        private final double[] cumulativeWeights;
+
+        private Column(String name, Codec codec, ValueDistribution distribution, double nullRate,
+                long step, IndexPermutation permutation, double mean, double stddev,
+                double[] cumulativeWeights) {
+            this.name = name;
+            this.codec = codec;
+            this.distribution = distribution;
+            this.nullRate = nullRate;
+            this.step = step;
+            this.permutation = permutation;
+            this.mean = mean;
+            this.stddev = stddev;
+            this.cumulativeWeights = cumulativeWeights;
+        }
+
+        static Column compile(DataFile.ColumnDefinition definition,
+                RowGenerateRequest.ColumnGenerator spec, long rowCount, long key) {
+            String name = definition.getName();
+            boolean keyColumn = Boolean.TRUE.equals(definition.getKey());
+            ValueDistribution distribution = spec.getDistribution() != null
+                    ? spec.getDistribution()
+                    : keyColumn && spec.getValues() == null ? ValueDistribution.SEQUENCE
+                    : ValueDistribution.UNIFORM;
+            boolean unique = spec.getUnique() != null ? spec.getUnique() : keyColumn;
+
+            double nullRate = spec.getNullRate() != null ? spec.getNullRate() : 0;
+            if (!(nullRate >= 0 && nullRate < 1)) {
+                throw invalid(name, "null rate must be at least 0 and below 1");
+            }
+            if (nullRate > 0 && (keyColumn || Boolean.TRUE.equals(definition.getRequired()))) {
+                throw invalid(name, "key and required columns cannot be null");
+            }
+
+            Codec codec = Codec.of(definition, spec, distribution == ValueDistribution.SEQUENCE);
+            if (spec.getStep() != null && distribution != ValueDistribution.SEQUENCE) {
+                throw invalid(name, "step needs a SEQUENCE");
+            }
+            long step = spec.getStep() != null ? spec.getStep() : 1;
+            long lastOrdinal;
+            try {
+                lastOrdinal = Math.multiplyExact(rowCount - 1, step);
+            } catch (ArithmeticException e) {
+                throw invalid(name, "step is too large for " + rowCount + " rows");
+            }
+
+            if (unique) {
+                if (distribution == ValueDistribution.NORMAL || spec.getWeights() != null) {
+                    throw invalid(name, "unique values cannot follow a NORMAL distribution "
+                            + "or weights");
+                }
+                long needed = distribution == ValueDistribution.SEQUENCE ? lastOrdinal + 1
+                        : rowCount;
+                if (codec.size() < needed) {
+                    throw invalid(name, "only " + codec.size() + " distinct values for "
+                            + rowCount + " unique rows");
+                }
+            }
+            IndexPermutation permutation = unique && distribution == ValueDistribution.UNIFORM
+                    ? new IndexPermutation(Math.min(codec.size(), IndexPermutation.MAX_SIZE), key)
+                    : null;
+
+            if ((spec.getMean() != null || spec.getStddev() != null)
+                    && distribution != ValueDistribution.NORMAL) {
+                throw invalid(name, "mean and stddev need a NORMAL distribution");
+            }
+            double mean = spec.getMean() != null ? codec.ordinal(name, spec.getMean())
+                    : (codec.size() - 1) / 2.0;
+            double stddev = spec.getStddev() != null ? spec.getStddev() * codec.unitsPerValue()
+                    : codec.size() / 6.0;
+            if (!(stddev > 0) || Double.isInfinite(stddev)) {
+                throw invalid(name, "stddev must be positive");
+            }
+
+            return new Column(name, codec, distribution, nullRate, step, permutation, mean,
+                    stddev, cumulativeWeights(name, spec, distribution));
+        }
+
+        private static double[] cumulativeWeights(String name,
+                RowGenerateRequest.ColumnGenerator spec, ValueDistribution distribution) {
+            List<Double> weights = spec.getWeights();
+            if (weights == null) {
+                return null;
+            }
+            if (spec.getValues() == null || weights.size() != spec.getValues().size()) {
+                throw invalid(name, "weights need one dictionary value each");
+            }
+            if (distribution != ValueDistribution.UNIFORM) {
+                throw invalid(name, "weights cannot be combined with a " + distribution);
+            }
+            double[] cumulative = new double[weights.size()];
+            double total = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                Double weight = weights.get(i);
+                if (weight == null || !(weight >= 0) || Double.isInfinite(weight)) {
+                    throw invalid(name, "weights must be zero or positive numbers");
+                }
+                total += weight;
+                cumulative[i] = total;
+            }
+            if (!(total > 0)) {
+                throw invalid(name, "at least one weight must be positive");
+            }
+            return cumulative;
+        }
+
+        Object value(long row, SplittableRandom random) {
+            if (nullRate > 0 && random.nextDouble() < nullRate) {
+                return null;
+            }
+            if (permutation != null) {
+                return codec.value(permutation.apply(row));
+            }
+            if (cumulativeWeights != null) {
+                return codec.value(weighted(random));
+            }
+            return switch (distribution) {
+                case SEQUENCE -> codec.value(Math.floorMod(row * step, codec.size()));
+                case UNIFORM -> codec.random(random);
+                case NORMAL -> codec.value(normal(random));
+            };
+        }
+
+        /**
+         * First value whose cumulative weight exceeds a uniform draw (never a zero weight one)
+         */
+        private long weighted(SplittableRandom random) {
+            double draw = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            int low = 0;
+            int high = cumulativeWeights.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulativeWeights[middle] > draw) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        private long normal(SplittableRandom random) {
+            double max = codec.size() - 1;
+            double ordinal = 0;
+            for (int attempt = 0; attempt < NORMAL_ATTEMPTS; attempt++) {
+                ordinal = Math.rint(mean + stddev * random.nextGaussian());
+                if (ordinal >= 0 && ordinal <= max) {
+                    return (long) ordinal;
+                }
+            }
+            // Only reached when the range cuts off most of the curve
+            return (long) Math.max(0, Math.min(max, ordinal));
+        }
+    }
+
+    /**
+     * Maps ordinals 0..size-1 to the values of a column, in ascending order where values have one
+     */
+    private abstract static class Codec {
+
+        abstract long size();
+
+        abstract Object value(long ordinal);
+
+        Object random(SplittableRandom random) {
+            return value(random.nextLong(size()));
+        }
+
+        /**
+         * Ordinal of a value given as text, for the mean of a normal distribution
+         */
+        double ordinal(String column, String value) {
+            throw invalid(column, "mean needs an INTEGER, DECIMAL, DATE or DATETIME column");
+        }
+
+        /**
+         * Ordinals per unit of the column (per day of DATE and per second of DATETIME columns)
+         */
+        double unitsPerValue() {
+            return 1;
+        }
+
+        static Codec of(DataFile.ColumnDefinition definition,
+                RowGenerateRequest.ColumnGenerator spec, boolean sequence) {
+            String name = definition.getName();
+            DataFile.ColumnDefinition.DataType type = definition.getDataType() != null
+                    ? definition.getDataType() : DataFile.ColumnDefinition.DataType.STRING;
+            boolean ranged = spec.getMin() != null || spec.getMax() != null;
+            if (spec.getValues() != null) {
+                if (ranged || spec.getPattern() != null || spec.getScale() != null) {
+                    throw invalid(name, "values cannot be combined with a range or pattern");
+                }
+                return new DictionaryCodec(definition, spec.getValues());
+            }
+            if (spec.getWeights() != null) {
+                throw invalid(name, "weights need dictionary values");
+            }
+            if (spec.getPattern() != null && type != DataFile.ColumnDefinition.DataType.STRING) {
+                throw invalid(name, "pattern needs a STRING column");
+            }
+            if (spec.getScale() != null && type != DataFile.ColumnDefinition.DataType.DECIMAL) {
+                throw invalid(name, "scale needs a DECIMAL column");
+            }
+            return switch (type) {
+                case INTEGER -> NumberCodec.of(name, spec.getMin(), spec.getMax(), 0, "1",
+                        sequence ? null : "1000000");
+                case DECIMAL -> NumberCodec.of(name, spec.getMin(), spec.getMax(),
+                        spec.getScale() != null ? spec.getScale() : 2, "0",
+                        sequence ? null : "10000");
+                case DATE -> TemporalCodec.of(name, spec.getMin(), spec.getMax(), false,
+                        "2020-01-01", sequence ? "9999-12-31" : "2029-12-31");
+                case DATETIME -> TemporalCodec.of(name, spec.getMin(), spec.getMax(), true,
+                        "2020-01-01T00:00:00",
+                        sequence ? "9999-12-31T23:59:59" : "2029-12-31T23:59:59");
+                case BOOLEAN, STRING, JSON -> {
+                    if (ranged) {
+                        throw invalid(name,
+                                "min and max need an INTEGER, DECIMAL, DATE or DATETIME column");
+                    }
+                    if (type == DataFile.ColumnDefinition.DataType.BOOLEAN) {
+                        yield new BooleanCodec();
+                    }
+                    if (type == DataFile.ColumnDefinition.DataType.JSON) {
+                        throw invalid(name, "JSON columns need dictionary values");
+                    }
+                    yield PatternCodec.of(definition, spec.getPattern());
+                }
+            };
+        }
+
+        /**
+         * Number of ordinals from min to max, saturating at Long.MAX_VALUE
+         */
+        static long size(String column, long min, long max) {
+            if (max < min) {
+                throw invalid(column, "max is below min");
+            }
+            long span = max - min;
+            return span < 0 || span == Long.MAX_VALUE ? Long.MAX_VALUE : span + 1;
+        }
+    }
+
+    /**
+     * INTEGER values (Long), or DECIMAL values of a fixed scale (BigDecimal)
+     */
+    private static final class NumberCodec extends Codec {
+
+        private final long min;
+        private final long size;
+        private final int scale;
+
+        private NumberCodec(long min, long size, int scale) {
+            this.min = min;
+            this.size = size;
+            this.scale = scale;
+        }
+
+        static NumberCodec of(String column, String min, String max, int scale, String defaultMin,
+                String defaultMax) {
+            if (scale > MAX_SCALE) {
+                throw invalid(column, "scale must not exceed " + MAX_SCALE);
+            }
+            long low = unscaled(column, min != null ? min : defaultMin, scale);
+            long high = max != null ? unscaled(column, max, scale)
+                    : defaultMax != null ? unscaled(column, defaultMax, scale) : Long.MAX_VALUE;
+            return new NumberCodec(low, size(column, low, high), scale);
+        }
+
+        private static long unscaled(String column, String value, int scale) {
+            try {
+                return new BigDecimal(value.trim())
+                        .setScale(scale, scale == 0 ? RoundingMode.UNNECESSARY
+                                : RoundingMode.HALF_UP)
+                        .unscaledValue().longValueExact();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw invalid(column, "not a " + (scale == 0 ? "whole" : "decimal")
+                        + " number in range: " + value);
+            }
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+
+        @Override
+        Object value(long ordinal) {
+            long unscaled = min + ordinal;
+            return scale == 0 ? (Object) unscaled : BigDecimal.valueOf(unscaled, scale);
+        }
+
+        @Override
+        double ordinal(String column, String value) {
+            try {
+                return new BigDecimal(value.trim()).movePointRight(scale).doubleValue() - min;
+            } catch (NumberFormatException e) {
+                throw invalid(column, "mean is not a number: " + value);
+            }
+        }
+
+        @Override
+        double unitsPerValue() {
+            return Math.pow(10, scale);
+        }
+    }
+
+    /**
+     * DATE values (days) or DATETIME values (seconds), as ISO text
+     */
+    private static final class TemporalCodec extends Codec {
+
+        private final long min;
+        private final long size;
+        private final boolean dateTime;
+
+        private TemporalCodec(long min, long size, boolean dateTime) {
+            this.min = min;
+            this.size = size;
+            this.dateTime = dateTime;
+        }
+
+        static TemporalCodec of(String column, String min, String max, boolean dateTime,
+                String defaultMin, String defaultMax) {
+            long low = parse(column, min != null ? min : defaultMin, dateTime);
+            long high = parse(column, max != null ? max : defaultMax, dateTime);
+            return new TemporalCodec(low, size(column, low, high), dateTime);
+        }
+
+        private static long parse(String column, String value, boolean dateTime) {
+            long parsed = dateTime ? ValueParsers.parseEpochMillis(value)
+                    : ValueParsers.parseEpochDay(value);
+            if (parsed == ValueParsers.INVALID) {
+                throw invalid(column, "not a " + (dateTime ? "date-time" : "date") + ": "
+                        + value);
+            }
+            return dateTime ? Math.floorDiv(parsed, 1000) : parsed;
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+
+        @Override
+        Object value(long ordinal) {
+            char[] buffer = new char[19];
+            int length = dateTime ? ValueParsers.formatEpochSecond(min + ordinal, buffer, 0)
+                    : ValueParsers.formatEpochDay(min + ordinal, buffer, 0);
+            return new String(buffer, 0, length);
+        }
+
+        @Override
+        double ordinal(String column, String value) {
+            return parse(column, value, dateTime) - min;
+        }
+    }
+
+    private static final class BooleanCodec extends Codec {
+
+        @Override
+        long size() {
+            return 2;
+        }
+
+        @Override
+        Object value(long ordinal) {
+            return ordinal == 1;
+        }
+    }
+
+    /**
+     * STRING values of a pattern; ordinals count through the pattern like a number whose digits
+     * are the variable positions, so sequences and unique values never repeat
+     */
+    private static final class PatternCodec extends Codec {
+
+        private static final String DIGITS = "0123456789";
+        private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        private static final String ALPHANUMERIC = DIGITS + LETTERS;
+
+        private final char[] template;
+        private final String[] alphabets;
+        private final long size;
+
+        private PatternCodec(char[] template, String[] alphabets, long size) {
+            this.template = template;
+            this.alphabets = alphabets;
+            this.size = size;
+        }
+
+        static PatternCodec of(DataFile.ColumnDefinition definition, String pattern) {
+            String name = definition.getName();
+            Integer maxLength = definition.getMaxLength();
+            if (pattern == null) {
+                int length = maxLength != null && maxLength > 0
+                        ? Math.min(maxLength, DEFAULT_TEXT_LENGTH) : DEFAULT_TEXT_LENGTH;
+                pattern = (Boolean.TRUE.equals(definition.getKey()) ? "#" : "?").repeat(length);
+            }
+            StringBuilder template = new StringBuilder(pattern.length());
+            List<String> alphabets = new ArrayList<>(pattern.length());
+            long size = 1;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                String alphabet = switch (c) {
+                    case '#' -> DIGITS;
+                    case '?' -> LETTERS;
+                    case '*' -> ALPHANUMERIC;
+                    default -> null;
+                };
+                if (c == '\\' && i + 1 < pattern.length()) {
+                    c = pattern.charAt(++i);
+                }
+                template.append(alphabet != null ? ' ' : c);
+                alphabets.add(alphabet);
+                if (alphabet != null) {
+                    size = size > Long.MAX_VALUE / alphabet.length() ? Long.MAX_VALUE
+                            : size * alphabet.length();
+                }
+            }
+            if (template.length() == 0) {
+                throw invalid(name, "pattern is empty");
+            }
+            if (maxLength != null && maxLength > 0 && template.length() > maxLength) {
+                throw invalid(name, "pattern gives " + template.length()
+                        + " characters, more than the maximum length " + maxLength);
+            }
+            return new PatternCodec(template.toString().toCharArray(),
+                    alphabets.toArray(String[]::new), size);
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+
+        @Override
+        Object value(long ordinal) {
+            char[] text = template.clone();
+            long rest = ordinal;
+            for (int i = text.length - 1; i >= 0; i--) {
+                String alphabet = alphabets[i];
+                if (alphabet != null) {
+                    text[i] = alphabet.charAt((int) (rest % alphabet.length()));
+                    rest /= alphabet.length();
+                }
+            }
+            return new String(text);
+        }
+
+        @Override
+        Object random(SplittableRandom random) {
+            // Position by position, so patterns with more values than a long still vary in full
+            char[] text = template.clone();
+            for (int i = 0; i < text.length; i++) {
+                String alphabet = alphabets[i];
+                if (alphabet != null) {
+                    text[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+                }
+            }
+            return new String(text);
+        }
+    }
+
+    /**
+     * Values picked from a list, each checked against the column definition up front
+     */
+    private static final class DictionaryCodec extends Codec {
+
+        private final Object[] values;
+
+        DictionaryCodec(DataFile.ColumnDefinition definition, List<Object> values) {
+            String name = definition.getName();
+            if (values.isEmpty()) {
+                throw invalid(name, "values are empty");
+            }
+            CompiledRowValidator validator = CompiledRowValidator.forColumns(List.of(definition));
+            for (Object value : values) {
+                if (value == null) {
+                    throw invalid(name, "values cannot be null, use a null rate instead");
+                }
+                Map<String, Object> row = Collections.singletonMap(name, value);
+                int column = validator.firstError(row);
+                if (column >= 0) {
+                    throw invalid(name, validator.describe(column, row));
+                }
+            }
+            this.values = values.toArray();
+        }
+
+        @Override
+        long size() {
+            return values.length;
+        }
+
+        @Override
+        Object value(long ordinal) {
+            return values[(int) ordinal];
+        }
+    }
+}
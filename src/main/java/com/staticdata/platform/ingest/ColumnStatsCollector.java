@@ -0,0 +1,167 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.query.ValueKind;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes {@link DataFile.ColumnStats} in one pass over rows as they are written: null counts,
+ * min and max, a HyperLogLog distinct estimate, frequent values and the average length of text
+ * cells. Memory per column is constant. Frequent values use the Misra-Gries summary, which is
+ * exact for columns with few distinct values and never overstates a count. Column types are
+ * only needed at the end, so imports can infer them after the rows. Not thread-safe.
+ */
+public class ColumnStatsCollector implements RowSink {
+
+    /**
+     * Values tracked per column for the frequent value summary
+     */
+    private static final int TRACKED_VALUES = 64;
+    private static final int TOP_VALUES = 10;
+
+    private final Map<String, ColumnCollector> columns = new LinkedHashMap<>();
+    private long rowCount;
+
+    /**
+     * Statistics of a complete list of rows
+     */
+    public static List<DataFile.ColumnStats> of(List<Map<String, Object>> rows,
+            List<DataFile.ColumnDefinition> definitions) {
+        ColumnStatsCollector collector = new ColumnStatsCollector();
+        rows.forEach(collector::accept);
+        return collector.finish(definitions);
+    }
+
+    @Override
+    public void accept(Map<String, Object> row) {
+        rowCount++;
+        for (Map.Entry<String, Object> cell : row.entrySet()) {
+            if (cell.getValue() != null) {
+                columns.computeIfAbsent(cell.getKey(), k -> new ColumnCollector())
+                        .add(cell.getValue());
+            }
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Statistics of the defined columns followed by the other columns found in the rows
+     */
+    public List<DataFile.ColumnStats> finish(List<DataFile.ColumnDefinition> definitions) {
+        Map<String, DataFile.ColumnDefinition.DataType> types = new LinkedHashMap<>();
+        if (definitions != null) {
+            definitions.forEach(d -> types.put(d.getName(), d.getDataType()));
+        }
+        columns.keySet().forEach(name -> types.putIfAbsent(name, null));
+        List<DataFile.ColumnStats> stats = new ArrayList<>(types.size());
+        types.forEach((name, type) -> {
+            ColumnCollector column = columns.getOrDefault(name, new ColumnCollector());
+            stats.add(column.toStats(name, type, rowCount));
+        });
+        return stats;
+    }
+
+    private static final class ColumnCollector {
+
+        private long nonNull;
+        private Number minNumber;
+        private Number maxNumber;
+        private String minText;
+        private String maxText;
+        private boolean seenFalse;
+        private boolean seenTrue;
+        private long textCells;
+        private long textLength;
+        private final HyperLogLog distinct = new HyperLogLog();
+        private final Map<String, long[]> frequent = new HashMap<>();
+
+        void add(Object value) {
+            nonNull++;
+            if (value instanceof Number number) {
+                if (minNumber == null || ValueKind.NUMBER.compare(number, minNumber) < 0) {
+                    minNumber = number;
+                }
+                if (maxNumber == null || ValueKind.NUMBER.compare(number, maxNumber) > 0) {
+                    maxNumber = number;
+                }
+            } else if (value instanceof String text) {
+                if (minText == null || text.compareTo(minText) < 0) {
+                    minText = text;
+                }
+                if (maxText == null || text.compareTo(maxText) > 0) {
+                    maxText = text;
+                }
+                textCells++;
+                textLength += text.length();
+            } else if (value instanceof Boolean bool) {
+                seenTrue |= bool;
+                seenFalse |= !bool;
+            }
+            String key = ValueParsers.canonicalText(value);
+            if (key != null) {
+                distinct.add(key);
+                count(key);
+            }
+        }
+
+        /**
+         * Misra-Gries step: when all counters are taken, an unseen value decrements every
+         * counter instead of getting one (amortized constant time)
+         */
+        private void count(String key) {
+            long[] counter = frequent.get(key);
+            if (counter != null) {
+                counter[0]++;
+            } else if (frequent.size() < TRACKED_VALUES) {
+                frequent.put(key, new long[] {1});
+            } else {
+                Iterator<long[]> counters = frequent.values().iterator();
+                while (counters.hasNext()) {
+                    if (--counters.next()[0] == 0) {
+                        counters.remove();
+                    }
+                }
+            }
+        }
+
+        DataFile.ColumnStats toStats(String name, DataFile.ColumnDefinition.DataType type,
+                long rowCount) {
+            DataFile.ColumnStats stats = new DataFile.ColumnStats().setName(name)
+                    .setDataType(type).setNullCount(rowCount - nonNull).setNonNullCount(nonNull)
+                    .setDistinctEstimate(Math.min(distinct.estimate(), nonNull))
+                    .setAverageLength(textCells == 0 ? null : (double) textLength / textCells)
+                    .setTopValues(frequent.entrySet().stream()
+                            .filter(e -> e.getValue()[0] > 1)
+                            .sorted(Comparator.comparingLong(
+                                    (Map.Entry<String, long[]> e) -> -e.getValue()[0])
+                                    .thenComparing(Map.Entry::getKey))
+                            .limit(TOP_VALUES)
+                            .map(e -> new DataFile.ColumnStats.ValueCount().setValue(e.getKey())
+                                    .setCount(e.getValue()[0]))
+                            .toList());
+            switch (ValueKind.of(type)) {
+                case NUMBER -> stats.setMin(minNumber).setMax(maxNumber);
+                case TEXT -> stats.setMin(minText).setMax(maxText);
+                case BOOLEAN -> {
+                    if (seenFalse || seenTrue) {
+                        stats.setMin(!seenFalse).setMax(seenTrue);
+                    }
+                }
+                default -> {
+                    // JSON and undefined columns mix types, so there is no single order
+                }
+            }
+            return stats;
+        }
+    }
+}
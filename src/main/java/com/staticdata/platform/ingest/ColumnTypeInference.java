@@ -0,0 +1,154 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.entity.DataFile;
+
+/**
+ * Infers the data type of an imported column from the values observed while streaming, so that
+ * imports never need a second pass over the rows
+ */
+public class ColumnTypeInference {
+
+    private DataFile.ColumnDefinition.DataType type;
+    private boolean sawValue;
+    private boolean sawNull;
+    private int maxLength;
+
+    /**
+     * Observe one cell value
+     */
+    public void observe(Object value) {
+        if (value == null || (value instanceof String s && s.isEmpty())) {
+            sawNull = true;
+            return;
+        }
+        DataFile.ColumnDefinition.DataType observed = typeOf(value);
+        if (value instanceof String s) {
+            maxLength = Math.max(maxLength, s.length());
+        }
+        type = sawValue ? widen(type, observed) : observed;
+        sawValue = true;
+    }
+
+    /**
+     * Inferred type, STRING when nothing but blanks were seen
+     */
+    public DataFile.ColumnDefinition.DataType getType() {
+        return type != null ? type : DataFile.ColumnDefinition.DataType.STRING;
+    }
+
+    /**
+     * Whether every observed row had a value for this column
+     */
+    public boolean isAlwaysPresent() {
+        return sawValue && !sawNull;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    static DataFile.ColumnDefinition.DataType typeOf(Object value) {
+        if (value instanceof Boolean) {
+            return DataFile.ColumnDefinition.DataType.BOOLEAN;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            return DataFile.ColumnDefinition.DataType.INTEGER;
+        }
+        if (value instanceof Number) {
+            return DataFile.ColumnDefinition.DataType.DECIMAL;
+        }
+        if (value instanceof String s) {
+            return typeOfText(s);
+        }
+        return DataFile.ColumnDefinition.DataType.JSON;
+    }
+
+    static DataFile.ColumnDefinition.DataType typeOfText(String s) {
+        if ("true".equalsIgnoreCase(s) || "false".equalsIgnoreCase(s)) {
+            return DataFile.ColumnDefinition.DataType.BOOLEAN;
+        }
+        if (isIntegerText(s)) {
+            return DataFile.ColumnDefinition.DataType.INTEGER;
+        }
+        if (isDecimalText(s)) {
+            return DataFile.ColumnDefinition.DataType.DECIMAL;
+        }
+        if (isIsoDate(s, 0)) {
+            if (s.length() == 10) {
+                return DataFile.ColumnDefinition.DataType.DATE;
+            }
+            if (s.length() >= 19 && (s.charAt(10) == 'T' || s.charAt(10) == ' ')) {
+                return DataFile.ColumnDefinition.DataType.DATETIME;
+            }
+        }
+        return DataFile.ColumnDefinition.DataType.STRING;
+    }
+
+    private static DataFile.ColumnDefinition.DataType widen(DataFile.ColumnDefinition.DataType a,
+            DataFile.ColumnDefinition.DataType b) {
+        if (a == b) {
+            return a;
+        }
+        if (isNumeric(a) && isNumeric(b)) {
+            return DataFile.ColumnDefinition.DataType.DECIMAL;
+        }
+        if (isTemporal(a) && isTemporal(b)) {
+            return DataFile.ColumnDefinition.DataType.DATETIME;
+        }
+        return DataFile.ColumnDefinition.DataType.STRING;
+    }
+
+    private static boolean isNumeric(DataFile.ColumnDefinition.DataType t) {
+        return t == DataFile.ColumnDefinition.DataType.INTEGER
+                || t == DataFile.ColumnDefinition.DataType.DECIMAL;
+    }
+
+    private static boolean isTemporal(DataFile.ColumnDefinition.DataType t) {
+        return t == DataFile.ColumnDefinition.DataType.DATE
+                || t == DataFile.ColumnDefinition.DataType.DATETIME;
+    }
+
+    private static boolean isIntegerText(String s) {
+        int start = s.charAt(0) == '-' || s.charAt(0) == '+' ? 1 : 0;
+        // Longer values would overflow a long; keep them as text
+        if (start == s.length() || s.length() - start > 18) {
+            return false;
+        }
+        for (int i = start; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDecimalText(String s) {
+        int start = s.charAt(0) == '-' || s.charAt(0) == '+' ? 1 : 0;
+        boolean digits = false;
+        boolean dot = false;
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return false;
+            }
+        }
+        return digits;
+    }
+
+    private static boolean isIsoDate(String s, int offset) {
+        if (s.length() < offset + 10 || s.charAt(offset + 4) != '-'
+                || s.charAt(offset + 7) != '-') {
+            return false;
+        }
+        for (int i = offset; i < offset + 10; i++) {
+            if (i - offset != 4 && i - offset != 7 && !Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
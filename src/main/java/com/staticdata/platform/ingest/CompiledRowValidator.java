@@ -0,0 +1,332 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.columnar.ColumnVector;
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.RowValidationReport;
+import com.staticdata.platform.entity.DataFile;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Row validator compiled from a list of column definitions. The definitions are flattened into
+ * parallel arrays once and cached by their signature, so validating a row is a loop over arrays
+ * with type checks that do not allocate for valid values. Large row lists are validated in
+ * parallel chunks on the common fork/join pool.
+ */
+public final class CompiledRowValidator {
+
+    public static final int DEFAULT_MAX_ERRORS = 100;
+
+    static final int PARALLEL_THRESHOLD = 8_192;
+    static final int CHUNK_SIZE = 2_048;
+
+    private static final int CACHE_SIZE = 256;
+    private static final int VALID = 0;
+    private static final int MISSING = 1;
+    private static final int WRONG_TYPE = 2;
+    private static final int TOO_LONG = 3;
+
+    private static final Map<String, CompiledRowValidator> CACHE =
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, CompiledRowValidator> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    private final String[] names;
+    private final DataFile.ColumnDefinition.DataType[] types;
+    private final boolean[] required;
+    private final int[] maxLengths;
+
+    private CompiledRowValidator(List<DataFile.ColumnDefinition> columns) {
+        int count = columns.size();
+        names = new String[count];
+        types = new DataFile.ColumnDefinition.DataType[count];
+        required = new boolean[count];
+        maxLengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            DataFile.ColumnDefinition column = columns.get(i);
+            names[i] = column.getName();
+            types[i] = column.getDataType();
+            required[i] = Boolean.TRUE.equals(column.getRequired());
+            maxLengths[i] = column.getMaxLength() != null && column.getMaxLength() > 0
+                    ? column.getMaxLength()
+                    : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Get the (cached) validator for a list of column definitions
+     */
+    public static CompiledRowValidator forColumns(List<DataFile.ColumnDefinition> columns) {
+        List<DataFile.ColumnDefinition> defined = columns != null ? columns : List.of();
+        String signature = signature(defined);
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(signature, key -> new CompiledRowValidator(defined));
+        }
+    }
+
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    /**
+     * Index of the first invalid column of a row, or -1 when the row is valid
+     */
+    public int firstError(Map<String, Object> row) {
+        for (int i = 0; i < names.length; i++) {
+            if (problem(i, row.get(names[i])) != VALID) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Describe why a column of a row is invalid
+     */
+    public String describe(int column, Map<String, Object> row) {
+        return describe(column, row.get(names[column]));
+    }
+
+    private String describe(int column, Object value) {
+        return switch (problem(column, value)) {
+            case MISSING -> "column '" + names[column] + "' is required";
+            case WRONG_TYPE -> "column '" + names[column] + "' expects " + types[column]
+                    + " but got " + abbreviate(value);
+            case TOO_LONG -> "column '" + names[column] + "' exceeds maximum length "
+                    + maxLengths[column];
+            default -> "column '" + names[column] + "' is valid";
+        };
+    }
+
+    /**
+     * Check all columns of one row, adding its errors to the collector
+     */
+    public void check(long rowNumber, Map<String, Object> row, ErrorCollector errors) {
+        errors.rowsChecked++;
+        for (int i = 0; i < names.length; i++) {
+            if (problem(i, row.get(names[i])) != VALID) {
+                errors.add(rowNumber, names[i], describe(i, row));
+            }
+        }
+    }
+
+    /**
+     * Validate a list of rows, in parallel chunks when the list is large
+     */
+    public RowValidationReport validate(List<Map<String, Object>> rows, int maxErrors) {
+        return validate(rows.size(), maxErrors, (i, errors) -> check(i + 1L, rows.get(i), errors));
+    }
+
+    /**
+     * Validate the rows of a columnar table. Typed cells already have the column type, so only
+     * null, exceptional and string cells that are over-long, or empty in a required column,
+     * need a closer look; the latter are found by dictionary code, checked once per column.
+     */
+    public RowValidationReport validate(ColumnarTable table, int maxErrors) {
+        ColumnVector[] vectors = new ColumnVector[names.length];
+        BitSet[] invalidCodes = new BitSet[names.length];
+        for (int i = 0; i < names.length; i++) {
+            vectors[i] = table.column(names[i]);
+            if (vectors[i] instanceof ColumnVector.StringVector strings
+                    && (required[i] || maxLengths[i] != Integer.MAX_VALUE)) {
+                invalidCodes[i] = new BitSet();
+                List<String> dictionary = strings.getDictionary();
+                for (int code = 0; code < dictionary.size(); code++) {
+                    if (problem(i, dictionary.get(code)) != VALID) {
+                        invalidCodes[i].set(code);
+                    }
+                }
+            }
+        }
+        return validate(table.getRowCount(), maxErrors, (row, errors) -> {
+            errors.rowsChecked++;
+            for (int i = 0; i < names.length; i++) {
+                ColumnVector vector = vectors[i];
+                if (vector != null && vector.isTyped(row) && vector.getDataType() == types[i]) {
+                    if (invalidCodes[i] != null && invalidCodes[i]
+                            .get(((ColumnVector.StringVector) vector).getCode(row))) {
+                        errors.add(row + 1L, names[i], describe(i, vector.get(row)));
+                    }
+                    continue;
+                }
+                Object value = vector != null ? vector.get(row) : null;
+                if (problem(i, value) != VALID) {
+                    errors.add(row + 1L, names[i], describe(i, value));
+                }
+            }
+        });
+    }
+
+    private RowValidationReport validate(int rowCount, int maxErrors, RowCheck rowCheck) {
+        if (names.length == 0 || rowCount < PARALLEL_THRESHOLD) {
+            ErrorCollector errors = new ErrorCollector(maxErrors);
+            if (names.length == 0) {
+                errors.rowsChecked = rowCount;
+            } else {
+                for (int i = 0; i < rowCount; i++) {
+                    rowCheck.check(i, errors);
+                }
+            }
+            return errors.toReport();
+        }
+        return ForkJoinPool.commonPool()
+                .invoke(new ValidationTask(rowCheck, 0, rowCount, maxErrors)).toReport();
+    }
+
+    private int problem(int column, Object value) {
+        if (value == null || (value instanceof String s && s.isEmpty())) {
+            return required[column] ? MISSING : VALID;
+        }
+        DataFile.ColumnDefinition.DataType type = types[column];
+        if (type == null || type == DataFile.ColumnDefinition.DataType.JSON) {
+            return VALID;
+        }
+        if (value instanceof Map || value instanceof Collection) {
+            return WRONG_TYPE;
+        }
+        return switch (type) {
+            case STRING -> maxLengths[column] != Integer.MAX_VALUE
+                    && length(value) > maxLengths[column] ? TOO_LONG : VALID;
+            case INTEGER -> isInteger(value) ? VALID : WRONG_TYPE;
+            case DECIMAL -> value instanceof Number
+                    || (value instanceof String s && ValueParsers.isDecimal(s))
+                    ? VALID : WRONG_TYPE;
+            case BOOLEAN -> value instanceof Boolean
+                    || (value instanceof String s && ValueParsers.isBoolean(s))
+                    ? VALID : WRONG_TYPE;
+            case DATE -> value instanceof String s
+                    && ValueParsers.parseEpochDay(s) != ValueParsers.INVALID
+                    ? VALID : WRONG_TYPE;
+            case DATETIME -> value instanceof String s
+                    && ValueParsers.parseEpochMillis(s) != ValueParsers.INVALID
+                    ? VALID : WRONG_TYPE;
+            default -> VALID;
+        };
+    }
+
+    private static boolean isInteger(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return true;
+        }
+        return value instanceof String s && ValueParsers.isLong(s);
+    }
+
+    private static int length(Object value) {
+        return value instanceof String s ? s.length() : value.toString().length();
+    }
+
+    private static String abbreviate(Object value) {
+        String text = value instanceof String ? "\"" + value + "\"" : String.valueOf(value);
+        return text.length() > 40 ? text.substring(0, 37) + "..." : text;
+    }
+
+    private static String signature(List<DataFile.ColumnDefinition> columns) {
+        StringBuilder signature = new StringBuilder(columns.size() * 24);
+        for (DataFile.ColumnDefinition column : columns) {
+            signature.append(column.getName()).append('\u0000').append(column.getDataType())
+                    .append('\u0000').append(column.getRequired()).append('\u0000')
+                    .append(column.getMaxLength()).append('\u0001');
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Bounded error list: keeps the first maxErrors errors but counts all of them. Not
+     * thread-safe; parallel validation uses one collector per chunk and merges them in row order.
+     */
+    public static final class ErrorCollector {
+
+        private final int maxErrors;
+        private final List<RowValidationReport.RowError> errors = new ArrayList<>();
+        private long errorCount;
+        private long rowsChecked;
+
+        public ErrorCollector(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void add(long rowNumber, String column, String message) {
+            errorCount++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowValidationReport.RowError(rowNumber, column, message));
+            }
+        }
+
+        /**
+         * Append the errors of the chunk that follows this one
+         */
+        ErrorCollector merge(ErrorCollector next) {
+            for (RowValidationReport.RowError error : next.errors) {
+                if (errors.size() >= maxErrors) {
+                    break;
+                }
+                errors.add(error);
+            }
+            errorCount += next.errorCount;
+            rowsChecked += next.rowsChecked;
+            return this;
+        }
+
+        public RowValidationReport toReport() {
+            return RowValidationReport.builder()
+                    .valid(errorCount == 0)
+                    .rowsChecked(rowsChecked)
+                    .errorCount(errorCount)
+                    .truncated(errorCount > errors.size())
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+
+    /**
+     * Checks the row at a 0-based index
+     */
+    @FunctionalInterface
+    private interface RowCheck {
+        void check(int index, ErrorCollector errors);
+    }
+
+    private static final class ValidationTask extends RecursiveTask<ErrorCollector> {
+
+        private final RowCheck rowCheck;
+        private final int from;
+        private final int to;
+        private final int maxErrors;
+
+        ValidationTask(RowCheck rowCheck, int from, int to, int maxErrors) {
+            this.rowCheck = rowCheck;
+            this.from = from;
+            this.to = to;
+            this.maxErrors = maxErrors;
+        }
+
+        @Override
+        protected ErrorCollector compute() {
+            if (to - from <= CHUNK_SIZE) {
+                ErrorCollector errors = new ErrorCollector(maxErrors);
+                for (int i = from; i < to; i++) {
+                    rowCheck.check(i, errors);
+                }
+                return errors;
+            }
+            int middle = (from + to) >>> 1;
+            ValidationTask right = new ValidationTask(rowCheck, middle, to, maxErrors);
+            right.fork();
+            ErrorCollector left = new ValidationTask(rowCheck, from, middle, maxErrors).compute();
+            return left.merge(right.join());
+        }
+    }
+}
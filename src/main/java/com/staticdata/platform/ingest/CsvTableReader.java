@@ -0,0 +1,95 @@
+package com.staticdata.platform.ingest;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a UTF-8 CSV file with a header line into a table consumer, one record at a time.
+ * Canonical numbers and booleans become typed values so that CSV and XLSX imports of the same
+ * data store the same rows; everything else (including zero-padded codes) stays text.
+ */
+public class CsvTableReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Path file;
+
+    public CsvTableReader(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Read the file; an empty file does not start a table
+     */
+    public void read(TableConsumer consumer) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                CSVReader csv = new CSVReader(reader)) {
+            String[] first = csv.readNext();
+            if (first == null) {
+                return;
+            }
+            if (first.length > 0 && !first[0].isEmpty() && first[0].charAt(0) == BOM) {
+                first[0] = first[0].substring(1);
+            }
+            List<String> header = XlsxWorkbookReader.buildHeader(Arrays.asList(first));
+            RowSink sink = consumer.start(header);
+
+            String[] record;
+            while ((record = csv.readNext()) != null) {
+                if (record.length == 1 && record[0].isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> row = new LinkedHashMap<>(Math.max(16, header.size() * 2));
+                for (int i = 0; i < record.length; i++) {
+                    String name = i < header.size() ? header.get(i) : "column_" + (i + 1);
+                    row.put(name, value(record[i]));
+                }
+                sink.accept(row);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException(
+                    "Invalid CSV at line " + e.getLineNumber() + ": " + e.getMessage(), e);
+        }
+    }
+
+    static Object value(String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        if ("true".equals(text) || "false".equals(text)) {
+            return Boolean.valueOf(text);
+        }
+        if (!isCanonicalNumber(text)) {
+            return text;
+        }
+        return switch (ColumnTypeInference.typeOfText(text)) {
+            case INTEGER -> Long.parseLong(text);
+            case DECIMAL -> new BigDecimal(text);
+            default -> text;
+        };
+    }
+
+    /**
+     * Numbers that survive a round trip unchanged: no plus sign, no leading zeros, no dangling dot
+     */
+    private static boolean isCanonicalNumber(String text) {
+        int start = text.charAt(0) == '-' ? 1 : 0;
+        if (start == text.length() || text.charAt(start) == '+' || text.charAt(start) == '.'
+                || text.charAt(text.length() - 1) == '.') {
+            return false;
+        }
+        return text.charAt(start) != '0' || text.length() == start + 1
+                || text.charAt(start + 1) == '.';
+    }
+}
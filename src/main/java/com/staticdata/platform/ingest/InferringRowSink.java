@@ -0,0 +1,59 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.entity.DataFile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the inferred type of every column of an imported table while forwarding rows to the
+ * next sink. Columns that first appear after the header are added on the fly.
+ */
+public class InferringRowSink implements RowSink {
+
+    private final Map<String, ColumnTypeInference> columns = new LinkedHashMap<>();
+    private final RowSink delegate;
+    private long rowCount;
+
+    public InferringRowSink(List<String> header, RowSink delegate) {
+        this.delegate = delegate;
+        header.forEach(name -> columns.put(name, new ColumnTypeInference()));
+    }
+
+    @Override
+    public void accept(Map<String, Object> row) {
+        for (Map.Entry<String, ColumnTypeInference> column : columns.entrySet()) {
+            column.getValue().observe(row.get(column.getKey()));
+        }
+        for (Map.Entry<String, Object> cell : row.entrySet()) {
+            if (!columns.containsKey(cell.getKey())) {
+                ColumnTypeInference inference = new ColumnTypeInference();
+                if (rowCount > 0) {
+                    // Earlier rows did not have this column
+                    inference.observe(null);
+                }
+                inference.observe(cell.getValue());
+                columns.put(cell.getKey(), inference);
+            }
+        }
+        rowCount++;
+        delegate.accept(row);
+    }
+
+    /**
+     * Column definitions derived from everything seen so far
+     */
+    public List<DataFile.ColumnDefinition> toColumnDefinitions() {
+        List<DataFile.ColumnDefinition> definitions = new ArrayList<>(columns.size());
+        columns.forEach((name, inference) -> {
+            DataFile.ColumnDefinition definition = new DataFile.ColumnDefinition();
+            definition.setName(name);
+            definition.setDataType(inference.getType());
+            definition.setRequired(inference.isAlwaysPresent());
+            definitions.add(definition);
+        });
+        return definitions;
+    }
+}
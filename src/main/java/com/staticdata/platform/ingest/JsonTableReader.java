@@ -0,0 +1,72 @@
+package com.staticdata.platform.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Streams a JSON file into a table consumer with Jackson's streaming parser. Accepts either a
+ * top-level array of row objects or an object whose dataRows field holds that array (the body of
+ * a create request); the header is taken from the keys of the first row.
+ */
+public class JsonTableReader {
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public JsonTableReader(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read the file; a file without rows does not start a table
+     */
+    public void read(TableConsumer consumer) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(ROW_TYPE);
+        try (JsonParser parser = objectMapper.createParser(file.toFile())) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = seekRows(parser);
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array of rows or an object with "
+                        + StreamingRequestReader.ROWS_FIELD);
+            }
+            RowSink sink = null;
+            long rowCount = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Map<String, Object> row = rowReader.readValue(parser);
+                if (sink == null) {
+                    sink = consumer.start(new ArrayList<>(row.keySet()));
+                }
+                sink.accept(row);
+                rowCount++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Row " + (rowCount + 1) + " is not a JSON object");
+            }
+        }
+    }
+
+    private static JsonToken seekRows(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (StreamingRequestReader.ROWS_FIELD.equals(name)) {
+                return value;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.staticdata.platform.ingest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Pipeline stage masking rows before passing them on in their original order. Rows are collected
+ * into chunks that are masked on the common fork/join pool while the producer keeps reading; a
+ * few chunks per core are in flight at a time, so memory use does not depend on the size of the
+ * table. Masked rows reach the next sink on the thread calling accept and finish. Not
+ * thread-safe.
+ */
+public class MaskingRowSink implements RowSink {
+
+    static final int CHUNK_ROWS = 1_024;
+
+    private final RowMasker masker;
+    private final RowSink next;
+    private final int window = 2 * Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+    private final ArrayDeque<ForkJoinTask<List<Map<String, Object>>>> pending =
+            new ArrayDeque<>(window);
+    private List<Map<String, Object>> chunk = new ArrayList<>(CHUNK_ROWS);
+
+    public MaskingRowSink(RowMasker masker, RowSink next) {
+        this.masker = masker;
+        this.next = next;
+    }
+
+    @Override
+    public void accept(Map<String, Object> row) {
+        chunk.add(row);
+        if (chunk.size() == CHUNK_ROWS) {
+            submit();
+        }
+    }
+
+    /**
+     * Pass on all rows still buffered or being masked; call once after the last row
+     */
+    public void finish() {
+        if (!chunk.isEmpty()) {
+            submit();
+        }
+        while (!pending.isEmpty()) {
+            emit();
+        }
+    }
+
+    private void submit() {
+        List<Map<String, Object>> rows = chunk;
+        chunk = new ArrayList<>(CHUNK_ROWS);
+        pending.add(ForkJoinPool.commonPool().submit(() -> {
+            rows.forEach(masker::mask);
+            return rows;
+        }));
+        while (pending.size() >= window) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        pending.poll().join().forEach(next::accept);
+    }
+}
@@ -0,0 +1,108 @@
+package com.staticdata.platform.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.jfr.ImportBatchEvent;
+import com.staticdata.platform.repository.DataFileRowStore;
+import com.staticdata.platform.util.DataFileHashUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams rows into the row store in fixed-size batches while computing the content digest and
+ * the column statistics, so that at most one batch of rows is held in memory at any time.
+ * Not thread-safe.
+ */
+public class RowBatchWriter implements RowSink {
+
+    private final DataFileRowStore rowStore;
+    private final ObjectMapper objectMapper;
+    private final Long dataFileId;
+    private final int batchSize;
+    private final MessageDigest digest;
+    private final List<String> buffer;
+    private final ColumnStatsCollector columnStats = new ColumnStatsCollector();
+    private int rowCount;
+    private int flushedRows;
+    private long bufferedBytes;
+
+    public RowBatchWriter(DataFileRowStore rowStore, ObjectMapper objectMapper, Long dataFileId,
+            int batchSize) {
+        this.rowStore = rowStore;
+        this.objectMapper = objectMapper;
+        this.dataFileId = dataFileId;
+        this.batchSize = batchSize;
+        this.buffer = new ArrayList<>(batchSize);
+        try {
+            this.digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    @Override
+    public void accept(Map<String, Object> row) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Row " + rowCount + " is not serializable", e);
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        digest.update(bytes);
+        bufferedBytes += bytes.length;
+        columnStats.accept(row);
+        buffer.add(json);
+        rowCount++;
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Write buffered rows to the row store
+     */
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        ImportBatchEvent event = new ImportBatchEvent();
+        event.begin();
+        rowStore.insertRows(dataFileId, flushedRows, buffer);
+        if (event.shouldCommit()) {
+            event.fileId = dataFileId != null ? dataFileId : 0;
+            event.firstRow = flushedRows;
+            event.rows = buffer.size();
+            event.bytes = bufferedBytes;
+            event.commit();
+        }
+        flushedRows += buffer.size();
+        bufferedBytes = 0;
+        buffer.clear();
+    }
+
+    /**
+     * Flush remaining rows and return the hex digest of all written rows
+     */
+    public String finish() {
+        flush();
+        return DataFileHashUtils.toHex(digest.digest());
+    }
+
+    /**
+     * Statistics of the written rows for the given column definitions
+     */
+    public List<DataFile.ColumnStats> getColumnStats(List<DataFile.ColumnDefinition> columns) {
+        return columnStats.finish(columns);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+}
@@ -0,0 +1,282 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.dto.MaskingRule;
+import com.staticdata.platform.enums.MaskingStrategy;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Anonymizes the cells of rows according to a list of masking rules. Every masked value is
+ * derived from an HMAC-SHA256 of the original value under a secret key, so the same input gives
+ * the same output in every row and every file (keeping keys joinable) while the original cannot
+ * be recovered or guessed without the key. Works on one row at a time and is thread-safe.
+ */
+public final class RowMasker {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char[] TOKEN_ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int TOKEN_LENGTH = 12;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long MAX_RANGE = Integer.MAX_VALUE;
+    private static final String DEFAULT_NAMESPACE = "default";
+
+    private final String[] columns;
+    private final MaskingStrategy[] strategies;
+    private final long[] ranges;
+    private final String[] offsetColumns;
+    private final String[] namespaces;
+    private final String[] prefixes;
+    private final int shiftCount;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final TokenCache tokens;
+
+    /**
+     * @throws IllegalArgumentException when a column has several rules or a rule is incomplete
+     */
+    public RowMasker(List<MaskingRule> rules, byte[] secret, TokenCache tokens) {
+        int count = rules.size();
+        columns = new String[count];
+        strategies = new MaskingStrategy[count];
+        ranges = new long[count];
+        offsetColumns = new String[count];
+        namespaces = new String[count];
+        prefixes = new String[count];
+        Set<String> masked = new HashSet<>();
+        int shifts = 0;
+        for (int i = 0; i < count; i++) {
+            MaskingRule rule = rules.get(i);
+            String column = rule.getColumn();
+            if (!masked.add(column)) {
+                throw new IllegalArgumentException("Column masked more than once: " + column);
+            }
+            boolean shift = rule.getStrategy() == MaskingStrategy.SHIFT;
+            boolean tokenize = rule.getStrategy() == MaskingStrategy.TOKENIZE;
+            if (shift != (rule.getRange() != null)) {
+                throw new IllegalArgumentException("Masking of column " + column
+                        + ": a range is needed by SHIFT and only by SHIFT");
+            }
+            if (shift && (rule.getRange() < 1 || rule.getRange() > MAX_RANGE)) {
+                throw new IllegalArgumentException("Masking of column " + column
+                        + ": range must be between 1 and " + MAX_RANGE);
+            }
+            if (!shift && rule.getOffsetColumn() != null
+                    || !tokenize && (rule.getNamespace() != null || rule.getPrefix() != null)) {
+                throw new IllegalArgumentException("Masking of column " + column
+                        + ": offset column is only for SHIFT, namespace and prefix for TOKENIZE");
+            }
+            columns[i] = column;
+            strategies[i] = rule.getStrategy();
+            if (shift) {
+                ranges[i] = rule.getRange();
+                offsetColumns[i] = rule.getOffsetColumn() != null ? rule.getOffsetColumn() : column;
+                shifts++;
+            }
+            namespaces[i] = rule.getNamespace() != null ? rule.getNamespace() : DEFAULT_NAMESPACE;
+            prefixes[i] = rule.getPrefix() != null ? rule.getPrefix() : "";
+        }
+        this.shiftCount = shifts;
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.tokens = tokens;
+    }
+
+    /**
+     * Mask the cells of one row in place
+     */
+    public void mask(Map<String, Object> row) {
+        // Offsets come from the original values, before any column of the row is masked
+        long[] offsets = null;
+        if (shiftCount > 0) {
+            offsets = new long[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                if (strategies[i] == MaskingStrategy.SHIFT) {
+                    offsets[i] = offset(row.get(offsetColumns[i]), ranges[i]);
+                }
+            }
+        }
+        for (int i = 0; i < columns.length; i++) {
+            Object value = row.get(columns[i]);
+            if (value == null) {
+                continue;
+            }
+            Object masked = switch (strategies[i]) {
+                case NULL -> null;
+                case HASH -> hash(value);
+                case TOKENIZE -> tokenize(value, namespaces[i], prefixes[i]);
+                case SHIFT -> shift(value, offsets[i]);
+            };
+            if (masked == null) {
+                row.remove(columns[i]);
+            } else {
+                row.put(columns[i], masked);
+            }
+        }
+    }
+
+    /**
+     * Same shape as the value: numbers stay numbers of the same number of digits, booleans are
+     * kept, nested values are removed
+     */
+    Object hash(Object value) {
+        if (value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Map || value instanceof Collection) {
+            return null;
+        }
+        if (value instanceof String text) {
+            return hashText(text, false);
+        }
+        String text = ValueParsers.canonicalText(value);
+        if (text == null) {
+            return null;
+        }
+        String hashed = hashText(text, true);
+        if (value instanceof BigDecimal || value instanceof Double || value instanceof Float) {
+            return new BigDecimal(hashed);
+        }
+        BigInteger integer = new BigInteger(hashed);
+        return integer.bitLength() < 64 ? (Object) integer.longValue() : integer;
+    }
+
+    /**
+     * Keyed, character class preserving hash; the digits of a number keep a non-zero lead
+     */
+    private String hashText(String text, boolean number) {
+        byte[] stream = keyStream("hash", text, text.length());
+        char[] hashed = text.toCharArray();
+        boolean leading = true;
+        for (int i = 0; i < hashed.length; i++) {
+            char c = hashed[i];
+            int random = stream[i] & 0xFF;
+            if (Character.isDigit(c)) {
+                boolean multiDigit = i + 1 < hashed.length && Character.isDigit(hashed[i + 1]);
+                hashed[i] = number && leading && multiDigit ? (char) ('1' + random % 9)
+                        : (char) ('0' + random % 10);
+            } else if (Character.isUpperCase(c)) {
+                hashed[i] = (char) ('A' + random % 26);
+            } else if (Character.isLetter(c)) {
+                hashed[i] = (char) ('a' + random % 26);
+            }
+            leading = !Character.isDigit(c) && c != '.';
+        }
+        return new String(hashed);
+    }
+
+    private Object tokenize(Object value, String namespace, String prefix) {
+        String text = ValueParsers.canonicalText(value);
+        if (text == null) {
+            return null;
+        }
+        String token = tokens.get(namespace, text);
+        if (token == null) {
+            byte[] digest = keyStream("token:" + namespace, text, TOKEN_LENGTH);
+            char[] chars = new char[TOKEN_LENGTH];
+            for (int i = 0; i < TOKEN_LENGTH; i++) {
+                chars[i] = TOKEN_ALPHABET[digest[i] & 0x1F];
+            }
+            token = new String(chars);
+            tokens.put(namespace, text, token);
+        }
+        return prefix + token;
+    }
+
+    private long offset(Object source, long range) {
+        String text = ValueParsers.canonicalText(source);
+        byte[] digest = keyStream("shift", text != null ? text : "", Long.BYTES);
+        long random = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            random = random << 8 | (digest[i] & 0xFF);
+        }
+        return Math.floorMod(random, 2 * range + 1) - range;
+    }
+
+    /**
+     * Numbers (also as text) moved by the offset, dates and date-times by offset days; other
+     * values are kept
+     */
+    static Object shift(Object value, long offset) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return ((Number) value).longValue() + offset;
+        }
+        if (value instanceof BigInteger integer) {
+            return integer.add(BigInteger.valueOf(offset));
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.add(BigDecimal.valueOf(offset));
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return ((Number) value).doubleValue() + offset;
+        }
+        if (!(value instanceof String text)) {
+            return value;
+        }
+        char[] buffer = new char[19];
+        long epochDay = ValueParsers.parseEpochDay(text);
+        if (epochDay != ValueParsers.INVALID) {
+            return new String(buffer, 0,
+                    ValueParsers.formatEpochDay(epochDay + offset, buffer, 0));
+        }
+        long epochMillis = ValueParsers.parseEpochMillis(text);
+        if (epochMillis != ValueParsers.INVALID) {
+            long epochSecond = Math.floorDiv(epochMillis, 1000) + offset * SECONDS_PER_DAY;
+            return new String(buffer, 0, ValueParsers.formatEpochSecond(epochSecond, buffer, 0));
+        }
+        if (ValueParsers.isLong(text)) {
+            return Long.toString(Long.parseLong(text.trim()) + offset);
+        }
+        if (ValueParsers.isDecimal(text)) {
+            return new BigDecimal(text.trim()).add(BigDecimal.valueOf(offset)).toPlainString();
+        }
+        return value;
+    }
+
+    /**
+     * At least length bytes of HMAC output for the text, in 32 byte blocks
+     */
+    private byte[] keyStream(String purpose, String text, int length) {
+        Mac mac = macs.get();
+        byte[] input = (purpose + '\u0000' + text).getBytes(StandardCharsets.UTF_8);
+        List<byte[]> blocks = new ArrayList<>(1);
+        int total = 0;
+        for (int block = 0; total < length || block == 0; block++) {
+            mac.update((byte) block);
+            byte[] digest = mac.doFinal(input);
+            blocks.add(digest);
+            total += digest.length;
+        }
+        if (blocks.size() == 1) {
+            return blocks.get(0);
+        }
+        byte[] stream = new byte[total];
+        int position = 0;
+        for (byte[] block : blocks) {
+            System.arraycopy(block, 0, stream, position, block.length);
+            position += block.length;
+        }
+        return stream;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.staticdata.platform.ingest;
+
+import java.util.Map;
+
+/**
+ * Receives rows one at a time from a streaming producer (import readers, parsers, generators)
+ */
+@FunctionalInterface
+public interface RowSink {
+
+    /**
+     * Accept the next row; the sink may keep a reference to the map
+     */
+    void accept(Map<String, Object> row);
+}
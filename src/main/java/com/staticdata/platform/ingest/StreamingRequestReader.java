@@ -0,0 +1,95 @@
+package com.staticdata.platform.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads a data file request body with Jackson's streaming parser. All fields except dataRows are
+ * bound to the request type as usual; dataRows is handed to a row sink one row at a time, so the
+ * row list is never materialized. Because the sink depends on the other fields (module, column
+ * definitions), they must come before dataRows in the body.
+ */
+public class StreamingRequestReader {
+
+    public static final String ROWS_FIELD = "dataRows";
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rowReader;
+
+    /**
+     * Parsed request fields and whether the body contained rows
+     */
+    public record StreamedRequest<T>(T request, boolean hasRows, long rowCount) {
+    }
+
+    public StreamingRequestReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(ROW_TYPE);
+    }
+
+    /**
+     * Read a request body; rowsStarted is called with the bound fields when dataRows begins and
+     * returns the sink receiving the rows
+     */
+    public <T> StreamedRequest<T> read(InputStream body, Class<T> type,
+            Function<T, RowSink> rowsStarted) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Request body must be a JSON object");
+            }
+            ObjectNode fields = objectMapper.createObjectNode();
+            T request = null;
+            boolean hasRows = false;
+            long rowCount = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (!ROWS_FIELD.equals(name)) {
+                    if (request != null) {
+                        throw new IllegalArgumentException(
+                                "Field '" + name + "' must come before " + ROWS_FIELD);
+                    }
+                    fields.set(name, parser.<JsonNode>readValueAsTree());
+                    continue;
+                }
+                if (request != null) {
+                    throw new IllegalArgumentException("Duplicate field " + ROWS_FIELD);
+                }
+                request = objectMapper.treeToValue(fields, type);
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                if (token != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException(ROWS_FIELD + " must be an array");
+                }
+                hasRows = true;
+                RowSink sink = rowsStarted.apply(request);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    sink.accept(rowReader.readValue(parser));
+                    rowCount++;
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new IllegalArgumentException("Row " + (rowCount + 1) + " of "
+                            + ROWS_FIELD + " is not a JSON object");
+                }
+            }
+            if (request == null) {
+                request = objectMapper.treeToValue(fields, type);
+            }
+            return new StreamedRequest<>(request, hasRows, rowCount);
+        }
+    }
+}
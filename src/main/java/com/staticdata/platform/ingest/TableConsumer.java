@@ -0,0 +1,12 @@
+package com.staticdata.platform.ingest;
+
+import java.util.List;
+
+/**
+ * Receives the header of a streamed table and returns the sink for its data rows
+ */
+@FunctionalInterface
+public interface TableConsumer {
+
+    RowSink start(List<String> header);
+}
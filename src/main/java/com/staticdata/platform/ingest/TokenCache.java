@@ -0,0 +1,43 @@
+package com.staticdata.platform.ingest;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size cache of tokens by namespace and value, shared by concurrent imports without
+ * locking. Tokens are a pure function of their key, so an entry overwritten by a colliding key
+ * only costs computing that token again, and memory stays the same whatever the number of
+ * distinct values.
+ */
+public final class TokenCache {
+
+    private record Entry(String namespace, String value, String token) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    public TokenCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, Math.min(capacity, 1 << 30)) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Cached token, or null
+     */
+    public String get(String namespace, String value) {
+        Entry entry = slots.get(slot(namespace, value));
+        return entry != null && entry.value().equals(value) && entry.namespace().equals(namespace)
+                ? entry.token()
+                : null;
+    }
+
+    public void put(String namespace, String value, String token) {
+        slots.set(slot(namespace, value), new Entry(namespace, value, token));
+    }
+
+    private int slot(String namespace, String value) {
+        int hash = 31 * namespace.hashCode() + value.hashCode();
+        return (hash ^ (hash >>> 16)) * 0x45d9f3b & mask;
+    }
+}
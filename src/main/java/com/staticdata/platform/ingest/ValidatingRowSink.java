@@ -0,0 +1,34 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.entity.DataFile;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks each row against the column definitions of a data file before passing it on, so that
+ * streamed rows are rejected as soon as an invalid one is seen. Columns that are not defined are
+ * passed through unchanged.
+ */
+public class ValidatingRowSink implements RowSink {
+
+    private final CompiledRowValidator validator;
+    private final RowSink next;
+    private long rowNumber;
+
+    public ValidatingRowSink(List<DataFile.ColumnDefinition> columns, RowSink next) {
+        this.validator = CompiledRowValidator.forColumns(columns);
+        this.next = next;
+    }
+
+    @Override
+    public void accept(Map<String, Object> row) {
+        rowNumber++;
+        int column = validator.firstError(row);
+        if (column >= 0) {
+            throw new IllegalArgumentException(
+                    "Row " + rowNumber + ": " + validator.describe(column, row));
+        }
+        next.accept(row);
+    }
+}
@@ -0,0 +1,338 @@
+package com.staticdata.platform.ingest;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Allocation-free parsers for the textual forms of typed cell values (ISO dates and date-times,
+ * decimal and integer numbers). They scan the characters directly instead of going through
+ * java.time or BigDecimal, so checking millions of cells creates no garbage; invalid input is
+ * reported with {@link #INVALID} instead of an exception. The format methods write the epoch
+ * encoded dates back into a caller supplied buffer.
+ */
+public final class ValueParsers {
+
+    /**
+     * Returned by the parse methods for text that is not in the expected format
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long DAYS_PER_CYCLE = 146_097L;
+    private static final int DAYS_0000_TO_1970 = (146_097 * 5) - (30 * 365 + 7);
+
+    private ValueParsers() {
+    }
+
+    /**
+     * Parse an ISO date (yyyy-MM-dd) into days since 1970-01-01
+     */
+    public static long parseEpochDay(CharSequence text) {
+        if (text.length() != 10) {
+            return INVALID;
+        }
+        return parseDate(text);
+    }
+
+    /**
+     * Parse an ISO date-time (date, 'T' or space, HH:mm[:ss[.fraction]], optional Z or +hh:mm
+     * offset) into epoch milliseconds. Values without an offset are taken as UTC; a plain date
+     * is accepted as midnight.
+     */
+    public static long parseEpochMillis(CharSequence text) {
+        int length = text.length();
+        if (length < 10) {
+            return INVALID;
+        }
+        long epochDay = parseDate(text);
+        if (epochDay == INVALID) {
+            return INVALID;
+        }
+        if (length == 10) {
+            return epochDay * SECONDS_PER_DAY * 1000;
+        }
+        char separator = text.charAt(10);
+        if ((separator != 'T' && separator != ' ') || length < 16 || text.charAt(13) != ':') {
+            return INVALID;
+        }
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return INVALID;
+        }
+        int second = 0;
+        int millis = 0;
+        int pos = 16;
+        if (pos < length && text.charAt(pos) == ':') {
+            second = digits(text, pos + 1, 2);
+            if (second < 0 || second > 59) {
+                return INVALID;
+            }
+            pos += 3;
+            if (pos < length && text.charAt(pos) == '.') {
+                int start = ++pos;
+                while (pos < length && isDigit(text.charAt(pos))) {
+                    if (pos - start < 3) {
+                        millis = millis * 10 + (text.charAt(pos) - '0');
+                    }
+                    pos++;
+                }
+                if (pos == start || pos - start > 9) {
+                    return INVALID;
+                }
+                for (int i = pos - start; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+        int offsetSeconds = 0;
+        boolean utc = pos + 1 == length && text.charAt(pos) == 'Z';
+        if (pos < length && !utc) {
+            char sign = text.charAt(pos);
+            if ((sign != '+' && sign != '-') || pos + 6 != length || text.charAt(pos + 3) != ':') {
+                return INVALID;
+            }
+            int offsetHours = digits(text, pos + 1, 2);
+            int offsetMinutes = digits(text, pos + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return INVALID;
+            }
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (sign == '+' ? 1 : -1);
+        }
+        long seconds = epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second
+                - offsetSeconds;
+        return seconds * 1000 + millis;
+    }
+
+    /**
+     * Format days since 1970-01-01 as yyyy-MM-dd into buffer at offset (years 0000-9999),
+     * returning the position after the last character
+     */
+    public static int formatEpochDay(long epochDay, char[] buffer, int offset) {
+        // Same computation as LocalDate.ofEpochDay, on a year starting in March
+        long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+        long adjust = 0;
+        if (zeroDay < 0) {
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            adjust = adjustCycles * 400;
+            zeroDay -= adjustCycles * DAYS_PER_CYCLE;
+        }
+        long year = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+        if (dayOfYear < 0) {
+            year--;
+            dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+        }
+        int marchMonth = ((int) dayOfYear * 5 + 2) / 153;
+        int month = (marchMonth + 2) % 12 + 1;
+        int day = (int) dayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+        year += adjust + marchMonth / 10;
+
+        int pos = writeDigits(buffer, offset, (int) year, 4);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, month, 2);
+        buffer[pos++] = '-';
+        return writeDigits(buffer, pos, day, 2);
+    }
+
+    /**
+     * Format epoch seconds as yyyy-MM-ddTHH:mm:ss (UTC) into buffer at offset, returning the
+     * position after the last character
+     */
+    public static int formatEpochSecond(long epochSecond, char[] buffer, int offset) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        int pos = formatEpochDay(epochDay, buffer, offset);
+        buffer[pos++] = 'T';
+        pos = writeDigits(buffer, pos, secondOfDay / 3600, 2);
+        buffer[pos++] = ':';
+        pos = writeDigits(buffer, pos, secondOfDay / 60 % 60, 2);
+        buffer[pos++] = ':';
+        return writeDigits(buffer, pos, secondOfDay % 60, 2);
+    }
+
+    /**
+     * Whether the text is a plain decimal number: optional sign, digits with an optional
+     * fraction, and an optional exponent
+     */
+    public static boolean isDecimal(CharSequence text) {
+        int length = text.length();
+        int pos = 0;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            pos++;
+        }
+        int digits = 0;
+        while (pos < length && isDigit(text.charAt(pos))) {
+            pos++;
+            digits++;
+        }
+        if (pos < length && text.charAt(pos) == '.') {
+            pos++;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                pos++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (pos < length && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            pos++;
+            if (pos < length && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+                pos++;
+            }
+            int exponentStart = pos;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos == exponentStart) {
+                return false;
+            }
+        }
+        return pos == length;
+    }
+
+    /**
+     * Whether the text is an integer that fits in a long
+     */
+    public static boolean isLong(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return false;
+        }
+        boolean negative = text.charAt(0) == '-';
+        int pos = negative || text.charAt(0) == '+' ? 1 : 0;
+        if (pos == length) {
+            return false;
+        }
+        long value = 0;
+        for (; pos < length; pos++) {
+            char c = text.charAt(pos);
+            if (!isDigit(c)) {
+                return false;
+            }
+            int digit = c - '0';
+            // Accumulate negatively so that Long.MIN_VALUE is representable
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                return false;
+            }
+            value = value * 10 - digit;
+        }
+        return negative || value != Long.MIN_VALUE;
+    }
+
+    /**
+     * Whether the text is "true" or "false", ignoring case
+     */
+    public static boolean isBoolean(CharSequence text) {
+        return equalsIgnoreCase(text, "true") || equalsIgnoreCase(text, "false");
+    }
+
+    /**
+     * Canonical text of a scalar cell value, equal for equal values: numbers in plain decimal
+     * form without trailing zeros (so 42, 42.0 and "42" as a number agree), strings as they are;
+     * null for objects and arrays
+     */
+    public static String canonicalText(Object value) {
+        if (value instanceof String text) {
+            return text;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof BigInteger integer) {
+            return integer.toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.signum() == 0 ? "0" : decimal.stripTrailingZeros().toPlainString();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return Double.isFinite(number) ? canonicalText(BigDecimal.valueOf(number)) : null;
+        }
+        return null;
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, String lowerCase) {
+        if (text.length() != lowerCase.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerCase.length(); i++) {
+            if (Character.toLowerCase(text.charAt(i)) != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseDate(CharSequence text) {
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return INVALID;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Same computation as LocalDate.toEpochDay
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int digits(CharSequence text, int offset, int count) {
+        if (offset + count > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int writeDigits(char[] buffer, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + count;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
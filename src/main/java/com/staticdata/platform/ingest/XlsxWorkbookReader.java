@@ -0,0 +1,265 @@
+package com.staticdata.platform.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Event-model (SAX) reader for XLSX workbooks. Sheets are parsed element by element instead of
+ * being loaded through XSSFWorkbook, so memory use is bounded by the shared strings table plus one
+ * row, independent of the number of rows.
+ *
+ * The shared strings table is parsed once per workbook and shared by all sheets, which allows
+ * sheets to be read concurrently: every {@link #readSheet} call opens its own read-only package.
+ */
+@Slf4j
+public class XlsxWorkbookReader {
+
+    private final Path file;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final List<String> sheetNames;
+    /**
+     * Whether date serial numbers count from 1904 instead of 1900 (workbookPr/@date1904)
+     */
+    private final boolean date1904;
+
+    public XlsxWorkbookReader(Path file) throws IOException {
+        this.file = file;
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            this.sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader reader = new XSSFReader(pkg);
+            this.date1904 = isDate1904(reader);
+            List<String> names = new ArrayList<>();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream ignored = sheets.next()) {
+                    names.add(sheets.getSheetName());
+                }
+            }
+            this.sheetNames = Collections.unmodifiableList(names);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Not a valid XLSX workbook: " + e.getMessage(), e);
+        }
+        log.debug("Opened workbook {} with {} sheets and {} shared strings", file.getFileName(),
+                sheetNames.size(), sharedStrings.getCount());
+    }
+
+    public List<String> getSheetNames() {
+        return sheetNames;
+    }
+
+    private static boolean isDate1904(XSSFReader reader) throws IOException, SAXException,
+            ParserConfigurationException, OpenXML4JException {
+        boolean[] date1904 = new boolean[1];
+        try (InputStream workbook = reader.getWorkbookData()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName,
+                        Attributes attrs) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attrs.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equals(value);
+                    }
+                }
+            });
+            parser.parse(new InputSource(workbook));
+        }
+        return date1904[0];
+    }
+
+    /**
+     * Stream one sheet. The first non-empty row is used as header. Safe to call concurrently for
+     * different sheets.
+     */
+    public void readSheet(int sheetIndex, TableConsumer consumer) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            for (int i = 0; sheets.hasNext(); i++) {
+                try (InputStream sheet = sheets.next()) {
+                    if (i == sheetIndex) {
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(new SheetHandler(styles, consumer));
+                        parser.parse(new InputSource(sheet));
+                        return;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Sheet index out of range: " + sheetIndex);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Failed to read sheet " + sheetIndex + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * SAX handler turning sheet XML into typed rows
+     */
+    private final class SheetHandler extends DefaultHandler {
+
+        private final StylesTable styles;
+        private final TableConsumer consumer;
+        private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+        private final StringBuilder text = new StringBuilder();
+        private final List<Object> cells = new ArrayList<>();
+
+        private List<String> header;
+        private RowSink sink;
+        private boolean capturing;
+        private String cellType;
+        private int cellStyle;
+        private int cellColumn;
+        private int nextColumn;
+
+        SheetHandler(StylesTable styles, TableConsumer consumer) {
+            this.styles = styles;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            switch (localName) {
+                case "row" -> {
+                    cells.clear();
+                    nextColumn = 0;
+                }
+                case "c" -> {
+                    String ref = attrs.getValue("r");
+                    cellColumn = ref != null ? columnIndex(ref) : nextColumn;
+                    nextColumn = cellColumn + 1;
+                    cellType = attrs.getValue("t");
+                    String style = attrs.getValue("s");
+                    cellStyle = style != null ? Integer.parseInt(style) : -1;
+                    text.setLength(0);
+                }
+                case "v", "t" -> capturing = true;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capturing) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> capturing = false;
+                case "c" -> {
+                    while (cells.size() <= cellColumn) {
+                        cells.add(null);
+                    }
+                    cells.set(cellColumn, cellValue());
+                }
+                case "row" -> endRow();
+                default -> {
+                }
+            }
+        }
+
+        private void endRow() {
+            if (cells.stream().allMatch(Objects::isNull)) {
+                return;
+            }
+            if (header == null) {
+                header = buildHeader(cells);
+                sink = consumer.start(header);
+                return;
+            }
+            Map<String, Object> row = new LinkedHashMap<>(Math.max(16, header.size() * 2));
+            for (int i = 0; i < cells.size(); i++) {
+                String name = i < header.size() ? header.get(i) : "column_" + (i + 1);
+                row.put(name, cells.get(i));
+            }
+            sink.accept(row);
+        }
+
+        private Object cellValue() {
+            String value = text.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                return value.isEmpty() ? null : numericValue(value);
+            }
+            return switch (cellType) {
+                case "s" -> value.isBlank() ? null
+                        : sharedStrings.getItemAt(Integer.parseInt(value.trim())).getString();
+                case "b" -> "1".equals(value);
+                case "e" -> null;
+                default -> value; // inlineStr, str (formula result)
+            };
+        }
+
+        private Object numericValue(String value) {
+            double number = Double.parseDouble(value);
+            if (cellStyle >= 0 && isDateStyle(cellStyle) && DateUtil.isValidExcelDate(number)) {
+                LocalDateTime dateTime = DateUtil.getLocalDateTime(number, date1904);
+                return dateTime.toLocalTime().toSecondOfDay() == 0
+                        ? dateTime.toLocalDate().toString()
+                        : dateTime.toString();
+            }
+            if (number == Math.rint(number) && Math.abs(number) < 9.007199254740992E15) {
+                return (long) number;
+            }
+            return number;
+        }
+
+        private boolean isDateStyle(int styleIndex) {
+            return dateStyles.computeIfAbsent(styleIndex, idx -> {
+                XSSFCellStyle style = styles.getStyleAt(idx);
+                return style != null && DateUtil.isADateFormat(style.getDataFormat(),
+                        style.getDataFormatString());
+            });
+        }
+    }
+
+    static List<String> buildHeader(List<?> cells) {
+        List<String> header = new ArrayList<>(cells.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < cells.size(); i++) {
+            Object cell = cells.get(i);
+            String name = cell != null && !cell.toString().isBlank() ? cell.toString().trim()
+                    : "column_" + (i + 1);
+            String unique = name;
+            for (int n = 2; !seen.add(unique); n++) {
+                unique = name + "_" + n;
+            }
+            header.add(unique);
+        }
+        return header;
+    }
+
+    static int columnIndex(String cellRef) {
+        int column = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char c = cellRef.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+}
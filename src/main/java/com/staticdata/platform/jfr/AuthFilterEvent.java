@@ -0,0 +1,28 @@
+package com.staticdata.platform.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JWT authentication of one request: token parsing, validation and user lookup, not the rest
+ * of the filter chain
+ */
+@Name(PlatformEvents.PREFIX + "AuthFilter")
+@Label("Authentication Filter")
+@Category({PlatformEvents.CATEGORY, "Security"})
+@Description("JWT authentication of a request")
+@StackTrace(false)
+public class AuthFilterEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Token Present")
+    public boolean tokenPresent;
+
+    @Label("Authenticated")
+    public boolean authenticated;
+}
@@ -0,0 +1,27 @@
+package com.staticdata.platform.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Conversion of a data file entity to its DTO, including the organization path lookup
+ */
+@Name(PlatformEvents.PREFIX + "DtoConversion")
+@Label("Data File DTO Conversion")
+@Category({PlatformEvents.CATEGORY, "Data Files"})
+@Description("Conversion of a data file entity to its DTO")
+@StackTrace(false)
+public class DtoConversionEvent extends jdk.jfr.Event {
+
+    @Label("File Id")
+    public long fileId;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Columns")
+    public int columns;
+}
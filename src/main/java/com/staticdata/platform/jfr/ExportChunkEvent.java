@@ -0,0 +1,29 @@
+package com.staticdata.platform.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reading and encoding of one chunk of exported or generated rows
+ */
+@Name(PlatformEvents.PREFIX + "ExportChunk")
+@Label("Export Chunk")
+@Category({PlatformEvents.CATEGORY, "Export"})
+@Description("Reading and encoding of a chunk of exported rows")
+@StackTrace(false)
+public class ExportChunkEvent extends jdk.jfr.Event {
+
+    @Label("File Id")
+    public long fileId;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Written Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,29 @@
+package com.staticdata.platform.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Computation of the content hash of a data file
+ */
+@Name(PlatformEvents.PREFIX + "FileHash")
+@Label("Data File Hash")
+@Category({PlatformEvents.CATEGORY, "Data Files"})
+@Description("Content hash of a data file")
+@StackTrace(false)
+public class FileHashEvent extends jdk.jfr.Event {
+
+    @Label("File Id")
+    public long fileId;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Hashed Bytes")
+    @DataAmount
+    public long bytes;
+}
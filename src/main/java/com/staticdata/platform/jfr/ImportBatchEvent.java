@@ -0,0 +1,32 @@
+package com.staticdata.platform.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Write of one batch of imported rows to the row store
+ */
+@Name(PlatformEvents.PREFIX + "ImportBatch")
+@Label("Import Batch")
+@Category({PlatformEvents.CATEGORY, "Import"})
+@Description("Write of a batch of imported rows to the row store")
+@StackTrace(false)
+public class ImportBatchEvent extends jdk.jfr.Event {
+
+    @Label("File Id")
+    public long fileId;
+
+    @Label("First Row")
+    public long firstRow;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Row JSON Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,24 @@
+package com.staticdata.platform.jfr;
+
+import jdk.jfr.Event;
+
+import java.util.List;
+
+/**
+ * JDK Flight Recorder events of the platform hot paths. Events are cheap when no recording is
+ * running (begin and commit are no-ops), so they stay in the code in production; a recording
+ * started through the admin API or with -XX:StartFlightRecording picks them up.
+ */
+public final class PlatformEvents {
+
+    public static final String PREFIX = "com.staticdata.platform.";
+
+    public static final String CATEGORY = "Static Data Platform";
+
+    public static final List<Class<? extends Event>> ALL = List.of(AuthFilterEvent.class,
+            DtoConversionEvent.class, FileHashEvent.class, TreeBuildEvent.class,
+            ImportBatchEvent.class, ExportChunkEvent.class);
+
+    private PlatformEvents() {
+    }
+}
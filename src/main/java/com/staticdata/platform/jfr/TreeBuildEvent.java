@@ -0,0 +1,24 @@
+package com.staticdata.platform.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Assembly of the organization tree from its flat list of nodes
+ */
+@Name(PlatformEvents.PREFIX + "TreeBuild")
+@Label("Organization Tree Build")
+@Category({PlatformEvents.CATEGORY, "Organization"})
+@Description("Assembly and sorting of the organization tree")
+@StackTrace(false)
+public class TreeBuildEvent extends jdk.jfr.Event {
+
+    @Label("Nodes")
+    public int nodes;
+
+    @Label("Root Nodes")
+    public int roots;
+}
@@ -0,0 +1,153 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowFilterOperator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bitmap indexes of the low-cardinality BOOLEAN and STRING columns of columnar rows: one
+ * {@link RowBitmap} per distinct value, plus the rows where the column is null. A filter on an
+ * indexed column is answered by evaluating it once per distinct value and OR-ing the bitmaps
+ * of the matching values, so the rows themselves are never read.
+ */
+public final class BitmapIndex {
+
+    private final int rowCount;
+    private final Map<String, ColumnBitmaps> columns;
+
+    private BitmapIndex(int rowCount, Map<String, ColumnBitmaps> columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /**
+     * Index every BOOLEAN column and every STRING column with at most maxCardinality distinct
+     * values
+     */
+    public static BitmapIndex build(ColumnarRows rows, int maxCardinality) {
+        Map<String, ColumnBitmaps> columns = new HashMap<>();
+        for (int column = 0; column < rows.getColumnCount(); column++) {
+            DataFile.ColumnDefinition.DataType type = rows.getDataType(column);
+            if (type == DataFile.ColumnDefinition.DataType.BOOLEAN
+                    || (type == DataFile.ColumnDefinition.DataType.STRING
+                            && rows.getDictionarySize(column) <= maxCardinality)) {
+                columns.put(rows.columnName(column), index(rows, column, type));
+            }
+        }
+        return new BitmapIndex(rows.getRowCount(), columns);
+    }
+
+    /**
+     * Whether a predicate can be answered from the bitmaps
+     */
+    public boolean covers(CellPredicate predicate) {
+        ColumnBitmaps bitmaps = columns.get(predicate.getColumn());
+        return bitmaps != null && bitmaps.kind() == predicate.getKind();
+    }
+
+    /**
+     * Rows matching a covered predicate
+     */
+    public RowBitmap select(CellPredicate predicate) {
+        ColumnBitmaps bitmaps = columns.get(predicate.getColumn());
+        if (predicate.getOperator() == RowFilterOperator.IS_NULL) {
+            return bitmaps.nulls();
+        }
+        if (predicate.getOperator() == RowFilterOperator.NOT_NULL) {
+            return bitmaps.nulls().not();
+        }
+        RowBitmap selected = RowBitmap.empty(rowCount);
+        for (int i = 0; i < bitmaps.values().length; i++) {
+            if (predicate.test(bitmaps.values()[i])) {
+                selected = selected.or(bitmaps.rows()[i]);
+            }
+        }
+        if (predicate.test(null)) {
+            // Nulls and cells of another type (NE)
+            selected = selected.or(bitmaps.typed().not());
+        }
+        return selected;
+    }
+
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (ColumnBitmaps bitmaps : columns.values()) {
+            bytes += bitmaps.nulls().estimatedBytes() + bitmaps.typed().estimatedBytes();
+            for (RowBitmap rows : bitmaps.rows()) {
+                bytes += rows.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Two passes over the column: count the rows of each value, then fill sorted row arrays
+     */
+    private static ColumnBitmaps index(ColumnarRows rows, int column,
+            DataFile.ColumnDefinition.DataType type) {
+        boolean bool = type == DataFile.ColumnDefinition.DataType.BOOLEAN;
+        int rowCount = rows.getRowCount();
+        Object[] values = new Object[bool ? 2 : rows.getDictionarySize(column)];
+        if (bool) {
+            values[0] = Boolean.FALSE;
+            values[1] = Boolean.TRUE;
+        } else {
+            for (int code = 0; code < values.length; code++) {
+                values[code] = rows.getDictionaryValue(column, code);
+            }
+        }
+        int[] counts = new int[values.length];
+        int nullCount = 0;
+        int typedCount = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (rows.isNull(column, row)) {
+                nullCount++;
+            } else if (rows.isTyped(column, row)) {
+                counts[code(rows, column, row, bool)]++;
+                typedCount++;
+            }
+        }
+        int[][] valueRows = new int[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            valueRows[i] = new int[counts[i]];
+        }
+        int[] nullRows = new int[nullCount];
+        int[] typedRows = new int[typedCount];
+        int[] filled = new int[values.length];
+        nullCount = 0;
+        typedCount = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (rows.isNull(column, row)) {
+                nullRows[nullCount++] = row;
+            } else if (rows.isTyped(column, row)) {
+                int code = code(rows, column, row, bool);
+                valueRows[code][filled[code]++] = row;
+                typedRows[typedCount++] = row;
+            }
+        }
+        RowBitmap[] bitmaps = new RowBitmap[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bitmaps[i] = RowBitmap.ofSorted(valueRows[i], valueRows[i].length, rowCount);
+        }
+        return new ColumnBitmaps(ValueKind.of(type), values, bitmaps,
+                RowBitmap.ofSorted(nullRows, nullRows.length, rowCount),
+                RowBitmap.ofSorted(typedRows, typedRows.length, rowCount));
+    }
+
+    private static int code(ColumnarRows rows, int column, int row, boolean bool) {
+        if (bool) {
+            return rows.getBoolean(column, row) ? 1 : 0;
+        }
+        return rows.getCode(column, row);
+    }
+
+    /**
+     * Bitmaps of one column: rows per distinct value, null rows and rows of the column's type
+     */
+    private record ColumnBitmaps(ValueKind kind, Object[] values, RowBitmap[] rows,
+            RowBitmap nulls, RowBitmap typed) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowFilterOperator;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A row filter compiled against the type of its column. Missing cells and cells that are not of
+ * the column's kind behave like SQL nulls: they only match IS_NULL and NE (the latter because
+ * the pushdown uses IS DISTINCT FROM).
+ */
+@Getter
+public final class CellPredicate {
+
+    private final String column;
+    private final RowFilterOperator operator;
+    private final ValueKind kind;
+    private final Object value;
+    private final List<Object> values;
+
+    private CellPredicate(String column, RowFilterOperator operator, ValueKind kind, Object value,
+            List<Object> values) {
+        this.column = column;
+        this.operator = operator;
+        this.kind = kind;
+        this.value = value;
+        this.values = values;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the filter does not fit the column type
+     */
+    public static CellPredicate compile(RowQueryRequest.RowFilter filter,
+            DataFile.ColumnDefinition.DataType type) {
+        String column = filter.getColumn();
+        RowFilterOperator operator = filter.getOperator();
+        ValueKind kind = ValueKind.of(type);
+        if (operator.isNullCheck()) {
+            return new CellPredicate(column, operator, kind, null, List.of());
+        }
+        if (operator == RowFilterOperator.IN) {
+            List<Object> values = filter.getValues();
+            if (values == null || values.isEmpty() || values.contains(null)) {
+                throw new IllegalArgumentException(
+                        "IN filter of column '" + column + "' needs a list of non-null values");
+            }
+            return new CellPredicate(column, operator, kind, null,
+                    values.stream().map(v -> kind.coerce(v, column)).toList());
+        }
+        if (filter.getValue() == null) {
+            throw new IllegalArgumentException(
+                    operator + " filter of column '" + column + "' needs a value");
+        }
+        if (operator.isTextMatch()) {
+            if (!kind.isText()) {
+                throw new IllegalArgumentException(
+                        operator + " filter needs a text column, '" + column + "' is " + type);
+            }
+            return new CellPredicate(column, operator, kind,
+                    ValueKind.TEXT.coerce(filter.getValue(), column), List.of());
+        }
+        return new CellPredicate(column, operator, kind, kind.coerce(filter.getValue(), column),
+                List.of());
+    }
+
+    /**
+     * Whether a cell (as found in a row map) matches
+     */
+    public boolean test(Object cell) {
+        if (operator == RowFilterOperator.IS_NULL) {
+            return cell == null;
+        }
+        if (operator == RowFilterOperator.NOT_NULL) {
+            return cell != null;
+        }
+        Object key = kind.key(cell);
+        if (key == null) {
+            return operator == RowFilterOperator.NE;
+        }
+        return switch (operator) {
+            case IN -> {
+                for (Object candidate : values) {
+                    if (kind.compare(key, candidate) == 0) {
+                        yield true;
+                    }
+                }
+                yield false;
+            }
+            case CONTAINS -> ValueKind.text(key).contains((String) value);
+            case STARTS_WITH -> ValueKind.text(key).startsWith((String) value);
+            default -> operator.accepts(kind.compare(key, value));
+        };
+    }
+}
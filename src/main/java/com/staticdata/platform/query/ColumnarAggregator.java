@@ -0,0 +1,611 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.dto.RowAggregateRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.AggregateFunction;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Group-by aggregation over columnar rows, one column at a time. The group columns are first
+ * turned into dense group ids (dictionary codes for typed strings, canonical values otherwise);
+ * every aggregate then runs its own loop over the selected rows, reading typed cells into
+ * primitive arrays indexed by group id. Large selections are split into chunks whose partial
+ * aggregates are computed in parallel and merged through fork/join.
+ */
+public final class ColumnarAggregator {
+
+    static final int PARALLEL_THRESHOLD = 65_536;
+    private static final int CHUNK_SIZE = 16_384;
+    // Every chunk holds arrays for all groups, so many groups make merging cost more than it saves
+    private static final int MAX_PARALLEL_GROUPS = 4096;
+    // Largest group id space combined through a lookup table instead of a hash map
+    private static final int MAX_DIRECT_KEYS = 1 << 20;
+
+    private ColumnarAggregator() {
+    }
+
+    /**
+     * One aggregate of a group-by; a null column counts rows
+     */
+    public record Aggregate(AggregateFunction function, String column) {
+
+        /**
+         * @throws IllegalArgumentException when the function does not fit the column type
+         */
+        public static Aggregate of(RowAggregateRequest.RowAggregate aggregate,
+                DataFile.ColumnDefinition.DataType type) {
+            AggregateFunction function = aggregate.getFunction();
+            String column = aggregate.getColumn();
+            if (column == null || column.isBlank()) {
+                if (function != AggregateFunction.COUNT) {
+                    throw new IllegalArgumentException(function + " needs a column");
+                }
+                return new Aggregate(function, null);
+            }
+            ValueKind kind = ValueKind.of(type);
+            if (function.isNumeric() && kind != ValueKind.NUMBER && kind != ValueKind.ANY) {
+                throw new IllegalArgumentException(
+                        function + " needs a numeric column, '" + column + "' is " + type);
+            }
+            return new Aggregate(function, column);
+        }
+    }
+
+    /**
+     * One group: the values of the group columns and of the aggregates, in request order
+     */
+    public record Group(Object[] key, Object[] values) {
+    }
+
+    /**
+     * Aggregate the selected rows by the group columns (a single group, even over no rows, when
+     * there are none); groups are ordered by their group columns the way row queries sort
+     */
+    public static List<Group> aggregate(ColumnarRows rows, int[] selected, List<String> groupBy,
+            List<Aggregate> aggregates) {
+        GroupIds groups = GroupIds.of(rows, selected, groupBy);
+        if (groups.count == 0) {
+            return List.of();
+        }
+        Accumulator[] results;
+        if (selected.length >= PARALLEL_THRESHOLD && groups.count <= MAX_PARALLEL_GROUPS) {
+            results = ForkJoinPool.commonPool().invoke(new AggregationTask(rows, selected,
+                    groups, aggregates, 0, selected.length));
+        } else {
+            results = accumulate(rows, selected, groups, aggregates, 0, selected.length);
+        }
+
+        List<Group> result = new ArrayList<>(groups.count);
+        for (int group = 0; group < groups.count; group++) {
+            Object[] values = new Object[results.length];
+            for (int i = 0; i < results.length; i++) {
+                values[i] = results[i].result(group);
+            }
+            result.add(new Group(groups.keys.get(group), values));
+        }
+        result.sort(keyOrder(rows, groupBy));
+        return result;
+    }
+
+    private static Accumulator[] accumulate(ColumnarRows rows, int[] selected, GroupIds groups,
+            List<Aggregate> aggregates, int from, int to) {
+        Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = Accumulator.create(rows, aggregates.get(i), groups.count);
+            accumulators[i].add(selected, groups.ids, from, to);
+        }
+        return accumulators;
+    }
+
+    private static Comparator<Group> keyOrder(ColumnarRows rows, List<String> groupBy) {
+        List<SortKey> keys = new ArrayList<>(groupBy.size());
+        for (String name : groupBy) {
+            int column = rows.columnIndex(name);
+            keys.add(new SortKey(name, column < 0 ? ValueKind.ANY
+                    : ValueKind.of(rows.getDataType(column)), false));
+        }
+        return (a, b) -> {
+            for (int i = 0; i < keys.size(); i++) {
+                int result = keys.get(i).compare(a.key()[i], b.key()[i]);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Dense group id of every selected row and the group column values of every group
+     */
+    private static final class GroupIds {
+
+        private final int[] ids;
+        private final int count;
+        private final List<Object[]> keys;
+
+        private GroupIds(int[] ids, int count, List<Object[]> keys) {
+            this.ids = ids;
+            this.count = count;
+            this.keys = keys;
+        }
+
+        static GroupIds of(ColumnarRows rows, int[] selected, List<String> groupBy) {
+            if (groupBy.isEmpty()) {
+                List<Object[]> single = new ArrayList<>();
+                single.add(new Object[0]);
+                return new GroupIds(new int[selected.length], 1, single);
+            }
+            int[] ids = null;
+            List<Object[]> keys = null;
+            for (String name : groupBy) {
+                List<Object> values = new ArrayList<>();
+                int[] codes = encode(rows, rows.columnIndex(name), selected, values);
+                if (ids == null) {
+                    ids = codes;
+                    keys = new ArrayList<>(values.size());
+                    for (Object value : values) {
+                        keys.add(new Object[] {value});
+                    }
+                } else {
+                    List<Object[]> combined = new ArrayList<>();
+                    ids = combine(ids, keys, codes, values, combined);
+                    keys = combined;
+                }
+            }
+            return new GroupIds(ids, keys.size(), keys);
+        }
+
+        /**
+         * Codes of one column's cells, numbered in order of first appearance; values receives
+         * the cell value of every code
+         */
+        private static int[] encode(ColumnarRows rows, int column, int[] selected,
+                List<Object> values) {
+            int[] codes = new int[selected.length];
+            if (column < 0) {
+                if (selected.length > 0) {
+                    values.add(null);
+                }
+                return codes;
+            }
+            DataFile.ColumnDefinition.DataType type = rows.getDataType(column);
+            int[] dictionary = type == DataFile.ColumnDefinition.DataType.STRING
+                    ? filled(rows.getDictionarySize(column)) : null;
+            int[] booleans = type == DataFile.ColumnDefinition.DataType.BOOLEAN
+                    ? filled(2) : null;
+            Map<Object, Integer> generic = new HashMap<>();
+            int nullCode = -1;
+            for (int i = 0; i < selected.length; i++) {
+                int row = selected[i];
+                if (rows.isNull(column, row)) {
+                    if (nullCode < 0) {
+                        nullCode = values.size();
+                        values.add(null);
+                    }
+                    codes[i] = nullCode;
+                } else if (dictionary != null && rows.isTyped(column, row)) {
+                    int code = rows.getCode(column, row);
+                    if (dictionary[code] < 0) {
+                        dictionary[code] = values.size();
+                        values.add(rows.getDictionaryValue(column, code));
+                    }
+                    codes[i] = dictionary[code];
+                } else if (booleans != null && rows.isTyped(column, row)) {
+                    boolean value = rows.getBoolean(column, row);
+                    int slot = value ? 1 : 0;
+                    if (booleans[slot] < 0) {
+                        booleans[slot] = values.size();
+                        values.add(value);
+                    }
+                    codes[i] = booleans[slot];
+                } else {
+                    Object value = rows.getValue(column, row);
+                    Integer code = generic.get(groupKey(value));
+                    if (code == null) {
+                        code = values.size();
+                        generic.put(groupKey(value), code);
+                        values.add(value);
+                    }
+                    codes[i] = code;
+                }
+            }
+            return codes;
+        }
+
+        /**
+         * Group ids of the (group so far, next column code) pairs, in order of first appearance
+         */
+        private static int[] combine(int[] ids, List<Object[]> keys, int[] codes,
+                List<Object> values, List<Object[]> combined) {
+            int[] next = new int[ids.length];
+            long space = (long) keys.size() * values.size();
+            int[] table = space <= MAX_DIRECT_KEYS ? filled((int) space) : null;
+            Map<Long, Integer> map = table == null ? new HashMap<>() : null;
+            for (int i = 0; i < ids.length; i++) {
+                long pair = (long) ids[i] * values.size() + codes[i];
+                int id = table != null ? table[(int) pair] : map.getOrDefault(pair, -1);
+                if (id < 0) {
+                    id = combined.size();
+                    Object[] previous = keys.get(ids[i]);
+                    Object[] key = Arrays.copyOf(previous, previous.length + 1);
+                    key[previous.length] = values.get(codes[i]);
+                    combined.add(key);
+                    if (table != null) {
+                        table[(int) pair] = id;
+                    } else {
+                        map.put(pair, id);
+                    }
+                }
+                next[i] = id;
+            }
+            return next;
+        }
+
+        private static int[] filled(int size) {
+            int[] array = new int[size];
+            Arrays.fill(array, -1);
+            return array;
+        }
+
+        /**
+         * Equal for equal cells: numbers by canonical value (so 42 and 42.0 group together) and
+         * apart from strings and booleans with the same text
+         */
+        private static Object groupKey(Object value) {
+            if (value instanceof Number) {
+                String text = ValueParsers.canonicalText(value);
+                return new NumberKey(text != null ? text : value.toString());
+            }
+            return value;
+        }
+
+        private record NumberKey(String text) {
+        }
+    }
+
+    private static final class AggregationTask extends RecursiveTask<Accumulator[]> {
+
+        private final ColumnarRows rows;
+        private final int[] selected;
+        private final GroupIds groups;
+        private final List<Aggregate> aggregates;
+        private final int from;
+        private final int to;
+
+        AggregationTask(ColumnarRows rows, int[] selected, GroupIds groups,
+                List<Aggregate> aggregates, int from, int to) {
+            this.rows = rows;
+            this.selected = selected;
+            this.groups = groups;
+            this.aggregates = aggregates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Accumulator[] compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return accumulate(rows, selected, groups, aggregates, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            AggregationTask right = new AggregationTask(rows, selected, groups, aggregates,
+                    middle, to);
+            right.fork();
+            Accumulator[] left = new AggregationTask(rows, selected, groups, aggregates, from,
+                    middle).compute();
+            Accumulator[] other = right.join();
+            for (int i = 0; i < left.length; i++) {
+                left[i].merge(other[i]);
+            }
+            return left;
+        }
+    }
+
+    /**
+     * Per-group state of one aggregate over a range of the selected rows
+     */
+    private abstract static class Accumulator {
+
+        final ColumnarRows rows;
+        final int column;
+
+        Accumulator(ColumnarRows rows, int column) {
+            this.rows = rows;
+            this.column = column;
+        }
+
+        static Accumulator create(ColumnarRows rows, Aggregate aggregate, int groupCount) {
+            int column = aggregate.column() == null ? -1 : rows.columnIndex(aggregate.column());
+            return switch (aggregate.function()) {
+                case COUNT -> new Count(rows, column, aggregate.column() == null, groupCount);
+                case SUM -> new Sum(rows, column, false, groupCount);
+                case AVG -> new Sum(rows, column, true, groupCount);
+                case MIN -> new Extreme(rows, column, false, groupCount);
+                case MAX -> new Extreme(rows, column, true, groupCount);
+            };
+        }
+
+        /**
+         * Add the selected rows [from, to), whose group ids are at the same positions in groups
+         */
+        abstract void add(int[] selected, int[] groups, int from, int to);
+
+        /**
+         * Add the state of another accumulator of the same aggregate
+         */
+        abstract void merge(Accumulator other);
+
+        abstract Object result(int group);
+    }
+
+    private static final class Count extends Accumulator {
+
+        private final boolean allRows;
+        private final long[] counts;
+
+        Count(ColumnarRows rows, int column, boolean allRows, int groupCount) {
+            super(rows, column);
+            this.allRows = allRows;
+            this.counts = new long[groupCount];
+        }
+
+        @Override
+        void add(int[] selected, int[] groups, int from, int to) {
+            if (allRows) {
+                for (int i = from; i < to; i++) {
+                    counts[groups[i]]++;
+                }
+            } else if (column >= 0) {
+                for (int i = from; i < to; i++) {
+                    if (!rows.isNull(column, selected[i])) {
+                        counts[groups[i]]++;
+                    }
+                }
+            }
+        }
+
+        @Override
+        void merge(Accumulator other) {
+            long[] others = ((Count) other).counts;
+            for (int group = 0; group < counts.length; group++) {
+                counts[group] += others[group];
+            }
+        }
+
+        @Override
+        Object result(int group) {
+            return counts[group];
+        }
+    }
+
+    /**
+     * SUM and AVG of numeric cells. Integers are summed exactly in a long until it would
+     * overflow, fractions in a double; the result is a long only when no double was involved.
+     */
+    private static final class Sum extends Accumulator {
+
+        private final boolean average;
+        private final long[] longs;
+        private final double[] doubles;
+        private final boolean[] fractional;
+        private final long[] counts;
+
+        Sum(ColumnarRows rows, int column, boolean average, int groupCount) {
+            super(rows, column);
+            this.average = average;
+            this.longs = new long[groupCount];
+            this.doubles = new double[groupCount];
+            this.fractional = new boolean[groupCount];
+            this.counts = new long[groupCount];
+        }
+
+        @Override
+        void add(int[] selected, int[] groups, int from, int to) {
+            if (column < 0) {
+                return;
+            }
+            DataFile.ColumnDefinition.DataType type = rows.getDataType(column);
+            if (type == DataFile.ColumnDefinition.DataType.INTEGER) {
+                for (int i = from; i < to; i++) {
+                    int row = selected[i];
+                    if (rows.isTyped(column, row)) {
+                        addLong(groups[i], rows.getLong(column, row));
+                    } else {
+                        addCell(groups[i], row);
+                    }
+                }
+            } else if (type == DataFile.ColumnDefinition.DataType.DECIMAL) {
+                for (int i = from; i < to; i++) {
+                    int row = selected[i];
+                    if (rows.isTyped(column, row)) {
+                        addDouble(groups[i], rows.getDouble(column, row));
+                    } else {
+                        addCell(groups[i], row);
+                    }
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    addCell(groups[i], selected[i]);
+                }
+            }
+        }
+
+        private void addCell(int group, int row) {
+            if (rows.isNull(column, row)) {
+                return;
+            }
+            Object value = rows.getValue(column, row);
+            if (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte) {
+                addLong(group, ((Number) value).longValue());
+            } else if (value instanceof Number number) {
+                addDouble(group, number.doubleValue());
+            }
+        }
+
+        private void addLong(int group, long value) {
+            long sum = longs[group] + value;
+            // Overflow when both operands have the sign the sum lacks
+            if (((longs[group] ^ sum) & (value ^ sum)) < 0) {
+                doubles[group] += (double) longs[group] + value;
+                longs[group] = 0;
+                fractional[group] = true;
+            } else {
+                longs[group] = sum;
+            }
+            counts[group]++;
+        }
+
+        private void addDouble(int group, double value) {
+            doubles[group] += value;
+            fractional[group] = true;
+            counts[group]++;
+        }
+
+        @Override
+        void merge(Accumulator other) {
+            Sum sum = (Sum) other;
+            for (int group = 0; group < counts.length; group++) {
+                if (sum.counts[group] == 0) {
+                    continue;
+                }
+                long count = counts[group];
+                addLong(group, sum.longs[group]);
+                doubles[group] += sum.doubles[group];
+                fractional[group] |= sum.fractional[group];
+                counts[group] = count + sum.counts[group];
+            }
+        }
+
+        @Override
+        Object result(int group) {
+            if (counts[group] == 0) {
+                return null;
+            }
+            if (average) {
+                return ((double) longs[group] + doubles[group]) / counts[group];
+            }
+            if (fractional[group]) {
+                return (double) longs[group] + doubles[group];
+            }
+            return longs[group];
+        }
+    }
+
+    /**
+     * MIN and MAX. Typed numbers, dates and times are compared as primitives, remembering the row
+     * holding the best value; other cells are compared boxed, ignoring cells that are not of the
+     * column's kind as row query sorting does.
+     */
+    private static final class Extreme extends Accumulator {
+
+        private final boolean max;
+        private final ValueKind kind;
+        private final long[] bestLongs;
+        private final double[] bestDoubles;
+        private final int[] bestRows;
+        private final Object[] boxed;
+
+        Extreme(ColumnarRows rows, int column, boolean max, int groupCount) {
+            super(rows, column);
+            this.max = max;
+            this.kind = column < 0 ? ValueKind.ANY : ValueKind.of(rows.getDataType(column));
+            this.bestLongs = new long[groupCount];
+            this.bestDoubles = new double[groupCount];
+            this.bestRows = new int[groupCount];
+            this.boxed = new Object[groupCount];
+            Arrays.fill(bestRows, -1);
+        }
+
+        @Override
+        void add(int[] selected, int[] groups, int from, int to) {
+            if (column < 0) {
+                return;
+            }
+            DataFile.ColumnDefinition.DataType type = rows.getDataType(column);
+            boolean longs = type == DataFile.ColumnDefinition.DataType.INTEGER
+                    || type == DataFile.ColumnDefinition.DataType.DATE
+                    || type == DataFile.ColumnDefinition.DataType.DATETIME;
+            boolean doubles = type == DataFile.ColumnDefinition.DataType.DECIMAL;
+            for (int i = from; i < to; i++) {
+                int row = selected[i];
+                int group = groups[i];
+                if (longs && rows.isTyped(column, row)) {
+                    addLong(group, rows.getLong(column, row), row);
+                } else if (doubles && rows.isTyped(column, row)) {
+                    addDouble(group, rows.getDouble(column, row), row);
+                } else if (!rows.isNull(column, row)) {
+                    addBoxed(group, kind.key(rows.getValue(column, row)));
+                }
+            }
+        }
+
+        private void addLong(int group, long value, int row) {
+            if (bestRows[group] < 0
+                    || (max ? value > bestLongs[group] : value < bestLongs[group])) {
+                bestLongs[group] = value;
+                bestRows[group] = row;
+            }
+        }
+
+        private void addDouble(int group, double value, int row) {
+            if (bestRows[group] < 0
+                    || (max ? value > bestDoubles[group] : value < bestDoubles[group])) {
+                bestDoubles[group] = value;
+                bestRows[group] = row;
+            }
+        }
+
+        private void addBoxed(int group, Object value) {
+            if (value != null && (boxed[group] == null || better(value, boxed[group]))) {
+                boxed[group] = value;
+            }
+        }
+
+        private boolean better(Object value, Object best) {
+            int comparison = kind.compare(value, best);
+            return max ? comparison > 0 : comparison < 0;
+        }
+
+        @Override
+        void merge(Accumulator other) {
+            if (column < 0) {
+                return;
+            }
+            Extreme extreme = (Extreme) other;
+            boolean doubles =
+                    rows.getDataType(column) == DataFile.ColumnDefinition.DataType.DECIMAL;
+            for (int group = 0; group < bestRows.length; group++) {
+                int row = extreme.bestRows[group];
+                if (row >= 0) {
+                    if (doubles) {
+                        addDouble(group, extreme.bestDoubles[group], row);
+                    } else {
+                        addLong(group, extreme.bestLongs[group], row);
+                    }
+                }
+                addBoxed(group, extreme.boxed[group]);
+            }
+        }
+
+        @Override
+        Object result(int group) {
+            Object typed = bestRows[group] < 0 ? null : rows.getValue(column, bestRows[group]);
+            if (typed == null || boxed[group] == null) {
+                return typed != null ? typed : boxed[group];
+            }
+            return better(boxed[group], typed) ? boxed[group] : typed;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowFilterOperator;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Evaluates row queries over columnar rows one column at a time. Each filter narrows a selection
+ * bitmap with a test specialised to the column encoding: long and double comparisons on typed
+ * cells, and a per dictionary entry result for strings, so no row maps are built. Cells outside
+ * the typed encoding go through the same {@link CellPredicate} as the other query strategies.
+ */
+public final class ColumnarScan {
+
+    private ColumnarScan() {
+    }
+
+    /**
+     * Indexes of the rows matching all predicates, in row order
+     */
+    public static int[] filter(ColumnarRows rows, List<CellPredicate> predicates) {
+        return filter(rows, predicates, null);
+    }
+
+    /**
+     * Indexes of the rows matching all predicates, in row order. Predicates covered by the
+     * bitmap index (may be null) are answered from it; the others scan only the rows it selected.
+     */
+    public static int[] filter(ColumnarRows rows, List<CellPredicate> predicates,
+            BitmapIndex bitmaps) {
+        RowBitmap indexed = null;
+        List<CellPredicate> scanned = new ArrayList<>(predicates.size());
+        for (CellPredicate predicate : predicates) {
+            if (bitmaps != null && bitmaps.covers(predicate)) {
+                RowBitmap matching = bitmaps.select(predicate);
+                indexed = indexed == null ? matching : indexed.and(matching);
+            } else {
+                scanned.add(predicate);
+            }
+        }
+        if (indexed != null && (scanned.isEmpty() || indexed.isEmpty())) {
+            return indexed.toArray();
+        }
+        int rowCount = rows.getRowCount();
+        BitSet selected;
+        if (indexed != null) {
+            selected = indexed.toBitSet();
+        } else {
+            selected = new BitSet(rowCount);
+            selected.set(0, rowCount);
+        }
+        for (CellPredicate predicate : scanned) {
+            int column = rows.columnIndex(predicate.getColumn());
+            if (column < 0) {
+                // Column missing from every row
+                if (!predicate.test(null)) {
+                    selected.clear();
+                }
+            } else {
+                IntPredicate test = compile(rows, column, predicate);
+                for (int row = selected.nextSetBit(0); row >= 0;
+                        row = selected.nextSetBit(row + 1)) {
+                    if (!test.test(row)) {
+                        selected.clear(row);
+                    }
+                }
+            }
+            if (selected.isEmpty()) {
+                break;
+            }
+        }
+        return selected.stream().toArray();
+    }
+
+    /**
+     * Sort row indexes by the keys; rows with equal keys keep their order
+     */
+    public static void sort(ColumnarRows rows, int[] selected, List<SortKey> keys) {
+        if (keys.isEmpty() || selected.length < 2) {
+            return;
+        }
+        RowOrder[] orders = keys.stream().map(key -> order(rows, key)).toArray(RowOrder[]::new);
+        RowOrder order = (a, b) -> {
+            for (RowOrder o : orders) {
+                int result = o.compare(a, b);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(a, b);
+        };
+        mergeSort(selected, selected.clone(), 0, selected.length, order);
+    }
+
+    private static IntPredicate compile(ColumnarRows rows, int column, CellPredicate predicate) {
+        RowFilterOperator operator = predicate.getOperator();
+        if (operator.isNullCheck()) {
+            boolean wanted = operator == RowFilterOperator.IS_NULL;
+            return row -> rows.isNull(column, row) == wanted;
+        }
+        IntPredicate generic = row -> predicate.test(cell(rows, column, row));
+        DataFile.ColumnDefinition.DataType type = rows.getDataType(column);
+        if (type == null || ValueKind.of(type) != predicate.getKind()) {
+            return generic;
+        }
+        IntPredicate typed = switch (type) {
+            case STRING -> dictionaryTest(rows, column, predicate);
+            case INTEGER -> operator == RowFilterOperator.IN ? null
+                    : longTest(rows, column, operator, exactLong((Number) predicate.getValue()));
+            case DECIMAL -> operator == RowFilterOperator.IN ? null
+                    : doubleTest(rows, column, operator, (Number) predicate.getValue());
+            case BOOLEAN -> operator == RowFilterOperator.IN ? null
+                    : booleanTest(rows, column, operator, (Boolean) predicate.getValue());
+            case DATE, DATETIME -> operator.isTextMatch() || operator == RowFilterOperator.IN
+                    ? null
+                    : longTest(rows, column, operator, canonicalEpoch(type, predicate.getValue()));
+            default -> null;
+        };
+        if (typed == null) {
+            return generic;
+        }
+        return row -> rows.isTyped(column, row) ? typed.test(row) : generic.test(row);
+    }
+
+    /**
+     * Evaluate a string predicate once per dictionary entry instead of once per row
+     */
+    private static IntPredicate dictionaryTest(ColumnarRows rows, int column,
+            CellPredicate predicate) {
+        int size = rows.getDictionarySize(column);
+        BitSet matching = new BitSet(size);
+        for (int code = 0; code < size; code++) {
+            if (predicate.test(rows.getDictionaryValue(column, code))) {
+                matching.set(code);
+            }
+        }
+        return row -> matching.get(rows.getCode(column, row));
+    }
+
+    private static IntPredicate longTest(ColumnarRows rows, int column,
+            RowFilterOperator operator, Long value) {
+        if (value == null) {
+            return null;
+        }
+        long constant = value;
+        return row -> operator.accepts(Long.compare(rows.getLong(column, row), constant));
+    }
+
+    private static IntPredicate booleanTest(ColumnarRows rows, int column,
+            RowFilterOperator operator, boolean value) {
+        return row -> operator.accepts(Boolean.compare(rows.getBoolean(column, row), value));
+    }
+
+    private static IntPredicate doubleTest(ColumnarRows rows, int column,
+            RowFilterOperator operator, Number value) {
+        // Typed doubles compare like their shortest decimal form only against constants that
+        // are doubles themselves
+        double constant = value.doubleValue();
+        if (!Double.isFinite(constant) || (value instanceof BigDecimal decimal
+                && BigDecimal.valueOf(constant).compareTo(decimal) != 0)
+                || value instanceof BigInteger) {
+            return null;
+        }
+        return row -> {
+            double cell = rows.getDouble(column, row);
+            return operator.accepts(cell < constant ? -1 : cell > constant ? 1 : 0);
+        };
+    }
+
+    private static Long exactLong(Number value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return value.longValue();
+        }
+        if (value instanceof BigDecimal decimal) {
+            try {
+                return decimal.longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Epoch day or second of a constant in the canonical text form of typed cells, whose text
+     * order matches their epoch order; null for any other constant
+     */
+    private static Long canonicalEpoch(DataFile.ColumnDefinition.DataType type, Object value) {
+        String text = (String) value;
+        char[] formatted = new char[19];
+        long epoch;
+        int length;
+        if (type == DataFile.ColumnDefinition.DataType.DATE) {
+            epoch = text.length() == 10 ? ValueParsers.parseEpochDay(text) : ValueParsers.INVALID;
+            if (epoch == ValueParsers.INVALID) {
+                return null;
+            }
+            length = ValueParsers.formatEpochDay(epoch, formatted, 0);
+        } else {
+            long millis = text.length() == 19 && text.charAt(10) == 'T'
+                    ? ValueParsers.parseEpochMillis(text) : ValueParsers.INVALID;
+            if (millis == ValueParsers.INVALID) {
+                return null;
+            }
+            epoch = Math.floorDiv(millis, 1000);
+            length = ValueParsers.formatEpochSecond(epoch, formatted, 0);
+        }
+        return text.contentEquals(new String(formatted, 0, length)) ? epoch : null;
+    }
+
+    private static RowOrder order(ColumnarRows rows, SortKey key) {
+        int column = rows.columnIndex(key.column());
+        if (column < 0) {
+            return (a, b) -> 0;
+        }
+        RowOrder generic = (a, b) -> key.compare(cell(rows, column, a), cell(rows, column, b));
+        DataFile.ColumnDefinition.DataType type = rows.getDataType(column);
+        if (type == null || ValueKind.of(type) != key.kind()) {
+            return generic;
+        }
+        RowOrder typed = switch (type) {
+            case INTEGER, DATE, DATETIME ->
+                    (a, b) -> Long.compare(rows.getLong(column, a), rows.getLong(column, b));
+            case DECIMAL -> (a, b) -> {
+                double x = rows.getDouble(column, a);
+                double y = rows.getDouble(column, b);
+                return x < y ? -1 : x > y ? 1 : 0;
+            };
+            case BOOLEAN -> (a, b) -> Boolean.compare(rows.getBoolean(column, a),
+                    rows.getBoolean(column, b));
+            case STRING -> {
+                int[] ranks = dictionaryRanks(rows, column);
+                yield (a, b) -> Integer.compare(ranks[rows.getCode(column, a)],
+                        ranks[rows.getCode(column, b)]);
+            }
+            default -> null;
+        };
+        if (typed == null) {
+            return generic;
+        }
+        int sign = key.descending() ? -1 : 1;
+        return (a, b) -> rows.isTyped(column, a) && rows.isTyped(column, b)
+                ? sign * typed.compare(a, b) : generic.compare(a, b);
+    }
+
+    /**
+     * Rank of each dictionary code in text order, so string sorts compare ints
+     */
+    private static int[] dictionaryRanks(ColumnarRows rows, int column) {
+        int size = rows.getDictionarySize(column);
+        String[] values = new String[size];
+        Integer[] codes = new Integer[size];
+        for (int code = 0; code < size; code++) {
+            values[code] = rows.getDictionaryValue(column, code);
+            codes[code] = code;
+        }
+        Arrays.sort(codes, (a, b) -> values[a].compareTo(values[b]));
+        int[] ranks = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            ranks[codes[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static Object cell(ColumnarRows rows, int column, int row) {
+        return rows.isNull(column, row) ? null : rows.getValue(column, row);
+    }
+
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, RowOrder order) {
+        if (to - from < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && order.compare(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        // Sort the halves into the buffer, then merge them back into rows
+        mergeSort(buffer, rows, from, middle, order);
+        mergeSort(buffer, rows, middle, to, order);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && order.compare(buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+}
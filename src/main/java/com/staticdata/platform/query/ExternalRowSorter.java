@@ -0,0 +1,169 @@
+package com.staticdata.platform.query;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.ingest.RowSink;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Sorts a stream of rows that may not fit in memory. Rows are buffered up to a fixed count;
+ * each full buffer is sorted and spilled to a run file of JSON lines, and the runs are read
+ * back with a k-way merge. The sort is stable: equal rows keep their arrival order.
+ */
+public final class ExternalRowSorter implements RowSink, Closeable {
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private final Comparator<Map<String, Object>> comparator;
+    private final int bufferRows;
+    private final Path spillDir;
+    private final ObjectMapper objectMapper;
+
+    private final List<Map<String, Object>> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private long rowCount;
+
+    public ExternalRowSorter(Comparator<Map<String, Object>> comparator, int bufferRows,
+            Path spillDir, ObjectMapper objectMapper) {
+        if (bufferRows < 1) {
+            throw new IllegalArgumentException("Sort buffer must hold at least one row");
+        }
+        this.comparator = comparator;
+        this.bufferRows = bufferRows;
+        this.spillDir = spillDir;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(Map<String, Object> row) {
+        buffer.add(row);
+        rowCount++;
+        if (buffer.size() >= bufferRows) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to spill sorted rows", e);
+            }
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getSpilledRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Pass the rows to the visitor in sorted order until it returns false
+     */
+    public void forEachSorted(Predicate<Map<String, Object>> visitor) throws IOException {
+        buffer.sort(comparator);
+        if (runs.isEmpty()) {
+            for (Map<String, Object> row : buffer) {
+                if (!visitor.test(row)) {
+                    return;
+                }
+            }
+            return;
+        }
+        List<RunCursor> cursors = new ArrayList<>(runs.size() + 1);
+        try {
+            for (Path run : runs) {
+                cursors.add(new RunCursor(cursors.size(),
+                        Files.newBufferedReader(run, StandardCharsets.UTF_8), null));
+            }
+            // The in-memory rows arrived last, so they lose ties against every run
+            cursors.add(new RunCursor(cursors.size(), null, buffer.iterator()));
+            PriorityQueue<RunCursor> heads = new PriorityQueue<>((a, b) -> {
+                int result = comparator.compare(a.head, b.head);
+                return result != 0 ? result : Integer.compare(a.index, b.index);
+            });
+            for (RunCursor cursor : cursors) {
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            while (!heads.isEmpty()) {
+                RunCursor cursor = heads.poll();
+                if (!visitor.test(cursor.head)) {
+                    return;
+                }
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                if (cursor.reader != null) {
+                    cursor.reader.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete the spilled runs
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.clear();
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(comparator);
+        Path run = Files.createTempFile(spillDir, "run-", ".jsonl");
+        runs.add(run);
+        try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            for (Map<String, Object> row : buffer) {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.newLine();
+            }
+        }
+        buffer.clear();
+    }
+
+    private final class RunCursor {
+
+        private final int index;
+        private final BufferedReader reader;
+        private final Iterator<Map<String, Object>> rows;
+        private Map<String, Object> head;
+
+        private RunCursor(int index, BufferedReader reader, Iterator<Map<String, Object>> rows) {
+            this.index = index;
+            this.reader = reader;
+            this.rows = rows;
+        }
+
+        private boolean advance() throws IOException {
+            if (rows != null) {
+                head = rows.hasNext() ? rows.next() : null;
+            } else {
+                String line = reader.readLine();
+                head = line != null ? objectMapper.readValue(line, ROW_TYPE) : null;
+            }
+            return head != null;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.staticdata.platform.query;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.ingest.RowSink;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Equi-join of two row streams. The build side is loaded into a hash table keyed by the
+ * canonical text of its key cells (so 42, 42.0 and "42" match); the probe side is then streamed
+ * through it. When the build side outgrows the buffer, both sides are hash partitioned into
+ * spill files of JSON lines and joined one partition pair at a time (a Grace hash join), which
+ * keeps one partition of the build side in memory. Cells with a null or non-scalar key never
+ * match. Joined pairs follow probe order unless the join spilled.
+ */
+public final class HashJoin implements Closeable {
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+    private static final int MAX_PARTITIONS = 256;
+
+    /**
+     * Receives joined pairs; a side is null when an unmatched row is kept
+     */
+    @FunctionalInterface
+    public interface PairSink {
+        void accept(Map<String, Object> build, Map<String, Object> probe);
+    }
+
+    private final String buildKey;
+    private final String probeKey;
+    private final boolean keepUnmatchedBuild;
+    private final boolean keepUnmatchedProbe;
+    private final int bufferRows;
+    private final int partitionCount;
+    private final Path spillDir;
+    private final ObjectMapper objectMapper;
+
+    private final List<Path> spillFiles = new ArrayList<>();
+    private Map<String, Bucket> table = new HashMap<>();
+    private List<Map<String, Object>> unkeyed = new ArrayList<>();
+    private int buffered;
+    private BufferedWriter[] buildPartitions;
+    private long buildRows;
+
+    /**
+     * @param expectedBuildRows approximate size of the build side, used to pick the number of
+     *                          partitions should the join spill
+     */
+    public HashJoin(String buildKey, String probeKey, boolean keepUnmatchedBuild,
+            boolean keepUnmatchedProbe, int bufferRows, long expectedBuildRows, Path spillDir,
+            ObjectMapper objectMapper) {
+        if (bufferRows < 1) {
+            throw new IllegalArgumentException("Join buffer must hold at least one row");
+        }
+        this.buildKey = buildKey;
+        this.probeKey = probeKey;
+        this.keepUnmatchedBuild = keepUnmatchedBuild;
+        this.keepUnmatchedProbe = keepUnmatchedProbe;
+        this.bufferRows = bufferRows;
+        // Twice the minimum, so that partitions still fit when keys are unevenly spread
+        this.partitionCount = (int) Math.max(2,
+                Math.min(MAX_PARTITIONS, 2 * (expectedBuildRows / bufferRows + 1)));
+        this.spillDir = spillDir;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sink of the build side rows; all of them must be added before {@link #probe}
+     */
+    public RowSink buildSink() {
+        return row -> {
+            buildRows++;
+            try {
+                if (buildPartitions != null) {
+                    write(buildPartitions, row, key(row, buildKey));
+                    return;
+                }
+                add(row, key(row, buildKey));
+                if (buffered > bufferRows) {
+                    spillBuild();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to spill join rows", e);
+            }
+        };
+    }
+
+    public long getBuildRows() {
+        return buildRows;
+    }
+
+    public boolean isSpilled() {
+        return buildPartitions != null;
+    }
+
+    public int getPartitionCount() {
+        return isSpilled() ? partitionCount : 1;
+    }
+
+    /**
+     * Stream the probe side through the join and pass every joined pair to the sink
+     *
+     * @param probeSide passes the probe rows to the sink it is given
+     */
+    public void probe(Consumer<RowSink> probeSide, PairSink pairs) throws IOException {
+        if (buildPartitions == null) {
+            probeSide.accept(row -> probeRow(row, pairs));
+            emitUnmatchedBuild(pairs);
+            return;
+        }
+        for (BufferedWriter writer : buildPartitions) {
+            writer.close();
+        }
+        BufferedWriter[] probePartitions = openPartitions("join-probe-");
+        try {
+            probeSide.accept(row -> {
+                try {
+                    write(probePartitions, row, key(row, probeKey));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to spill join rows", e);
+                }
+            });
+        } finally {
+            for (BufferedWriter writer : probePartitions) {
+                writer.close();
+            }
+        }
+        for (int partition = 0; partition < partitionCount; partition++) {
+            table = new HashMap<>();
+            unkeyed = new ArrayList<>();
+            readPartition(spillFiles.get(partition), row -> add(row, key(row, buildKey)));
+            readPartition(spillFiles.get(partitionCount + partition), row -> probeRow(row, pairs));
+            emitUnmatchedBuild(pairs);
+        }
+    }
+
+    /**
+     * Delete the spill files
+     */
+    @Override
+    public void close() throws IOException {
+        table = new HashMap<>();
+        unkeyed = new ArrayList<>();
+        if (buildPartitions != null) {
+            for (BufferedWriter writer : buildPartitions) {
+                writer.close();
+            }
+        }
+        for (Path file : spillFiles) {
+            Files.deleteIfExists(file);
+        }
+        spillFiles.clear();
+    }
+
+    private void add(Map<String, Object> row, String key) {
+        if (key == null) {
+            // Only ever returned as an unmatched row
+            if (keepUnmatchedBuild) {
+                unkeyed.add(row);
+                buffered++;
+            }
+            return;
+        }
+        table.computeIfAbsent(key, k -> new Bucket()).rows.add(row);
+        buffered++;
+    }
+
+    private void probeRow(Map<String, Object> row, PairSink pairs) {
+        String key = key(row, probeKey);
+        Bucket bucket = key == null ? null : table.get(key);
+        if (bucket == null) {
+            if (keepUnmatchedProbe) {
+                pairs.accept(null, row);
+            }
+            return;
+        }
+        bucket.matched = true;
+        for (Map<String, Object> build : bucket.rows) {
+            pairs.accept(build, row);
+        }
+    }
+
+    private void emitUnmatchedBuild(PairSink pairs) {
+        if (!keepUnmatchedBuild) {
+            return;
+        }
+        for (Bucket bucket : table.values()) {
+            if (!bucket.matched) {
+                bucket.rows.forEach(row -> pairs.accept(row, null));
+            }
+        }
+        unkeyed.forEach(row -> pairs.accept(row, null));
+    }
+
+    private void spillBuild() throws IOException {
+        buildPartitions = openPartitions("join-build-");
+        for (Map.Entry<String, Bucket> entry : table.entrySet()) {
+            for (Map<String, Object> row : entry.getValue().rows) {
+                write(buildPartitions, row, entry.getKey());
+            }
+        }
+        for (Map<String, Object> row : unkeyed) {
+            write(buildPartitions, row, null);
+        }
+        table = new HashMap<>();
+        unkeyed = new ArrayList<>();
+        buffered = 0;
+    }
+
+    private BufferedWriter[] openPartitions(String prefix) throws IOException {
+        BufferedWriter[] writers = new BufferedWriter[partitionCount];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            Path file = Files.createTempFile(spillDir, prefix, ".jsonl");
+            spillFiles.add(file);
+            writers[partition] = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+        return writers;
+    }
+
+    private void write(BufferedWriter[] partitions, Map<String, Object> row, String key)
+            throws IOException {
+        BufferedWriter writer = partitions[key == null ? 0 : partition(key)];
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.newLine();
+    }
+
+    private int partition(String key) {
+        int hash = key.hashCode();
+        // The table of each partition hashes the same keys again, so spread the high bits
+        return Math.floorMod((hash ^ (hash >>> 16)) * 0x45d9f3b, partitionCount);
+    }
+
+    private void readPartition(Path file, RowSink sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sink.accept(objectMapper.readValue(line, ROW_TYPE));
+            }
+        }
+    }
+
+    private static String key(Map<String, Object> row, String column) {
+        return ValueParsers.canonicalText(row.get(column));
+    }
+
+    private static final class Bucket {
+        private final List<Map<String, Object>> rows = new ArrayList<>(1);
+        private boolean matched;
+    }
+}
@@ -0,0 +1,149 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.enums.RowFilterOperator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Translates row filters and sort keys into a WHERE condition and ORDER BY list over a jsonb
+ * row named r. Typed columns are read through CASE expressions that yield null for cells of
+ * another JSON type, and text compares with the C collation, so PostgreSQL matches and orders
+ * rows exactly like {@link CellPredicate} and {@link SortKey}. Column names and values are bound
+ * as parameters.
+ */
+public final class JsonbQuery {
+
+    private final String condition;
+    private final String orderBy;
+    private final List<Object> conditionArgs;
+    private final List<Object> orderArgs;
+
+    private JsonbQuery(String condition, String orderBy, List<Object> conditionArgs,
+            List<Object> orderArgs) {
+        this.condition = condition;
+        this.orderBy = orderBy;
+        this.conditionArgs = conditionArgs;
+        this.orderArgs = orderArgs;
+    }
+
+    /**
+     * Whether every filter and sort column has a scalar type; JSON and undefined columns compare
+     * mixed values, which has no jsonb equivalent
+     */
+    public static boolean supports(List<CellPredicate> predicates, List<SortKey> keys) {
+        return predicates.stream().allMatch(p -> p.getKind() != ValueKind.ANY
+                || p.getOperator().isNullCheck())
+                && keys.stream().allMatch(k -> k.kind() != ValueKind.ANY);
+    }
+
+    public static JsonbQuery build(List<CellPredicate> predicates, List<SortKey> keys) {
+        List<Object> conditionArgs = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        for (CellPredicate predicate : predicates) {
+            conditions.add(condition(predicate, conditionArgs));
+        }
+        List<Object> orderArgs = new ArrayList<>();
+        List<String> orders = new ArrayList<>();
+        for (SortKey key : keys) {
+            orders.add(expression(key.kind(), key.column(), orderArgs)
+                    + (key.descending() ? " DESC" : " ASC"));
+        }
+        return new JsonbQuery(conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions),
+                String.join(", ", orders), Collections.unmodifiableList(conditionArgs),
+                Collections.unmodifiableList(orderArgs));
+    }
+
+    /**
+     * WHERE condition ("TRUE" without filters)
+     */
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * ORDER BY expressions (empty without sort keys)
+     */
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    public List<Object> getConditionArgs() {
+        return conditionArgs;
+    }
+
+    public List<Object> getOrderArgs() {
+        return orderArgs;
+    }
+
+    private static String condition(CellPredicate predicate, List<Object> args) {
+        String column = predicate.getColumn();
+        RowFilterOperator operator = predicate.getOperator();
+        if (operator.isNullCheck()) {
+            args.add(column);
+            args.add(column);
+            String isNull = "(r -> ? IS NULL OR jsonb_typeof(r -> ?) = 'null')";
+            return operator == RowFilterOperator.IS_NULL ? isNull : "NOT " + isNull;
+        }
+        String expression = expression(predicate.getKind(), column, args);
+        return switch (operator) {
+            case IN -> {
+                predicate.getValues().forEach(v -> args.add(parameter(v)));
+                yield expression + " IN ("
+                        + String.join(", ", Collections.nCopies(predicate.getValues().size(), "?"))
+                        + ")";
+            }
+            case CONTAINS -> {
+                args.add(predicate.getValue());
+                yield "strpos(" + expression + ", ?) > 0";
+            }
+            case STARTS_WITH -> {
+                args.add(predicate.getValue());
+                yield "strpos(" + expression + ", ?) = 1";
+            }
+            default -> {
+                args.add(parameter(predicate.getValue()));
+                yield expression + " " + sqlOperator(operator) + " ?";
+            }
+        };
+    }
+
+    private static String expression(ValueKind kind, String column, List<Object> args) {
+        args.add(column);
+        args.add(column);
+        return switch (kind) {
+            case NUMBER ->
+                    "(CASE WHEN jsonb_typeof(r -> ?) = 'number' THEN (r ->> ?)::numeric END)";
+            case BOOLEAN ->
+                    "(CASE WHEN jsonb_typeof(r -> ?) = 'boolean' THEN (r ->> ?)::boolean END)";
+            case TEXT ->
+                    "(CASE WHEN jsonb_typeof(r -> ?) = 'string' THEN r ->> ? END) COLLATE \"C\"";
+            case ANY -> throw new IllegalArgumentException("JSON columns cannot be pushed down");
+        };
+    }
+
+    private static String sqlOperator(RowFilterOperator operator) {
+        return switch (operator) {
+            case EQ -> "=";
+            // Nulls are distinct from every value, so NE keeps rows without the cell
+            case NE -> "IS DISTINCT FROM";
+            case GT -> ">";
+            case GTE -> ">=";
+            case LT -> "<";
+            case LTE -> "<=";
+            default -> throw new IllegalArgumentException("Not a comparison: " + operator);
+        };
+    }
+
+    /**
+     * Numbers are bound as numeric so that the comparison stays exact
+     */
+    private static Object parameter(Object value) {
+        if (value instanceof Number && !(value instanceof BigDecimal)) {
+            return new BigDecimal(value.toString());
+        }
+        return value;
+    }
+}
@@ -0,0 +1,192 @@
+package com.staticdata.platform.query;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Immutable set of row numbers in [0, rowCount). Like the containers of a Roaring bitmap it
+ * picks the smaller of two forms: a sorted array of rows while fewer than 1 in 32 rows are set,
+ * otherwise a plain bitmap of 64-bit words. AND, OR and NOT work on either form.
+ */
+public final class RowBitmap {
+
+    private final int rowCount;
+    private final int[] rows;
+    private final long[] words;
+    private final int cardinality;
+
+    private RowBitmap(int rowCount, int[] rows, long[] words, int cardinality) {
+        this.rowCount = rowCount;
+        this.rows = rows;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    public static RowBitmap empty(int rowCount) {
+        return new RowBitmap(rowCount, new int[0], null, 0);
+    }
+
+    public static RowBitmap all(int rowCount) {
+        return empty(rowCount).not();
+    }
+
+    /**
+     * Bitmap of the first count rows of a sorted, duplicate free array (which it may keep)
+     */
+    public static RowBitmap ofSorted(int[] rows, int count, int rowCount) {
+        if (isSparse(count, rowCount)) {
+            return new RowBitmap(rowCount, count == rows.length ? rows : Arrays.copyOf(rows, count),
+                    null, count);
+        }
+        long[] words = new long[wordCount(rowCount)];
+        for (int i = 0; i < count; i++) {
+            words[rows[i] >>> 6] |= 1L << rows[i];
+        }
+        return new RowBitmap(rowCount, null, words, count);
+    }
+
+    /**
+     * Bitmap of the set bits of words (which it may keep)
+     */
+    public static RowBitmap ofWords(long[] words, int rowCount) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        if (!isSparse(count, rowCount)) {
+            return new RowBitmap(rowCount, null, words, count);
+        }
+        return new RowBitmap(rowCount, setBits(words, count), null, count);
+    }
+
+    public RowBitmap and(RowBitmap other) {
+        if (rows != null || other.rows != null) {
+            // Probe the sparse side against the other one
+            RowBitmap sparse = rows != null ? this : other;
+            RowBitmap probed = sparse == this ? other : this;
+            int[] result = new int[sparse.cardinality];
+            int count = 0;
+            for (int i = 0; i < sparse.cardinality; i++) {
+                if (probed.contains(sparse.rows[i])) {
+                    result[count++] = sparse.rows[i];
+                }
+            }
+            return ofSorted(result, count, rowCount);
+        }
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return ofWords(result, rowCount);
+    }
+
+    public RowBitmap or(RowBitmap other) {
+        if (rows != null && other.rows != null
+                && isSparse(cardinality + other.cardinality, rowCount)) {
+            int[] result = new int[cardinality + other.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < other.cardinality) {
+                int next;
+                if (j >= other.cardinality || (i < cardinality && rows[i] <= other.rows[j])) {
+                    next = rows[i++];
+                    if (j < other.cardinality && other.rows[j] == next) {
+                        j++;
+                    }
+                } else {
+                    next = other.rows[j++];
+                }
+                result[count++] = next;
+            }
+            return ofSorted(result, count, rowCount);
+        }
+        long[] result = toWords();
+        other.addTo(result);
+        return ofWords(result, rowCount);
+    }
+
+    /**
+     * Rows that are not in this bitmap
+     */
+    public RowBitmap not() {
+        long[] result = toWords();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ~result[i];
+        }
+        if (rowCount % 64 != 0) {
+            result[result.length - 1] &= (1L << rowCount) - 1;
+        }
+        return ofWords(result, rowCount);
+    }
+
+    public boolean contains(int row) {
+        if (rows != null) {
+            return Arrays.binarySearch(rows, 0, cardinality, row) >= 0;
+        }
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Rows in ascending order
+     */
+    public int[] toArray() {
+        return rows != null ? rows.clone() : setBits(words, cardinality);
+    }
+
+    public BitSet toBitSet() {
+        return BitSet.valueOf(toWords());
+    }
+
+    public long estimatedBytes() {
+        return 32L + (rows != null ? 4L * rows.length : 8L * words.length);
+    }
+
+    private static int[] setBits(long[] words, int count) {
+        int[] result = new int[count];
+        int i = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                result[i++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return result;
+    }
+
+    private long[] toWords() {
+        if (words != null) {
+            return words.clone();
+        }
+        long[] result = new long[wordCount(rowCount)];
+        addTo(result);
+        return result;
+    }
+
+    private void addTo(long[] target) {
+        if (rows != null) {
+            for (int i = 0; i < cardinality; i++) {
+                target[rows[i] >>> 6] |= 1L << rows[i];
+            }
+        } else {
+            for (int i = 0; i < words.length; i++) {
+                target[i] |= words[i];
+            }
+        }
+    }
+
+    private static boolean isSparse(int count, int rowCount) {
+        return (long) count * 32 < rowCount;
+    }
+
+    private static int wordCount(int rowCount) {
+        return (rowCount + 63) >>> 6;
+    }
+}
@@ -0,0 +1,131 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the fraction of rows a filter keeps from the column statistics of a file. Filters
+ * are run most selective first, and a filter estimated at zero provably matches no row (its
+ * value lies outside the column's min and max, or the column has no nulls), so the query can
+ * be answered without reading rows.
+ */
+public final class Selectivity {
+
+    /**
+     * Fractions of range and text filters, which the statistics cannot bound more closely
+     */
+    private static final double RANGE = 1.0 / 3;
+    private static final double TEXT_MATCH = 1.0 / 4;
+
+    private Selectivity() {
+    }
+
+    /**
+     * Predicates ordered by estimated selectivity (stable for equal estimates)
+     */
+    public static List<CellPredicate> order(List<CellPredicate> predicates,
+            List<DataFile.ColumnStats> stats, long rowCount) {
+        if (predicates.size() < 2 || stats == null) {
+            return predicates;
+        }
+        Map<String, DataFile.ColumnStats> byColumn = index(stats);
+        return predicates.stream().sorted(Comparator.comparingDouble(
+                p -> estimate(p, byColumn.get(p.getColumn()), rowCount))).toList();
+    }
+
+    /**
+     * Whether the statistics prove that no row matches all predicates
+     */
+    public static boolean matchesNothing(List<CellPredicate> predicates,
+            List<DataFile.ColumnStats> stats, long rowCount) {
+        if (stats == null) {
+            return false;
+        }
+        Map<String, DataFile.ColumnStats> byColumn = index(stats);
+        return predicates.stream()
+                .anyMatch(p -> estimate(p, byColumn.get(p.getColumn()), rowCount) == 0);
+    }
+
+    /**
+     * Estimated fraction of rows matching, 1 when unknown and exactly 0 only when no row can
+     * match
+     */
+    public static double estimate(CellPredicate predicate, DataFile.ColumnStats stats,
+            long rowCount) {
+        if (stats == null || rowCount <= 0 || stats.getNullCount() == null
+                || stats.getNullCount() + stats.getNonNullCount() != rowCount) {
+            return 1;
+        }
+        double nulls = (double) stats.getNullCount() / rowCount;
+        switch (predicate.getOperator()) {
+            case IS_NULL:
+                return nulls;
+            case NOT_NULL:
+                return 1 - nulls;
+            default:
+                break;
+        }
+        // Min and max only describe the column's kind as it was when they were computed
+        if (ValueKind.of(stats.getDataType()) != predicate.getKind()
+                || predicate.getKind() == ValueKind.ANY) {
+            return 1;
+        }
+        return switch (predicate.getOperator()) {
+            case EQ -> equal(predicate.getValue(), predicate.getKind(), stats, rowCount);
+            // Frequent value counts include cells of other types, so NE is never proven empty
+            case NE -> Math.max(Double.MIN_VALUE,
+                    1 - equal(predicate.getValue(), predicate.getKind(), stats, rowCount));
+            case IN -> Math.min(1 - nulls, predicate.getValues().stream()
+                    .mapToDouble(v -> equal(v, predicate.getKind(), stats, rowCount)).sum());
+            case GT, GTE, LT, LTE -> range(predicate, stats) ? (1 - nulls) * RANGE : 0;
+            default -> (1 - nulls) * TEXT_MATCH;
+        };
+    }
+
+    private static double equal(Object value, ValueKind kind, DataFile.ColumnStats stats,
+            long rowCount) {
+        if (stats.getMin() == null || kind.key(stats.getMin()) == null
+                || kind.compare(value, stats.getMin()) < 0
+                || kind.compare(value, stats.getMax()) > 0) {
+            return 0;
+        }
+        String text = ValueParsers.canonicalText(value);
+        if (stats.getTopValues() != null) {
+            for (DataFile.ColumnStats.ValueCount top : stats.getTopValues()) {
+                if (top.getValue().equals(text)) {
+                    return (double) top.getCount() / rowCount;
+                }
+            }
+        }
+        long distinct = stats.getDistinctEstimate() != null ? stats.getDistinctEstimate() : 1;
+        return (double) stats.getNonNullCount() / rowCount / Math.max(1, distinct);
+    }
+
+    /**
+     * Whether some value between min and max can satisfy a range filter
+     */
+    private static boolean range(CellPredicate predicate, DataFile.ColumnStats stats) {
+        ValueKind kind = predicate.getKind();
+        if (stats.getMin() == null || kind.key(stats.getMin()) == null) {
+            return false;
+        }
+        Object value = predicate.getValue();
+        return switch (predicate.getOperator()) {
+            case GT -> kind.compare(stats.getMax(), value) > 0;
+            case GTE -> kind.compare(stats.getMax(), value) >= 0;
+            case LT -> kind.compare(stats.getMin(), value) < 0;
+            default -> kind.compare(stats.getMin(), value) <= 0;
+        };
+    }
+
+    private static Map<String, DataFile.ColumnStats> index(List<DataFile.ColumnStats> stats) {
+        Map<String, DataFile.ColumnStats> byColumn = new HashMap<>();
+        stats.forEach(s -> byColumn.put(s.getName(), s));
+        return byColumn;
+    }
+}
@@ -0,0 +1,52 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One sort column of a row query. Nulls (and cells not of the column's kind) sort as the largest
+ * value, so they come last in ascending and first in descending order, as in PostgreSQL.
+ */
+public record SortKey(String column, ValueKind kind, boolean descending) {
+
+    public static SortKey of(RowQueryRequest.RowSort sort,
+            DataFile.ColumnDefinition.DataType type) {
+        return new SortKey(sort.getColumn(), ValueKind.of(type),
+                sort.getDirection() == Sort.Direction.DESC);
+    }
+
+    /**
+     * Compare two cells in this key's direction
+     */
+    public int compare(Object cellA, Object cellB) {
+        Object a = kind.key(cellA);
+        Object b = kind.key(cellB);
+        int result;
+        if (a == null || b == null) {
+            result = a == null ? (b == null ? 0 : 1) : -1;
+        } else {
+            result = kind.compare(a, b);
+        }
+        return descending ? -result : result;
+    }
+
+    /**
+     * Order of row maps by a list of keys
+     */
+    public static Comparator<Map<String, Object>> rowComparator(List<SortKey> keys) {
+        return (rowA, rowB) -> {
+            for (SortKey key : keys) {
+                int result = key.compare(rowA.get(key.column()), rowB.get(key.column()));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * How the cells of a column are compared by row queries. Typed columns compare only cells of
+ * their JSON type (other cells behave like null), the way the jsonb pushdown does; JSON and
+ * undefined columns compare numbers numerically and anything else as text.
+ */
+public enum ValueKind {
+    NUMBER, BOOLEAN, TEXT, ANY;
+
+    public static ValueKind of(DataFile.ColumnDefinition.DataType type) {
+        if (type == null) {
+            return ANY;
+        }
+        return switch (type) {
+            case INTEGER, DECIMAL -> NUMBER;
+            case BOOLEAN -> BOOLEAN;
+            case STRING, DATE, DATETIME -> TEXT;
+            case JSON -> ANY;
+        };
+    }
+
+    /**
+     * Whether cells can be compared as text (CONTAINS, STARTS_WITH)
+     */
+    public boolean isText() {
+        return this == TEXT || this == ANY;
+    }
+
+    /**
+     * A cell as a comparable value of this kind, or null when it is missing or of another kind
+     */
+    public Object key(Object cell) {
+        if (cell == null) {
+            return null;
+        }
+        return switch (this) {
+            case NUMBER -> cell instanceof Number ? cell : null;
+            case BOOLEAN -> cell instanceof Boolean ? cell : null;
+            case TEXT -> cell instanceof String ? cell : null;
+            case ANY -> cell;
+        };
+    }
+
+    /**
+     * Convert a filter value to this kind
+     *
+     * @throws IllegalArgumentException when the value cannot be compared with the column
+     */
+    public Object coerce(Object value, String column) {
+        if (value instanceof Map || value instanceof Collection) {
+            throw new IllegalArgumentException(
+                    "Filter value of column '" + column + "' must be a single value");
+        }
+        return switch (this) {
+            case NUMBER -> {
+                if (value instanceof Number) {
+                    yield value;
+                }
+                String text = String.valueOf(value).trim();
+                if (!ValueParsers.isDecimal(text)) {
+                    throw new IllegalArgumentException(
+                            "Column '" + column + "' holds numbers, cannot compare with: " + value);
+                }
+                yield new BigDecimal(text);
+            }
+            case BOOLEAN -> {
+                if (value instanceof Boolean) {
+                    yield value;
+                }
+                String text = String.valueOf(value).trim();
+                if (!ValueParsers.isBoolean(text)) {
+                    throw new IllegalArgumentException("Column '" + column
+                            + "' holds booleans, cannot compare with: " + value);
+                }
+                yield Boolean.valueOf(text);
+            }
+            case TEXT -> String.valueOf(value);
+            case ANY -> value;
+        };
+    }
+
+    /**
+     * Compare two non-null values of this kind
+     */
+    public int compare(Object a, Object b) {
+        return switch (this) {
+            case NUMBER -> compareNumbers((Number) a, (Number) b);
+            case BOOLEAN -> Boolean.compare((Boolean) a, (Boolean) b);
+            case TEXT -> ((String) a).compareTo((String) b);
+            case ANY -> {
+                if (a instanceof Number x && b instanceof Number y) {
+                    yield compareNumbers(x, y);
+                }
+                yield text(a).compareTo(text(b));
+            }
+        };
+    }
+
+    /**
+     * A non-null value as text (CONTAINS, STARTS_WITH and ANY comparisons)
+     */
+    public static String text(Object value) {
+        return value instanceof String s ? s : String.valueOf(value);
+    }
+
+    static int compareNumbers(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) {
+            return Long.compare(a.longValue(), b.longValue());
+        }
+        if (isFinite(a) && isFinite(b)) {
+            return decimal(a).compareTo(decimal(b));
+        }
+        return Double.compare(a.doubleValue(), b.doubleValue());
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+
+    private static boolean isFinite(Number n) {
+        return !(n instanceof Double || n instanceof Float) || Double.isFinite(n.doubleValue());
+    }
+
+    private static BigDecimal decimal(Number n) {
+        if (n instanceof BigDecimal d) {
+            return d;
+        }
+        if (n instanceof BigInteger i) {
+            return new BigDecimal(i);
+        }
+        if (n instanceof Double || n instanceof Float) {
+            // Shortest decimal form, which is how the number was written in the JSON row
+            return BigDecimal.valueOf(n.doubleValue());
+        }
+        return BigDecimal.valueOf(n.longValue());
+    }
+}
@@ -0,0 +1,145 @@
+package com.staticdata.platform.querystats;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the statements, rows and driver time of all JDBC work (Hibernate and JdbcTemplate
+ * alike) into the {@link QueryStatsContext} of the current thread. Statements are only wrapped
+ * while stats are being counted, so background work runs on the plain driver objects. Rows are
+ * the rows read from result sets plus the update counts. Connections and statements are
+ * reflective proxies; result sets, whose methods run once per cell, are wrapped in a
+ * {@link CountingResultSet}.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource implements Closeable {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    /**
+     * Close the pool behind this data source on shutdown
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            QueryStats stats = QueryStatsContext.current();
+            if (stats != null && result instanceof Statement statement) {
+                // prepareStatement and prepareCall get the SQL up front, createStatement later
+                String sql = args != null && args.length > 0 && args[0] instanceof String text
+                        ? text : null;
+                return wrapStatement(statement, method.getReturnType(), sql, stats);
+            }
+            return result;
+        });
+    }
+
+    private static Object wrapStatement(Statement statement, Class<?> type, String preparedSql,
+            QueryStats stats) {
+        Class<?> statementType = type == CallableStatement.class
+                || type == PreparedStatement.class ? type : Statement.class;
+        return proxy(statementType, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("getResultSet")) {
+                ResultSet resultSet = (ResultSet) invoke(statement, method, args);
+                return resultSet != null ? wrapResultSet(resultSet, stats) : null;
+            }
+            if (!name.startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text
+                    ? text : preparedSql;
+            long started = System.nanoTime();
+            Object result = invoke(statement, method, args);
+            stats.statementExecuted(sql, System.nanoTime() - started, updateCount(result));
+            if (result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet, stats);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet, QueryStats stats) {
+        return new CountingResultSet(resultSet, stats);
+    }
+
+    /**
+     * Rows written by executeUpdate and executeBatch (negative counts mean unknown)
+     */
+    private static long updateCount(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(count.longValue(), 0);
+        }
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "unwrap":
+                            if (args[0] == type) {
+                                // The wrapped object itself would skip the counting
+                                return proxy;
+                            }
+                            return handler.invoke(proxy, method, args);
+                        default:
+                            return handler.invoke(proxy, method, args);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
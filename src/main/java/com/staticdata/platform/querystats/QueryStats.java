@@ -0,0 +1,70 @@
+package com.staticdata.platform.querystats;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL executed on behalf of one request: statements, rows read or written and time spent in
+ * the driver, plus how often each statement ran, which shows N+1 patterns as one statement run
+ * once per entity. Only used by the thread that handles the request.
+ */
+public class QueryStats {
+
+    /**
+     * Distinct statements tracked per request, so that generated SQL cannot grow the map
+     */
+    private static final int MAX_DISTINCT_STATEMENTS = 200;
+
+    private long statements;
+    private long rows;
+    private long timeNanos;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    void statementExecuted(String sql, long nanos, long affectedRows) {
+        statements++;
+        timeNanos += nanos;
+        rows += affectedRows;
+        if (sql != null && (statementCounts.size() < MAX_DISTINCT_STATEMENTS
+                || statementCounts.containsKey(sql))) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    public long getTimeMillis() {
+        return timeNanos / 1_000_000;
+    }
+
+    /**
+     * Statements that ran at least minCount times, most frequent first
+     */
+    public Map<String, Integer> getRepeatedStatements(int minCount) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statementCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minCount)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + rows + " rows, " + getTimeMillis() + " ms";
+    }
+}
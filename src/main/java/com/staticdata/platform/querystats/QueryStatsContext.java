@@ -0,0 +1,62 @@
+package com.staticdata.platform.querystats;
+
+/**
+ * Query stats of the work running on the current thread. The request filter starts them for
+ * every request; tests can measure any block of code to assert a query budget:
+ * <pre>
+ * QueryStats stats = QueryStatsContext.measure(() -> organizationService.getOrganizationTree());
+ * assertTrue(stats.getStatements() &lt;= 3);
+ * </pre>
+ */
+public final class QueryStatsContext {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryStatsContext() {
+    }
+
+    /**
+     * Start counting on this thread, replacing any stats already started
+     */
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stats being counted on this thread, null when nothing is counted
+     */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static QueryStats stop() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * Stats of the SQL the given code runs on this thread (counted apart from any stats already
+     * started on it)
+     */
+    public static QueryStats measure(Runnable work) {
+        QueryStats previous = CURRENT.get();
+        QueryStats stats = start();
+        try {
+            work.run();
+            return stats;
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(QueryStats previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.staticdata.platform.querystats;
+
+import com.staticdata.platform.usage.ApiUsageFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL of every request (see {@link QueryCountingDataSource}), publishes it as
+ * sql.request.* metrics per route, logs requests over the thresholds together with their
+ * repeated statements (usually an N+1 pattern) and, when enabled (dev), adds X-SQL-* response
+ * headers. The stats are also left in the QueryStats request attribute for tests. Runs right
+ * after the API usage filter, so the queries of authentication are included; work on other
+ * threads (e.g. streamed exports) is not.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = QueryStats.class.getName();
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private static final int LOGGED_SQL_LENGTH = 200;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.query-stats.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.query-stats.headers:false}")
+    private boolean headers;
+
+    @Value("${app.query-stats.warn-statements:50}")
+    private int warnStatements;
+
+    @Value("${app.query-stats.warn-time-ms:500}")
+    private long warnTimeMs;
+
+    @Value("${app.query-stats.warn-repeated:10}")
+    private int warnRepeated;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        QueryStats stats = QueryStatsContext.start();
+        HeaderResponse headerResponse = headers ? new HeaderResponse(response, stats) : null;
+        try {
+            filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
+        } finally {
+            QueryStatsContext.stop();
+            if (headerResponse != null && !response.isCommitted()) {
+                // E.g. responses without a body
+                headerResponse.onResponseCommitted();
+            }
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            record(request, response, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response,
+            QueryStats stats) {
+        String route = ApiUsageFilter.route(request, response.getStatus());
+        String method = request.getMethod();
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements per request")
+                .tags("method", method, "uri", route)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .description("Rows read or written by the SQL of a request")
+                .tags("method", method, "uri", route)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("sql.request.time")
+                .description("Time spent executing the SQL of a request")
+                .tags("method", method, "uri", route)
+                .register(meterRegistry)
+                .record(stats.getTimeNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> repeated = stats.getRepeatedStatements(warnRepeated);
+        if (stats.getStatements() > warnStatements || stats.getTimeMillis() > warnTimeMs
+                || !repeated.isEmpty()) {
+            log.warn("SQL-heavy request {} {}: {}{}", method, route, stats,
+                    repeated.isEmpty() ? "" : ", repeated: " + repeated.entrySet().stream()
+                            .map(entry -> entry.getValue() + "x " + abbreviate(entry.getKey()))
+                            .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > LOGGED_SQL_LENGTH ? sql.substring(0, LOGGED_SQL_LENGTH) + "..."
+                : sql;
+    }
+
+    /**
+     * Adds the counts so far just before the response is committed, as headers cannot be set
+     * afterwards; for most responses that is after the handler has run
+     */
+    private static final class HeaderResponse extends OnCommittedResponseWrapper {
+
+        private final QueryStats stats;
+
+        HeaderResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        public void onResponseCommitted() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            response.setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+            response.setHeader(TIME_HEADER, String.valueOf(stats.getTimeMillis()));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.staticdata.platform.repository;
+
+import com.staticdata.platform.enums.UsageResolution;
+import com.staticdata.platform.usage.UsageSketch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the latency sketches of api_usage_sketches with plain JDBC; sketches are
+ * written in batches by the usage recorder and the rollup job and read back per time range
+ */
+@Repository
+@RequiredArgsConstructor
+public class ApiUsageSketchStore {
+
+    private static final String RECORDER = "system";
+    private static final int MAX_PATH_LENGTH = 255;
+
+    private static final String INSERT_SQL = "INSERT INTO api_usage_sketches (created_at, "
+            + "updated_at, created_by, updated_by, resolution, bucket_start, api_path, "
+            + "http_method, request_count, client_error_count, server_error_count, "
+            + "latency_histogram) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT bucket_start, api_path, http_method, "
+            + "request_count, client_error_count, server_error_count, latency_histogram "
+            + "FROM api_usage_sketches WHERE resolution = ? AND bucket_start >= ? "
+            + "AND bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertSketches(UsageResolution resolution, List<UsageSketch> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<>(sketches.size());
+        for (UsageSketch sketch : sketches) {
+            String path = sketch.getPath();
+            args.add(new Object[] {now, now, RECORDER, RECORDER, resolution.name(),
+                    new Timestamp(sketch.getBucketStart()),
+                    path.length() > MAX_PATH_LENGTH ? path.substring(0, MAX_PATH_LENGTH) : path,
+                    sketch.getMethod(), sketch.getRequestCount(), sketch.getClientErrorCount(),
+                    sketch.getServerErrorCount(), sketch.encodeLatency()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+
+    /**
+     * Sketches of buckets starting in [from, to), optionally of one path and method
+     */
+    public List<UsageSketch> findSketches(UsageResolution resolution, long from, long to,
+            String path, String method) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>(List.of(resolution.name(), new Timestamp(from),
+                new Timestamp(to)));
+        if (path != null) {
+            sql.append(" AND api_path = ?");
+            args.add(path);
+        }
+        if (method != null) {
+            sql.append(" AND http_method = ?");
+            args.add(method);
+        }
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new UsageSketch(
+                rs.getTimestamp("bucket_start").getTime(), rs.getString("api_path"),
+                rs.getString("http_method"), rs.getLong("request_count"),
+                rs.getLong("client_error_count"), rs.getLong("server_error_count"),
+                UsageSketch.decodeLatency(rs.getBytes("latency_histogram"))), args.toArray());
+    }
+
+    /**
+     * Start of the latest bucket of the resolution, null when there is none
+     */
+    public Long findLastBucket(UsageResolution resolution) {
+        Timestamp last = jdbcTemplate.queryForObject("SELECT MAX(bucket_start) FROM "
+                + "api_usage_sketches WHERE resolution = ?", Timestamp.class, resolution.name());
+        return last != null ? last.getTime() : null;
+    }
+
+    /**
+     * Start of the first bucket of the resolution at or after the given time, null when none
+     */
+    public Long findFirstBucketFrom(UsageResolution resolution, long from) {
+        Timestamp first = jdbcTemplate.queryForObject("SELECT MIN(bucket_start) FROM "
+                + "api_usage_sketches WHERE resolution = ? AND bucket_start >= ?",
+                Timestamp.class, resolution.name(), new Timestamp(from));
+        return first != null ? first.getTime() : null;
+    }
+
+    /**
+     * Total request count per bucket of the resolution starting in [from, to)
+     */
+    public Map<Long, Long> sumRequestCounts(UsageResolution resolution, long from, long to) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT bucket_start, SUM(request_count) AS requests FROM "
+                + "api_usage_sketches WHERE resolution = ? AND bucket_start >= ? "
+                + "AND bucket_start < ? GROUP BY bucket_start",
+                rs -> {
+                    counts.put(rs.getTimestamp("bucket_start").getTime(), rs.getLong("requests"));
+                }, resolution.name(), new Timestamp(from), new Timestamp(to));
+        return counts;
+    }
+
+    /**
+     * Delete the sketches of buckets starting in [from, to)
+     */
+    public int deleteBuckets(UsageResolution resolution, long from, long to) {
+        return jdbcTemplate.update("DELETE FROM api_usage_sketches WHERE resolution = ? "
+                + "AND bucket_start >= ? AND bucket_start < ?", resolution.name(),
+                new Timestamp(from), new Timestamp(to));
+    }
+
+    public int deleteBefore(UsageResolution resolution, long before) {
+        return jdbcTemplate.update("DELETE FROM api_usage_sketches WHERE resolution = ? "
+                + "AND bucket_start < ?", resolution.name(), new Timestamp(before));
+    }
+}
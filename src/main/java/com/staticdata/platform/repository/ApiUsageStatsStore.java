@@ -0,0 +1,47 @@
+package com.staticdata.platform.repository;
+
+import com.staticdata.platform.usage.UsageAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes pre-aggregated usage buckets to api_usage_stats with plain JDBC batching, bypassing
+ * JPA so the flusher does not build an entity per bucket
+ */
+@Repository
+@RequiredArgsConstructor
+public class ApiUsageStatsStore {
+
+    private static final String RECORDER = "system";
+    private static final int MAX_PATH_LENGTH = 255;
+
+    private static final String INSERT_SQL = "INSERT INTO api_usage_stats (created_at, "
+            + "updated_at, created_by, updated_by, bucket_start, api_path, http_method, "
+            + "response_status, request_count, response_time_ms, max_response_time_ms, "
+            + "request_size, response_size) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertBuckets(List<UsageAggregator.UsageBucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<>(buckets.size());
+        for (UsageAggregator.UsageBucket bucket : buckets) {
+            String path = bucket.getPath();
+            args.add(new Object[] {now, now, RECORDER, RECORDER,
+                    new Timestamp(bucket.getMinute()),
+                    path.length() > MAX_PATH_LENGTH ? path.substring(0, MAX_PATH_LENGTH) : path,
+                    bucket.getMethod(), bucket.getStatus(), bucket.getCount(),
+                    bucket.getTotalNanos() / 1_000_000, bucket.getMaxNanos() / 1_000_000,
+                    bucket.getRequestBytes(), bucket.getResponseBytes()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+}
@@ -0,0 +1,117 @@
+package com.staticdata.platform.repository;
+
+import com.staticdata.platform.audit.AuditEvent;
+import com.staticdata.platform.dto.AuditLogPageDto;
+import com.staticdata.platform.dto.AuditLogQuery;
+import com.staticdata.platform.entity.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes audit events to audit_logs with plain JDBC batching (with reWriteBatchedInserts the
+ * driver sends each batch as a few multi-row inserts) and reads them back page by page
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogStore {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs (created_at, updated_at, "
+            + "created_by, updated_by, user_id, username, action_type, resource_type, "
+            + "resource_id, resource_name, description, client_ip, user_agent) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT id, created_at, user_id, username, "
+            + "action_type, resource_type, resource_id, resource_name, description, client_ip, "
+            + "user_agent FROM audit_logs WHERE TRUE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertEvents(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            Timestamp occurredAt = Timestamp.valueOf(event.occurredAt());
+            args.add(new Object[] {occurredAt, occurredAt, event.username(), event.username(),
+                    event.userId(), event.username(), event.actionType().name(),
+                    event.resourceType(), event.resourceId(), truncate(event.resourceName()),
+                    truncate(event.description()), truncate(event.clientIp()),
+                    truncate(event.userAgent())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+
+    /**
+     * Audit logs matching the query, newest first, starting after the given position (keyset
+     * paging on created_at and id, so deep pages cost the same as the first). Time bounds let
+     * PostgreSQL skip partitions outside the range.
+     */
+    public List<AuditLogPageDto.AuditLogDto> findPage(AuditLogQuery query,
+            LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        if (query.getUserId() != null) {
+            sql.append(" AND user_id = ?");
+            args.add(query.getUserId());
+        }
+        if (query.getUsername() != null) {
+            sql.append(" AND username = ?");
+            args.add(query.getUsername());
+        }
+        if (query.getActionType() != null) {
+            sql.append(" AND action_type = ?");
+            args.add(query.getActionType().name());
+        }
+        if (query.getResourceType() != null) {
+            sql.append(" AND resource_type = ?");
+            args.add(query.getResourceType());
+        }
+        if (query.getResourceId() != null) {
+            sql.append(" AND resource_id = ?");
+            args.add(query.getResourceId());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(query.getTo()));
+        }
+        if (afterCreatedAt != null) {
+            sql.append(" AND (created_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(afterCreatedAt));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> AuditLogPageDto.AuditLogDto
+                .builder()
+                .id(rs.getLong("id"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .userId(rs.getLong("user_id"))
+                .username(rs.getString("username"))
+                .actionType(AuditLog.ActionType.valueOf(rs.getString("action_type")))
+                .resourceType(rs.getString("resource_type"))
+                .resourceId((Long) rs.getObject("resource_id"))
+                .resourceName(rs.getString("resource_name"))
+                .description(rs.getString("description"))
+                .clientIp(rs.getString("client_ip"))
+                .userAgent(rs.getString("user_agent"))
+                .build(), args.toArray());
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > MAX_TEXT_LENGTH
+                ? text.substring(0, MAX_TEXT_LENGTH) : text;
+    }
+}
@@ -1,9 +1,11 @@
 package com.staticdata.platform.repository;
 
+import com.staticdata.platform.dto.DataFileMetadata;
 import com.staticdata.platform.entity.DataFile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,6 +29,26 @@ public interface DataFileRepository extends JpaRepository<DataFile, Long> {
     @Query("SELECT df FROM DataFile df WHERE LOWER(df.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY df.createdAt DESC")
     List<DataFile> findByNameContainingIgnoreCaseOrderByCreatedAtDesc(@Param("name") String name);
 
+    // Find metadata without loading the data_rows column
+    @Query("SELECT new com.staticdata.platform.dto.DataFileMetadata(df.id, df.name, df.fileHash, "
+            + "df.accessLevel, df.owner.id, df.organizationNode.id, df.rowStorage, df.rowCount, "
+            + "df.columnDefinitions, df.updatedAt, df.columnStats) FROM DataFile df "
+            + "WHERE df.id = :id")
+    Optional<DataFileMetadata> findMetadataById(@Param("id") Long id);
+
+    // Find metadata of the files with a given name, in any organization node
+    @Query("SELECT new com.staticdata.platform.dto.DataFileMetadata(df.id, df.name, df.fileHash, "
+            + "df.accessLevel, df.owner.id, df.organizationNode.id, df.rowStorage, df.rowCount, "
+            + "df.columnDefinitions, df.updatedAt, df.columnStats) FROM DataFile df "
+            + "WHERE df.name = :name")
+    List<DataFileMetadata> findMetadataByName(@Param("name") String name);
+
+    // Store column statistics computed after the fact (leaves updated_at and the hash alone)
+    @Modifying
+    @Query(value = "UPDATE data_files SET column_stats = CAST(:stats AS jsonb) WHERE id = :id",
+            nativeQuery = true)
+    int updateColumnStats(@Param("id") Long id, @Param("stats") String statsJson);
+
     // Find by file hash
     Optional<DataFile> findByFileHash(String fileHash);
 
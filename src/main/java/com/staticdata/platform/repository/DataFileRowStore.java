@@ -0,0 +1,157 @@
+package com.staticdata.platform.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.ingest.RowSink;
+import com.staticdata.platform.query.JsonbQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row store for data files that are too large to keep inline in the data_rows jsonb column.
+ * Uses plain JDBC batching instead of JPA so that imports never hold more than one batch of rows.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class DataFileRowStore {
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private static final String INLINE_ROWS_SQL = "SELECT e.value FROM data_files f "
+            + "CROSS JOIN LATERAL jsonb_array_elements(f.data_rows) WITH ORDINALITY AS e(value, ord) "
+            + "WHERE f.id = ? ORDER BY e.ord";
+    private static final String STORED_ROWS_SQL =
+            "SELECT row_data FROM data_file_rows WHERE data_file_id = ? ORDER BY row_index";
+
+    private static final String INLINE_SOURCE_SQL = "SELECT e.value, e.ord FROM data_files f "
+            + "CROSS JOIN LATERAL jsonb_array_elements(f.data_rows) WITH ORDINALITY AS e(value, ord) "
+            + "WHERE f.id = ?";
+    private static final String STORED_SOURCE_SQL =
+            "SELECT row_data, row_index FROM data_file_rows WHERE data_file_id = ?";
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Insert a batch of already serialized rows, numbered from firstRowIndex
+     */
+    public void insertRows(Long dataFileId, int firstRowIndex, List<String> rowJson) {
+        if (rowJson.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(rowJson.size());
+        for (int i = 0; i < rowJson.size(); i++) {
+            args.add(new Object[] {dataFileId, firstRowIndex + i, rowJson.get(i)});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO data_file_rows (data_file_id, row_index, row_data) VALUES (?, ?, ?::jsonb)",
+                args);
+    }
+
+    /**
+     * Delete all rows of a data file
+     */
+    public int deleteRows(Long dataFileId) {
+        int deleted = jdbcTemplate.update("DELETE FROM data_file_rows WHERE data_file_id = ?",
+                dataFileId);
+        log.debug("Deleted {} stored rows of data file {}", deleted, dataFileId);
+        return deleted;
+    }
+
+    /**
+     * Count stored rows of a data file
+     */
+    public long countRows(Long dataFileId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM data_file_rows WHERE data_file_id = ?", Long.class,
+                dataFileId);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Load all rows of a data file in row order (materializes the whole file, use for small
+     * files and backwards compatible responses only)
+     */
+    public List<Map<String, Object>> loadRows(Long dataFileId) {
+        return jdbcTemplate.query(STORED_ROWS_SQL, (rs, rowNum) -> parseRow(rs.getString(1)),
+                dataFileId);
+    }
+
+    /**
+     * Stream the rows of a data file in row order through a server-side cursor, one row in
+     * memory at a time. Works for both inline (jsonb array) and row store files. Must run inside
+     * a transaction, otherwise the PostgreSQL driver fetches the whole result at once.
+     */
+    public void streamRows(DataFileMetadata dataFile, RowSink sink) {
+        String sql = dataFile.isRowStore() ? STORED_ROWS_SQL : INLINE_ROWS_SQL;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, dataFile.getId());
+            return ps;
+        }, (RowCallbackHandler) rs -> sink.accept(parseRow(rs.getString(1))));
+    }
+
+    /**
+     * One page of the rows matching a query, in query order (row order for equal sort keys),
+     * with the number of matching rows. Filtering, sorting and paging run in PostgreSQL.
+     */
+    public RowsPage queryRows(DataFileMetadata dataFile, JsonbQuery query, int offset,
+            int limit) {
+        String from = " FROM (" + (dataFile.isRowStore() ? STORED_SOURCE_SQL : INLINE_SOURCE_SQL)
+                + ") AS s(r, ord) WHERE " + query.getCondition();
+        String orderBy = query.getOrderBy().isEmpty() ? "ord" : query.getOrderBy() + ", ord";
+        List<Object> args = new ArrayList<>();
+        args.add(dataFile.getId());
+        args.addAll(query.getConditionArgs());
+        args.addAll(query.getOrderArgs());
+        args.add(limit);
+        args.add(offset);
+        long[] total = {0};
+        List<Map<String, Object>> rows = jdbcTemplate.query(
+                "SELECT r::text, count(*) OVER ()" + from + " ORDER BY " + orderBy
+                        + " LIMIT ? OFFSET ?",
+                (rs, rowNum) -> {
+                    total[0] = rs.getLong(2);
+                    return parseRow(rs.getString(1));
+                }, args.toArray());
+        if (rows.isEmpty() && offset > 0) {
+            // Past the last match the window count is not available
+            List<Object> countArgs = new ArrayList<>();
+            countArgs.add(dataFile.getId());
+            countArgs.addAll(query.getConditionArgs());
+            Long count = jdbcTemplate.queryForObject("SELECT count(*)" + from, Long.class,
+                    countArgs.toArray());
+            total[0] = count != null ? count : 0L;
+        }
+        return new RowsPage(rows, total[0]);
+    }
+
+    public record RowsPage(List<Map<String, Object>> rows, long totalMatched) {
+    }
+
+    private Map<String, Object> parseRow(String json) {
+        try {
+            return objectMapper.readValue(json, ROW_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted row data: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.staticdata.platform.security;
 
+import com.staticdata.platform.jfr.AuthFilterEvent;
 import com.staticdata.platform.util.JwtUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -34,8 +35,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         
+        AuthFilterEvent event = new AuthFilterEvent();
+        event.begin();
         try {
             String jwt = parseJwt(request);
+            event.tokenPresent = jwt != null;
             
             if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
                 String username = jwtUtils.getUsernameFromJwtToken(jwt);
@@ -49,10 +53,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 
                 log.debug("Set authentication for user: {}", username);
+                event.authenticated = true;
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
         }
+        if (event.shouldCommit()) {
+            event.path = request.getRequestURI();
+            event.commit();
+        }
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,283 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.dto.UsageReportDto;
+import com.staticdata.platform.enums.UsageResolution;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.repository.ApiUsageSketchStore;
+import com.staticdata.platform.usage.UsageRangePlanner;
+import com.staticdata.platform.usage.UsageSketch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Usage percentiles, throughput and error rates per endpoint over any time range. The usage
+ * recorder writes one latency sketch per minute and endpoint; a background job rolls them up
+ * into hour and day sketches and prunes old minutes and hours, and reports merge the coarsest
+ * sketches covering the range, so their cost does not grow with the history kept. Hours that
+ * receive minute sketches after they were rolled up are rolled up again, with their days.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApiUsageAnalyticsService {
+
+    /**
+     * Minute sketches are written within a flush interval after the minute ends; an hour is
+     * rolled up once this much time has passed after it
+     */
+    private static final long ROLLUP_GRACE_MILLIS = 2 * 60_000L;
+
+    /**
+     * How far back rolled-up hours are checked for minute sketches written after their rollup
+     * (delayed or shutdown flushes, clocks of other instances running behind)
+     */
+    private static final long LATE_SKETCH_WINDOW_MILLIS = 24 * 60 * 60_000L;
+
+    /**
+     * Hours and days rolled up per run, bounding a run when catching up on a long history
+     */
+    private static final int HOURS_PER_RUN = 48;
+    private static final int DAYS_PER_RUN = 31;
+
+    /**
+     * Advisory lock key making sure one instance at a time rolls up
+     */
+    private static final long ROLLUP_LOCK = 0x5344505573616765L;
+
+    private final ApiUsageSketchStore apiUsageSketchStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.usage.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.usage.rollup-interval-ms:60000}")
+    private long rollupIntervalMs;
+
+    @Value("${app.usage.minute-retention-days:7}")
+    private int minuteRetentionDays;
+
+    @Value("${app.usage.hour-retention-days:90}")
+    private int hourRetentionDays;
+
+    private ScheduledExecutorService rollupExecutor;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        rollupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "usage-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rollupExecutor.scheduleWithFixedDelay(this::rollUpSafely, rollupIntervalMs,
+                rollupIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (rollupExecutor != null) {
+            rollupExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Usage of the endpoints over [from, to), optionally of one route pattern and method
+     */
+    public UsageReportDto getReport(LocalDateTime from, LocalDateTime to, String path,
+            String method) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime end = to != null ? to : LocalDateTime.now(zone);
+        LocalDateTime start = from != null ? from : end.minusHours(1);
+        long fromMillis = UsageResolution.MINUTE.floor(start.atZone(zone).toInstant()
+                .toEpochMilli());
+        long toMillis = UsageResolution.MINUTE.ceil(end.atZone(zone).toInstant().toEpochMilli());
+        if (fromMillis >= toMillis) {
+            throw new BusinessException("Usage range must end after it starts");
+        }
+
+        List<UsageRangePlanner.Segment> segments = UsageRangePlanner.plan(fromMillis, toMillis,
+                rolledUpTo(UsageResolution.HOUR), rolledUpTo(UsageResolution.DAY));
+        Map<String, UsageSketch> endpoints = new LinkedHashMap<>();
+        UsageSketch total = new UsageSketch(fromMillis, null, null);
+        for (UsageRangePlanner.Segment segment : segments) {
+            for (UsageSketch sketch : apiUsageSketchStore.findSketches(segment.resolution(),
+                    segment.from(), segment.to(), path, method)) {
+                endpoints.computeIfAbsent(sketch.getMethod() + ' ' + sketch.getPath(),
+                        key -> new UsageSketch(fromMillis, sketch.getPath(), sketch.getMethod()))
+                        .merge(sketch);
+                total.merge(sketch);
+            }
+        }
+        log.debug("Usage report over {} segments, {} endpoints", segments.size(),
+                endpoints.size());
+
+        double seconds = (toMillis - fromMillis) / 1000.0;
+        List<UsageReportDto.EndpointUsage> usages = new ArrayList<>(endpoints.size());
+        for (UsageSketch sketch : endpoints.values()) {
+            usages.add(toUsage(sketch, seconds));
+        }
+        usages.sort(Comparator.comparing(UsageReportDto.EndpointUsage::getRequestCount)
+                .reversed());
+        return UsageReportDto.builder()
+                .from(toLocalDateTime(fromMillis, zone))
+                .to(toLocalDateTime(toMillis, zone))
+                .total(toUsage(total, seconds))
+                .endpoints(usages)
+                .build();
+    }
+
+    /**
+     * Roll up minute sketches into hours and hour sketches into days, then prune minutes and
+     * hours past their retention that are covered by the coarser resolution
+     */
+    public void rollUp(long now) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)",
+                    Boolean.class, ROLLUP_LOCK);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            long hoursDone = rollUp(UsageResolution.HOUR, UsageResolution.MINUTE,
+                    UsageResolution.HOUR.floor(now - ROLLUP_GRACE_MILLIS), HOURS_PER_RUN);
+            rollUp(UsageResolution.DAY, UsageResolution.HOUR,
+                    UsageResolution.DAY.floor(hoursDone), DAYS_PER_RUN);
+            long hoursRolledUp = rolledUpTo(UsageResolution.HOUR);
+            long recheckFrom = Math.max(0, hoursRolledUp - LATE_SKETCH_WINDOW_MILLIS);
+            if (rollUpAgain(UsageResolution.HOUR, UsageResolution.MINUTE, recheckFrom,
+                    hoursRolledUp) > 0) {
+                rollUpAgain(UsageResolution.DAY, UsageResolution.HOUR,
+                        UsageResolution.DAY.floor(recheckFrom), rolledUpTo(UsageResolution.DAY));
+            }
+
+            long day = UsageResolution.DAY.getMillis();
+            apiUsageSketchStore.deleteBefore(UsageResolution.MINUTE, Math.min(
+                    now - minuteRetentionDays * day, rolledUpTo(UsageResolution.HOUR)));
+            apiUsageSketchStore.deleteBefore(UsageResolution.HOUR, Math.min(
+                    now - hourRetentionDays * day, rolledUpTo(UsageResolution.DAY)));
+        });
+    }
+
+    /**
+     * Merge the source sketches of whole target buckets before the limit that are not rolled up
+     * yet, at most maxBuckets of them
+     *
+     * @return end of the range rolled up
+     */
+    private long rollUp(UsageResolution target, UsageResolution source, long limit,
+            int maxBuckets) {
+        Long last = apiUsageSketchStore.findLastBucket(target);
+        // Skip empty buckets in one step instead of one run each
+        Long next = apiUsageSketchStore.findFirstBucketFrom(source,
+                last != null ? last + target.getMillis() : 0);
+        if (next == null || next >= limit) {
+            return limit;
+        }
+        long start = target.floor(next);
+        long end = Math.min(limit, start + maxBuckets * target.getMillis());
+        List<UsageSketch> rolled = UsageSketch.rollUp(apiUsageSketchStore.findSketches(source,
+                start, end, null, null), target.getMillis());
+        apiUsageSketchStore.insertSketches(target, rolled);
+        log.debug("Rolled up {} {} usage sketches", rolled.size(), target);
+        return end;
+    }
+
+    /**
+     * Roll up again the target buckets in [from, to) whose source sketches count more requests
+     * than their rolled-up sketches, i.e. that received source sketches after their rollup.
+     * Fewer source requests only mean pruned sources, so those buckets are left alone.
+     *
+     * @return number of buckets rolled up again
+     */
+    private int rollUpAgain(UsageResolution target, UsageResolution source, long from, long to) {
+        if (from >= to) {
+            return 0;
+        }
+        Map<Long, Long> sourceCounts = new HashMap<>();
+        apiUsageSketchStore.sumRequestCounts(source, from, to).forEach((bucket, count) ->
+                sourceCounts.merge(target.floor(bucket), count, Long::sum));
+        Map<Long, Long> targetCounts = apiUsageSketchStore.sumRequestCounts(target, from, to);
+        int stale = 0;
+        for (Map.Entry<Long, Long> bucket : sourceCounts.entrySet()) {
+            if (bucket.getValue() <= targetCounts.getOrDefault(bucket.getKey(), 0L)) {
+                continue;
+            }
+            long start = bucket.getKey();
+            long end = start + target.getMillis();
+            apiUsageSketchStore.deleteBuckets(target, start, end);
+            apiUsageSketchStore.insertSketches(target, UsageSketch.rollUp(
+                    apiUsageSketchStore.findSketches(source, start, end, null, null),
+                    target.getMillis()));
+            stale++;
+        }
+        if (stale > 0) {
+            log.info("Rolled up {} {} usage buckets again after late sketches", stale, target);
+        }
+        return stale;
+    }
+
+    private void rollUpSafely() {
+        try {
+            rollUp(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled rollups
+            log.warn("API usage rollup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * End of the range covered by sketches of the resolution; coarse sketches exist for every
+     * bucket with traffic before their last one
+     */
+    private long rolledUpTo(UsageResolution resolution) {
+        Long last = apiUsageSketchStore.findLastBucket(resolution);
+        return last != null ? last + resolution.getMillis() : 0;
+    }
+
+    private static UsageReportDto.EndpointUsage toUsage(UsageSketch sketch, double seconds) {
+        long count = sketch.getRequestCount();
+        Histogram latency = sketch.getLatency();
+        boolean empty = latency.getTotalCount() == 0;
+        return UsageReportDto.EndpointUsage.builder()
+                .path(sketch.getPath())
+                .method(sketch.getMethod())
+                .requestCount(count)
+                .throughput(count / seconds)
+                .errorRate(count > 0 ? sketch.getServerErrorCount() / (double) count : 0)
+                .clientErrorRate(count > 0 ? sketch.getClientErrorCount() / (double) count : 0)
+                .meanMs(empty ? null : latency.getMean() / 1000)
+                .p50Ms(empty ? null : latency.getValueAtPercentile(50) / 1000.0)
+                .p95Ms(empty ? null : latency.getValueAtPercentile(95) / 1000.0)
+                .p99Ms(empty ? null : latency.getValueAtPercentile(99) / 1000.0)
+                .maxMs(empty ? null : latency.getMaxValue() / 1000.0)
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis, ZoneId zone) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+}
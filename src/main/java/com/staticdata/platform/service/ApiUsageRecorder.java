@@ -0,0 +1,136 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.enums.UsageResolution;
+import com.staticdata.platform.repository.ApiUsageSketchStore;
+import com.staticdata.platform.repository.ApiUsageStatsStore;
+import com.staticdata.platform.usage.UsageAggregator;
+import com.staticdata.platform.usage.UsageEvent;
+import com.staticdata.platform.usage.UsageRingBuffer;
+import com.staticdata.platform.usage.UsageSketch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records API usage without slowing requests down. Request threads only put an event into a
+ * lock-free ring buffer, dropping (and counting) it when the buffer is full; a background
+ * flusher drains the buffer, sums the events per minute and endpoint, and batch inserts each
+ * minute once it is over, together with its latency sketches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApiUsageRecorder {
+
+    private static final int DRAIN_BATCH = 4096;
+
+    private final ApiUsageStatsStore apiUsageStatsStore;
+    private final ApiUsageSketchStore apiUsageSketchStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.usage.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.usage.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${app.usage.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    private final UsageAggregator aggregator = new UsageAggregator();
+    private final AtomicLong lostBuckets = new AtomicLong();
+    private UsageRingBuffer<UsageEvent> buffer;
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void start() {
+        buffer = new UsageRingBuffer<>(bufferSize);
+        Gauge.builder("api.usage.dropped", buffer, UsageRingBuffer::getDropped)
+                .description("Usage events dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("api.usage.buffered", buffer, UsageRingBuffer::size)
+                .description("Usage events waiting to be aggregated").register(meterRegistry);
+        Gauge.builder("api.usage.lost.buckets", lostBuckets, AtomicLong::get)
+                .description("Usage buckets that could not be written").register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "usage-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> flush(false), flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        if (flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+            // Write the minute in progress too
+            flush(true);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a completed request; never blocks
+     *
+     * @return false when the event was dropped because the buffer is full
+     */
+    public boolean record(UsageEvent event) {
+        return buffer.offer(event);
+    }
+
+    public long getDropped() {
+        return buffer.getDropped();
+    }
+
+    /**
+     * Aggregate the buffered events and write the buckets of past minutes (all buckets when
+     * closing); runs on the flusher thread
+     */
+    void flush(boolean all) {
+        try {
+            while (buffer.drain(aggregator::add, DRAIN_BATCH) == DRAIN_BATCH) {
+                // Keep draining while producers keep up
+            }
+            List<UsageAggregator.UsageBucket> closed = all ? aggregator.closeAll()
+                    : aggregator.closeBefore(System.currentTimeMillis());
+            if (closed.isEmpty()) {
+                return;
+            }
+            try {
+                apiUsageStatsStore.insertBuckets(closed);
+                apiUsageSketchStore.insertSketches(UsageResolution.MINUTE,
+                        UsageSketch.ofBuckets(closed));
+                log.debug("Wrote {} API usage buckets", closed.size());
+            } catch (RuntimeException e) {
+                lostBuckets.addAndGet(closed.size());
+                log.warn("Unable to write {} API usage buckets: {}", closed.size(),
+                        e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled flushes
+            log.warn("API usage flush failed", e);
+        }
+    }
+}
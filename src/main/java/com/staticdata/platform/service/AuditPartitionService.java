@@ -0,0 +1,299 @@
+package com.staticdata.platform.service;
+
+import com.opencsv.CSVWriter;
+import com.staticdata.platform.audit.AuditPartitions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps audit_logs a table partitioned by month of created_at, so that audit queries over a
+ * time range only scan the partitions of that range and old audit logs can be dropped a month
+ * at a time instead of deleted row by row. Partitions have a BRIN index on created_at (tiny,
+ * and audit logs arrive in time order) and a btree index on the resource for "who touched X".
+ * <p>
+ * At startup the table Hibernate created is converted into a partitioned one. Partitions are
+ * created ahead of time; partitions past the retention are detached, archived to a gzip CSV
+ * file and dropped. Rows of months without a partition (clock skew, replayed spilled events of
+ * archived months) land in the default partition, so inserts never fail for their time, and
+ * are moved into partitions of their own by the next maintenance run.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionService {
+
+    private static final String TABLE = AuditPartitions.TABLE;
+    private static final String UNPARTITIONED = TABLE + "_unpartitioned";
+    private static final String DEFAULT_PARTITION = AuditPartitions.DEFAULT_PARTITION;
+    private static final String COLUMNS = "id, created_at, updated_at, created_by, updated_by, "
+            + "user_id, username, action_type, resource_type, resource_id, resource_name, "
+            + "description, client_ip, user_agent";
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE " + TABLE + " ("
+            + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+            + "created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6) NOT NULL, "
+            + "created_by VARCHAR(255) NOT NULL, updated_by VARCHAR(255) NOT NULL, "
+            + "user_id BIGINT NOT NULL, username VARCHAR(255) NOT NULL, "
+            + "action_type VARCHAR(255) NOT NULL, resource_type VARCHAR(255) NOT NULL, "
+            + "resource_id BIGINT, resource_name VARCHAR(255), description VARCHAR(255), "
+            + "client_ip VARCHAR(255), user_agent VARCHAR(255), "
+            + "CONSTRAINT pk_audit_logs PRIMARY KEY (id, created_at)"
+            + ") PARTITION BY RANGE (created_at)";
+
+    private static final String RELKIND_SQL = "SELECT relkind::text FROM pg_class "
+            + "WHERE relname = ? AND relnamespace = current_schema()::regnamespace";
+
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace";
+
+    /**
+     * Audit partition tables that are not attached, left by an interrupted archive run
+     */
+    private static final String DETACHED_SQL = "SELECT c.relname FROM pg_class c "
+            + "WHERE c.relkind = 'r' AND c.relname LIKE '" + TABLE + "\\_p%' "
+            + "AND c.relnamespace = current_schema()::regnamespace AND NOT c.relispartition";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.audit.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.partitioning.months-ahead:2}")
+    private int monthsAhead;
+
+    @Value("${app.audit.partitioning.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${app.audit.partitioning.archive-dir:${java.io.tmpdir}/sdp-audit-archive}")
+    private String archiveDir;
+
+    @Value("${app.audit.partitioning.check-interval-ms:3600000}")
+    private long checkIntervalMs;
+
+    private ScheduledExecutorService maintenance;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            partitionTable();
+        } catch (RuntimeException e) {
+            // Audit logs still work on the plain table, only without partition maintenance
+            log.error("Unable to partition {}, partition maintenance disabled: {}", TABLE,
+                    e.getMessage());
+            return;
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::maintainSafely, 0, checkIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * Convert audit_logs into a partitioned table if it is not one yet, moving its rows over,
+     * and make sure the partitions of the coming months and the indexes exist
+     */
+    void partitionTable() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            List<String> kinds = jdbcTemplate.queryForList(RELKIND_SQL, String.class, TABLE);
+            String kind = kinds.isEmpty() ? null : kinds.get(0);
+            if ("p".equals(kind)) {
+                return;
+            }
+            YearMonth first = YearMonth.now();
+            YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+            if ("r".equals(kind)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + UNPARTITIONED);
+                Timestamp[] range = jdbcTemplate.queryForObject("SELECT MIN(created_at), "
+                        + "MAX(created_at) FROM " + UNPARTITIONED,
+                        (rs, rowNum) -> new Timestamp[] {rs.getTimestamp(1), rs.getTimestamp(2)});
+                if (range != null && range[0] != null) {
+                    first = min(first, YearMonth.from(range[0].toLocalDateTime()));
+                    last = max(last, YearMonth.from(range[1].toLocalDateTime()));
+                }
+            }
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            for (YearMonth month : AuditPartitions.monthsBetween(first, last)) {
+                jdbcTemplate.execute(AuditPartitions.createPartitionSql(month));
+            }
+            jdbcTemplate.execute(AuditPartitions.createDefaultPartitionSql());
+            if ("r".equals(kind)) {
+                int moved = jdbcTemplate.update("INSERT INTO " + TABLE + " (" + COLUMNS
+                        + ") SELECT " + COLUMNS + " FROM " + UNPARTITIONED);
+                jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), "
+                        + "GREATEST(COALESCE(MAX(id), 0), 1)) FROM " + TABLE, Long.class, TABLE);
+                jdbcTemplate.execute("DROP TABLE " + UNPARTITIONED);
+                log.info("Converted {} into a partitioned table, moved {} rows", TABLE, moved);
+            }
+        });
+        ensurePartitionsAndIndexes();
+    }
+
+    /**
+     * Create coming partitions, move rows out of the default partition, then archive and drop
+     * the expired partitions
+     */
+    public void maintain() {
+        ensurePartitionsAndIndexes();
+        for (Timestamp month : jdbcTemplate.queryForList("SELECT DISTINCT date_trunc('month', "
+                + "created_at) FROM " + DEFAULT_PARTITION, Timestamp.class)) {
+            createPartition(YearMonth.from(month.toLocalDateTime()));
+        }
+
+        List<String> attached = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, TABLE);
+        for (String partition : AuditPartitions.expired(attached, YearMonth.now(),
+                retentionMonths)) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            log.info("Detached audit partition {}", partition);
+        }
+        // Includes partitions detached by earlier runs that failed to archive
+        for (String partition : jdbcTemplate.queryForList(DETACHED_SQL, String.class)) {
+            if (AuditPartitions.monthOf(partition) == null) {
+                continue;
+            }
+            Path archive = archive(partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Archived audit partition {} to {}", partition, archive);
+        }
+    }
+
+    private void ensurePartitionsAndIndexes() {
+        jdbcTemplate.execute(AuditPartitions.createDefaultPartitionSql());
+        for (YearMonth month : AuditPartitions.monthsBetween(YearMonth.now(),
+                YearMonth.now().plusMonths(monthsAhead))) {
+            createPartition(month);
+        }
+        // Created on every partition, present and future
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audit_logs_created_at ON " + TABLE
+                + " USING brin (created_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audit_logs_resource ON " + TABLE
+                + " (resource_type, resource_id, created_at)");
+    }
+
+    /**
+     * Create the partition of a month unless a table of that name exists (attached, or detached
+     * and waiting to be archived). A partition cannot be added while the default partition holds
+     * rows of its range, so it is created standalone, filled with those rows and then attached.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = AuditPartitions.partitionName(month);
+        if (!jdbcTemplate.queryForList(RELKIND_SQL, String.class, partition).isEmpty()) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute(AuditPartitions.createStandalonePartitionSql(month));
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                    + " WHERE created_at >= ? AND created_at < ? RETURNING " + COLUMNS
+                    + ") INSERT INTO " + partition + " (" + COLUMNS + ") SELECT " + COLUMNS
+                    + " FROM moved", Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                    Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+            jdbcTemplate.execute(AuditPartitions.attachPartitionSql(month));
+            if (moved > 0) {
+                log.info("Moved {} audit logs from {} to {}", moved, DEFAULT_PARTITION,
+                        partition);
+            }
+        });
+    }
+
+    /**
+     * Write all rows of a detached partition to archive-dir/partition.csv.gz, with a header. A
+     * month archived before (its partition was created again for late rows) gets a second file.
+     */
+    private Path archive(String partition) {
+        Path directory = Path.of(archiveDir);
+        Path target = directory.resolve(partition + ".csv.gz");
+        if (Files.exists(target)) {
+            target = directory.resolve(partition + "." + System.currentTimeMillis() + ".csv.gz");
+        }
+        Path temp = directory.resolve(partition + ".csv.gz.tmp");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            Files.createDirectories(directory);
+            try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                // A cursor inside a transaction keeps one fetch of rows in memory
+                transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement("SELECT " + COLUMNS
+                            + " FROM " + partition + " ORDER BY created_at, id");
+                    ps.setFetchSize(1000);
+                    return ps;
+                }, (ResultSetExtractor<Integer>) rs -> writeAll(writer, rs)));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to archive audit partition " + partition, e);
+        }
+    }
+
+    private static int writeAll(CSVWriter writer, ResultSet rs) throws SQLException {
+        try {
+            return writer.writeAll(rs, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled maintenance
+            log.warn("Audit partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private static YearMonth min(YearMonth a, YearMonth b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static YearMonth max(YearMonth a, YearMonth b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,132 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.audit.AuditEvent;
+import com.staticdata.platform.dto.AuditLogPageDto;
+import com.staticdata.platform.dto.AuditLogQuery;
+import com.staticdata.platform.entity.AuditLog;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.repository.AuditLogStore;
+import com.staticdata.platform.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Records audited actions of the current user and queries the audit logs. Events are only
+ * captured here, with the user and client of the current request; the audit event bus writes
+ * them after the surrounding transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditService {
+
+    public static final String DATA_FILE = "DATA_FILE";
+    public static final String ORGANIZATION_NODE = "ORGANIZATION_NODE";
+    public static final String USER = "USER";
+
+    /**
+     * User id of actions by callers that are not a known user
+     */
+    private static final long UNKNOWN_USER_ID = 0L;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditLogStore auditLogStore;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Record an action of the authenticated user
+     */
+    public void record(AuditLog.ActionType actionType, String resourceType, Long resourceId,
+            String resourceName, String description) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            recordAs(principal.getId(), principal.getUsername(), actionType, resourceType,
+                    resourceId, resourceName, description);
+        } else {
+            recordAs(UNKNOWN_USER_ID, authentication != null ? authentication.getName()
+                    : "anonymous", actionType, resourceType, resourceId, resourceName,
+                    description);
+        }
+    }
+
+    /**
+     * Record an action of a given user, e.g. of a user who just registered
+     */
+    public void recordAs(Long userId, String username, AuditLog.ActionType actionType,
+            String resourceType, Long resourceId, String resourceName, String description) {
+        if (!enabled) {
+            return;
+        }
+        String clientIp = null;
+        String userAgent = null;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            clientIp = request.getRemoteAddr();
+            userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        }
+        eventPublisher.publishEvent(new AuditEvent(LocalDateTime.now(), userId, username,
+                actionType, resourceType, resourceId, resourceName, description, clientIp,
+                userAgent));
+    }
+
+    /**
+     * One page of the audit logs matching the query, newest first
+     */
+    public AuditLogPageDto queryAuditLogs(AuditLogQuery query) {
+        if (query.getFrom() != null && query.getTo() != null
+                && !query.getFrom().isBefore(query.getTo())) {
+            throw new BusinessException("Audit query range must end after it starts");
+        }
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (query.getCursor() != null) {
+            String decoded = decodeCursor(query.getCursor());
+            // The timestamp contains colons, the id does not
+            int separator = decoded.lastIndexOf(':');
+            try {
+                afterCreatedAt = LocalDateTime.parse(decoded.substring(0, separator));
+                afterId = Long.parseLong(decoded.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException
+                    | StringIndexOutOfBoundsException e) {
+                throw new BusinessException("Invalid cursor");
+            }
+        }
+        int limit = query.getLimit() != null ? query.getLimit() : 50;
+        List<AuditLogPageDto.AuditLogDto> items = auditLogStore.findPage(query, afterCreatedAt,
+                afterId, limit + 1);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            AuditLogPageDto.AuditLogDto last = items.get(limit - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + ":" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return AuditLogPageDto.builder().items(items).nextCursor(nextCursor).build();
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.staticdata.platform.dto.LoginRequest;
 import com.staticdata.platform.dto.LoginResponse;
 import com.staticdata.platform.dto.RegisterRequest;
 import com.staticdata.platform.dto.UserDto;
+import com.staticdata.platform.entity.AuditLog;
 import com.staticdata.platform.entity.User;
 import com.staticdata.platform.enums.UserRole;
 import com.staticdata.platform.repository.UserRepository;
@@ -34,6 +35,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final AuditService auditService;
 
     /**
      * UserLogin
@@ -70,6 +72,8 @@ public class AuthService {
                     .enabled(userPrincipal.isEnabled()).build();
 
             log.info("User login successful: {}", userPrincipal.getUsername());
+            auditService.record(AuditLog.ActionType.LOGIN, AuditService.USER,
+                    userPrincipal.getId(), userPrincipal.getUsername(), null);
 
             return new LoginResponse(jwt, jwtUtils.getJwtExpirationMs(), userDto);
         } catch (Exception e) {
@@ -120,6 +124,9 @@ public class AuthService {
         User savedUser = userRepository.save(user);
 
         log.info("User registration successful: {}", savedUser.getUsername());
+        auditService.recordAs(savedUser.getId(), savedUser.getUsername(),
+                AuditLog.ActionType.CREATE, AuditService.USER, savedUser.getId(),
+                savedUser.getUsername(), "Registered");
 
         // Convert to DTO and return
         return UserDto.builder().id(savedUser.getId()).username(savedUser.getUsername())
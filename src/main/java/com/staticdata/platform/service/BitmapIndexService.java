@@ -0,0 +1,52 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.query.BitmapIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds bitmap indexes of the low-cardinality columns of data files on their first row query
+ * and keeps the most recently used ones by file hash
+ */
+@Service
+@Slf4j
+public class BitmapIndexService {
+
+    @Value("${app.rows.bitmap-max-cardinality:64}")
+    private int maxCardinality;
+
+    @Value("${app.rows.bitmap-index-max-files:64}")
+    private int maxFiles;
+
+    private final Map<String, BitmapIndex> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Bitmap index of a data file version over its columnar rows
+     */
+    public BitmapIndex index(DataFileMetadata dataFile, ColumnarRows rows) {
+        String key = dataFile.getFileHash();
+        synchronized (cache) {
+            BitmapIndex cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long started = System.nanoTime();
+        BitmapIndex index = BitmapIndex.build(rows, maxCardinality);
+        log.debug("Built bitmap index of data file {} (~{} KB) in {} ms", dataFile.getId(),
+                index.estimatedBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+        synchronized (cache) {
+            cache.put(key, index);
+            while (cache.size() > maxFiles) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        }
+        return index;
+    }
+}
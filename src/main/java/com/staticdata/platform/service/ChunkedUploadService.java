@@ -0,0 +1,439 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.ChunkedUploadDto;
+import com.staticdata.platform.dto.ChunkedUploadInitRequest;
+import com.staticdata.platform.dto.DataFileImportRequest;
+import com.staticdata.platform.dto.DataFileImportResult;
+import com.staticdata.platform.enums.ImportFormat;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.exception.ResourceNotFoundException;
+import com.staticdata.platform.util.DataFileHashUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Resumable chunked uploads for files above the multipart limit. Each upload gets a staging
+ * directory holding a manifest and one file per verified chunk; chunks can be sent in any order
+ * and re-sent after a failure. On completion the chunks are concatenated with channel transfers
+ * and the result is handed to the import pipeline.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    private static final String MANIFEST = "manifest.json";
+    private static final String CHUNK_PREFIX = "chunk-";
+    private static final String PART_SUFFIX = ".part";
+    private static final int MAX_CHUNKS = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern UPLOAD_ID =
+            Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}");
+
+    private final DataFileImportService dataFileImportService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.upload.staging-dir:${java.io.tmpdir}/sdp-uploads}")
+    private String stagingDir;
+
+    @Value("${app.upload.max-file-size-mb:2048}")
+    private long maxFileSizeMb;
+
+    @Value("${app.upload.max-chunk-size-mb:32}")
+    private int maxChunkSizeMb;
+
+    @Value("${app.upload.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    private final Map<String, UploadManifest> manifests = new ConcurrentHashMap<>();
+    private final Set<String> completing = ConcurrentHashMap.newKeySet();
+    /**
+     * Number of chunks being received per upload; an upload is only completed while none are
+     */
+    private final Map<String, Integer> receiving = new ConcurrentHashMap<>();
+
+    private Path stagingPath;
+
+    /**
+     * Upload session metadata, stored next to the chunks so uploads survive a restart
+     */
+    @Data
+    static class UploadManifest {
+        private String uploadId;
+        private String username;
+        private String fileName;
+        private ImportFormat format;
+        private long totalSize;
+        private int chunkSize;
+        private int chunkCount;
+        private DataFileImportRequest request;
+        private LocalDateTime createdAt;
+
+        long chunkLength(int index) {
+            return index == chunkCount - 1 ? totalSize - (long) chunkSize * (chunkCount - 1)
+                    : chunkSize;
+        }
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        stagingPath = Files.createDirectories(Paths.get(stagingDir));
+        log.info("Chunked upload staging directory: {}", stagingPath);
+    }
+
+    /**
+     * Start an upload; the target module and owner are checked before any data is sent
+     */
+    public ChunkedUploadDto init(ChunkedUploadInitRequest request) {
+        purgeExpired();
+        ImportFormat format = request.getFormat() != null && !request.getFormat().isBlank()
+                ? ImportFormat.fromParameter(request.getFormat())
+                : ImportFormat.fromFileName(request.getFileName());
+        if (request.getTotalSize() > maxFileSizeMb * 1024 * 1024) {
+            throw new BusinessException("File exceeds the maximum upload size of " + maxFileSizeMb
+                    + " MB");
+        }
+        if (request.getChunkSize() > (long) maxChunkSizeMb * 1024 * 1024) {
+            throw new BusinessException("Chunk size exceeds the maximum of " + maxChunkSizeMb
+                    + " MB");
+        }
+        long chunkCount =
+                (request.getTotalSize() + request.getChunkSize() - 1) / request.getChunkSize();
+        if (chunkCount > MAX_CHUNKS) {
+            throw new BusinessException("Upload would need " + chunkCount
+                    + " chunks, use a larger chunk size (at most " + MAX_CHUNKS + " chunks)");
+        }
+        dataFileImportService.resolveTarget(request);
+
+        UploadManifest manifest = new UploadManifest();
+        manifest.setUploadId(UUID.randomUUID().toString());
+        manifest.setUsername(currentUsername());
+        manifest.setFileName(request.getFileName());
+        manifest.setFormat(format);
+        manifest.setTotalSize(request.getTotalSize());
+        manifest.setChunkSize(request.getChunkSize());
+        manifest.setChunkCount((int) chunkCount);
+        manifest.setRequest(importRequestOf(request));
+        manifest.setCreatedAt(LocalDateTime.now());
+        try {
+            Path dir = Files.createDirectory(stagingPath.resolve(manifest.getUploadId()));
+            objectMapper.writeValue(dir.resolve(MANIFEST).toFile(), manifest);
+        } catch (IOException e) {
+            throw new BusinessException("Failed to start upload: " + e.getMessage(), e);
+        }
+        manifests.put(manifest.getUploadId(), manifest);
+        log.info("Started chunked upload {} of {} ({} bytes in {} chunks)", manifest.getUploadId(),
+                manifest.getFileName(), manifest.getTotalSize(), chunkCount);
+        return toDto(manifest);
+    }
+
+    /**
+     * Get the state of an upload, including the chunks received so far
+     */
+    public ChunkedUploadDto getUpload(String uploadId) {
+        return toDto(findManifest(uploadId));
+    }
+
+    /**
+     * Store one chunk. The chunk is streamed to a temporary file while its MD5 is computed, and
+     * only becomes visible once size and checksum match; re-sending a chunk replaces it. Chunks
+     * are refused while the upload is being completed, so the assembled file always consists of
+     * the chunks whose checksums were accepted.
+     */
+    public ChunkedUploadDto putChunk(String uploadId, int index, String checksum,
+            InputStream body) {
+        UploadManifest manifest = findManifest(uploadId);
+        if (index < 0 || index >= manifest.getChunkCount()) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and "
+                    + (manifest.getChunkCount() - 1) + ", got " + index);
+        }
+        // Registered before checking, complete() does the reverse: one of them sees the other
+        receiving.merge(uploadId, 1, Integer::sum);
+        try {
+            if (completing.contains(uploadId)) {
+                throw new BusinessException("Upload is being completed: " + uploadId);
+            }
+            receiveChunk(manifest, uploadId, index, checksum, body);
+        } finally {
+            receiving.computeIfPresent(uploadId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+        log.debug("Stored chunk {} of upload {}", index, uploadId);
+        return toDto(manifest);
+    }
+
+    private void receiveChunk(UploadManifest manifest, String uploadId, int index,
+            String checksum, InputStream body) {
+        long expected = manifest.chunkLength(index);
+        Path dir = stagingPath.resolve(uploadId);
+        Path part = dir.resolve(CHUNK_PREFIX + index + "." + UUID.randomUUID() + PART_SUFFIX);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            long written = 0;
+            try (ReadableByteChannel in = Channels.newChannel(body);
+                    FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE_NEW,
+                            StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    written += buffer.remaining();
+                    if (written > expected) {
+                        throw new BusinessException("Chunk " + index
+                                + " is larger than the expected " + expected + " bytes");
+                    }
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            if (written != expected) {
+                throw new BusinessException("Chunk " + index + " has " + written
+                        + " bytes, expected " + expected);
+            }
+            String actual = DataFileHashUtils.toHex(digest.digest());
+            if (!actual.equalsIgnoreCase(checksum.trim())) {
+                throw new BusinessException("Checksum mismatch for chunk " + index + ": expected "
+                        + checksum + ", received data has " + actual);
+            }
+            Files.move(part, chunkPath(dir, index), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new BusinessException("Failed to receive chunk " + index + ": " + e.getMessage(),
+                    e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        } finally {
+            DataFileImportService.deleteQuietly(part);
+        }
+    }
+
+    /**
+     * Assemble all chunks and import the result. The staging directory is removed once the
+     * import ran; a failed assembly keeps it so the client can re-send chunks and retry.
+     */
+    public List<DataFileImportResult> complete(String uploadId) {
+        UploadManifest manifest = findManifest(uploadId);
+        if (!completing.add(uploadId)) {
+            throw new BusinessException("Upload is already being completed: " + uploadId);
+        }
+        try {
+            if (receiving.containsKey(uploadId)) {
+                throw new BusinessException("Chunks of upload are still being received: "
+                        + uploadId);
+            }
+            Path dir = stagingPath.resolve(uploadId);
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < manifest.getChunkCount() && missing.size() < 20; i++) {
+                if (!Files.isRegularFile(chunkPath(dir, i))) {
+                    missing.add(i);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new BusinessException("Upload is missing chunks: " + missing);
+            }
+
+            long started = System.currentTimeMillis();
+            Path assembled = assemble(dir, manifest);
+            log.info("Assembled upload {} ({} bytes) in {} ms", uploadId, manifest.getTotalSize(),
+                    System.currentTimeMillis() - started);
+
+            List<DataFileImportResult> results = dataFileImportService.importFile(assembled,
+                    manifest.getFormat(), manifest.getFileName(), manifest.getRequest());
+            deleteUpload(uploadId);
+            return results;
+        } finally {
+            completing.remove(uploadId);
+        }
+    }
+
+    /**
+     * Abort an upload and discard its chunks
+     */
+    public void abort(String uploadId) {
+        findManifest(uploadId);
+        if (completing.contains(uploadId)) {
+            throw new BusinessException("Upload is being completed: " + uploadId);
+        }
+        deleteUpload(uploadId);
+        log.info("Aborted chunked upload {}", uploadId);
+    }
+
+    /**
+     * Concatenate the chunks; transferTo lets the kernel copy file to file without user space
+     * buffers
+     */
+    private Path assemble(Path dir, UploadManifest manifest) {
+        Path assembled = dir.resolve("assembled." + manifest.getFormat().getExtension());
+        try (FileChannel out = FileChannel.open(assembled, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < manifest.getChunkCount(); i++) {
+                try (FileChannel in =
+                        FileChannel.open(chunkPath(dir, i), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        long transferred = in.transferTo(position, size - position, out);
+                        if (transferred == 0) {
+                            // The chunk shrank since its size was read
+                            throw new BusinessException("Chunk " + i + " was truncated at "
+                                    + position + " of " + size + " bytes");
+                        }
+                        position += transferred;
+                    }
+                }
+            }
+            if (out.size() != manifest.getTotalSize()) {
+                throw new BusinessException("Assembled file has " + out.size()
+                        + " bytes, expected " + manifest.getTotalSize());
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Failed to assemble upload: " + e.getMessage(), e);
+        }
+        return assembled;
+    }
+
+    private UploadManifest findManifest(String uploadId) {
+        UploadManifest manifest = null;
+        if (uploadId != null && UPLOAD_ID.matcher(uploadId).matches()) {
+            manifest = manifests.computeIfAbsent(uploadId, this::readManifest);
+        }
+        if (manifest == null || !manifest.getUsername().equals(currentUsername())) {
+            throw new ResourceNotFoundException("Upload does not exist, ID: " + uploadId);
+        }
+        return manifest;
+    }
+
+    private UploadManifest readManifest(String uploadId) {
+        Path file = stagingPath.resolve(uploadId).resolve(MANIFEST);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), UploadManifest.class);
+        } catch (IOException e) {
+            log.warn("Unreadable manifest of upload {}: {}", uploadId, e.getMessage());
+            return null;
+        }
+    }
+
+    private ChunkedUploadDto toDto(UploadManifest manifest) {
+        Path dir = stagingPath.resolve(manifest.getUploadId());
+        List<Integer> received = new ArrayList<>();
+        long receivedBytes = 0;
+        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(dir, CHUNK_PREFIX + "*")) {
+            for (Path chunk : chunks) {
+                String index = chunk.getFileName().toString().substring(CHUNK_PREFIX.length());
+                if (index.indexOf('.') < 0) {
+                    received.add(Integer.parseInt(index));
+                    receivedBytes += Files.size(chunk);
+                }
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Failed to read upload state: " + e.getMessage(), e);
+        }
+        received.sort(Comparator.naturalOrder());
+        return ChunkedUploadDto.builder()
+                .uploadId(manifest.getUploadId())
+                .fileName(manifest.getFileName())
+                .format(manifest.getFormat())
+                .totalSize(manifest.getTotalSize())
+                .chunkSize(manifest.getChunkSize())
+                .chunkCount(manifest.getChunkCount())
+                .receivedChunks(received)
+                .receivedBytes(receivedBytes)
+                .expiresAt(expiresAt(dir))
+                .build();
+    }
+
+    private LocalDateTime expiresAt(Path dir) {
+        try {
+            return LocalDateTime.ofInstant(Files.getLastModifiedTime(dir).toInstant(),
+                    ZoneId.systemDefault()).plusHours(sessionTtlHours);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Remove uploads without activity (new chunks) within the session TTL
+     */
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(sessionTtlHours));
+        try (DirectoryStream<Path> uploads = Files.newDirectoryStream(stagingPath)) {
+            for (Path dir : uploads) {
+                String uploadId = dir.getFileName().toString();
+                if (Files.isDirectory(dir) && !completing.contains(uploadId)
+                        && Files.getLastModifiedTime(dir).toInstant().isBefore(cutoff)) {
+                    log.info("Discarding expired chunked upload {}", uploadId);
+                    deleteUpload(uploadId);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to purge expired uploads", e);
+        }
+    }
+
+    private void deleteUpload(String uploadId) {
+        manifests.remove(uploadId);
+        Path dir = stagingPath.resolve(uploadId);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(DataFileImportService::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Unable to list upload directory {}: {}", dir, e.getMessage());
+        }
+        DataFileImportService.deleteQuietly(dir);
+    }
+
+    private static Path chunkPath(Path dir, int index) {
+        return dir.resolve(CHUNK_PREFIX + index);
+    }
+
+    private static DataFileImportRequest importRequestOf(ChunkedUploadInitRequest request) {
+        DataFileImportRequest importRequest = new DataFileImportRequest();
+        importRequest.setOrganizationNodeId(request.getOrganizationNodeId());
+        importRequest.setName(request.getName());
+        importRequest.setDescription(request.getDescription());
+        importRequest.setAccessLevel(request.getAccessLevel());
+        importRequest.setMasking(request.getMasking());
+        return importRequest;
+    }
+
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
@@ -0,0 +1,91 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.repository.DataFileRowStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Loads the rows of data files into columnar tables and keeps the most recently used ones in
+ * memory, bounded by their estimated size. A cached table is reused while the file's update
+ * time is unchanged.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ColumnarTableService {
+
+    private final DataFileRowStore dataFileRowStore;
+
+    @Value("${app.rows.cache-max-mb:256}")
+    private long cacheMaxMb;
+
+    private final Map<Long, CachedTable> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * Columnar rows of a data file, from the cache or read through the row store cursor
+     */
+    @Transactional(readOnly = true)
+    public ColumnarTable load(DataFileMetadata dataFile) {
+        synchronized (cache) {
+            CachedTable cached = cache.get(dataFile.getId());
+            if (cached != null && Objects.equals(cached.updatedAt(), dataFile.getUpdatedAt())) {
+                return cached.table();
+            }
+        }
+        long started = System.nanoTime();
+        int expectedRows = dataFile.getRowCount() != null ? dataFile.getRowCount() : 0;
+        ColumnarTable.Builder builder =
+                ColumnarTable.builder(dataFile.getColumnDefinitions(), expectedRows);
+        dataFileRowStore.streamRows(dataFile, builder);
+        ColumnarTable table = builder.build();
+        long bytes = table.estimatedBytes();
+        log.debug("Loaded {} rows of data file {} into columns (~{} KB) in {} ms",
+                table.getRowCount(), dataFile.getId(), bytes / 1024,
+                (System.nanoTime() - started) / 1_000_000);
+
+        synchronized (cache) {
+            CachedTable previous = cache.remove(dataFile.getId());
+            if (previous != null) {
+                cachedBytes -= previous.bytes();
+            }
+            long maxBytes = cacheMaxMb * 1024 * 1024;
+            if (bytes <= maxBytes) {
+                cache.put(dataFile.getId(), new CachedTable(table, dataFile.getUpdatedAt(), bytes));
+                cachedBytes += bytes;
+                Iterator<CachedTable> eldest = cache.values().iterator();
+                while (cachedBytes > maxBytes && eldest.hasNext()) {
+                    cachedBytes -= eldest.next().bytes();
+                    eldest.remove();
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Drop the cached table of a data file whose rows changed or that was deleted
+     */
+    public void evict(Long dataFileId) {
+        synchronized (cache) {
+            CachedTable removed = cache.remove(dataFileId);
+            if (removed != null) {
+                cachedBytes -= removed.bytes();
+            }
+        }
+    }
+
+    private record CachedTable(ColumnarTable table, LocalDateTime updatedAt, long bytes) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.ExportFormat;
+import com.staticdata.platform.export.CsvStreamingWriter;
+import com.staticdata.platform.export.TabularWriter;
+import com.staticdata.platform.export.XlsxStreamingWriter;
+import com.staticdata.platform.ingest.RowSink;
+import com.staticdata.platform.jfr.ExportChunkEvent;
+import com.staticdata.platform.repository.DataFileRowStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Streaming export of data files. Rows are read through a database cursor and written one at a
+ * time, so memory use does not depend on the size of the file.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataFileExportService {
+
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final DataFileRowStore dataFileRowStore;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.export.xlsx-row-window:100}")
+    private int xlsxRowWindow;
+
+    /**
+     * Export all rows of a data file to the given stream
+     */
+    public long export(DataFileMetadata dataFile, ExportFormat format, OutputStream out)
+            throws IOException {
+        return export(dataFile, format, out, rows -> {});
+    }
+
+    /**
+     * Export all rows of a data file, reporting the number of rows written so far
+     *
+     * @return number of exported rows
+     */
+    public long export(DataFileMetadata dataFile, ExportFormat format, OutputStream out,
+            LongConsumer progress) throws IOException {
+        long started = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (TabularWriter writer = newWriter(dataFile, format, counted)) {
+            ExportSink sink = new ExportSink(writer, dataFile.getId(),
+                    dataFile.getColumnDefinitions(), progress, counted);
+            try {
+                transaction.executeWithoutResult(
+                        status -> dataFileRowStore.streamRows(dataFile, sink));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            sink.ensureHeader();
+            writer.finish();
+            sink.endChunk();
+            progress.accept(sink.rows);
+            log.info("Exported {} rows of data file {} as {} in {} ms", sink.rows, dataFile.getId(),
+                    format, System.currentTimeMillis() - started);
+            return sink.rows;
+        }
+    }
+
+    /**
+     * Download file name of an export
+     */
+    public static String fileName(DataFileMetadata dataFile, ExportFormat format) {
+        return dataFile.getName().replaceAll("[\\\\/:*?\"<>|]", "_") + "." + format.getExtension();
+    }
+
+    private TabularWriter newWriter(DataFileMetadata dataFile, ExportFormat format,
+            OutputStream out) {
+        return switch (format) {
+            case XLSX -> new XlsxStreamingWriter(out, objectMapper, dataFile.getName(),
+                    xlsxRowWindow);
+            case CSV -> new CsvStreamingWriter(out, objectMapper);
+        };
+    }
+
+    /**
+     * Writes streamed rows; files without column definitions take their columns from the first row.
+     * Every progress interval of rows is recorded as one export chunk event. XLSX workbooks are
+     * only written out on finish, so their bytes all count towards the last chunk.
+     */
+    private static final class ExportSink implements RowSink {
+
+        private final TabularWriter writer;
+        private final long fileId;
+        private final LongConsumer progress;
+        private final CountingOutputStream counted;
+        private List<DataFile.ColumnDefinition> columns;
+        private boolean headerWritten;
+        private long rows;
+        private ExportChunkEvent chunk;
+        private long chunkStartRows;
+        private long chunkStartBytes;
+
+        ExportSink(TabularWriter writer, Long fileId, List<DataFile.ColumnDefinition> columns,
+                LongConsumer progress, CountingOutputStream counted) {
+            this.writer = writer;
+            this.fileId = fileId != null ? fileId : 0;
+            this.columns = columns != null && !columns.isEmpty() ? columns : null;
+            this.progress = progress;
+            this.counted = counted;
+        }
+
+        @Override
+        public void accept(Map<String, Object> row) {
+            if (chunk == null) {
+                chunk = new ExportChunkEvent();
+                chunk.begin();
+                chunkStartRows = rows;
+                chunkStartBytes = counted.count;
+            }
+            try {
+                if (!headerWritten) {
+                    if (columns == null) {
+                        columns = columnsOf(row);
+                    }
+                    ensureHeader();
+                }
+                writer.writeRow(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (++rows % PROGRESS_INTERVAL == 0) {
+                progress.accept(rows);
+                endChunk();
+            }
+        }
+
+        void endChunk() {
+            if (chunk == null) {
+                return;
+            }
+            if (chunk.shouldCommit()) {
+                chunk.fileId = fileId;
+                chunk.rows = rows - chunkStartRows;
+                chunk.bytes = counted.count - chunkStartBytes;
+                chunk.commit();
+            }
+            chunk = null;
+        }
+
+        void ensureHeader() throws IOException {
+            if (!headerWritten) {
+                writer.writeHeader(columns != null ? columns : List.of());
+                headerWritten = true;
+            }
+        }
+
+        private static List<DataFile.ColumnDefinition> columnsOf(Map<String, Object> row) {
+            List<DataFile.ColumnDefinition> derived = new ArrayList<>(row.size());
+            for (String name : row.keySet()) {
+                DataFile.ColumnDefinition column = new DataFile.ColumnDefinition();
+                column.setName(name);
+                column.setDataType(DataFile.ColumnDefinition.DataType.STRING);
+                derived.add(column);
+            }
+            return derived;
+        }
+    }
+
+    /**
+     * Counts the bytes written through it
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
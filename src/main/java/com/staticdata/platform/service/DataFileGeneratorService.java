@@ -0,0 +1,128 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.DataFileDto;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.dto.RowGenerateRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.export.CsvStreamingWriter;
+import com.staticdata.platform.generate.RowGenerator;
+import com.staticdata.platform.jfr.ExportChunkEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills data files with synthetic rows made by a {@link RowGenerator} from their column
+ * definitions, either replacing the stored rows or streaming the rows as a CSV download.
+ * Generating (and for downloads, encoding) runs on all cores; the rows reach the row store or
+ * the response in order on the request thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataFileGeneratorService {
+
+    private final DataFileService dataFileService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.generate.max-rows:10000000}")
+    private long maxRows;
+
+    /**
+     * A generator compiled for the columns of a data file, ready to stream
+     */
+    public record PreparedGeneration(DataFileMetadata dataFile, RowGenerator generator) {
+    }
+
+    /**
+     * Compile the generators of a request against the columns of a data file the user may read
+     */
+    public PreparedGeneration prepare(Long id, RowGenerateRequest request) {
+        if (request.getRowCount() > maxRows) {
+            throw new BusinessException("At most " + maxRows + " rows can be generated");
+        }
+        DataFileMetadata dataFile = dataFileService.getAccessibleMetadata(id);
+        List<DataFile.ColumnDefinition> columns = dataFile.getColumnDefinitions();
+        if (columns == null || columns.isEmpty()) {
+            throw new BusinessException("Data file has no column definitions to generate rows for");
+        }
+        long seed = request.getSeed() != null ? request.getSeed() : 0;
+        return new PreparedGeneration(dataFile, RowGenerator.compile(columns,
+                request.getColumns(), request.getRowCount(), seed));
+    }
+
+    /**
+     * Replace the rows of a data file with generated rows
+     */
+    public DataFileDto generateRows(Long id, RowGenerateRequest request) {
+        long started = System.currentTimeMillis();
+        RowGenerator generator = prepare(id, request).generator();
+        DataFileDto dataFile = dataFileService.replaceRows(id, generator::generate);
+        log.info("Generated {} rows into data file {} in {} ms", generator.getRowCount(), id,
+                System.currentTimeMillis() - started);
+        return dataFile;
+    }
+
+    /**
+     * Stream generated rows as CSV, chunks being encoded in parallel
+     *
+     * @return number of rows written
+     */
+    public long download(PreparedGeneration generation, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        List<DataFile.ColumnDefinition> columns = generation.dataFile().getColumnDefinitions();
+        try (CsvStreamingWriter header = new CsvStreamingWriter(out, objectMapper)) {
+            header.writeHeader(columns);
+            header.finish();
+        }
+        try {
+            Long fileId = generation.dataFile().getId();
+            generation.generator().generate(rows -> encode(fileId, rows, columns), bytes -> {
+                try {
+                    out.write(bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        log.info("Streamed {} generated rows of data file {} in {} ms",
+                generation.generator().getRowCount(), generation.dataFile().getId(),
+                System.currentTimeMillis() - started);
+        return generation.generator().getRowCount();
+    }
+
+    private byte[] encode(Long fileId, List<Map<String, Object>> rows,
+            List<DataFile.ColumnDefinition> columns) {
+        ExportChunkEvent event = new ExportChunkEvent();
+        event.begin();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(rows.size() * 64);
+        try (CsvStreamingWriter writer = new CsvStreamingWriter(buffer, objectMapper, columns)) {
+            for (Map<String, Object> row : rows) {
+                writer.writeRow(row);
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (event.shouldCommit()) {
+            event.fileId = fileId != null ? fileId : 0;
+            event.rows = rows.size();
+            event.bytes = buffer.size();
+            event.commit();
+        }
+        return buffer.toByteArray();
+    }
+}
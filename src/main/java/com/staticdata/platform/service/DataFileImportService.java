@@ -0,0 +1,341 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.DataFileImportRequest;
+import com.staticdata.platform.dto.DataFileImportResult;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.entity.OrganizationNode;
+import com.staticdata.platform.entity.User;
+import com.staticdata.platform.enums.ImportFormat;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.exception.ResourceNotFoundException;
+import com.staticdata.platform.ingest.CsvTableReader;
+import com.staticdata.platform.ingest.InferringRowSink;
+import com.staticdata.platform.ingest.JsonTableReader;
+import com.staticdata.platform.ingest.MaskingRowSink;
+import com.staticdata.platform.ingest.RowBatchWriter;
+import com.staticdata.platform.ingest.RowMasker;
+import com.staticdata.platform.ingest.TableConsumer;
+import com.staticdata.platform.ingest.TokenCache;
+import com.staticdata.platform.ingest.XlsxWorkbookReader;
+import com.staticdata.platform.repository.DataFileRepository;
+import com.staticdata.platform.repository.DataFileRowStore;
+import com.staticdata.platform.repository.OrganizationNodeRepository;
+import com.staticdata.platform.repository.UserRepository;
+import com.staticdata.platform.util.DataFileHashUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming import of tabular files into row store data files. Rows go straight from the parser
+ * to the database in fixed-size batches; workbooks with several sheets are imported in parallel,
+ * one data file (and one transaction) per sheet. Imports with masking rules pass the rows
+ * through a {@link MaskingRowSink} first, all masking sharing one token cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataFileImportService {
+
+    private final DataFileRepository dataFileRepository;
+    private final DataFileRowStore dataFileRowStore;
+    private final OrganizationNodeRepository organizationNodeRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.sheet-parallelism:4}")
+    private int sheetParallelism;
+
+    /**
+     * Shortest masking secret accepted; the masked values (phone numbers, IDs, dates) have little
+     * entropy, so a guessable key would let them be brute-forced back
+     */
+    private static final int MIN_MASKING_SECRET_LENGTH = 32;
+
+    @Value("${app.masking.secret:}")
+    private String maskingSecret;
+
+    @Value("${app.masking.token-cache-size:65536}")
+    private int tokenCacheSize;
+
+    private ExecutorService sheetExecutor;
+    private TokenCache tokenCache;
+
+    /**
+     * Producer of one table, pushing its header and rows into the given consumer
+     */
+    @FunctionalInterface
+    interface TableProducer {
+        void produce(TableConsumer consumer) throws IOException;
+    }
+
+    /**
+     * Resolved target of an import: module, owner, file metadata and masking (null for none)
+     */
+    record ImportTarget(Long organizationNodeId, Long ownerId, String username,
+            DataFileImportRequest request, RowMasker masker) {
+    }
+
+    @PostConstruct
+    void start() {
+        tokenCache = new TokenCache(tokenCacheSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        sheetExecutor = new ThreadPoolExecutor(sheetParallelism, sheetParallelism, 60L,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<>(sheetParallelism * 16), runnable -> {
+                    Thread thread = new Thread(runnable, "import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        sheetExecutor.shutdownNow();
+    }
+
+    /**
+     * Import an XLSX workbook, creating one data file per non-empty sheet
+     */
+    public List<DataFileImportResult> importXlsx(MultipartFile file, DataFileImportRequest request) {
+        log.info("Importing XLSX workbook {} into module {}", file.getOriginalFilename(),
+                request.getOrganizationNodeId());
+        ImportTarget target = resolveTarget(request);
+        Path spooled = spool(file, ".xlsx");
+        try {
+            return importXlsx(spooled, defaultName(request, file.getOriginalFilename()), target);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    /**
+     * Import a file that is already on local disk (e.g. an assembled chunked upload)
+     */
+    public List<DataFileImportResult> importFile(Path file, ImportFormat format, String fileName,
+            DataFileImportRequest request) {
+        log.info("Importing {} file {} into module {}", format, fileName,
+                request.getOrganizationNodeId());
+        ImportTarget target = resolveTarget(request);
+        String baseName = defaultName(request, fileName);
+        return switch (format) {
+            case XLSX -> importXlsx(file, baseName, target);
+            case CSV -> importSingleTable(fileName, baseName, target,
+                    consumer -> new CsvTableReader(file).read(consumer));
+            case JSON -> importSingleTable(fileName, baseName, target,
+                    consumer -> new JsonTableReader(file, objectMapper).read(consumer));
+        };
+    }
+
+    /**
+     * Import a workbook that is already on local disk
+     */
+    List<DataFileImportResult> importXlsx(Path workbook, String baseName, ImportTarget target) {
+        XlsxWorkbookReader reader;
+        try {
+            reader = new XlsxWorkbookReader(workbook);
+        } catch (IOException e) {
+            throw new BusinessException("Unable to read XLSX workbook: " + e.getMessage(), e);
+        }
+        List<String> sheets = reader.getSheetNames();
+        if (sheets.isEmpty()) {
+            throw new BusinessException("Workbook does not contain any sheet");
+        }
+
+        List<String> names = new ArrayList<>(sheets.size());
+        for (String sheet : sheets) {
+            names.add(sheets.size() == 1 ? baseName : truncateName(baseName + " - " + sheet));
+        }
+        checkNamesAvailable(names, target.organizationNodeId());
+
+        List<CompletableFuture<DataFileImportResult>> futures = new ArrayList<>(sheets.size());
+        for (int i = 0; i < sheets.size(); i++) {
+            int sheetIndex = i;
+            String name = names.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> importTable(sheets.get(sheetIndex),
+                    name, target, consumer -> reader.readSheet(sheetIndex, consumer)),
+                    sheetExecutor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private List<DataFileImportResult> importSingleTable(String sourceName, String name,
+            ImportTarget target, TableProducer producer) {
+        checkNamesAvailable(List.of(name), target.organizationNodeId());
+        return List.of(importTable(sourceName, name, target, producer));
+    }
+
+    /**
+     * Stream one table into a new row store data file within its own transaction
+     */
+    DataFileImportResult importTable(String sourceName, String name, ImportTarget target,
+            TableProducer producer) {
+        long started = System.currentTimeMillis();
+        try {
+            DataFile saved = new TransactionTemplate(transactionManager).execute(status -> {
+                DataFile dataFile = dataFileRepository.saveAndFlush(newDataFile(name, target));
+                RowBatchWriter writer = new RowBatchWriter(dataFileRowStore, objectMapper,
+                        dataFile.getId(), batchSize);
+                List<InferringRowSink> table = new ArrayList<>(1);
+                List<MaskingRowSink> masking = new ArrayList<>(1);
+                try {
+                    producer.produce(header -> {
+                        InferringRowSink sink = new InferringRowSink(header, writer);
+                        table.add(sink);
+                        if (target.masker() == null) {
+                            return sink;
+                        }
+                        MaskingRowSink maskingSink = new MaskingRowSink(target.masker(), sink);
+                        masking.add(maskingSink);
+                        return maskingSink;
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                masking.forEach(MaskingRowSink::finish);
+                String rowsDigest = writer.finish();
+
+                List<DataFile.ColumnDefinition> columns =
+                        table.isEmpty() ? List.of() : table.get(0).toColumnDefinitions();
+                dataFile.setColumnDefinitions(columns);
+                dataFile.setColumnCount(columns.size());
+                dataFile.setRowCount(writer.getRowCount());
+                dataFile.setRowsDigest(rowsDigest);
+                dataFile.setColumnStats(writer.getColumnStats(columns));
+                dataFile.setFileHash(DataFileHashUtils.generateFileHash(dataFile));
+                return dataFileRepository.save(dataFile);
+            });
+            log.info("Imported {} rows from {} into data file {}", saved.getRowCount(), sourceName,
+                    saved.getId());
+            return DataFileImportResult.builder().sheetName(sourceName).dataFileId(saved.getId())
+                    .name(saved.getName()).rowCount(saved.getRowCount())
+                    .columnCount(saved.getColumnCount())
+                    .durationMs(System.currentTimeMillis() - started).success(true).build();
+        } catch (RuntimeException e) {
+            log.warn("Import of {} failed: {}", sourceName, e.getMessage());
+            return DataFileImportResult.builder().sheetName(sourceName).name(name)
+                    .durationMs(System.currentTimeMillis() - started).success(false)
+                    .errorMessage(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Validate module and owner on the request thread (import workers have no security context)
+     */
+    ImportTarget resolveTarget(DataFileImportRequest request) {
+        OrganizationNode organizationNode =
+                organizationNodeRepository.findById(request.getOrganizationNodeId()).orElseThrow(
+                        () -> new ResourceNotFoundException("Organization node does not exist, ID: "
+                                + request.getOrganizationNodeId()));
+        if (organizationNode.getType() != OrganizationNode.NodeType.MODULE) {
+            throw new BusinessException(
+                    "Data file can only be attached to functional modules, current node type is: "
+                            + organizationNode.getType());
+        }
+        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        User owner = userRepository.findByUsername(currentUsername).orElseThrow(
+                () -> new ResourceNotFoundException("UserDoes not exist: " + currentUsername));
+        return new ImportTarget(organizationNode.getId(), owner.getId(), currentUsername, request,
+                newMasker(request));
+    }
+
+    private RowMasker newMasker(DataFileImportRequest request) {
+        if (request.getMasking() == null || request.getMasking().isEmpty()) {
+            return null;
+        }
+        if (maskingSecret == null || maskingSecret.strip().length() < MIN_MASKING_SECRET_LENGTH) {
+            throw new BusinessException("Masking is not available: app.masking.secret "
+                    + "(APP_MASKING_SECRET) must be configured with at least "
+                    + MIN_MASKING_SECRET_LENGTH + " characters");
+        }
+        try {
+            return new RowMasker(request.getMasking(),
+                    maskingSecret.getBytes(StandardCharsets.UTF_8), tokenCache);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    void checkNamesAvailable(List<String> names, Long organizationNodeId) {
+        Set<String> unique = new HashSet<>();
+        for (String name : names) {
+            if (!unique.add(name)
+                    || dataFileRepository.existsByNameAndOrganizationNodeId(name, organizationNodeId)) {
+                throw new BusinessException(
+                        "Data file name already exists under the same module: " + name);
+            }
+        }
+    }
+
+    Path spool(MultipartFile file, String suffix) {
+        try {
+            Path spooled = Files.createTempFile("sdp-import-", suffix);
+            file.transferTo(spooled);
+            return spooled;
+        } catch (IOException e) {
+            throw new BusinessException("Failed to receive uploaded file: " + e.getMessage(), e);
+        }
+    }
+
+    static String defaultName(DataFileImportRequest request, String fileName) {
+        if (request.getName() != null && !request.getName().isBlank()) {
+            return request.getName();
+        }
+        String name = fileName != null ? fileName : "Imported data";
+        int dot = name.lastIndexOf('.');
+        return truncateName(dot > 0 ? name.substring(0, dot) : name);
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String truncateName(String name) {
+        return name.length() > 100 ? name.substring(0, 100) : name;
+    }
+
+    private DataFile newDataFile(String name, ImportTarget target) {
+        DataFile dataFile = new DataFile();
+        dataFile.setName(name);
+        dataFile.setDescription(target.request().getDescription());
+        dataFile.setOrganizationNode(
+                organizationNodeRepository.getReferenceById(target.organizationNodeId()));
+        dataFile.setOwner(userRepository.getReferenceById(target.ownerId()));
+        dataFile.setAccessLevel(target.request().getAccessLevel() != null
+                ? target.request().getAccessLevel()
+                : DataFile.AccessLevel.PRIVATE);
+        dataFile.setRowStorage(DataFile.RowStorage.ROW_STORE);
+        // Real hash is computed once all rows have been streamed
+        dataFile.setFileHash(DataFileHashUtils.placeholderHash());
+        dataFile.setCreatedBy(target.username());
+        dataFile.setUpdatedBy(target.username());
+        return dataFile;
+    }
+}
@@ -0,0 +1,176 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.dto.RowJoinRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.JoinType;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.query.HashJoin;
+import com.staticdata.platform.repository.DataFileRowStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Joins the rows of two data files on a key column and streams the joined rows as JSON lines,
+ * one {"left": ..., "right": ...} object per line. The file with fewer rows is the build side
+ * of a {@link HashJoin}, which spills to partitioned files beyond the join buffer; the other
+ * file is streamed through it with a database cursor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataFileJoinService {
+
+    private final DataFileService dataFileService;
+    private final DataFileRowStore dataFileRowStore;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.rows.join-buffer-rows:100000}")
+    private int joinBufferRows;
+
+    @Value("${app.rows.sort-dir:${java.io.tmpdir}/sdp-sort}")
+    private String spillDir;
+
+    private Path spillPath;
+
+    @PostConstruct
+    void start() throws IOException {
+        spillPath = Files.createDirectories(Paths.get(spillDir));
+        // Partitions of joins interrupted by a restart
+        try (DirectoryStream<Path> partitions =
+                Files.newDirectoryStream(spillPath, "join-*.jsonl")) {
+            for (Path partition : partitions) {
+                Files.deleteIfExists(partition);
+            }
+        }
+    }
+
+    /**
+     * A join whose files and key columns were checked, ready to stream
+     */
+    public record PreparedJoin(DataFileMetadata left, DataFileMetadata right,
+            RowJoinRequest request) {
+    }
+
+    /**
+     * Resolve and check the joined files before the response starts streaming
+     */
+    public PreparedJoin prepare(RowJoinRequest request) {
+        DataFileMetadata left = dataFileService.getAccessibleMetadata(request.getLeftFileId());
+        DataFileMetadata right = dataFileService.getAccessibleMetadata(request.getRightFileId());
+        checkKeyColumn(left, request.getLeftKey());
+        checkKeyColumn(right, request.getRightKey());
+        return new PreparedJoin(left, right, request);
+    }
+
+    /**
+     * Stream the joined rows to the output
+     *
+     * @return number of joined rows written
+     */
+    public long join(PreparedJoin join, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        RowJoinRequest request = join.request();
+        boolean buildLeft = rowCount(join.left()) < rowCount(join.right());
+        DataFileMetadata build = buildLeft ? join.left() : join.right();
+        DataFileMetadata probe = buildLeft ? join.right() : join.left();
+        boolean leftJoin = request.getType() == JoinType.LEFT;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        long[] written = {0};
+        try (HashJoin hashJoin = new HashJoin(
+                buildLeft ? request.getLeftKey() : request.getRightKey(),
+                buildLeft ? request.getRightKey() : request.getLeftKey(),
+                leftJoin && buildLeft, leftJoin && !buildLeft, joinBufferRows, rowCount(build),
+                spillPath, objectMapper);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            HashJoin.PairSink pairs = (buildRow, probeRow) -> {
+                try {
+                    generator.writeStartObject();
+                    writeRow(generator, "left", buildLeft ? buildRow : probeRow,
+                            request.getLeftColumns());
+                    writeRow(generator, "right", buildLeft ? probeRow : buildRow,
+                            request.getRightColumns());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+            };
+            try {
+                transaction.executeWithoutResult(status -> {
+                    dataFileRowStore.streamRows(build, hashJoin.buildSink());
+                    try {
+                        hashJoin.probe(sink -> dataFileRowStore.streamRows(probe, sink), pairs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.flush();
+            log.info("Joined data files {} and {} into {} rows ({} partitions) in {} ms",
+                    join.left().getId(), join.right().getId(), written[0],
+                    hashJoin.getPartitionCount(), System.currentTimeMillis() - started);
+        }
+        return written[0];
+    }
+
+    private static void writeRow(JsonGenerator generator, String field, Map<String, Object> row,
+            List<String> columns) throws IOException {
+        generator.writeFieldName(field);
+        if (row == null || columns == null || columns.isEmpty()) {
+            generator.writeObject(row);
+            return;
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String column : columns) {
+            Object value = row.get(column);
+            if (value != null) {
+                projected.put(column, value);
+            }
+        }
+        generator.writeObject(projected);
+    }
+
+    private static void checkKeyColumn(DataFileMetadata dataFile, String column) {
+        List<DataFile.ColumnDefinition> definitions = dataFile.getColumnDefinitions();
+        if (definitions == null || definitions.isEmpty()) {
+            return;
+        }
+        DataFile.ColumnDefinition definition = definitions.stream()
+                .filter(d -> d.getName().equals(column)).findFirst()
+                .orElseThrow(() -> new BusinessException(
+                        "Data file " + dataFile.getId() + " has no column: " + column));
+        if (definition.getDataType() == DataFile.ColumnDefinition.DataType.JSON) {
+            throw new BusinessException("JSON column cannot be a join key: " + column);
+        }
+    }
+
+    private static long rowCount(DataFileMetadata dataFile) {
+        return dataFile.getRowCount() != null ? dataFile.getRowCount() : 0;
+    }
+}
@@ -1,16 +1,34 @@
 package com.staticdata.platform.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.columnar.RowKeyIndex;
+import com.staticdata.platform.columnar.RowWindow;
 import com.staticdata.platform.dto.*;
+import com.staticdata.platform.entity.AuditLog;
 import com.staticdata.platform.entity.DataFile;
 import com.staticdata.platform.entity.OrganizationNode;
 import com.staticdata.platform.entity.User;
 import com.staticdata.platform.exception.BusinessException;
 import com.staticdata.platform.exception.ResourceNotFoundException;
+import com.staticdata.platform.ingest.ColumnStatsCollector;
+import com.staticdata.platform.ingest.CompiledRowValidator;
+import com.staticdata.platform.ingest.RowBatchWriter;
+import com.staticdata.platform.ingest.RowSink;
+import com.staticdata.platform.ingest.StreamingRequestReader;
+import com.staticdata.platform.ingest.ValidatingRowSink;
+import com.staticdata.platform.jfr.DtoConversionEvent;
 import com.staticdata.platform.repository.DataFileRepository;
+import com.staticdata.platform.repository.DataFileRowStore;
 import com.staticdata.platform.repository.OrganizationNodeRepository;
 import com.staticdata.platform.repository.UserRepository;
+import com.staticdata.platform.util.DataFileHashUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,10 +37,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,14 +50,93 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DataFileService {
 
+  private static final int ROW_ERRORS_IN_MESSAGE = 5;
+
   private final DataFileRepository dataFileRepository;
   private final OrganizationNodeRepository organizationNodeRepository;
   private final UserRepository userRepository;
+  private final DataFileRowStore dataFileRowStore;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final ColumnarTableService columnarTableService;
+  private final DataFileSnapshotService dataFileSnapshotService;
+  private final RowKeyIndexService rowKeyIndexService;
+  private final AuditService auditService;
+
+  @Value("${app.import.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${app.rows.max-page-size:10000}")
+  private int maxRowsPageSize;
 
   @Transactional
   public DataFileDto createDataFile(CreateDataFileRequest request) {
     log.info("Creating data file: {}", request.getName());
+    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+    DataFile dataFile = newDataFile(request, currentUsername);
+
+    // HandleDataRow
+    if (request.getDataRows() != null) {
+      validateRows(dataFile.getColumnDefinitions(), request.getDataRows());
+      dataFile.setDataRows(request.getDataRows());
+      dataFile.setRowCount(request.getDataRows().size());
+      dataFile.setColumnStats(ColumnStatsCollector.of(request.getDataRows(),
+          dataFile.getColumnDefinitions()));
+    }
+
+    // GenerateFileHash
+    String fileHash = generateFileHash(dataFile);
+    dataFile.setFileHash(fileHash);
+
+    DataFile savedDataFile = dataFileRepository.save(dataFile);
+    log.info("Data file created with ID: {}", savedDataFile.getId());
 
+    auditService.record(AuditLog.ActionType.CREATE, AuditService.DATA_FILE, savedDataFile.getId(),
+        savedDataFile.getName(), null);
+    return convertToDto(savedDataFile);
+  }
+
+  /**
+   * Create a data file from a JSON request body read with the streaming parser. Rows are
+   * validated against the column definitions while parsing and written to the row store in
+   * batches, so neither the body nor the row list is held in memory.
+   */
+  @Transactional
+  public DataFileDto createDataFile(InputStream body) {
+    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+    List<RowBatchWriter> writers = new ArrayList<>(1);
+    List<DataFile> created = new ArrayList<>(1);
+
+    StreamingRequestReader.StreamedRequest<CreateDataFileRequest> streamed =
+        readStreamed(body, CreateDataFileRequest.class, request -> {
+          validateRequest(request);
+          DataFile dataFile = saveRowStoreShell(newDataFile(request, currentUsername));
+          created.add(dataFile);
+          return startRows(dataFile, writers);
+        });
+
+    if (created.isEmpty()) {
+      // Body without rows: an empty row store file
+      validateRequest(streamed.request());
+      created.add(saveRowStoreShell(newDataFile(streamed.request(), currentUsername)));
+      startRows(created.get(0), writers);
+    }
+    DataFile dataFile = created.get(0);
+    finishRows(dataFile, writers);
+    dataFile.setFileHash(generateFileHash(dataFile));
+
+    DataFile savedDataFile = dataFileRepository.save(dataFile);
+    log.info("Data file created with ID: {} from streamed request ({} rows)", savedDataFile.getId(),
+        savedDataFile.getRowCount());
+    auditService.record(AuditLog.ActionType.CREATE, AuditService.DATA_FILE, savedDataFile.getId(),
+        savedDataFile.getName(), savedDataFile.getRowCount() + " rows streamed");
+    return convertToDto(savedDataFile);
+  }
+
+  /**
+   * Build a new data file entity from a create request after checking module, name and owner
+   */
+  private DataFile newDataFile(CreateDataFileRequest request, String currentUsername) {
     // Validate if organization node exists
     OrganizationNode organizationNode =
         organizationNodeRepository.findById(request.getOrganizationNodeId()).orElseThrow(
@@ -55,7 +154,6 @@ public class DataFileService {
     }
 
     // GetCurrentUser
-    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
     User owner = userRepository.findByUsername(currentUsername)
         .orElseThrow(() -> new ResourceNotFoundException("UserDoes not exist: " + currentUsername));
 
@@ -71,38 +169,132 @@ public class DataFileService {
     if (request.getColumnDefinitions() != null) {
       List<DataFile.ColumnDefinition> columnDefinitions = request.getColumnDefinitions().stream()
           .map(this::convertToColumnDefinition).collect(Collectors.toList());
+      validateKeyColumn(columnDefinitions);
       dataFile.setColumnDefinitions(columnDefinitions);
       dataFile.setColumnCount(columnDefinitions.size());
     }
 
-    // HandleDataRow
+    // Set audit information
+    dataFile.setCreatedBy(currentUsername);
+    dataFile.setUpdatedBy(currentUsername);
+    return dataFile;
+  }
+
+  @Transactional
+  public DataFileDto updateDataFile(Long id, UpdateDataFileRequest request) {
+    log.info("Updating data file with ID: {}", id);
+    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+    DataFile existingDataFile = applyUpdate(id, request, currentUsername);
+
+    // UpdateDataRow (rows sent inline replace any streamed rows of the file)
     if (request.getDataRows() != null) {
-      dataFile.setDataRows(request.getDataRows());
-      dataFile.setRowCount(request.getDataRows().size());
+      validateRows(existingDataFile.getColumnDefinitions(), request.getDataRows());
+      if (existingDataFile.isRowStore()) {
+        dataFileRowStore.deleteRows(id);
+        existingDataFile.setRowStorage(DataFile.RowStorage.INLINE);
+        existingDataFile.setRowsDigest(null);
+      }
+      existingDataFile.setDataRows(request.getDataRows());
+      existingDataFile.setRowCount(request.getDataRows().size());
+      existingDataFile.setColumnStats(ColumnStatsCollector.of(request.getDataRows(),
+          existingDataFile.getColumnDefinitions()));
     }
 
-    // GenerateFileHash
-    String fileHash = generateFileHash(dataFile);
-    dataFile.setFileHash(fileHash);
+    // Regenerate file hash
+    String newFileHash = generateFileHash(existingDataFile);
+    existingDataFile.setFileHash(newFileHash);
 
-    // Set audit information
-    dataFile.setCreatedBy(currentUsername);
+    DataFile updatedDataFile = dataFileRepository.save(existingDataFile);
+    columnarTableService.evict(id);
+    log.info("Data file updated with ID: {}", updatedDataFile.getId());
+
+    auditService.record(AuditLog.ActionType.UPDATE, AuditService.DATA_FILE, id,
+        updatedDataFile.getName(), null);
+    return convertToDto(updatedDataFile);
+  }
+
+  /**
+   * Update a data file from a JSON request body read with the streaming parser. When the body
+   * contains dataRows they replace all rows of the file and are written to the row store in
+   * batches, validated against the (possibly updated) column definitions.
+   */
+  @Transactional
+  public DataFileDto updateDataFile(Long id, InputStream body) {
+    log.info("Updating data file with ID: {} from streamed request", id);
+    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+    List<RowBatchWriter> writers = new ArrayList<>(1);
+    List<DataFile> updated = new ArrayList<>(1);
+
+    StreamingRequestReader.StreamedRequest<UpdateDataFileRequest> streamed =
+        readStreamed(body, UpdateDataFileRequest.class, request -> {
+          validateRequest(request);
+          DataFile dataFile = applyUpdate(id, request, currentUsername);
+          if (dataFile.isRowStore()) {
+            dataFileRowStore.deleteRows(id);
+          }
+          dataFile.setRowStorage(DataFile.RowStorage.ROW_STORE);
+          dataFile.setDataRows(null);
+          updated.add(dataFile);
+          return startRows(dataFile, writers);
+        });
+
+    if (updated.isEmpty()) {
+      validateRequest(streamed.request());
+      updated.add(applyUpdate(id, streamed.request(), currentUsername));
+    }
+    DataFile existingDataFile = updated.get(0);
+    finishRows(existingDataFile, writers);
+    existingDataFile.setFileHash(generateFileHash(existingDataFile));
+
+    DataFile updatedDataFile = dataFileRepository.save(existingDataFile);
+    columnarTableService.evict(id);
+    log.info("Data file updated with ID: {}", updatedDataFile.getId());
+    auditService.record(AuditLog.ActionType.UPDATE, AuditService.DATA_FILE, id,
+        updatedDataFile.getName(), null);
+    return convertToDto(updatedDataFile);
+  }
+
+  /**
+   * Replace all rows of a data file with the rows the producer passes to its sink. They are
+   * validated against the column definitions and written to the row store in batches.
+   */
+  @Transactional
+  public DataFileDto replaceRows(Long id, Consumer<RowSink> producer) {
+    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+    DataFile dataFile = dataFileRepository.findById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Data file does not exist, ID: " + id));
+    if (!dataFile.getOwner().getUsername().equals(currentUsername)) {
+      throw new BusinessException("Only file owner can modify data file");
+    }
+
+    if (dataFile.isRowStore()) {
+      dataFileRowStore.deleteRows(id);
+    }
+    dataFile.setRowStorage(DataFile.RowStorage.ROW_STORE);
+    dataFile.setDataRows(null);
+    List<RowBatchWriter> writers = new ArrayList<>(1);
+    producer.accept(startRows(dataFile, writers));
+    finishRows(dataFile, writers);
+    dataFile.setFileHash(generateFileHash(dataFile));
     dataFile.setUpdatedBy(currentUsername);
+    dataFile.setUpdatedAt(LocalDateTime.now());
 
     DataFile savedDataFile = dataFileRepository.save(dataFile);
-    log.info("Data file created with ID: {}", savedDataFile.getId());
-
+    columnarTableService.evict(id);
+    log.info("Replaced rows of data file {}: {} rows", id, savedDataFile.getRowCount());
+    auditService.record(AuditLog.ActionType.UPDATE, AuditService.DATA_FILE, id,
+        savedDataFile.getName(), "Replaced rows: " + savedDataFile.getRowCount() + " rows");
     return convertToDto(savedDataFile);
   }
 
-  @Transactional
-  public DataFileDto updateDataFile(Long id, UpdateDataFileRequest request) {
-    log.info("Updating data file with ID: {}", id);
+  /**
+   * Apply the non-row fields of an update request after checking ownership and name uniqueness
+   */
+  private DataFile applyUpdate(Long id, UpdateDataFileRequest request, String currentUsername) {
     DataFile existingDataFile = dataFileRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Data file does not exist, ID: " + id));
 
     // Check permission (only file owner can modify)
-    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
     if (!existingDataFile.getOwner().getUsername().equals(currentUsername)) {
       throw new BusinessException("Only file owner can modify data file");
     }
@@ -128,28 +320,17 @@ public class DataFileService {
     if (request.getColumnDefinitions() != null) {
       List<DataFile.ColumnDefinition> columnDefinitions = request.getColumnDefinitions().stream()
           .map(this::convertToColumnDefinition).collect(Collectors.toList());
+      validateKeyColumn(columnDefinitions);
       existingDataFile.setColumnDefinitions(columnDefinitions);
+      // Statistics depend on the column types; recomputed on the next request for them
+      existingDataFile.setColumnStats(null);
       existingDataFile.setColumnCount(columnDefinitions.size());
     }
 
-    // UpdateDataRow
-    if (request.getDataRows() != null) {
-      existingDataFile.setDataRows(request.getDataRows());
-      existingDataFile.setRowCount(request.getDataRows().size());
-    }
-
-    // Regenerate file hash
-    String newFileHash = generateFileHash(existingDataFile);
-    existingDataFile.setFileHash(newFileHash);
-
     // Update audit information
     existingDataFile.setUpdatedBy(currentUsername);
     existingDataFile.setUpdatedAt(LocalDateTime.now());
-
-    DataFile updatedDataFile = dataFileRepository.save(existingDataFile);
-    log.info("Data file updated with ID: {}", updatedDataFile.getId());
-
-    return convertToDto(updatedDataFile);
+    return existingDataFile;
   }
 
   @Transactional
@@ -164,27 +345,194 @@ public class DataFileService {
       throw new BusinessException("Only file owner can delete data file");
     }
 
+    if (existingDataFile.isRowStore()) {
+      dataFileRowStore.deleteRows(id);
+    }
     dataFileRepository.delete(existingDataFile);
+    columnarTableService.evict(id);
     log.info("Data file deleted with ID: {}", id);
+    auditService.record(AuditLog.ActionType.DELETE, AuditService.DATA_FILE, id,
+        existingDataFile.getName(), null);
   }
 
   @Transactional(readOnly = true)
   public DataFileDto getDataFileById(Long id) {
     log.debug("Fetching data file by ID: {}", id);
+    DataFile dataFile = getAccessibleDataFile(id);
+
+    DataFileDto dto = convertToDto(dataFile);
+    if (dataFile.isRowStore()) {
+      dto.setDataRows(dataFileRowStore.loadRows(id));
+    }
+    return dto;
+  }
+
+  /**
+   * Load a data file the current user may read (owner, or any user for public files)
+   */
+  @Transactional(readOnly = true)
+  public DataFile getAccessibleDataFile(Long id) {
     DataFile dataFile = dataFileRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Data file does not exist, ID: " + id));
 
-    // Check access permission
+    checkReadAccess(dataFile.getAccessLevel(), dataFile.getOwner().getId());
+    return dataFile;
+  }
+
+  /**
+   * Load metadata (no rows) of a data file the current user may read
+   */
+  @Transactional(readOnly = true)
+  public DataFileMetadata getAccessibleMetadata(Long id) {
+    DataFileMetadata metadata = dataFileRepository.findMetadataById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Data file does not exist, ID: " + id));
+    checkReadAccess(metadata.getAccessLevel(), metadata.getOwnerId());
+    return metadata;
+  }
+
+  /**
+   * Metadata of the data file at an organization path ("Department/.../Module/file"); a path
+   * may leave out leading nodes as long as it names a single file the current user may read
+   */
+  public DataFileMetadata getAccessibleMetadataByPath(String path) {
+    String trimmed = path.strip().replaceAll("^/+|/+$", "");
+    int separator = trimmed.lastIndexOf('/');
+    String fileName = trimmed.substring(separator + 1);
     String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
     User currentUser = userRepository.findByUsername(currentUsername)
         .orElseThrow(() -> new ResourceNotFoundException("UserDoes not exist: " + currentUsername));
+    // Files the user may not read are left out, so they neither make a path ambiguous nor
+    // reveal that they exist
+    List<DataFileMetadata> candidates = dataFileRepository.findMetadataByName(fileName).stream()
+        .filter(candidate -> canRead(candidate.getAccessLevel(), candidate.getOwnerId(),
+            currentUser))
+        .collect(Collectors.toList());
+    List<DataFileMetadata> matches = new ArrayList<>();
+    if (separator < 0) {
+      matches.addAll(candidates);
+    } else if (!candidates.isEmpty()) {
+      // One query for the whole tree instead of one per parent of every candidate
+      Map<Long, OrganizationNode> nodes = organizationNodeRepository.findAll().stream()
+          .collect(Collectors.toMap(OrganizationNode::getId, node -> node));
+      Map<Long, String> nodePaths = new HashMap<>();
+      for (DataFileMetadata candidate : candidates) {
+        String candidatePath = nodePath(candidate.getOrganizationNodeId(), nodes, nodePaths)
+            + "/" + fileName;
+        if (candidatePath.equals(trimmed) || candidatePath.endsWith("/" + trimmed)) {
+          matches.add(candidate);
+        }
+      }
+    }
+    if (matches.isEmpty()) {
+      throw new ResourceNotFoundException("Data file does not exist, path: " + path);
+    }
+    if (matches.size() > 1) {
+      throw new BusinessException(
+          "Path matches " + matches.size() + " data files, give more of it: " + path);
+    }
+    return matches.get(0);
+  }
 
-    if (dataFile.getAccessLevel() == DataFile.AccessLevel.PRIVATE
-        && !dataFile.getOwner().getId().equals(currentUser.getId())) {
-      throw new BusinessException("No permission to access this data file");
+  /**
+   * Path of a node from an in-memory map of all nodes, memoized per node
+   */
+  private static String nodePath(Long nodeId, Map<Long, OrganizationNode> nodes,
+      Map<Long, String> nodePaths) {
+    OrganizationNode node = nodeId != null ? nodes.get(nodeId) : null;
+    if (node == null) {
+      return "";
+    }
+    String cached = nodePaths.get(nodeId);
+    if (cached != null) {
+      return cached;
+    }
+    String parentPath = nodePath(node.getParentId(), nodes, nodePaths);
+    String nodePath = parentPath.isEmpty() ? node.getName() : parentPath + "/" + node.getName();
+    nodePaths.put(nodeId, nodePath);
+    return nodePath;
+  }
+
+  /**
+   * Validate the stored rows of a data file against its column definitions
+   */
+  @Transactional(readOnly = true)
+  public RowValidationReport validateDataFile(Long id, int maxErrors) {
+    DataFileMetadata metadata = getAccessibleMetadata(id);
+    RowValidationReport report = CompiledRowValidator.forColumns(metadata.getColumnDefinitions())
+        .validate(columnarTableService.load(metadata), Math.max(1, Math.min(maxErrors, 1000)));
+    log.info("Validated {} rows of data file {}: {} errors", report.getRowsChecked(), id,
+        report.getErrorCount());
+    return report;
+  }
+
+  /**
+   * Read a window of rows, optionally restricted to some columns
+   */
+  @Transactional(readOnly = true)
+  public DataRowsDto getDataRows(Long id, int offset, int limit, List<String> columns) {
+    if (offset < 0 || limit < 1 || limit > maxRowsPageSize) {
+      throw new BusinessException(
+          "Offset must not be negative and limit must be between 1 and " + maxRowsPageSize);
+    }
+    DataFileMetadata metadata = getAccessibleMetadata(id);
+    ColumnarRows rows = dataFileSnapshotService.rows(metadata);
+    if (columns != null) {
+      List<String> unknown = columns.stream().filter(c -> rows.columnIndex(c) < 0).toList();
+      if (!unknown.isEmpty()) {
+        throw new BusinessException("Unknown columns: " + String.join(", ", unknown));
+      }
+    }
+    int to = offset > rows.getRowCount() - limit ? rows.getRowCount() : offset + limit;
+    RowWindow window = rows.window(offset, to, columns);
+    return DataRowsDto.builder().dataFileId(id).offset(window.from()).count(window.size())
+        .totalRows(rows.getRowCount())
+        .columns(Arrays.stream(window.columns()).mapToObj(rows::columnName).toList())
+        .rows(window).build();
+  }
+
+  /**
+   * Column statistics of a data file. Files written before statistics existed, or whose column
+   * types changed since, are profiled with one pass over their rows and the result is stored.
+   */
+  @Transactional
+  public ColumnStatsDto getColumnStats(Long id) {
+    DataFileMetadata metadata = getAccessibleMetadata(id);
+    List<DataFile.ColumnStats> stats = metadata.getColumnStats();
+    if (stats == null) {
+      ColumnStatsCollector collector = new ColumnStatsCollector();
+      dataFileRowStore.streamRows(metadata, collector);
+      stats = collector.finish(metadata.getColumnDefinitions());
+      try {
+        dataFileRepository.updateColumnStats(id, objectMapper.writeValueAsString(stats));
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException("Column statistics are not serializable", e);
+      }
+      log.info("Computed column statistics of data file {} ({} rows)", id,
+          collector.getRowCount());
     }
+    return ColumnStatsDto.builder().dataFileId(id).rowCount(metadata.getRowCount())
+        .columns(stats).build();
+  }
 
-    return convertToDto(dataFile);
+  /**
+   * The row whose key column holds a value, found through the file's key index
+   */
+  @Transactional(readOnly = true)
+  public DataRowDto getDataRowByKey(Long id, String key) {
+    DataFileMetadata metadata = getAccessibleMetadata(id);
+    String keyColumn = metadata.getColumnDefinitions() == null ? null
+        : metadata.getColumnDefinitions().stream().filter(c -> Boolean.TRUE.equals(c.getKey()))
+            .map(DataFile.ColumnDefinition::getName).findFirst().orElse(null);
+    if (keyColumn == null) {
+      throw new BusinessException("Data file has no key column, ID: " + id);
+    }
+    RowKeyIndex index = rowKeyIndexService.index(metadata, keyColumn);
+    int row = index.lookup(key);
+    if (row < 0) {
+      throw new ResourceNotFoundException("Row does not exist, " + keyColumn + ": " + key);
+    }
+    return DataRowDto.builder().dataFileId(id).keyColumn(keyColumn).rowIndex(row)
+        .row(index.getRows().row(row)).build();
   }
 
   @Transactional(readOnly = true)
@@ -317,6 +665,99 @@ public class DataFileService {
   }
 
   // Private helper methods
+  private <T> StreamingRequestReader.StreamedRequest<T> readStreamed(InputStream body,
+      Class<T> type, Function<T, RowSink> rowsStarted) {
+    try {
+      return new StreamingRequestReader(objectMapper).read(body, type, rowsStarted);
+    } catch (JsonProcessingException e) {
+      throw new BusinessException("Invalid JSON request body: " + e.getOriginalMessage(), e);
+    } catch (IOException e) {
+      throw new BusinessException("Failed to read request body: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reject rows that do not match the column definitions, listing the first problems
+   */
+  private void validateRows(List<DataFile.ColumnDefinition> columns,
+      List<Map<String, Object>> rows) {
+    if (columns == null || columns.isEmpty()) {
+      return;
+    }
+    RowValidationReport report = CompiledRowValidator.forColumns(columns).validate(rows,
+        ROW_ERRORS_IN_MESSAGE);
+    if (!report.getValid()) {
+      throw new BusinessException("Data rows do not match the column definitions ("
+          + report.getErrorCount() + " errors): " + report.getErrors().stream()
+              .map(e -> "Row " + e.getRow() + ": " + e.getMessage())
+              .collect(Collectors.joining("; "))
+          + (report.getTruncated() ? "; ..." : ""));
+    }
+  }
+
+  /**
+   * At most one column may identify rows, and it must hold scalar values
+   */
+  private void validateKeyColumn(List<DataFile.ColumnDefinition> columns) {
+    List<DataFile.ColumnDefinition> keys = columns.stream()
+        .filter(c -> Boolean.TRUE.equals(c.getKey())).toList();
+    if (keys.size() > 1) {
+      throw new BusinessException("Only one key column is allowed, found: "
+          + keys.stream().map(DataFile.ColumnDefinition::getName)
+              .collect(Collectors.joining(", ")));
+    }
+    if (!keys.isEmpty() && keys.get(0).getDataType() == DataFile.ColumnDefinition.DataType.JSON) {
+      throw new BusinessException("Key column cannot be of type JSON: " + keys.get(0).getName());
+    }
+  }
+
+  private void validateRequest(Object request) {
+    Set<ConstraintViolation<Object>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      throw new BusinessException(violations.stream()
+          .map(v -> v.getPropertyPath() + ": " + v.getMessage()).sorted()
+          .collect(Collectors.joining(", ")));
+    }
+  }
+
+  private DataFile saveRowStoreShell(DataFile dataFile) {
+    dataFile.setRowStorage(DataFile.RowStorage.ROW_STORE);
+    // Real hash is computed once all rows have been streamed
+    dataFile.setFileHash(DataFileHashUtils.placeholderHash());
+    return dataFileRepository.saveAndFlush(dataFile);
+  }
+
+  private RowSink startRows(DataFile dataFile, List<RowBatchWriter> writers) {
+    RowBatchWriter writer = new RowBatchWriter(dataFileRowStore, objectMapper, dataFile.getId(),
+        batchSize);
+    writers.add(writer);
+    return new ValidatingRowSink(dataFile.getColumnDefinitions(), writer);
+  }
+
+  private void finishRows(DataFile dataFile, List<RowBatchWriter> writers) {
+    if (writers.isEmpty()) {
+      return;
+    }
+    RowBatchWriter writer = writers.get(0);
+    dataFile.setRowsDigest(writer.finish());
+    dataFile.setRowCount(writer.getRowCount());
+    dataFile.setColumnStats(writer.getColumnStats(dataFile.getColumnDefinitions()));
+  }
+
+  private void checkReadAccess(DataFile.AccessLevel accessLevel, Long ownerId) {
+    String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+    User currentUser = userRepository.findByUsername(currentUsername)
+        .orElseThrow(() -> new ResourceNotFoundException("UserDoes not exist: " + currentUsername));
+
+    if (!canRead(accessLevel, ownerId, currentUser)) {
+      throw new BusinessException("No permission to access this data file");
+    }
+  }
+
+  private static boolean canRead(DataFile.AccessLevel accessLevel, Long ownerId, User user) {
+    return accessLevel != DataFile.AccessLevel.PRIVATE || ownerId.equals(user.getId());
+  }
+
   private DataFile.ColumnDefinition convertToColumnDefinition(
       CreateDataFileRequest.ColumnDefinitionRequest request) {
     DataFile.ColumnDefinition columnDef = new DataFile.ColumnDefinition();
@@ -325,6 +766,7 @@ public class DataFileService {
     columnDef.setRequired(request.getRequired());
     columnDef.setDefaultValue(request.getDefaultValue());
     columnDef.setMaxLength(request.getMaxLength());
+    columnDef.setKey(Boolean.TRUE.equals(request.getKey()));
     return columnDef;
   }
 
@@ -336,25 +778,12 @@ public class DataFileService {
     columnDef.setRequired(request.getRequired());
     columnDef.setDefaultValue(request.getDefaultValue());
     columnDef.setMaxLength(request.getMaxLength());
+    columnDef.setKey(Boolean.TRUE.equals(request.getKey()));
     return columnDef;
   }
 
   private String generateFileHash(DataFile dataFile) {
-    try {
-      String content = dataFile.getName() + dataFile.getDescription()
-          + dataFile.getColumnDefinitions().toString() + dataFile.getDataRows().toString();
-
-      MessageDigest md = MessageDigest.getInstance("MD5");
-      byte[] hashBytes = md.digest(content.getBytes());
-
-      StringBuilder sb = new StringBuilder();
-      for (byte b : hashBytes) {
-        sb.append(String.format("%02x", b));
-      }
-      return sb.toString();
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException("Error generating file hash", e);
-    }
+    return DataFileHashUtils.generateFileHash(dataFile);
   }
 
   private String buildOrganizationPath(OrganizationNode node) {
@@ -371,8 +800,10 @@ public class DataFileService {
     return String.join("/", pathParts);
   }
 
-  private DataFileDto convertToDto(DataFile dataFile) {
-    return DataFileDto.builder().id(dataFile.getId()).name(dataFile.getName())
+  DataFileDto convertToDto(DataFile dataFile) {
+    DtoConversionEvent event = new DtoConversionEvent();
+    event.begin();
+    DataFileDto dto = DataFileDto.builder().id(dataFile.getId()).name(dataFile.getName())
         .description(dataFile.getDescription()).fileHash(dataFile.getFileHash())
         .organizationNodeId(dataFile.getOrganizationNode().getId())
         .organizationNodeName(dataFile.getOrganizationNode().getName())
@@ -380,7 +811,7 @@ public class DataFileService {
         .ownerId(dataFile.getOwner().getId())
         .ownerName(dataFile.getOwner().getFullName() != null ? dataFile.getOwner().getFullName()
             : dataFile.getOwner().getUsername())
-        .accessLevel(dataFile.getAccessLevel())
+        .accessLevel(dataFile.getAccessLevel()).rowStorage(dataFile.getRowStorage())
         .columnDefinitions(convertColumnDefinitionsToDto(dataFile.getColumnDefinitions()))
         .dataRows(dataFile.getDataRows()).rowCount(dataFile.getRowCount())
         .columnCount(dataFile.getColumnCount()).createdAt(dataFile.getCreatedAt())
@@ -388,6 +819,13 @@ public class DataFileService {
         .updatedBy(dataFile.getUpdatedBy())
         .versionCount(dataFile.getVersions() != null ? dataFile.getVersions().size() : 0)
         .lastModifiedBy(dataFile.getUpdatedBy()).lastModifiedAt(dataFile.getUpdatedAt()).build();
+    if (event.shouldCommit()) {
+      event.fileId = dataFile.getId() != null ? dataFile.getId() : 0;
+      event.rows = dataFile.getRowCount() != null ? dataFile.getRowCount() : 0;
+      event.columns = dataFile.getColumnCount() != null ? dataFile.getColumnCount() : 0;
+      event.commit();
+    }
+    return dto;
   }
 
   private List<DataFileDto.ColumnDefinitionDto> convertColumnDefinitionsToDto(
@@ -399,7 +837,8 @@ public class DataFileService {
     return columnDefinitions.stream()
         .map(cd -> DataFileDto.ColumnDefinitionDto.builder().name(cd.getName())
             .dataType(cd.getDataType()).required(cd.getRequired())
-            .defaultValue(cd.getDefaultValue()).maxLength(cd.getMaxLength()).build())
+            .defaultValue(cd.getDefaultValue()).maxLength(cd.getMaxLength())
+            .key(Boolean.TRUE.equals(cd.getKey())).build())
         .collect(Collectors.toList());
   }
 }
@@ -0,0 +1,222 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.columnar.ColumnarSnapshot;
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.DataFileMetadata;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves row reads of data files from memory-mapped columnar snapshots. A snapshot is written
+ * per file hash the first time a version is read, so every later read of the same content maps
+ * the same file and shares the operating system page cache instead of parsing jsonb rows.
+ * Concurrent first reads of a version share one build of its snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataFileSnapshotService {
+
+    private static final String SNAPSHOT_SUFFIX = ".sdpc";
+    private static final String PART_SUFFIX = ".part";
+
+    private final ColumnarTableService columnarTableService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.snapshot.dir:${java.io.tmpdir}/sdp-snapshots}")
+    private String snapshotDir;
+
+    @Value("${app.snapshot.max-open:64}")
+    private int maxOpen;
+
+    @Value("${app.snapshot.retention-hours:72}")
+    private long retentionHours;
+
+    private final Map<String, ColumnarSnapshot> open = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<ColumnarSnapshot>> building =
+            new ConcurrentHashMap<>();
+    private Path snapshotPath;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        snapshotPath = Files.createDirectories(Paths.get(snapshotDir));
+        // Snapshots interrupted by a restart leave partial files behind
+        try (DirectoryStream<Path> partial =
+                Files.newDirectoryStream(snapshotPath, "*" + PART_SUFFIX)) {
+            for (Path part : partial) {
+                Files.deleteIfExists(part);
+            }
+        }
+        log.info("Snapshot directory: {}", snapshotPath);
+    }
+
+    /**
+     * Columnar rows of a data file version: its mapped snapshot, written from the columnar table
+     * when missing. Falls back to the in-memory table when snapshots are disabled or cannot be
+     * written. Must run inside a transaction (the table is read through a cursor).
+     */
+    public ColumnarRows rows(DataFileMetadata dataFile) {
+        if (!enabled) {
+            return columnarTableService.load(dataFile);
+        }
+        String key = dataFile.getFileHash();
+        synchronized (open) {
+            ColumnarSnapshot snapshot = open.get(key);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        CompletableFuture<ColumnarSnapshot> build = new CompletableFuture<>();
+        CompletableFuture<ColumnarSnapshot> running = building.putIfAbsent(key, build);
+        if (running != null) {
+            // Another request is writing this snapshot, wait for it instead of building it twice
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                return columnarTableService.load(dataFile);
+            }
+        }
+        Path file = snapshotPath.resolve(key + SNAPSHOT_SUFFIX);
+        try {
+            ColumnarSnapshot snapshot = openExisting(file);
+            if (snapshot == null) {
+                ColumnarTable table = columnarTableService.load(dataFile);
+                write(table, file);
+                purgeExpired();
+                snapshot = ColumnarSnapshot.open(file);
+            }
+            remember(key, snapshot);
+            build.complete(snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            build.completeExceptionally(e);
+            log.warn("Unable to use snapshot of data file {}, reading rows into memory",
+                    dataFile.getId(), e);
+            return columnarTableService.load(dataFile);
+        } catch (RuntimeException | Error e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(key, build);
+        }
+    }
+
+    /**
+     * The snapshot of a data file version when it is already mapped or written, without building
+     * one; null otherwise
+     */
+    public ColumnarRows mapped(DataFileMetadata dataFile) {
+        if (!enabled) {
+            return null;
+        }
+        String key = dataFile.getFileHash();
+        synchronized (open) {
+            ColumnarSnapshot snapshot = open.get(key);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        try {
+            ColumnarSnapshot snapshot = openExisting(snapshotPath.resolve(key + SNAPSHOT_SUFFIX));
+            if (snapshot != null) {
+                remember(key, snapshot);
+            }
+            return snapshot;
+        } catch (IOException e) {
+            log.warn("Unable to open snapshot of data file {}", dataFile.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Map a written snapshot file, or return null when there is none. Files that cannot be read
+     * as a snapshot (e.g. written in an older format version) are deleted so they get rebuilt.
+     */
+    private ColumnarSnapshot openExisting(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        try {
+            return ColumnarSnapshot.open(file);
+        } catch (IOException e) {
+            log.info("Discarding unreadable snapshot {}: {}", file.getFileName(), e.getMessage());
+            Files.deleteIfExists(file);
+            return null;
+        }
+    }
+
+    private void write(ColumnarTable table, Path file) throws IOException {
+        long started = System.nanoTime();
+        Path part = Files.createTempFile(snapshotPath, file.getFileName().toString(), PART_SUFFIX);
+        try {
+            ColumnarSnapshot.write(table, part, objectMapper);
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+        log.info("Wrote snapshot {} ({} rows, {} KB) in {} ms", file.getFileName(),
+                table.getRowCount(), Files.size(file) / 1024,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void remember(String key, ColumnarSnapshot snapshot) {
+        synchronized (open) {
+            open.put(key, snapshot);
+            // Mappings of evicted snapshots are released once no request uses them
+            while (open.size() > maxOpen) {
+                open.remove(open.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Delete snapshots that are not mapped and were not opened within the retention period
+     */
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(retentionHours));
+        try (DirectoryStream<Path> snapshots =
+                Files.newDirectoryStream(snapshotPath, "*" + SNAPSHOT_SUFFIX)) {
+            for (Path snapshot : snapshots) {
+                String name = snapshot.getFileName().toString();
+                boolean mapped;
+                synchronized (open) {
+                    mapped = open.containsKey(
+                            name.substring(0, name.length() - SNAPSHOT_SUFFIX.length()));
+                }
+                if (!mapped && Files.getLastModifiedTime(snapshot).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(snapshot);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to purge expired snapshots", e);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.dto.ExportJobDto;
+import com.staticdata.platform.enums.ExportFormat;
+import com.staticdata.platform.enums.ExportJobStatus;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous exports. Jobs run on a bounded worker pool and write their artifact to a local spool
+ * directory, named after the data file ID, file hash and format. As long as the file hash is
+ * unchanged, later jobs for the same file and format reuse the finished artifact, and concurrent
+ * jobs share a single build.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportJobService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+
+    private final DataFileService dataFileService;
+    private final DataFileExportService dataFileExportService;
+
+    @Value("${app.export.spool-dir:${java.io.tmpdir}/sdp-export}")
+    private String spoolDir;
+
+    @Value("${app.export.job-workers:2}")
+    private int jobWorkers;
+
+    @Value("${app.export.job-queue-capacity:32}")
+    private int jobQueueCapacity;
+
+    @Value("${app.export.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    @Value("${app.export.artifact-retention-hours:24}")
+    private long artifactRetentionHours;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ArtifactBuild> builds = new ConcurrentHashMap<>();
+
+    private Path spoolPath;
+    private ThreadPoolExecutor jobExecutor;
+
+    /**
+     * Downloadable export artifact
+     */
+    public record Artifact(Path path, String fileName, String contentType, String etag) {
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        spoolPath = Files.createDirectories(Paths.get(spoolDir));
+        // Builds interrupted by a restart leave partial files behind
+        try (DirectoryStream<Path> partial = Files.newDirectoryStream(spoolPath, "*" + PART_SUFFIX)) {
+            for (Path part : partial) {
+                deleteQuietly(part);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        jobExecutor = new ThreadPoolExecutor(jobWorkers, jobWorkers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(jobQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "export-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Export spool directory: {}", spoolPath);
+    }
+
+    @PreDestroy
+    void stop() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Submit an export job for a data file
+     */
+    public ExportJobDto submit(Long dataFileId, ExportFormat format) {
+        DataFileMetadata dataFile = dataFileService.getAccessibleMetadata(dataFileId);
+        purgeExpired();
+
+        String key = artifactKey(dataFile, format);
+        ArtifactBuild[] created = new ArtifactBuild[1];
+        ArtifactBuild build = builds.compute(key, (k, existing) -> {
+            if (existing != null && existing.status != ExportJobStatus.FAILED
+                    && (existing.status != ExportJobStatus.COMPLETED || Files.exists(existing.path))) {
+                return existing;
+            }
+            ArtifactBuild fresh = new ArtifactBuild(spoolPath.resolve(k), dataFile.getRowCount());
+            if (Files.isRegularFile(fresh.path)) {
+                // Artifact left by an earlier run of the application
+                fresh.rowsWritten = dataFile.getRowCount() != null ? dataFile.getRowCount() : 0;
+                fresh.complete();
+            } else {
+                created[0] = fresh;
+            }
+            return fresh;
+        });
+
+        if (created[0] != null) {
+            try {
+                jobExecutor.execute(() -> runBuild(build, dataFile, format));
+            } catch (RejectedExecutionException e) {
+                builds.remove(key, build);
+                throw new BusinessException("Too many export jobs in progress, please try again later");
+            }
+        }
+
+        boolean reused = build.status == ExportJobStatus.COMPLETED;
+        if (reused) {
+            touch(build.path);
+        }
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), currentUsername(), dataFile,
+                format, build, reused);
+        jobs.put(job.id, job);
+        log.info("Submitted export job {} for data file {} as {} (reused: {})", job.id,
+                dataFileId, format, reused);
+        return toDto(job);
+    }
+
+    /**
+     * Get the state of an export job submitted by the current user
+     */
+    public ExportJobDto getJob(String jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    /**
+     * Get the finished artifact of an export job submitted by the current user
+     */
+    public Artifact getArtifact(String jobId) {
+        ExportJob job = findJob(jobId);
+        ArtifactBuild build = job.build;
+        if (build.status == ExportJobStatus.FAILED) {
+            throw new BusinessException("Export job failed: " + build.errorMessage);
+        }
+        if (build.status != ExportJobStatus.COMPLETED) {
+            throw new BusinessException("Export job is not completed yet");
+        }
+        if (!Files.isRegularFile(build.path)) {
+            throw new ResourceNotFoundException(
+                    "Export artifact has expired, please submit a new export job");
+        }
+        touch(build.path);
+        return new Artifact(build.path, DataFileExportService.fileName(job.dataFile, job.format),
+                job.format.getContentType(), "\"" + build.path.getFileName() + "\"");
+    }
+
+    private void runBuild(ArtifactBuild build, DataFileMetadata dataFile, ExportFormat format) {
+        build.status = ExportJobStatus.RUNNING;
+        Path part = build.path.resolveSibling(build.path.getFileName() + PART_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part),
+                    BUFFER_SIZE)) {
+                dataFileExportService.export(dataFile, format, out,
+                        rows -> build.rowsWritten = rows);
+            }
+            Files.move(part, build.path, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            build.complete();
+            removeOutdatedArtifacts(dataFile.getId(), build.path);
+        } catch (Exception e) {
+            log.error("Export of data file {} as {} failed", dataFile.getId(), format, e);
+            deleteQuietly(part);
+            build.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Delete artifacts of older versions of a data file once a newer one is written
+     */
+    private void removeOutdatedArtifacts(Long dataFileId, Path current) {
+        try (DirectoryStream<Path> artifacts =
+                Files.newDirectoryStream(spoolPath, dataFileId + "-*")) {
+            for (Path artifact : artifacts) {
+                String name = artifact.getFileName().toString();
+                if (!artifact.equals(current) && !name.endsWith(PART_SUFFIX)) {
+                    ArtifactBuild build = builds.get(name);
+                    if (build == null || build.isFinished()) {
+                        builds.remove(name);
+                        deleteQuietly(artifact);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to clean up outdated exports of data file {}", dataFileId, e);
+        }
+    }
+
+    /**
+     * Forget finished jobs past their retention and delete artifacts nobody downloaded recently
+     */
+    private void purgeExpired() {
+        LocalDateTime jobCutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.build.isFinished() && job.createdAt.isBefore(jobCutoff));
+        builds.values().removeIf(build -> build.status == ExportJobStatus.FAILED
+                && build.finishedAt.isBefore(jobCutoff));
+
+        Instant artifactCutoff = Instant.now().minus(Duration.ofHours(artifactRetentionHours));
+        try (DirectoryStream<Path> artifacts = Files.newDirectoryStream(spoolPath)) {
+            for (Path artifact : artifacts) {
+                String name = artifact.getFileName().toString();
+                ArtifactBuild build = builds.get(name);
+                if (!name.endsWith(PART_SUFFIX) && (build == null || build.isFinished())
+                        && Files.getLastModifiedTime(artifact).toInstant().isBefore(artifactCutoff)) {
+                    builds.remove(name);
+                    deleteQuietly(artifact);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to purge expired exports", e);
+        }
+    }
+
+    private ExportJob findJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || !job.username.equals(currentUsername())) {
+            throw new ResourceNotFoundException("Export job does not exist, ID: " + jobId);
+        }
+        return job;
+    }
+
+    private ExportJobDto toDto(ExportJob job) {
+        ArtifactBuild build = job.build;
+        ExportJobStatus status = build.status;
+        long rowsWritten = build.rowsWritten;
+        Integer totalRows = build.totalRows;
+        int progress;
+        if (status == ExportJobStatus.COMPLETED) {
+            progress = 100;
+        } else if (totalRows == null || totalRows == 0) {
+            progress = 0;
+        } else {
+            // Finishing the workbook takes a moment after the last row, keep below 100 until then
+            progress = (int) Math.min(99, rowsWritten * 100 / totalRows);
+        }
+        Long sizeBytes = null;
+        if (status == ExportJobStatus.COMPLETED) {
+            try {
+                sizeBytes = Files.size(build.path);
+            } catch (IOException e) {
+                // Purged in the meantime, the download reports it
+            }
+        }
+        return ExportJobDto.builder()
+                .jobId(job.id)
+                .dataFileId(job.dataFile.getId())
+                .format(job.format)
+                .status(status)
+                .rowsWritten(rowsWritten)
+                .totalRows(totalRows)
+                .progress(progress)
+                .sizeBytes(sizeBytes)
+                .reused(job.reused)
+                .errorMessage(build.errorMessage)
+                .createdAt(job.createdAt)
+                .completedAt(build.finishedAt)
+                .build();
+    }
+
+    private static String artifactKey(DataFileMetadata dataFile, ExportFormat format) {
+        return dataFile.getId() + "-" + dataFile.getFileHash() + "." + format.getExtension();
+    }
+
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.debug("Unable to touch export artifact {}", path, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete export file {}", path, e);
+        }
+    }
+
+    /**
+     * One submitted job; several jobs may share the same artifact build
+     */
+    private static final class ExportJob {
+
+        private final String id;
+        private final String username;
+        private final DataFileMetadata dataFile;
+        private final ExportFormat format;
+        private final ArtifactBuild build;
+        private final boolean reused;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        ExportJob(String id, String username, DataFileMetadata dataFile, ExportFormat format,
+                ArtifactBuild build, boolean reused) {
+            this.id = id;
+            this.username = username;
+            this.dataFile = dataFile;
+            this.format = format;
+            this.build = build;
+            this.reused = reused;
+        }
+    }
+
+    /**
+     * Build of one artifact (data file version and format), updated by the worker thread
+     */
+    private static final class ArtifactBuild {
+
+        private final Path path;
+        private final Integer totalRows;
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile long rowsWritten;
+        private volatile String errorMessage;
+        private volatile LocalDateTime finishedAt;
+
+        ArtifactBuild(Path path, Integer totalRows) {
+            this.path = path;
+            this.totalRows = totalRows;
+        }
+
+        void complete() {
+            finishedAt = LocalDateTime.now();
+            status = ExportJobStatus.COMPLETED;
+        }
+
+        void fail(String message) {
+            errorMessage = message;
+            finishedAt = LocalDateTime.now();
+            status = ExportJobStatus.FAILED;
+        }
+
+        boolean isFinished() {
+            return status == ExportJobStatus.COMPLETED || status == ExportJobStatus.FAILED;
+        }
+    }
+}
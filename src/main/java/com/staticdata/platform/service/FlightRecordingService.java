@@ -0,0 +1,159 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.dto.FlightRecordingDto;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.exception.ResourceNotFoundException;
+import com.staticdata.platform.jfr.PlatformEvents;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * On-demand JDK Flight Recorder recording of the running instance, so slow paths can be
+ * profiled in production without a redeploy. At most one recording exists at a time; it is
+ * bounded by age and size (the oldest data is dropped first) and kept after stopping until
+ * the next one starts, so it can still be downloaded.
+ */
+@Service
+@Slf4j
+public class FlightRecordingService {
+
+    private static final String RECORDING_NAME = "platform-on-demand";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    @Value("${app.jfr.settings:default}")
+    private String defaultSettings;
+
+    @Value("${app.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${app.jfr.max-size-mb:100}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.dump-dir:${java.io.tmpdir}/sdp-jfr}")
+    private String dumpDir;
+
+    private Recording recording;
+    private String recordingSettings;
+
+    /**
+     * Start a new recording, discarding the previous stopped one
+     *
+     * @param settings JDK settings to record with, default (about 1% overhead) or profile; null
+     *                 for the configured settings
+     */
+    public synchronized FlightRecordingDto start(String settings) {
+        if (isRunning()) {
+            throw new BusinessException("A flight recording is already running");
+        }
+        if (!FlightRecorder.isAvailable()) {
+            throw new BusinessException("Flight Recorder is not available in this JVM");
+        }
+        String name = settings != null ? settings : defaultSettings;
+        if (!SETTINGS.contains(name)) {
+            throw new BusinessException("Recording settings must be one of " + SETTINGS);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new BusinessException("Unable to load recording settings " + name);
+        }
+
+        closeRecording();
+        Recording next = new Recording(configuration);
+        next.setName(RECORDING_NAME);
+        next.setToDisk(true);
+        next.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        next.setMaxSize(maxSizeMb * 1024 * 1024);
+        for (Class<? extends Event> eventType : PlatformEvents.ALL) {
+            next.enable(eventType);
+        }
+        next.start();
+        recording = next;
+        recordingSettings = name;
+        log.info("Started flight recording with {} settings, max age {} min, max size {} MB",
+                name, maxAgeMinutes, maxSizeMb);
+        return getStatus();
+    }
+
+    /**
+     * Stop the running recording; its data stays available for download
+     */
+    public synchronized FlightRecordingDto stop() {
+        if (!isRunning()) {
+            throw new BusinessException("No flight recording is running");
+        }
+        recording.stop();
+        log.info("Stopped flight recording, {} bytes recorded", recording.getSize());
+        return getStatus();
+    }
+
+    public synchronized FlightRecordingDto getStatus() {
+        if (recording == null) {
+            return FlightRecordingDto.builder().state("NONE").build();
+        }
+        return FlightRecordingDto.builder()
+                .state(recording.getState().name())
+                .settings(recordingSettings)
+                .startedAt(toLocalDateTime(recording.getStartTime()))
+                .stoppedAt(isRunning() ? null : toLocalDateTime(recording.getStopTime()))
+                .maxAgeMinutes(recording.getMaxAge().toMinutes())
+                .maxSizeBytes(recording.getMaxSize())
+                .sizeBytes(recording.getSize())
+                .build();
+    }
+
+    /**
+     * Write the recorded data to a new .jfr file in the dump directory; a running recording
+     * keeps running. The caller deletes the file.
+     */
+    public synchronized Path dump() {
+        if (recording == null) {
+            throw new ResourceNotFoundException("No flight recording has been started");
+        }
+        try {
+            Path directory = Path.of(dumpDir);
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, RECORDING_NAME + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to dump flight recording", e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            recordingSettings = null;
+        }
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
@@ -3,10 +3,12 @@ package com.staticdata.platform.service;
 import com.staticdata.platform.dto.CreateOrganizationNodeRequest;
 import com.staticdata.platform.dto.OrganizationNodeDto;
 import com.staticdata.platform.dto.UpdateOrganizationNodeRequest;
+import com.staticdata.platform.entity.AuditLog;
 import com.staticdata.platform.entity.OrganizationNode;
 import com.staticdata.platform.entity.User;
 import com.staticdata.platform.exception.ResourceNotFoundException;
 import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.jfr.TreeBuildEvent;
 import com.staticdata.platform.repository.OrganizationNodeRepository;
 import com.staticdata.platform.repository.UserRepository;
 import com.staticdata.platform.security.UserPrincipal;
@@ -31,6 +33,7 @@ public class OrganizationService {
 
     private final OrganizationNodeRepository organizationNodeRepository;
     private final UserRepository userRepository;
+    private final AuditService auditService;
 
     /**
      * Get complete organization tree
@@ -117,6 +120,8 @@ public class OrganizationService {
 
         log.info("Created organization node: {} with id: {}", savedNode.getName(),
                 savedNode.getId());
+        auditService.record(AuditLog.ActionType.CREATE, AuditService.ORGANIZATION_NODE,
+                savedNode.getId(), savedNode.getName(), null);
 
         return convertToDto(savedNode);
     }
@@ -151,6 +156,8 @@ public class OrganizationService {
         OrganizationNode updatedNode = organizationNodeRepository.save(node);
 
         log.info("Updated organization node: {}", updatedNode.getName());
+        auditService.record(AuditLog.ActionType.UPDATE, AuditService.ORGANIZATION_NODE, id,
+                updatedNode.getName(), null);
 
         return convertToDto(updatedNode);
     }
@@ -179,6 +186,8 @@ public class OrganizationService {
         organizationNodeRepository.delete(node);
 
         log.info("Deleted organization node: {}", node.getName());
+        auditService.record(AuditLog.ActionType.DELETE, AuditService.ORGANIZATION_NODE, id,
+                node.getName(), null);
     }
 
     /**
@@ -236,6 +245,8 @@ public class OrganizationService {
         OrganizationNode updatedNode = organizationNodeRepository.save(node);
 
         log.info("Moved node {} to parent {}", nodeId, newParentId);
+        auditService.record(AuditLog.ActionType.UPDATE, AuditService.ORGANIZATION_NODE, nodeId,
+                updatedNode.getName(), "Moved to parent " + newParentId);
 
         return convertToDto(updatedNode);
     }
@@ -243,7 +254,10 @@ public class OrganizationService {
     /**
      * Build tree structure
      */
-    private List<OrganizationNodeDto> buildTree(List<OrganizationNode> nodes) {
+    List<OrganizationNodeDto> buildTree(List<OrganizationNode> nodes) {
+        TreeBuildEvent event = new TreeBuildEvent();
+        event.begin();
+
         // Create ID to node mapping
         Map<Long, OrganizationNodeDto> nodeMap = nodes.stream().map(this::convertToDto)
                 .collect(Collectors.toMap(OrganizationNodeDto::getId, dto -> dto));
@@ -268,13 +282,18 @@ public class OrganizationService {
         // Sort child nodes at each level
         sortChildren(rootNodes);
 
+        if (event.shouldCommit()) {
+            event.nodes = nodes.size();
+            event.roots = rootNodes.size();
+            event.commit();
+        }
         return rootNodes;
     }
 
     /**
      * Recursively sort child nodes
      */
-    private void sortChildren(List<OrganizationNodeDto> children) {
+    void sortChildren(List<OrganizationNodeDto> children) {
         if (children != null && !children.isEmpty()) {
             children.sort((a, b) -> {
                 int sortOrderCompare =
@@ -0,0 +1,61 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.columnar.RowKeyIndex;
+import com.staticdata.platform.dto.DataFileMetadata;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds key column indexes of data files on first lookup and keeps the most recently used ones
+ * by file hash, so they stay valid for exactly one version of the content (the hash covers the
+ * column definitions, including which column is the key).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RowKeyIndexService {
+
+    private final DataFileSnapshotService dataFileSnapshotService;
+
+    @Value("${app.rows.key-index-max-files:64}")
+    private int maxFiles;
+
+    private final Map<String, RowKeyIndex> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Index of a file's key column over its columnar rows
+     */
+    @Transactional(readOnly = true)
+    public RowKeyIndex index(DataFileMetadata dataFile, String keyColumn) {
+        String cacheKey = dataFile.getFileHash();
+        synchronized (cache) {
+            RowKeyIndex cached = cache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long started = System.nanoTime();
+        ColumnarRows rows = dataFileSnapshotService.rows(dataFile);
+        RowKeyIndex index = RowKeyIndex.build(rows, keyColumn);
+        log.debug("Indexed {} keys of data file {} in {} ms", index.size(), dataFile.getId(),
+                (System.nanoTime() - started) / 1_000_000);
+        if (index.getDuplicates() > 0) {
+            log.warn("Key column '{}' of data file {} has {} duplicate values, lookups return "
+                    + "the first row", keyColumn, dataFile.getId(), index.getDuplicates());
+        }
+        synchronized (cache) {
+            cache.put(cacheKey, index);
+            while (cache.size() > maxFiles) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,351 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.columnar.RowSelection;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.dto.RowAggregateRequest;
+import com.staticdata.platform.dto.RowAggregateResult;
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.dto.RowQueryResult;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.AggregateFunction;
+import com.staticdata.platform.enums.RowQueryStrategy;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.query.CellPredicate;
+import com.staticdata.platform.query.ColumnarAggregator;
+import com.staticdata.platform.query.ColumnarScan;
+import com.staticdata.platform.query.ExternalRowSorter;
+import com.staticdata.platform.query.JsonbQuery;
+import com.staticdata.platform.query.Selectivity;
+import com.staticdata.platform.query.SortKey;
+import com.staticdata.platform.repository.DataFileRowStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs row queries (filters, projection, sort and paging) within one data file. Files whose
+ * snapshot is already mapped are scanned column by column, with filters on low-cardinality
+ * columns answered from bitmap indexes; otherwise queries on typed columns are pushed down to
+ * PostgreSQL, and the rest stream the rows through a cursor, filtering them in memory and
+ * sorting them with spilling so that memory stays bounded for files of any size. Column
+ * statistics order the filters by selectivity and short-cut queries that cannot match.
+ * Group-by aggregations always run over the columnar snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RowQueryService {
+
+    private final DataFileService dataFileService;
+    private final DataFileSnapshotService dataFileSnapshotService;
+    private final BitmapIndexService bitmapIndexService;
+    private final DataFileRowStore dataFileRowStore;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.rows.max-page-size:10000}")
+    private int maxPageSize;
+
+    @Value("${app.rows.sort-buffer-rows:50000}")
+    private int sortBufferRows;
+
+    @Value("${app.rows.sort-dir:${java.io.tmpdir}/sdp-sort}")
+    private String sortDir;
+
+    private Path sortPath;
+
+    @PostConstruct
+    void start() throws IOException {
+        sortPath = Files.createDirectories(Paths.get(sortDir));
+        // Runs of sorts interrupted by a restart
+        try (DirectoryStream<Path> runs = Files.newDirectoryStream(sortPath, "run-*.jsonl")) {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RowQueryResult query(Long id, RowQueryRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : 100;
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BusinessException("Limit must be between 1 and " + maxPageSize);
+        }
+        DataFileMetadata metadata = dataFileService.getAccessibleMetadata(id);
+        int offset = request.getCursor() != null ? decodeCursor(request.getCursor(), metadata)
+                : request.getOffset() != null ? request.getOffset() : 0;
+
+        Map<String, DataFile.ColumnDefinition.DataType> types = columnTypes(metadata);
+        List<CellPredicate> predicates = compileFilters(request.getFilters(), types);
+        List<SortKey> keys = request.getSort() == null ? List.of()
+                : request.getSort().stream().map(s -> SortKey.of(s, types.get(s.getColumn())))
+                        .toList();
+        List<String> columns = request.getColumns() == null || request.getColumns().isEmpty()
+                ? null : request.getColumns();
+
+        long started = System.nanoTime();
+        RowQueryResult.RowQueryResultBuilder result = RowQueryResult.builder().dataFileId(id)
+                .offset(offset);
+        long rowCount = metadata.getRowCount() != null ? metadata.getRowCount() : 0;
+        if (Selectivity.matchesNothing(predicates, metadata.getColumnStats(), rowCount)) {
+            return result.strategy(RowQueryStrategy.STATS).totalMatched(0L).count(0)
+                    .rows(List.of()).columns(columns != null ? columns : definedColumns(metadata))
+                    .build();
+        }
+        predicates = Selectivity.order(predicates, metadata.getColumnStats(), rowCount);
+        ColumnarRows snapshot = dataFileSnapshotService.mapped(metadata);
+        long total;
+        int count;
+        if (snapshot != null) {
+            int[] matched = ColumnarScan.filter(snapshot, predicates,
+                    predicates.isEmpty() ? null : bitmapIndexService.index(metadata, snapshot));
+            ColumnarScan.sort(snapshot, matched, keys);
+            int from = Math.min(offset, matched.length);
+            RowSelection selection = new RowSelection(snapshot, snapshot.columnIndexes(columns),
+                    Arrays.copyOfRange(matched, from, Math.min(matched.length, from + limit)));
+            total = matched.length;
+            count = selection.size();
+            result.strategy(RowQueryStrategy.SNAPSHOT_SCAN).rows(selection).columns(
+                    Arrays.stream(selection.columns()).mapToObj(snapshot::columnName).toList());
+        } else {
+            List<Map<String, Object>> rows;
+            if (JsonbQuery.supports(predicates, keys)) {
+                DataFileRowStore.RowsPage page = dataFileRowStore.queryRows(metadata,
+                        JsonbQuery.build(predicates, keys), offset, limit);
+                rows = page.rows();
+                total = page.totalMatched();
+                result.strategy(RowQueryStrategy.PUSHDOWN);
+            } else {
+                rows = new ArrayList<>();
+                total = streamQuery(metadata, predicates, keys, offset, limit, rows);
+                result.strategy(RowQueryStrategy.STREAM_SORT);
+            }
+            count = rows.size();
+            result.rows(columns == null ? rows : rows.stream().map(r -> project(r, columns))
+                    .toList()).columns(columns != null ? columns : definedColumns(metadata));
+        }
+        log.debug("Row query on data file {} matched {} rows in {} ms", id, total,
+                (System.nanoTime() - started) / 1_000_000);
+        return result.totalMatched(total).count(count)
+                .nextCursor(offset + count < total
+                        ? encodeCursor(offset + count, metadata.getFileHash()) : null)
+                .build();
+    }
+
+    /**
+     * Group the rows matching the filters and compute aggregates per group. Runs over the
+     * columnar snapshot of the file (written on first use), so typed cells are aggregated from
+     * their column vectors.
+     */
+    @Transactional(readOnly = true)
+    public RowAggregateResult aggregate(Long id, RowAggregateRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : 1000;
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BusinessException("Limit must be between 1 and " + maxPageSize);
+        }
+        DataFileMetadata metadata = dataFileService.getAccessibleMetadata(id);
+        Map<String, DataFile.ColumnDefinition.DataType> types = columnTypes(metadata);
+        List<CellPredicate> predicates = compileFilters(request.getFilters(), types);
+        List<String> groupBy = request.getGroupBy() == null ? List.of() : request.getGroupBy();
+        if (groupBy.stream().distinct().count() < groupBy.size()) {
+            throw new BusinessException("Group columns must be distinct");
+        }
+        List<ColumnarAggregator.Aggregate> aggregates = request.getAggregates().stream()
+                .map(a -> ColumnarAggregator.Aggregate.of(a, types.get(a.getColumn()))).toList();
+        List<String> names = new ArrayList<>(groupBy);
+        for (RowAggregateRequest.RowAggregate aggregate : request.getAggregates()) {
+            String name = aggregate.getAlias() != null && !aggregate.getAlias().isBlank()
+                    ? aggregate.getAlias()
+                    : aggregate.getFunction().name().toLowerCase()
+                            + (aggregate.getColumn() != null ? "_" + aggregate.getColumn() : "");
+            if (names.contains(name)) {
+                throw new BusinessException("Duplicate result column: " + name);
+            }
+            names.add(name);
+        }
+
+        long started = System.nanoTime();
+        long rowCount = metadata.getRowCount() != null ? metadata.getRowCount() : 0;
+        int total;
+        List<ColumnarAggregator.Group> groups;
+        if (Selectivity.matchesNothing(predicates, metadata.getColumnStats(), rowCount)) {
+            total = 0;
+            groups = groupBy.isEmpty() ? List.of(emptyGroup(aggregates)) : List.of();
+        } else {
+            predicates = Selectivity.order(predicates, metadata.getColumnStats(), rowCount);
+            ColumnarRows rows = dataFileSnapshotService.rows(metadata);
+            int[] matched = ColumnarScan.filter(rows, predicates,
+                    predicates.isEmpty() ? null : bitmapIndexService.index(metadata, rows));
+            total = matched.length;
+            groups = ColumnarAggregator.aggregate(rows, matched, groupBy, aggregates);
+        }
+        List<Map<String, Object>> result = new ArrayList<>(Math.min(limit, groups.size()));
+        for (ColumnarAggregator.Group group : groups.subList(0, Math.min(limit, groups.size()))) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                values.put(names.get(i), group.key()[i]);
+            }
+            for (int i = 0; i < aggregates.size(); i++) {
+                values.put(names.get(groupBy.size() + i), group.values()[i]);
+            }
+            result.add(values);
+        }
+        log.debug("Aggregation on data file {} grouped {} rows into {} groups in {} ms", id,
+                total, groups.size(), (System.nanoTime() - started) / 1_000_000);
+        return RowAggregateResult.builder().dataFileId(id).totalMatched((long) total)
+                .groupCount(groups.size()).truncated(groups.size() > limit).columns(names)
+                .groups(result).build();
+    }
+
+    /**
+     * The single group of an aggregation without group columns over no rows
+     */
+    private static ColumnarAggregator.Group emptyGroup(
+            List<ColumnarAggregator.Aggregate> aggregates) {
+        Object[] values = new Object[aggregates.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = aggregates.get(i).function() == AggregateFunction.COUNT ? 0L : null;
+        }
+        return new ColumnarAggregator.Group(new Object[0], values);
+    }
+
+    /**
+     * Stream all rows through the filters, keeping only the requested page in memory (and at
+     * most one sort buffer when sorting); returns the number of matching rows
+     */
+    private long streamQuery(DataFileMetadata metadata, List<CellPredicate> predicates,
+            List<SortKey> keys, int offset, int limit, List<Map<String, Object>> page) {
+        if (keys.isEmpty()) {
+            long[] matched = {0};
+            dataFileRowStore.streamRows(metadata, row -> {
+                if (matches(row, predicates)) {
+                    long index = matched[0]++;
+                    if (index >= offset && index < (long) offset + limit) {
+                        page.add(row);
+                    }
+                }
+            });
+            return matched[0];
+        }
+        try (ExternalRowSorter sorter = new ExternalRowSorter(SortKey.rowComparator(keys),
+                sortBufferRows, sortPath, objectMapper)) {
+            dataFileRowStore.streamRows(metadata, row -> {
+                if (matches(row, predicates)) {
+                    sorter.accept(row);
+                }
+            });
+            if (sorter.getSpilledRuns() > 0) {
+                log.debug("Row query on data file {} spilled {} sorted runs", metadata.getId(),
+                        sorter.getSpilledRuns());
+            }
+            long[] index = {0};
+            sorter.forEachSorted(row -> {
+                if (index[0]++ >= offset) {
+                    page.add(row);
+                }
+                return page.size() < limit;
+            });
+            return sorter.getRowCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to sort rows of data file " + metadata.getId(),
+                    e);
+        }
+    }
+
+    private static boolean matches(Map<String, Object> row, List<CellPredicate> predicates) {
+        for (CellPredicate predicate : predicates) {
+            if (!predicate.test(row.get(predicate.getColumn()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keep the requested keys of a stored row, explicit nulls included, as the columnar scan does
+     */
+    private static Map<String, Object> project(Map<String, Object> row, List<String> columns) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String column : columns) {
+            Object value = row.get(column);
+            if (value != null || row.containsKey(column)) {
+                projected.put(column, value);
+            }
+        }
+        return projected;
+    }
+
+    private static Map<String, DataFile.ColumnDefinition.DataType> columnTypes(
+            DataFileMetadata metadata) {
+        Map<String, DataFile.ColumnDefinition.DataType> types = new HashMap<>();
+        if (metadata.getColumnDefinitions() != null) {
+            metadata.getColumnDefinitions().forEach(c -> types.put(c.getName(), c.getDataType()));
+        }
+        return types;
+    }
+
+    private static List<CellPredicate> compileFilters(List<RowQueryRequest.RowFilter> filters,
+            Map<String, DataFile.ColumnDefinition.DataType> types) {
+        return filters == null ? List.of() : filters.stream()
+                .map(f -> CellPredicate.compile(f, types.get(f.getColumn()))).toList();
+    }
+
+    private static List<String> definedColumns(DataFileMetadata metadata) {
+        return metadata.getColumnDefinitions() == null ? List.of()
+                : metadata.getColumnDefinitions().stream()
+                        .map(DataFile.ColumnDefinition::getName).toList();
+    }
+
+    /**
+     * Cursors carry the next offset and the file hash, so a page is never continued on a
+     * different version of the file
+     */
+    static String encodeCursor(long offset, String fileHash) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((offset + ":" + fileHash).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int decodeCursor(String cursor, DataFileMetadata metadata) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+        int separator = decoded.indexOf(':');
+        if (separator < 1) {
+            throw new BusinessException("Invalid cursor");
+        }
+        if (!decoded.substring(separator + 1).equals(metadata.getFileHash())) {
+            throw new BusinessException("The data file has changed since the cursor was issued");
+        }
+        try {
+            int offset = Integer.parseInt(decoded.substring(0, separator));
+            if (offset >= 0) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new BusinessException("Invalid cursor");
+    }
+}
@@ -0,0 +1,71 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.dto.SqlQueryRequest;
+import com.staticdata.platform.dto.SqlQueryResult;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.sql.SqlParser;
+import com.staticdata.platform.sql.SqlPlanner;
+import com.staticdata.platform.sql.SqlStatement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs read-only queries in the query language. Files are resolved by organization path (or
+ * ID) with the caller's read access, and scanned from their columnar snapshots, which are written
+ * from the row store the first time a file version is read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SqlQueryService {
+
+    private final DataFileService dataFileService;
+    private final DataFileSnapshotService dataFileSnapshotService;
+    private final BitmapIndexService bitmapIndexService;
+
+    @Value("${app.rows.max-page-size:10000}")
+    private int maxPageSize;
+
+    @Value("${app.rows.join-buffer-rows:100000}")
+    private int joinBufferRows;
+
+    @Transactional(readOnly = true)
+    public SqlQueryResult query(SqlQueryRequest request) {
+        long started = System.nanoTime();
+        SqlStatement statement = SqlParser.parse(request.getQuery());
+        List<SqlPlanner.SqlTable> tables = new ArrayList<>();
+        for (SqlStatement.TableRef table : statement.tables()) {
+            DataFileMetadata metadata = table.id() != null
+                    ? dataFileService.getAccessibleMetadata(table.id())
+                    : dataFileService.getAccessibleMetadataByPath(table.path());
+            ColumnarRows rows = dataFileSnapshotService.rows(metadata);
+            Map<String, DataFile.ColumnDefinition.DataType> types = new HashMap<>();
+            if (metadata.getColumnDefinitions() != null) {
+                metadata.getColumnDefinitions()
+                        .forEach(c -> types.put(c.getName(), c.getDataType()));
+            }
+            tables.add(new SqlPlanner.SqlTable(rows, types,
+                    () -> bitmapIndexService.index(metadata, rows)));
+        }
+        SqlPlanner.SqlPlan plan = SqlPlanner.plan(statement, tables, maxPageSize, joinBufferRows);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map<String, Object> row = plan.root().next(); row != null; row = plan.root().next()) {
+            rows.add(row);
+        }
+        boolean hasMore = plan.limit().hasMore();
+        log.debug("Query over {} data files returned {} rows in {} ms", tables.size(),
+                rows.size(), (System.nanoTime() - started) / 1_000_000);
+        return SqlQueryResult.builder().columns(plan.columns()).rows(rows).count(rows.size())
+                .hasMore(hasMore).plan(plan.explain()).build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.staticdata.platform.sql;
+
+import com.staticdata.platform.ingest.ValueParsers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inner equi-join: the build input is drained into a hash table on the first pull, then every
+ * probe row is joined with the build rows whose key has the same canonical text
+ */
+public final class HashJoinOperator implements RowOperator {
+
+    private final RowOperator probe;
+    private final RowOperator build;
+    private final String probeKey;
+    private final String buildKey;
+    private final int maxBuildRows;
+    private Map<String, List<Map<String, Object>>> table;
+    private Map<String, Object> probeRow;
+    private List<Map<String, Object>> matches = List.of();
+    private int match;
+
+    HashJoinOperator(RowOperator probe, RowOperator build, String probeKey, String buildKey,
+            int maxBuildRows) {
+        this.probe = probe;
+        this.build = build;
+        this.probeKey = probeKey;
+        this.buildKey = buildKey;
+        this.maxBuildRows = maxBuildRows;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (table == null) {
+            table = buildTable();
+        }
+        while (match >= matches.size()) {
+            probeRow = probe.next();
+            if (probeRow == null) {
+                return null;
+            }
+            String key = ValueParsers.canonicalText(probeRow.get(probeKey));
+            matches = key == null ? List.of() : table.getOrDefault(key, List.of());
+            match = 0;
+        }
+        Map<String, Object> joined = new LinkedHashMap<>(probeRow);
+        joined.putAll(matches.get(match++));
+        return joined;
+    }
+
+    private Map<String, List<Map<String, Object>>> buildTable() {
+        Map<String, List<Map<String, Object>>> rows = new HashMap<>();
+        int count = 0;
+        for (Map<String, Object> row = build.next(); row != null; row = build.next()) {
+            String key = ValueParsers.canonicalText(row.get(buildKey));
+            if (key != null) {
+                if (++count > maxBuildRows) {
+                    throw new IllegalArgumentException("Joined file has more than " + maxBuildRows
+                            + " matching rows, join the files with /data-files/join instead");
+                }
+                rows.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public String describe() {
+        return "Hash join on " + probeKey + " = " + buildKey;
+    }
+
+    @Override
+    public List<RowOperator> inputs() {
+        return List.of(probe, build);
+    }
+}
@@ -0,0 +1,57 @@
+package com.staticdata.platform.sql;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Skips the first offset rows and stops after limit rows, pulling no further input
+ */
+public final class LimitOperator implements RowOperator {
+
+    private final RowOperator input;
+    private final int offset;
+    private final int limit;
+    private int skipped;
+    private int returned;
+
+    LimitOperator(RowOperator input, int offset, int limit) {
+        this.input = input;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        while (skipped < offset) {
+            if (input.next() == null) {
+                return null;
+            }
+            skipped++;
+        }
+        if (returned >= limit) {
+            return null;
+        }
+        Map<String, Object> row = input.next();
+        if (row != null) {
+            returned++;
+        }
+        return row;
+    }
+
+    /**
+     * Whether rows were left out because of the limit (pulls one more input row to find out)
+     */
+    public boolean hasMore() {
+        return returned >= limit && input.next() != null;
+    }
+
+    @Override
+    public String describe() {
+        return "Limit " + limit + (offset > 0 ? " offset " + offset : "");
+    }
+
+    @Override
+    public List<RowOperator> inputs() {
+        return List.of(input);
+    }
+}
@@ -0,0 +1,47 @@
+package com.staticdata.platform.sql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renames the selected columns to their result names, in select order
+ */
+public final class ProjectOperator implements RowOperator {
+
+    private final RowOperator input;
+    private final List<String> sources;
+    private final List<String> names;
+
+    ProjectOperator(RowOperator input, List<String> sources, List<String> names) {
+        this.input = input;
+        this.sources = sources;
+        this.names = names;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        Map<String, Object> row = input.next();
+        if (row == null) {
+            return null;
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            Object value = row.get(sources.get(i));
+            if (value != null || row.containsKey(sources.get(i))) {
+                projected.put(names.get(i), value);
+            }
+        }
+        return projected;
+    }
+
+    @Override
+    public String describe() {
+        return "Project " + String.join(", ", names);
+    }
+
+    @Override
+    public List<RowOperator> inputs() {
+        return List.of(input);
+    }
+}
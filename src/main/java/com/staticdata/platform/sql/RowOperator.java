@@ -0,0 +1,23 @@
+package com.staticdata.platform.sql;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pull-based operator of a query plan: each call to {@link #next()} pulls just enough rows from
+ * the inputs to produce one row, so rows flow through the plan one at a time
+ */
+public interface RowOperator {
+
+    /**
+     * The next row, or null when there are no more
+     */
+    Map<String, Object> next();
+
+    /**
+     * One line description of the operator for the query plan
+     */
+    String describe();
+
+    List<RowOperator> inputs();
+}
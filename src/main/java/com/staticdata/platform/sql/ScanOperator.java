@@ -0,0 +1,63 @@
+package com.staticdata.platform.sql;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads rows of a data file from its columnar rows. Filters and (for single-file queries) the
+ * sort are applied by the planner on the columns beforehand; the scan turns the selected rows
+ * into maps of the needed columns only, keyed by prefix + column name.
+ */
+public final class ScanOperator implements RowOperator {
+
+    private final String table;
+    private final ColumnarRows rows;
+    private final int[] selected;
+    private final int[] columns;
+    private final String[] names;
+    private final String detail;
+    private int position;
+
+    ScanOperator(String table, ColumnarRows rows, int[] selected, int[] columns, String prefix,
+            String detail) {
+        this.table = table;
+        this.rows = rows;
+        this.selected = selected;
+        this.columns = columns;
+        this.names = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = prefix + rows.columnName(columns[i]);
+        }
+        this.detail = detail;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (position >= selected.length) {
+            return null;
+        }
+        int row = selected[position++];
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            if (!rows.isMissing(columns[i], row)) {
+                values.put(names[i],
+                        rows.isNull(columns[i], row) ? null : rows.getValue(columns[i], row));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public String describe() {
+        return "Scan " + table + " (" + selected.length + " of " + rows.getRowCount() + " rows"
+                + detail + ", " + columns.length + " columns)";
+    }
+
+    @Override
+    public List<RowOperator> inputs() {
+        return List.of();
+    }
+}
@@ -0,0 +1,73 @@
+package com.staticdata.platform.sql;
+
+import com.staticdata.platform.query.SortKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts its input on the first pull, keeping only the first rows that can be returned (offset +
+ * limit) in a bounded heap, so memory does not depend on the size of the input. Rows with equal
+ * keys keep their input order.
+ */
+public final class SortOperator implements RowOperator {
+
+    private final RowOperator input;
+    private final List<SortKey> keys;
+    private final int keep;
+    private List<Map<String, Object>> sorted;
+    private int position;
+
+    private record Entry(Map<String, Object> row, long sequence) {
+    }
+
+    SortOperator(RowOperator input, List<SortKey> keys, int keep) {
+        this.input = input;
+        this.keys = keys;
+        this.keep = keep;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (sorted == null) {
+            sorted = sort();
+        }
+        return position < sorted.size() ? sorted.get(position++) : null;
+    }
+
+    private List<Map<String, Object>> sort() {
+        Comparator<Map<String, Object>> rowOrder = SortKey.rowComparator(keys);
+        Comparator<Entry> order = Comparator.<Entry, Map<String, Object>>comparing(Entry::row,
+                rowOrder).thenComparingLong(Entry::sequence);
+        // Largest entry on top, to be dropped first
+        PriorityQueue<Entry> heap = new PriorityQueue<>(order.reversed());
+        long sequence = 0;
+        for (Map<String, Object> row = input.next(); row != null; row = input.next()) {
+            Entry entry = new Entry(row, sequence++);
+            if (heap.size() < keep) {
+                heap.add(entry);
+            } else if (keep > 0 && order.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Entry> entries = new ArrayList<>(heap);
+        entries.sort(order);
+        return entries.stream().map(Entry::row).toList();
+    }
+
+    @Override
+    public String describe() {
+        return "Top-" + keep + " sort by "
+                + String.join(", ", keys.stream().map(k -> k.column()
+                        + (k.descending() ? " DESC" : "")).toList());
+    }
+
+    @Override
+    public List<RowOperator> inputs() {
+        return List.of(input);
+    }
+}
@@ -0,0 +1,387 @@
+package com.staticdata.platform.sql;
+
+import com.staticdata.platform.enums.RowFilterOperator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Recursive descent parser of the read-only query language:
+ *
+ * <pre>
+ * SELECT * | column [AS alias], ...
+ * FROM "Department/.../Module/file" [alias] | file-id [alias]
+ * [JOIN table [alias] ON column = column]...
+ * [WHERE condition [AND condition]...]
+ * [ORDER BY column [ASC | DESC], ...]
+ * [LIMIT n [OFFSET m]]
+ * </pre>
+ *
+ * Conditions compare a column with a literal (=, !=, &lt;&gt;, &lt;, &lt;=, &gt;, &gt;=), test
+ * IS [NOT] NULL, IN a list of literals, or LIKE a 'prefix%' or '%text%' pattern. Keywords are
+ * case-insensitive; double quotes delimit paths and column names, single quotes strings.
+ */
+public final class SqlParser {
+
+    private static final Set<String> RESERVED = Set.of("SELECT", "FROM", "JOIN", "INNER", "ON",
+            "WHERE", "AND", "OR", "ORDER", "BY", "ASC", "DESC", "LIMIT", "OFFSET", "AS", "IS",
+            "NOT", "NULL", "IN", "LIKE", "TRUE", "FALSE");
+
+    private enum TokenType { WORD, QUOTED, STRING, NUMBER, SYMBOL, END }
+
+    private record Token(TokenType type, String text, int position) {
+    }
+
+    private final List<Token> tokens;
+    private int pos;
+
+    private SqlParser(String sql) {
+        this.tokens = tokenize(sql);
+    }
+
+    /**
+     * @throws IllegalArgumentException on a syntax error
+     */
+    public static SqlStatement parse(String sql) {
+        return new SqlParser(sql).statement();
+    }
+
+    private SqlStatement statement() {
+        expectKeyword("SELECT");
+        List<SqlStatement.SelectItem> select = new ArrayList<>();
+        if (!acceptSymbol("*")) {
+            do {
+                SqlStatement.ColumnRef column = columnRef();
+                select.add(new SqlStatement.SelectItem(column, alias()));
+            } while (acceptSymbol(","));
+        }
+        expectKeyword("FROM");
+        List<SqlStatement.TableRef> tables = new ArrayList<>();
+        tables.add(tableRef());
+        List<SqlStatement.JoinCondition> joins = new ArrayList<>();
+        while (peekKeyword("JOIN") || peekKeyword("INNER")) {
+            acceptKeyword("INNER");
+            expectKeyword("JOIN");
+            tables.add(tableRef());
+            expectKeyword("ON");
+            SqlStatement.ColumnRef left = columnRef();
+            expectSymbol("=");
+            joins.add(new SqlStatement.JoinCondition(left, columnRef()));
+        }
+        List<SqlStatement.Condition> where = new ArrayList<>();
+        if (acceptKeyword("WHERE")) {
+            do {
+                where.add(condition());
+            } while (acceptKeyword("AND"));
+            if (peekKeyword("OR")) {
+                throw error("OR is not supported, conditions can only be combined with AND");
+            }
+        }
+        List<SqlStatement.OrderItem> orderBy = new ArrayList<>();
+        if (acceptKeyword("ORDER")) {
+            expectKeyword("BY");
+            do {
+                SqlStatement.ColumnRef column = columnRef();
+                boolean descending = acceptKeyword("DESC");
+                if (!descending) {
+                    acceptKeyword("ASC");
+                }
+                orderBy.add(new SqlStatement.OrderItem(column, descending));
+            } while (acceptSymbol(","));
+        }
+        Integer limit = null;
+        int offset = 0;
+        if (acceptKeyword("LIMIT")) {
+            limit = count();
+            if (acceptKeyword("OFFSET")) {
+                offset = count();
+            }
+        }
+        acceptSymbol(";");
+        if (peek().type() != TokenType.END) {
+            throw error("Unexpected '" + peek().text() + "'");
+        }
+        return new SqlStatement(select, tables, joins, where, orderBy, limit, offset);
+    }
+
+    private SqlStatement.TableRef tableRef() {
+        Token token = next();
+        if (token.type() == TokenType.QUOTED || token.type() == TokenType.STRING) {
+            String path = token.text();
+            String alias = alias();
+            return new SqlStatement.TableRef(path, null,
+                    alias != null ? alias : path.substring(path.lastIndexOf('/') + 1));
+        }
+        if (token.type() == TokenType.NUMBER) {
+            try {
+                long id = Long.parseLong(token.text());
+                String alias = alias();
+                return new SqlStatement.TableRef(null, id, alias != null ? alias : "file" + id);
+            } catch (NumberFormatException e) {
+                throw error("Invalid data file ID: " + token.text(), token);
+            }
+        }
+        if (token.type() == TokenType.WORD && !isReserved(token)) {
+            String alias = alias();
+            return new SqlStatement.TableRef(token.text(), null,
+                    alias != null ? alias : token.text());
+        }
+        throw error("Expected a data file path or ID", token);
+    }
+
+    private String alias() {
+        if (acceptKeyword("AS")) {
+            return name();
+        }
+        Token token = peek();
+        if ((token.type() == TokenType.WORD && !isReserved(token))
+                || token.type() == TokenType.QUOTED) {
+            pos++;
+            return token.text();
+        }
+        return null;
+    }
+
+    private SqlStatement.ColumnRef columnRef() {
+        String first = name();
+        if (acceptSymbol(".")) {
+            return new SqlStatement.ColumnRef(first, name());
+        }
+        return new SqlStatement.ColumnRef(null, first);
+    }
+
+    private String name() {
+        Token token = next();
+        if (token.type() == TokenType.QUOTED
+                || (token.type() == TokenType.WORD && !isReserved(token))) {
+            return token.text();
+        }
+        throw error("Expected a name", token);
+    }
+
+    private SqlStatement.Condition condition() {
+        SqlStatement.ColumnRef column = columnRef();
+        if (acceptKeyword("IS")) {
+            boolean not = acceptKeyword("NOT");
+            expectKeyword("NULL");
+            return new SqlStatement.Condition(column,
+                    not ? RowFilterOperator.NOT_NULL : RowFilterOperator.IS_NULL, null, List.of());
+        }
+        if (acceptKeyword("IN")) {
+            expectSymbol("(");
+            List<Object> values = new ArrayList<>();
+            do {
+                values.add(literal());
+            } while (acceptSymbol(","));
+            expectSymbol(")");
+            return new SqlStatement.Condition(column, RowFilterOperator.IN, null, values);
+        }
+        if (acceptKeyword("LIKE")) {
+            Token token = next();
+            if (token.type() != TokenType.STRING) {
+                throw error("LIKE needs a quoted pattern", token);
+            }
+            return like(column, token);
+        }
+        Token token = next();
+        RowFilterOperator operator = token.type() != TokenType.SYMBOL ? null
+                : switch (token.text()) {
+                    case "=" -> RowFilterOperator.EQ;
+                    case "!=", "<>" -> RowFilterOperator.NE;
+                    case "<" -> RowFilterOperator.LT;
+                    case "<=" -> RowFilterOperator.LTE;
+                    case ">" -> RowFilterOperator.GT;
+                    case ">=" -> RowFilterOperator.GTE;
+                    default -> null;
+                };
+        if (operator == null) {
+            throw error("Expected a comparison, IN, LIKE or IS NULL", token);
+        }
+        return new SqlStatement.Condition(column, operator, literal(), List.of());
+    }
+
+    /**
+     * LIKE patterns are limited to what the row filters support: a prefix or a substring
+     */
+    private SqlStatement.Condition like(SqlStatement.ColumnRef column, Token pattern) {
+        String text = pattern.text();
+        int wildcards = text.length() - text.replace("%", "").length();
+        if (text.indexOf('_') < 0) {
+            if (wildcards == 0) {
+                return new SqlStatement.Condition(column, RowFilterOperator.EQ, text, List.of());
+            }
+            if (wildcards == 1 && text.endsWith("%")) {
+                return new SqlStatement.Condition(column, RowFilterOperator.STARTS_WITH,
+                        text.substring(0, text.length() - 1), List.of());
+            }
+            if (wildcards == 2 && text.length() > 1 && text.startsWith("%")
+                    && text.endsWith("%")) {
+                return new SqlStatement.Condition(column, RowFilterOperator.CONTAINS,
+                        text.substring(1, text.length() - 1), List.of());
+            }
+        }
+        throw error("Only 'prefix%' and '%text%' LIKE patterns are supported", pattern);
+    }
+
+    private Object literal() {
+        Token token = next();
+        boolean negative = false;
+        if (token.type() == TokenType.SYMBOL && token.text().equals("-")) {
+            negative = true;
+            token = next();
+        }
+        if (token.type() == TokenType.NUMBER) {
+            String text = negative ? "-" + token.text() : token.text();
+            try {
+                return text.indexOf('.') < 0 && text.length() < 19 ? Long.parseLong(text)
+                        : new BigDecimal(text);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number", token);
+            }
+        }
+        if (!negative && token.type() == TokenType.STRING) {
+            return token.text();
+        }
+        if (!negative && token.type() == TokenType.WORD) {
+            String keyword = token.text().toUpperCase(Locale.ROOT);
+            if (keyword.equals("TRUE") || keyword.equals("FALSE")) {
+                return keyword.equals("TRUE");
+            }
+        }
+        throw error("Expected a number, 'string', TRUE or FALSE", token);
+    }
+
+    private int count() {
+        Token token = next();
+        if (token.type() == TokenType.NUMBER && token.text().chars().allMatch(Character::isDigit)
+                && token.text().length() < 10) {
+            return Integer.parseInt(token.text());
+        }
+        throw error("Expected a row count", token);
+    }
+
+    private Token peek() {
+        return tokens.get(pos);
+    }
+
+    private Token next() {
+        Token token = tokens.get(pos);
+        if (token.type() != TokenType.END) {
+            pos++;
+        }
+        return token;
+    }
+
+    private boolean peekKeyword(String keyword) {
+        Token token = peek();
+        return token.type() == TokenType.WORD && token.text().equalsIgnoreCase(keyword);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (peekKeyword(keyword)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw error("Expected " + keyword);
+        }
+    }
+
+    private boolean acceptSymbol(String symbol) {
+        Token token = peek();
+        if (token.type() == TokenType.SYMBOL && token.text().equals(symbol)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectSymbol(String symbol) {
+        if (!acceptSymbol(symbol)) {
+            throw error("Expected '" + symbol + "'");
+        }
+    }
+
+    private static boolean isReserved(Token token) {
+        return RESERVED.contains(token.text().toUpperCase(Locale.ROOT));
+    }
+
+    private IllegalArgumentException error(String message) {
+        return error(message, peek());
+    }
+
+    private static IllegalArgumentException error(String message, Token token) {
+        String found = token.type() == TokenType.END ? "end of query" : "'" + token.text() + "'";
+        return new IllegalArgumentException("Syntax error at position " + (token.position() + 1)
+                + " (" + found + "): " + message);
+    }
+
+    private static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"' || c == '\'') {
+                // A doubled quote stands for the quote itself
+                StringBuilder text = new StringBuilder();
+                int start = i++;
+                while (true) {
+                    if (i >= sql.length()) {
+                        throw new IllegalArgumentException(
+                                "Syntax error at position " + (start + 1) + ": unclosed quote");
+                    }
+                    if (sql.charAt(i) == c) {
+                        if (i + 1 < sql.length() && sql.charAt(i + 1) == c) {
+                            text.append(c);
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    text.append(sql.charAt(i++));
+                }
+                tokens.add(new Token(c == '"' ? TokenType.QUOTED : TokenType.STRING,
+                        text.toString(), start));
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < sql.length()
+                        && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.NUMBER, sql.substring(start, i), start));
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < sql.length()
+                        && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.WORD, sql.substring(start, i), start));
+            } else {
+                String two = i + 1 < sql.length() ? sql.substring(i, i + 2) : "";
+                if (two.equals("<=") || two.equals(">=") || two.equals("!=")
+                        || two.equals("<>")) {
+                    tokens.add(new Token(TokenType.SYMBOL, two, i));
+                    i += 2;
+                } else if ("*,.=<>();-".indexOf(c) >= 0) {
+                    tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c), i));
+                    i++;
+                } else {
+                    throw new IllegalArgumentException(
+                            "Syntax error at position " + (i + 1) + ": unexpected '" + c + "'");
+                }
+            }
+        }
+        tokens.add(new Token(TokenType.END, "", sql.length()));
+        return tokens;
+    }
+}
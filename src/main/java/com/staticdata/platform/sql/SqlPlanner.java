@@ -0,0 +1,232 @@
+package com.staticdata.platform.sql;
+
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.query.BitmapIndex;
+import com.staticdata.platform.query.CellPredicate;
+import com.staticdata.platform.query.ColumnarScan;
+import com.staticdata.platform.query.SortKey;
+import com.staticdata.platform.query.ValueKind;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Turns a parsed statement into a pipeline of {@link RowOperator}s. Every condition is pushed
+ * down into the scan of its file, where it runs column by column (with bitmap indexes where
+ * available); a single-file ORDER BY is also done on the columns, so rows are only built for the
+ * page being returned. Joined files are hash joined left to right, the joined file being the
+ * build side, and sorted with a bounded top-N sort. Columns of joined rows are named
+ * alias.column, so queries with joins must qualify their columns.
+ */
+public final class SqlPlanner {
+
+    /**
+     * A data file of the query: its columnar rows, declared column types and bitmap indexes
+     */
+    public record SqlTable(ColumnarRows rows, Map<String, DataFile.ColumnDefinition.DataType> types,
+            Supplier<BitmapIndex> bitmaps) {
+    }
+
+    /**
+     * A planned query: pull rows from the root until it returns null
+     */
+    public record SqlPlan(RowOperator root, List<String> columns, LimitOperator limit) {
+
+        /**
+         * The operators, one per line, inputs indented below the operator pulling from them
+         */
+        public List<String> explain() {
+            List<String> lines = new ArrayList<>();
+            explain(root, 0, lines);
+            return lines;
+        }
+
+        private static void explain(RowOperator operator, int depth, List<String> lines) {
+            lines.add("  ".repeat(depth) + operator.describe());
+            operator.inputs().forEach(input -> explain(input, depth + 1, lines));
+        }
+    }
+
+    private final SqlStatement statement;
+    private final List<SqlTable> tables;
+    private final boolean joined;
+
+    private SqlPlanner(SqlStatement statement, List<SqlTable> tables) {
+        this.statement = statement;
+        this.tables = tables;
+        this.joined = tables.size() > 1;
+    }
+
+    /**
+     * @param tables   the files of statement.tables(), in the same order
+     * @param maxRows  largest LIMIT, and the limit when none is given
+     * @param maxJoinRows largest number of rows of a joined (build side) file
+     * @throws IllegalArgumentException when the statement does not fit the files
+     */
+    public static SqlPlan plan(SqlStatement statement, List<SqlTable> tables, int maxRows,
+            int maxJoinRows) {
+        return new SqlPlanner(statement, tables).plan(maxRows, maxJoinRows);
+    }
+
+    private SqlPlan plan(int maxRows, int maxJoinRows) {
+        Set<String> aliases = new HashSet<>();
+        for (SqlStatement.TableRef table : statement.tables()) {
+            if (!aliases.add(table.alias())) {
+                throw new IllegalArgumentException("Duplicate table alias: " + table.alias());
+            }
+        }
+        int limit = statement.limit() != null ? statement.limit() : maxRows;
+        if (limit > maxRows) {
+            throw new IllegalArgumentException("LIMIT must not exceed " + maxRows);
+        }
+
+        List<List<CellPredicate>> filters = new ArrayList<>();
+        List<Set<String>> needed = new ArrayList<>();
+        for (int i = 0; i < tables.size(); i++) {
+            filters.add(new ArrayList<>());
+            needed.add(new LinkedHashSet<>());
+        }
+        for (SqlStatement.Condition condition : statement.where()) {
+            int table = table(condition.column());
+            RowQueryRequest.RowFilter filter = new RowQueryRequest.RowFilter();
+            filter.setColumn(condition.column().column());
+            filter.setOperator(condition.operator());
+            filter.setValue(condition.value());
+            filter.setValues(condition.values());
+            filters.get(table).add(CellPredicate.compile(filter,
+                    tables.get(table).types().get(condition.column().column())));
+        }
+        statement.select().forEach(item -> need(item.column(), needed));
+        statement.joins().forEach(join -> {
+            need(join.left(), needed);
+            need(join.right(), needed);
+        });
+        statement.orderBy().forEach(item -> need(item.column(), needed));
+        boolean sortScan = !joined && !statement.orderBy().isEmpty();
+
+        RowOperator root = scan(0, filters.get(0), needed.get(0), sortScan);
+        for (int i = 0; i < statement.joins().size(); i++) {
+            SqlStatement.JoinCondition join = statement.joins().get(i);
+            int left = table(join.left());
+            int right = table(join.right());
+            int joinedTable = i + 1;
+            if ((left == joinedTable) == (right == joinedTable)
+                    || Math.max(left, right) > joinedTable) {
+                throw new IllegalArgumentException("JOIN " + statement.tables().get(joinedTable)
+                        + " must compare one of its columns with a column of a previous file");
+            }
+            SqlStatement.ColumnRef build = left == joinedTable ? join.left() : join.right();
+            SqlStatement.ColumnRef probe = left == joinedTable ? join.right() : join.left();
+            root = new HashJoinOperator(root,
+                    scan(joinedTable, filters.get(joinedTable), needed.get(joinedTable), false),
+                    key(probe), key(build), maxJoinRows);
+        }
+        if (joined && !statement.orderBy().isEmpty()) {
+            root = new SortOperator(root, sortKeys(), (int) Math.min(Integer.MAX_VALUE,
+                    (long) statement.offset() + limit));
+        }
+        LimitOperator limitOperator = new LimitOperator(root, statement.offset(), limit);
+        root = limitOperator;
+
+        List<String> columns = new ArrayList<>();
+        if (statement.select().isEmpty()) {
+            for (int i = 0; i < tables.size(); i++) {
+                ColumnarRows rows = tables.get(i).rows();
+                for (int column = 0; column < rows.getColumnCount(); column++) {
+                    columns.add(prefix(i) + rows.columnName(column));
+                }
+            }
+        } else {
+            List<String> sources = new ArrayList<>();
+            for (SqlStatement.SelectItem item : statement.select()) {
+                if (columns.contains(item.name())) {
+                    throw new IllegalArgumentException("Duplicate result column: " + item.name());
+                }
+                sources.add(key(item.column()));
+                columns.add(item.name());
+            }
+            root = new ProjectOperator(root, sources, columns);
+        }
+        return new SqlPlan(root, columns, limitOperator);
+    }
+
+    private ScanOperator scan(int table, List<CellPredicate> predicates, Set<String> columns,
+            boolean sort) {
+        SqlTable sqlTable = tables.get(table);
+        ColumnarRows rows = sqlTable.rows();
+        int[] selected = ColumnarScan.filter(rows, predicates,
+                predicates.isEmpty() ? null : sqlTable.bitmaps().get());
+        String detail = predicates.isEmpty() ? "" : ", " + predicates.size()
+                + (predicates.size() == 1 ? " condition" : " conditions");
+        if (sort) {
+            ColumnarScan.sort(rows, selected, sortKeys());
+            detail += ", sorted";
+        }
+        int[] indexes = statement.select().isEmpty() ? rows.columnIndexes(null)
+                : columns.stream().mapToInt(rows::columnIndex).toArray();
+        return new ScanOperator(statement.tables().get(table).toString(), rows, selected, indexes,
+                prefix(table), detail);
+    }
+
+    private List<SortKey> sortKeys() {
+        List<SortKey> keys = new ArrayList<>();
+        for (SqlStatement.OrderItem item : statement.orderBy()) {
+            int table = table(item.column());
+            keys.add(new SortKey(joined ? key(item.column()) : item.column().column(),
+                    ValueKind.of(type(table, item.column().column())), item.descending()));
+        }
+        return keys;
+    }
+
+    /**
+     * Position of the file a column belongs to
+     */
+    private int table(SqlStatement.ColumnRef column) {
+        if (column.table() == null) {
+            if (joined) {
+                throw new IllegalArgumentException("Column " + column.column()
+                        + " must be qualified with a table alias in a query with joins");
+            }
+            return 0;
+        }
+        for (int i = 0; i < statement.tables().size(); i++) {
+            if (statement.tables().get(i).alias().equals(column.table())) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown table alias: " + column.table());
+    }
+
+    private void need(SqlStatement.ColumnRef column, List<Set<String>> needed) {
+        int table = table(column);
+        if (tables.get(table).rows().columnIndex(column.column()) < 0) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        needed.get(table).add(column.column());
+    }
+
+    private DataFile.ColumnDefinition.DataType type(int table, String column) {
+        SqlTable sqlTable = tables.get(table);
+        DataFile.ColumnDefinition.DataType type = sqlTable.types().get(column);
+        int index = sqlTable.rows().columnIndex(column);
+        return type != null || index < 0 ? type : sqlTable.rows().getDataType(index);
+    }
+
+    /**
+     * Name of a column in the rows flowing through the plan
+     */
+    private String key(SqlStatement.ColumnRef column) {
+        return prefix(table(column)) + column.column();
+    }
+
+    private String prefix(int table) {
+        return joined ? statement.tables().get(table).alias() + "." : "";
+    }
+}
@@ -0,0 +1,64 @@
+package com.staticdata.platform.sql;
+
+import com.staticdata.platform.enums.RowFilterOperator;
+
+import java.util.List;
+
+/**
+ * A parsed SELECT statement over data files
+ *
+ * @param select columns to return, empty for SELECT *
+ * @param tables the FROM table followed by the joined tables, in order
+ * @param joins  the ON condition of every joined table (tables.get(i + 1))
+ * @param where  conditions combined with AND
+ * @param limit  maximum number of rows, null when not given
+ */
+public record SqlStatement(List<SelectItem> select, List<TableRef> tables,
+        List<JoinCondition> joins, List<Condition> where, List<OrderItem> orderBy, Integer limit,
+        int offset) {
+
+    /**
+     * A column, optionally qualified by a table alias
+     */
+    public record ColumnRef(String table, String column) {
+
+        @Override
+        public String toString() {
+            return table != null ? table + "." + column : column;
+        }
+    }
+
+    public record SelectItem(ColumnRef column, String alias) {
+
+        /**
+         * Name of the column in the result
+         */
+        public String name() {
+            return alias != null ? alias : column.toString();
+        }
+    }
+
+    /**
+     * A data file named by its organization path or by its ID, with the alias used in the query
+     */
+    public record TableRef(String path, Long id, String alias) {
+
+        @Override
+        public String toString() {
+            return path != null ? '"' + path + '"' : String.valueOf(id);
+        }
+    }
+
+    public record JoinCondition(ColumnRef left, ColumnRef right) {
+    }
+
+    /**
+     * A condition in row filter form; values holds the list of an IN condition
+     */
+    public record Condition(ColumnRef column, RowFilterOperator operator, Object value,
+            List<Object> values) {
+    }
+
+    public record OrderItem(ColumnRef column, boolean descending) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.staticdata.platform.usage;
+
+import com.staticdata.platform.service.ApiUsageRecorder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records every API request (route, method, status, duration and body sizes) with the
+ * {@link ApiUsageRecorder}. Runs first so the duration includes authentication; streaming
+ * responses are recorded when their async processing completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ApiUsageFilter extends OncePerRequestFilter {
+
+    private final ApiUsageRecorder apiUsageRecorder;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        if (!apiUsageRecorder.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long started = System.nanoTime();
+        CountingResponse counting = new CountingResponse(response);
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, counting);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, counting, started, false);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        // Followed by onComplete
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        // Followed by onComplete
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                        // Not restarted
+                    }
+                });
+            } else {
+                record(request, counting, started, failed);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, CountingResponse response, long started,
+            boolean failed) {
+        int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        apiUsageRecorder.record(new UsageEvent(System.currentTimeMillis(), route(request, status),
+                request.getMethod(), status, System.nanoTime() - started,
+                request.getContentLengthLong(), response.getBodyBytes()));
+    }
+
+    /**
+     * Route pattern of the handler. Requests no handler matched (unknown paths, requests
+     * rejected before dispatch) get a fixed route by status, as in Spring's
+     * http.server.requests metrics, so that scanners probing arbitrary paths cannot grow the
+     * number of distinct routes without bound.
+     */
+    public static String route(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern instanceof String route) {
+            return route;
+        }
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * Counts the bytes written through the output stream; responses written through a writer
+     * are sized by their Content-Length header
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        long getBodyBytes() {
+            if (outputStream != null) {
+                return outputStream.count;
+            }
+            String length = getHeader(HttpHeaders.CONTENT_LENGTH);
+            try {
+                return length != null ? Long.parseLong(length) : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private volatile long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
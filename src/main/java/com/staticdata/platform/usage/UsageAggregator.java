@@ -0,0 +1,138 @@
+package com.staticdata.platform.usage;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sums usage events into one bucket per minute, endpoint, method and status. Buckets stay open
+ * until their minute has passed, so each is written once. Not thread-safe; used by the flusher
+ * thread only.
+ */
+public final class UsageAggregator {
+
+    public static final long MINUTE_MILLIS = 60_000L;
+
+    private record Key(long minute, String path, String method, int status) {
+    }
+
+    /**
+     * Totals of the requests of one minute to one endpoint with one status
+     */
+    public static final class UsageBucket {
+
+        private final long minute;
+        private final String path;
+        private final String method;
+        private final int status;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long requestBytes;
+        private long responseBytes;
+        private final Histogram latency = UsageSketch.newHistogram();
+
+        UsageBucket(Key key) {
+            this.minute = key.minute();
+            this.path = key.path();
+            this.method = key.method();
+            this.status = key.status();
+        }
+
+        void add(UsageEvent event) {
+            count++;
+            totalNanos += event.durationNanos();
+            maxNanos = Math.max(maxNanos, event.durationNanos());
+            requestBytes += Math.max(0, event.requestBytes());
+            responseBytes += Math.max(0, event.responseBytes());
+            UsageSketch.recordNanos(latency, event.durationNanos());
+        }
+
+        /**
+         * Start of the minute, epoch milliseconds
+         */
+        public long getMinute() {
+            return minute;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public long getRequestBytes() {
+            return requestBytes;
+        }
+
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+
+        /**
+         * Response times in microseconds
+         */
+        public Histogram getLatency() {
+            return latency;
+        }
+    }
+
+    private final Map<Key, UsageBucket> open = new HashMap<>();
+
+    public void add(UsageEvent event) {
+        Key key = new Key(Math.floorDiv(event.finishedAt(), MINUTE_MILLIS) * MINUTE_MILLIS,
+                event.path(), event.method(), event.status());
+        open.computeIfAbsent(key, UsageBucket::new).add(event);
+    }
+
+    /**
+     * Remove and return the buckets of minutes that ended at or before the given time
+     */
+    public List<UsageBucket> closeBefore(long now) {
+        List<UsageBucket> closed = new ArrayList<>();
+        Iterator<UsageBucket> buckets = open.values().iterator();
+        while (buckets.hasNext()) {
+            UsageBucket bucket = buckets.next();
+            if (bucket.getMinute() + MINUTE_MILLIS <= now) {
+                closed.add(bucket);
+                buckets.remove();
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Remove and return all buckets, e.g. on shutdown
+     */
+    public List<UsageBucket> closeAll() {
+        List<UsageBucket> closed = new ArrayList<>(open.values());
+        open.clear();
+        return closed;
+    }
+
+    public int getOpenBuckets() {
+        return open.size();
+    }
+}
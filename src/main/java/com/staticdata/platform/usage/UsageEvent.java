@@ -0,0 +1,14 @@
+package com.staticdata.platform.usage;
+
+/**
+ * One completed API request
+ *
+ * @param finishedAt     epoch milliseconds when the response completed
+ * @param path           route pattern of the endpoint, e.g. /data-files/{id}
+ * @param durationNanos  time from receiving the request to completing the response
+ * @param requestBytes   size of the request body, -1 when unknown
+ * @param responseBytes  size of the response body, -1 when unknown
+ */
+public record UsageEvent(long finishedAt, String path, String method, int status,
+        long durationNanos, long requestBytes, long responseBytes) {
+}
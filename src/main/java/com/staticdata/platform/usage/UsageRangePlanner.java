@@ -0,0 +1,59 @@
+package com.staticdata.platform.usage;
+
+import com.staticdata.platform.enums.UsageResolution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Covers a time range with as few sketch buckets as possible: whole days from day sketches,
+ * the hours around them from hour sketches and only the minutes at the edges from minute
+ * sketches. A coarse resolution is used only up to where it has been rolled up, so a range
+ * reads at most about 2 * 59 minute and 2 * 23 hour buckets per endpoint plus its days.
+ */
+public final class UsageRangePlanner {
+
+    /**
+     * Buckets of one resolution starting in [from, to)
+     */
+    public record Segment(UsageResolution resolution, long from, long to) {
+    }
+
+    private UsageRangePlanner() {
+    }
+
+    /**
+     * @param from          minute aligned start, epoch milliseconds
+     * @param to            minute aligned end (exclusive)
+     * @param hourRolledUp  end of the range covered by hour sketches
+     * @param dayRolledUp   end of the range covered by day sketches
+     */
+    public static List<Segment> plan(long from, long to, long hourRolledUp, long dayRolledUp) {
+        List<Segment> segments = new ArrayList<>();
+        plan(from, to, UsageResolution.DAY, hourRolledUp, dayRolledUp, segments);
+        return segments;
+    }
+
+    private static void plan(long from, long to, UsageResolution resolution, long hourRolledUp,
+            long dayRolledUp, List<Segment> segments) {
+        if (from >= to) {
+            return;
+        }
+        if (resolution == UsageResolution.MINUTE) {
+            segments.add(new Segment(resolution, from, to));
+            return;
+        }
+        UsageResolution finer = resolution == UsageResolution.DAY ? UsageResolution.HOUR
+                : UsageResolution.MINUTE;
+        long rolledUp = resolution == UsageResolution.DAY ? dayRolledUp : hourRolledUp;
+        long start = resolution.ceil(from);
+        long end = Math.min(resolution.floor(to), resolution.floor(rolledUp));
+        if (start >= end) {
+            plan(from, to, finer, hourRolledUp, dayRolledUp, segments);
+            return;
+        }
+        plan(from, start, finer, hourRolledUp, dayRolledUp, segments);
+        segments.add(new Segment(resolution, start, end));
+        plan(end, to, finer, hourRolledUp, dayRolledUp, segments);
+    }
+}
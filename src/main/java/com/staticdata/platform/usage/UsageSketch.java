@@ -0,0 +1,163 @@
+package com.staticdata.platform.usage;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/**
+ * Request counts and latency histogram of one endpoint over one time bucket. Sketches of the
+ * same endpoint merge exactly: counts add up and histograms add bucket by bucket, so
+ * percentiles over any union of buckets are as accurate as over the raw requests (to the two
+ * significant digits the histograms keep).
+ */
+public final class UsageSketch {
+
+    /**
+     * Relative precision of recorded latencies: 1%
+     */
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private record Key(long bucketStart, String path, String method) {
+    }
+
+    private final long bucketStart;
+    private final String path;
+    private final String method;
+    private long requestCount;
+    private long clientErrorCount;
+    private long serverErrorCount;
+    private final Histogram latency;
+
+    public UsageSketch(long bucketStart, String path, String method) {
+        this(bucketStart, path, method, 0, 0, 0, newHistogram());
+    }
+
+    public UsageSketch(long bucketStart, String path, String method, long requestCount,
+            long clientErrorCount, long serverErrorCount, Histogram latency) {
+        this.bucketStart = bucketStart;
+        this.path = path;
+        this.method = method;
+        this.requestCount = requestCount;
+        this.clientErrorCount = clientErrorCount;
+        this.serverErrorCount = serverErrorCount;
+        this.latency = latency;
+    }
+
+    /**
+     * Empty auto-resizing histogram of microseconds
+     */
+    public static Histogram newHistogram() {
+        return new Histogram(SIGNIFICANT_DIGITS);
+    }
+
+    static void recordNanos(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.max(0, nanos / 1000));
+    }
+
+    /**
+     * One sketch per minute and endpoint from the buckets of the usage aggregator, which are
+     * split by status too
+     */
+    public static List<UsageSketch> ofBuckets(Collection<UsageAggregator.UsageBucket> buckets) {
+        Map<Key, UsageSketch> sketches = new LinkedHashMap<>();
+        for (UsageAggregator.UsageBucket bucket : buckets) {
+            UsageSketch sketch = sketches.computeIfAbsent(
+                    new Key(bucket.getMinute(), bucket.getPath(), bucket.getMethod()),
+                    key -> new UsageSketch(key.bucketStart(), key.path(), key.method()));
+            sketch.requestCount += bucket.getCount();
+            if (bucket.getStatus() >= 500) {
+                sketch.serverErrorCount += bucket.getCount();
+            } else if (bucket.getStatus() >= 400) {
+                sketch.clientErrorCount += bucket.getCount();
+            }
+            sketch.latency.add(bucket.getLatency());
+        }
+        return new ArrayList<>(sketches.values());
+    }
+
+    /**
+     * Merge sketches per endpoint and per bucket of the given length (epoch aligned)
+     */
+    public static List<UsageSketch> rollUp(Collection<UsageSketch> sketches, long bucketMillis) {
+        Map<Key, UsageSketch> merged = new LinkedHashMap<>();
+        for (UsageSketch sketch : sketches) {
+            long start = Math.floorDiv(sketch.bucketStart, bucketMillis) * bucketMillis;
+            merged.computeIfAbsent(new Key(start, sketch.path, sketch.method),
+                    key -> new UsageSketch(key.bucketStart(), key.path(), key.method()))
+                    .merge(sketch);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    public void merge(UsageSketch other) {
+        requestCount += other.requestCount;
+        clientErrorCount += other.clientErrorCount;
+        serverErrorCount += other.serverErrorCount;
+        latency.add(other.latency);
+    }
+
+    public byte[] encodeLatency() {
+        ByteBuffer buffer = ByteBuffer.allocate(latency.getNeededByteBufferCapacity());
+        int length = latency.encodeIntoCompressedByteBuffer(buffer);
+        byte[] encoded = new byte[length];
+        buffer.flip();
+        buffer.get(encoded);
+        return encoded;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the bytes are not a compressed histogram
+     */
+    public static Histogram decodeLatency(byte[] encoded) {
+        try {
+            Histogram decoded = Histogram.decodeFromCompressedByteBuffer(
+                    ByteBuffer.wrap(encoded), 0);
+            // Decoded histograms have a fixed range; merge into one that grows as needed
+            Histogram histogram = newHistogram();
+            histogram.add(decoded);
+            return histogram;
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid latency histogram", e);
+        }
+    }
+
+    /**
+     * Start of the bucket, epoch milliseconds
+     */
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getClientErrorCount() {
+        return clientErrorCount;
+    }
+
+    public long getServerErrorCount() {
+        return serverErrorCount;
+    }
+
+    /**
+     * Response times in microseconds
+     */
+    public Histogram getLatency() {
+        return latency;
+    }
+}
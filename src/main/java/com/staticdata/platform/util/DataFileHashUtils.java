@@ -0,0 +1,63 @@
+package com.staticdata.platform.util;
+
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.jfr.FileHashEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Content hash of data files (MD5 hex, 32 characters)
+ */
+public final class DataFileHashUtils {
+
+    private DataFileHashUtils() {}
+
+    /**
+     * Hash of name, description, column definitions and rows. Row store files contribute the
+     * digest computed while their rows were streamed in instead of the rows themselves.
+     */
+    public static String generateFileHash(DataFile dataFile) {
+        FileHashEvent event = new FileHashEvent();
+        event.begin();
+        String rows = dataFile.isRowStore() ? dataFile.getRowsDigest()
+                : String.valueOf(dataFile.getDataRows());
+        String content = dataFile.getName() + dataFile.getDescription()
+                + dataFile.getColumnDefinitions() + rows;
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String hash = md5Hex(bytes);
+        if (event.shouldCommit()) {
+            event.fileId = dataFile.getId() != null ? dataFile.getId() : 0;
+            event.rows = dataFile.getRowCount() != null ? dataFile.getRowCount() : 0;
+            event.bytes = bytes.length;
+            event.commit();
+        }
+        return hash;
+    }
+
+    /**
+     * Unique placeholder for files whose content is still being streamed in
+     */
+    public static String placeholderHash() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static String md5Hex(byte[] bytes) {
+        try {
+            return toHex(MessageDigest.getInstance("MD5").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error generating file hash", e);
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+            chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,106 @@
+package com.staticdata.platform.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.staticdata.platform.entity.AuditLog;
+import com.staticdata.platform.repository.AuditLogStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Audit event bus and spill file unit test
+ */
+class AuditEventBusTest {
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path spillDir;
+
+    @Test
+    void spillFile_ShouldReplayInOrderAndKeepEventsWhenWriterFails() throws Exception {
+        // Given
+        AuditSpillFile spillFile = new AuditSpillFile(spillDir, OBJECT_MAPPER);
+        spillFile.append(List.of(event(1), event(2), event(3)));
+        List<AuditEvent> written = new ArrayList<>();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> spillFile.replay(batch -> {
+            throw new IllegalStateException("database down");
+        }, 2));
+        spillFile.append(List.of(event(4)));
+        long first = spillFile.replay(written::addAll, 2);
+        long second = spillFile.replay(written::addAll, 2);
+
+        // Then
+        assertEquals(3, first);
+        assertEquals(1, second);
+        assertEquals(List.of(event(1), event(2), event(3), event(4)), written);
+        assertFalse(spillFile.hasPending());
+        assertEquals(0, spillFile.replay(written::addAll, 2));
+    }
+
+    @Test
+    void bus_ShouldSpillWhileDatabaseFailsAndReplayAfterwards() throws Exception {
+        // Given
+        AtomicBoolean down = new AtomicBoolean(true);
+        List<AuditEvent> stored = Collections.synchronizedList(new ArrayList<>());
+        AuditLogStore store = new AuditLogStore(null) {
+            @Override
+            public void insertEvents(List<AuditEvent> events) {
+                if (down.get()) {
+                    throw new IllegalStateException("database down");
+                }
+                stored.addAll(events);
+            }
+        };
+        AuditEventBus bus = new AuditEventBus(store, OBJECT_MAPPER, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "queueSize", 4);
+        ReflectionTestUtils.setField(bus, "batchSize", 10);
+        ReflectionTestUtils.setField(bus, "flushIntervalMs", 20L);
+        ReflectionTestUtils.setField(bus, "spillDir", spillDir.toString());
+        bus.start();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            bus.onAuditEvent(event(i));
+        }
+        waitFor(() -> bus.getSpilled() == 20);
+        down.set(false);
+        waitFor(() -> stored.size() == 20);
+        bus.stop();
+
+        // Then
+        assertEquals(20, stored.stream().map(AuditEvent::resourceId).distinct().count());
+        assertFalse(new AuditSpillFile(spillDir, OBJECT_MAPPER).hasPending());
+    }
+
+    private static void waitFor(BooleanSupplier condition)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private static AuditEvent event(long id) {
+        return new AuditEvent(LocalDateTime.of(2024, 5, 1, 12, 0).plusSeconds(id), 7L, "alice",
+                AuditLog.ActionType.UPDATE, "DATA_FILE", id, "file" + id, null, "127.0.0.1",
+                null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.staticdata.platform.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * AuditPartitions unit test
+ */
+class AuditPartitionsTest {
+
+    @Test
+    void partitionNameRoundTripsThroughMonthOf() {
+        // Given
+        YearMonth month = YearMonth.of(2025, 3);
+
+        // When
+        String name = AuditPartitions.partitionName(month);
+
+        // Then
+        assertEquals("audit_logs_p202503", name);
+        assertEquals(month, AuditPartitions.monthOf(name));
+    }
+
+    @Test
+    void monthOfIgnoresOtherTables() {
+        // Then
+        assertNull(AuditPartitions.monthOf("audit_logs"));
+        assertNull(AuditPartitions.monthOf("audit_logs_unpartitioned"));
+        assertNull(AuditPartitions.monthOf("audit_logs_p202513"));
+        assertNull(AuditPartitions.monthOf("api_usage_stats_p202501"));
+    }
+
+    @Test
+    void createPartitionSqlCoversTheWholeMonth() {
+        // When
+        String sql = AuditPartitions.createPartitionSql(YearMonth.of(2024, 12));
+
+        // Then
+        assertEquals("CREATE TABLE IF NOT EXISTS audit_logs_p202412 PARTITION OF audit_logs "
+                + "FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')", sql);
+    }
+
+    @Test
+    void lateRowsAreMovedIntoAStandalonePartitionBeforeAttaching() {
+        // Then
+        assertEquals("CREATE TABLE IF NOT EXISTS audit_logs_default PARTITION OF audit_logs "
+                + "DEFAULT", AuditPartitions.createDefaultPartitionSql());
+        assertEquals("CREATE TABLE audit_logs_p202402 (LIKE audit_logs INCLUDING DEFAULTS)",
+                AuditPartitions.createStandalonePartitionSql(YearMonth.of(2024, 2)));
+        assertEquals("ALTER TABLE audit_logs ATTACH PARTITION audit_logs_p202402 "
+                + "FOR VALUES FROM ('2024-02-01') TO ('2024-03-01')",
+                AuditPartitions.attachPartitionSql(YearMonth.of(2024, 2)));
+        assertNull(AuditPartitions.monthOf(AuditPartitions.DEFAULT_PARTITION));
+    }
+
+    @Test
+    void monthsBetweenIncludesBothEnds() {
+        // When
+        List<YearMonth> months = AuditPartitions.monthsBetween(YearMonth.of(2024, 11),
+                YearMonth.of(2025, 1));
+
+        // Then
+        assertEquals(List.of(YearMonth.of(2024, 11), YearMonth.of(2024, 12),
+                YearMonth.of(2025, 1)), months);
+    }
+
+    @Test
+    void expiredKeepsTheRetentionMonths() {
+        // Given
+        List<String> partitions = List.of("audit_logs_p202506", "audit_logs_p202410",
+                "audit_logs_p202409", "audit_logs_p202408", "audit_logs_default");
+
+        // When
+        List<String> expired = AuditPartitions.expired(partitions, YearMonth.of(2025, 9), 12);
+
+        // Then
+        assertEquals(List.of("audit_logs_p202408"), expired);
+    }
+}
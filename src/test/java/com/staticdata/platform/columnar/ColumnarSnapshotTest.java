@@ -0,0 +1,152 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columnar snapshot unit test
+ */
+class ColumnarSnapshotTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+            column("price", DataFile.ColumnDefinition.DataType.DECIMAL),
+            column("active", DataFile.ColumnDefinition.DataType.BOOLEAN),
+            column("city", DataFile.ColumnDefinition.DataType.STRING),
+            column("since", DataFile.ColumnDefinition.DataType.DATE),
+            column("seen", DataFile.ColumnDefinition.DataType.DATETIME),
+            column("tags", DataFile.ColumnDefinition.DataType.JSON));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void open_ShouldServeSameRowsAsTable() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = objectMapper.readValue("""
+                [{"id": 1, "price": 9.5, "active": true, "city": "Zürich", "since": "2024-02-29",
+                  "seen": "2024-03-10T08:15:30", "tags": ["a", {"b": 1}]},
+                 {"id": "2", "price": 3, "active": "yes", "city": "Oslo", "note": "extra"},
+                 {"id": 9007199254740993, "since": "yesterday", "seen": "2024-03-10 08:15",
+                  "city": 42, "price": -0.25}]
+                """, new TypeReference<>() {});
+        List<Map<String, Object>> many = new ArrayList<>(rows);
+        for (int i = 0; i < 500; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i);
+            row.put("city", i % 2 == 0 ? "Oslo" : "Zürich");
+            row.put("active", i % 3 == 0);
+            many.add(row);
+        }
+        ColumnarTable table = build(many);
+
+        // When
+        ColumnarSnapshot snapshot = writeAndOpen(table);
+
+        // Then
+        assertEquals(table.getRowCount(), snapshot.getRowCount());
+        assertEquals(6, snapshot.columnIndex("tags"));
+        assertEquals(7, snapshot.columnIndex("note"));
+        assertEquals(DataFile.ColumnDefinition.DataType.DATE,
+                snapshot.getDataType(snapshot.columnIndex("since")));
+        assertEquals(objectMapper.writeValueAsString(table.window(0, many.size(), null)),
+                objectMapper.writeValueAsString(snapshot.window(0, many.size(), null)));
+        assertEquals(rows, objectMapper.readValue(
+                objectMapper.writeValueAsString(snapshot.window(0, 3, null)),
+                new TypeReference<List<Map<String, Object>>>() {}));
+        assertEquals("[{\"city\":\"Zürich\",\"id\":499}]", objectMapper.writeValueAsString(
+                snapshot.window(502, 510, List.of("city", "id"))));
+    }
+
+    @Test
+    void open_EmptyTable_ShouldHaveNoRows() throws Exception {
+        // When
+        ColumnarSnapshot snapshot = writeAndOpen(build(List.of()));
+
+        // Then
+        assertEquals(0, snapshot.getRowCount());
+        assertEquals(COLUMNS.size(), snapshot.getColumnCount());
+        assertEquals("[]", objectMapper.writeValueAsString(snapshot.window(0, 10, null)));
+    }
+
+    @Test
+    void open_ExplicitNulls_ShouldRoundTripApartFromMissingKeys() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = objectMapper.readValue("""
+                [{"id": null, "price": null, "active": null, "city": null, "since": null,
+                  "seen": null, "tags": null, "note": null},
+                 {"id": 2},
+                 {"id": 3, "city": "Oslo", "note": null}]
+                """, new TypeReference<>() {});
+
+        // When
+        ColumnarSnapshot snapshot = writeAndOpen(build(rows));
+
+        // Then
+        for (int row = 0; row < rows.size(); row++) {
+            assertEquals(rows.get(row), snapshot.row(row));
+        }
+        assertEquals(rows, objectMapper.readValue(
+                objectMapper.writeValueAsString(snapshot.window(0, rows.size(), null)),
+                new TypeReference<List<Map<String, Object>>>() {}));
+        int note = snapshot.columnIndex("note");
+        assertTrue(snapshot.isNull(note, 1));
+        assertTrue(snapshot.isMissing(note, 1));
+        assertFalse(snapshot.isMissing(note, 2));
+    }
+
+    @Test
+    void open_OlderFormatVersion_ShouldFail() throws Exception {
+        // Given
+        Path file = tempDir.resolve("old.sdpc");
+        ColumnarSnapshot.write(build(List.of(Map.of("id", 1))), file, objectMapper);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, ColumnarSnapshot.VERSION - 1);
+        Files.write(file, bytes);
+
+        // When & Then
+        assertThrows(IOException.class, () -> ColumnarSnapshot.open(file));
+    }
+
+    @Test
+    void open_NotASnapshot_ShouldFail() throws Exception {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("other.sdpc"), "definitely not columnar");
+
+        // When & Then
+        assertThrows(IOException.class, () -> ColumnarSnapshot.open(file));
+    }
+
+    private ColumnarSnapshot writeAndOpen(ColumnarTable table) throws IOException {
+        Path file = tempDir.resolve("table.sdpc");
+        ColumnarSnapshot.write(table, file, objectMapper);
+        return ColumnarSnapshot.open(file);
+    }
+
+    private static ColumnarTable build(List<Map<String, Object>> rows) {
+        ColumnarTable.Builder builder = ColumnarTable.builder(COLUMNS, rows.size());
+        rows.forEach(builder::accept);
+        return builder.build();
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
@@ -0,0 +1,138 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.RowValidationReport;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.CompiledRowValidator;
+import com.staticdata.platform.ingest.ValueParsers;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columnar table unit test
+ */
+class ColumnarTableTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", DataFile.ColumnDefinition.DataType.INTEGER, null),
+            column("price", DataFile.ColumnDefinition.DataType.DECIMAL, null),
+            column("active", DataFile.ColumnDefinition.DataType.BOOLEAN, null),
+            column("city", DataFile.ColumnDefinition.DataType.STRING, 5),
+            column("since", DataFile.ColumnDefinition.DataType.DATE, null),
+            column("seen", DataFile.ColumnDefinition.DataType.DATETIME, null),
+            column("tags", DataFile.ColumnDefinition.DataType.JSON, null));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void window_ShouldSerializeOriginalRows() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = objectMapper.readValue("""
+                [{"id": 1, "price": 9.5, "active": true, "city": "Paris", "since": "2024-02-29",
+                  "seen": "2024-03-10T08:15:30", "tags": ["a", "b"]},
+                 {"id": "2", "price": 3, "active": false, "city": "Paris", "note": "extra"},
+                 {"id": 3, "since": "yesterday", "seen": "2024-03-10 08:15", "city": 42,
+                  "price": null, "note": null}]
+                """, new TypeReference<>() {});
+
+        // When
+        ColumnarTable table = build(rows);
+        String json = objectMapper.writeValueAsString(table.window(0, 3, null));
+
+        // Then
+        assertEquals(3, table.getRowCount());
+        assertEquals(rows, objectMapper.readValue(json, new TypeReference<>() {}));
+        assertEquals(rows.get(1), table.row(1));
+        assertEquals(rows.get(2), table.row(2));
+        assertTrue(table.column("price").isNull(2));
+        assertFalse(table.column("price").isMissing(2));
+        assertTrue(table.column("tags").isMissing(2));
+        assertTrue(table.column("id").isExceptional(1));
+        assertTrue(table.column("seen").isExceptional(2));
+        assertEquals(List.of("Paris"),
+                ((ColumnVector.StringVector) table.column("city")).getDictionary());
+        assertEquals("extra", table.column("note").get(1));
+        assertNull(table.column("note").get(0));
+        assertTrue(table.column("note").isMissing(0));
+        assertFalse(table.column("note").isMissing(2));
+    }
+
+    @Test
+    void window_ShouldProjectAndClampRows() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(Map.of("id", i, "city", "c" + (i % 3)));
+        }
+        ColumnarTable table = build(rows);
+
+        // When
+        RowWindow window = table.window(8, 20, List.of("city"));
+
+        // Then
+        assertEquals(2, window.size());
+        assertEquals("[{\"city\":\"c2\"},{\"city\":\"c0\"}]",
+                objectMapper.writeValueAsString(window));
+    }
+
+    @Test
+    void formatters_ShouldMatchJavaTime() {
+        // Given
+        char[] buffer = new char[19];
+
+        // Then
+        for (LocalDate date : List.of(LocalDate.of(1, 1, 1), LocalDate.of(1969, 12, 31),
+                LocalDate.of(2000, 2, 29), LocalDate.of(9999, 12, 31))) {
+            int length = ValueParsers.formatEpochDay(date.toEpochDay(), buffer, 0);
+            assertEquals(date.toString(), new String(buffer, 0, length));
+        }
+        LocalDateTime dateTime = LocalDateTime.of(1960, 7, 4, 23, 5, 9);
+        int length = ValueParsers.formatEpochSecond(dateTime.toEpochSecond(ZoneOffset.UTC),
+                buffer, 0);
+        assertEquals("1960-07-04T23:05:09", new String(buffer, 0, length));
+    }
+
+    @Test
+    void validate_ColumnarTable_ShouldMatchRowValidation() {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i % 4000 == 7 ? "x" : i);
+            row.put("city", i % 5000 == 9 ? "Amsterdam" : "Oslo");
+            row.put("since", "2024-01-0" + (i % 9 + 1));
+            rows.add(row);
+        }
+        CompiledRowValidator validator = CompiledRowValidator.forColumns(COLUMNS);
+
+        // When
+        RowValidationReport fromRows = validator.validate(rows, 50);
+        RowValidationReport fromColumns = validator.validate(build(rows), 50);
+
+        // Then
+        assertEquals(9, fromColumns.getErrorCount());
+        assertEquals(fromRows, fromColumns);
+    }
+
+    private static ColumnarTable build(List<Map<String, Object>> rows) {
+        ColumnarTable.Builder builder = ColumnarTable.builder(COLUMNS, rows.size());
+        rows.forEach(builder::accept);
+        return builder.build();
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type, Integer maxLength) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type)
+                .setMaxLength(maxLength);
+    }
+}
@@ -0,0 +1,73 @@
+package com.staticdata.platform.columnar;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Row key index unit test
+ */
+class RowKeyIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void lookup_NumericKey_ShouldFindRowByCanonicalValue() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(Map.of("userId", i * 3L, "name", "user" + i));
+        }
+        rows.addAll(objectMapper.readValue("""
+                [{"userId": 2.5, "name": "fraction"}, {"name": "no key"},
+                 {"userId": 3, "name": "duplicate"}, {"userId": "x-1", "name": "text"}]
+                """, new TypeReference<List<Map<String, Object>>>() {}));
+        ColumnarTable table = build(rows, DataFile.ColumnDefinition.DataType.INTEGER);
+
+        // When
+        RowKeyIndex index = RowKeyIndex.build(table, "userId");
+
+        // Then
+        assertEquals(10_002, index.size());
+        assertEquals(1, index.getDuplicates());
+        assertEquals(1, index.lookup("3"));
+        assertEquals(3333, index.lookup("9999.00"));
+        assertEquals(10_000, index.lookup("2.50"));
+        assertEquals(10_003, index.lookup("x-1"));
+        assertEquals(-1, index.lookup("4"));
+        assertEquals("user1", table.row(index.lookup("3")).get("name"));
+    }
+
+    @Test
+    void lookup_StringKey_ShouldMatchExactText() {
+        // Given
+        ColumnarTable table = build(List.of(Map.of("userId", "A-01"), Map.of("userId", "a-01"),
+                Map.of("userId", "07")), DataFile.ColumnDefinition.DataType.STRING);
+
+        // When
+        RowKeyIndex index = RowKeyIndex.build(table, "userId");
+
+        // Then
+        assertEquals(0, index.lookup("A-01"));
+        assertEquals(1, index.lookup("a-01"));
+        assertEquals(2, index.lookup("07"));
+        assertEquals(-1, index.lookup("7"));
+    }
+
+    private static ColumnarTable build(List<Map<String, Object>> rows,
+            DataFile.ColumnDefinition.DataType keyType) {
+        ColumnarTable.Builder builder = ColumnarTable.builder(List.of(
+                new DataFile.ColumnDefinition().setName("userId").setDataType(keyType).setKey(true),
+                new DataFile.ColumnDefinition().setName("name")
+                        .setDataType(DataFile.ColumnDefinition.DataType.STRING)), rows.size());
+        rows.forEach(builder::accept);
+        return builder.build();
+    }
+}
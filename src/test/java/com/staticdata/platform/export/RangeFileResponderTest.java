@@ -0,0 +1,119 @@
+package com.staticdata.platform.export;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Range download responder unit test
+ */
+class RangeFileResponderTest {
+
+    private static final String ETAG = "\"1-abc.csv\"";
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(tempDir.resolve("export.csv"), "0123456789");
+    }
+
+    @Test
+    void send_WithoutRange_ShouldReturnWholeFile() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        send(request, response);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(10, response.getContentLengthLong());
+    }
+
+    @Test
+    void send_WithRange_ShouldReturnPartialContent() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        send(request, response);
+
+        // Then
+        assertEquals(206, response.getStatus());
+        assertEquals("456789", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("bytes 4-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void send_WithSuffixRangeAndSendfile_ShouldDelegateToContainer() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.setAttribute(RangeFileResponder.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        send(request, response);
+
+        // Then
+        assertEquals(206, response.getStatus());
+        assertEquals(7L, request.getAttribute(RangeFileResponder.SENDFILE_START));
+        assertEquals(10L, request.getAttribute(RangeFileResponder.SENDFILE_END));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void send_WithUnsatisfiableRange_ShouldReturn416() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        send(request, response);
+
+        // Then
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void send_WithStaleIfRange_ShouldReturnWholeFile() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"1-old.csv\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        send(request, response);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private void send(MockHttpServletRequest request, MockHttpServletResponse response)
+            throws Exception {
+        RangeFileResponder.send(file, "text/csv", "export.csv", ETAG, request, response);
+    }
+}
@@ -0,0 +1,91 @@
+package com.staticdata.platform.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.ingest.XlsxWorkbookReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming export writers unit test
+ */
+class TabularWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void csvWriter_ShouldQuoteOnlyWhenNeeded() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        try (CsvStreamingWriter writer = new CsvStreamingWriter(out, objectMapper)) {
+            writer.writeHeader(columns());
+            writer.writeRow(row(1L, "plain", "2024-01-02"));
+            writer.writeRow(row(2L, "has, comma", null));
+            writer.finish();
+        }
+
+        // Then
+        assertEquals("id,name,joined\n1,plain,2024-01-02\n2,\"has, comma\",\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void xlsxWriter_ShouldRoundTripThroughEventReader() throws Exception {
+        // Given
+        Path file = tempDir.resolve("export.xlsx");
+
+        // When
+        try (OutputStream out = Files.newOutputStream(file);
+                XlsxStreamingWriter writer = new XlsxStreamingWriter(out, objectMapper, "users", 10)) {
+            writer.writeHeader(columns());
+            for (long i = 1; i <= 50; i++) {
+                writer.writeRow(row(i, "user" + i, "2024-01-01"));
+            }
+            writer.finish();
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        new XlsxWorkbookReader(file).readSheet(0, header -> rows::add);
+
+        // Then
+        assertEquals(50, rows.size());
+        assertEquals(50L, rows.get(49).get("id"));
+        assertEquals("user7", rows.get(6).get("name"));
+        assertEquals("2024-01-01", rows.get(0).get("joined"));
+    }
+
+    private static List<DataFile.ColumnDefinition> columns() {
+        return List.of(column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+                column("name", DataFile.ColumnDefinition.DataType.STRING),
+                column("joined", DataFile.ColumnDefinition.DataType.DATE));
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+
+    private static Map<String, Object> row(Long id, String name, String joined) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        row.put("joined", joined);
+        return row;
+    }
+}
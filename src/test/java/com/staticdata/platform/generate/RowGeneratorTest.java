@@ -0,0 +1,146 @@
+package com.staticdata.platform.generate;
+
+import com.staticdata.platform.dto.RowGenerateRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.ValueDistribution;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Row generator unit test
+ */
+class RowGeneratorTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", DataFile.ColumnDefinition.DataType.INTEGER).setKey(true),
+            column("code", DataFile.ColumnDefinition.DataType.STRING),
+            column("price", DataFile.ColumnDefinition.DataType.DECIMAL),
+            column("day", DataFile.ColumnDefinition.DataType.DATE),
+            column("status", DataFile.ColumnDefinition.DataType.STRING));
+
+    @Test
+    void generate_ShouldGiveSameRowsAsSequentialChunks() {
+        // Given
+        long rowCount = 3L * RowGenerator.CHUNK_ROWS + 17;
+        RowGenerator generator = RowGenerator.compile(COLUMNS, specs(), rowCount, 42);
+
+        // When
+        List<Map<String, Object>> parallel = new ArrayList<>();
+        generator.generate(parallel::add);
+        List<Map<String, Object>> sequential = new ArrayList<>();
+        for (long chunk = 0; chunk < generator.getChunkCount(); chunk++) {
+            sequential.addAll(RowGenerator.compile(COLUMNS, specs(), rowCount, 42).chunk(chunk));
+        }
+
+        // Then
+        assertEquals(rowCount, parallel.size());
+        assertEquals(sequential, parallel);
+        assertNotEquals(parallel.subList(0, 100),
+                chunkZero(RowGenerator.compile(COLUMNS, specs(), rowCount, 43)));
+    }
+
+    @Test
+    void generate_ShouldFollowSpecs() {
+        // Given
+        int rowCount = 20_000;
+        RowGenerator generator = RowGenerator.compile(COLUMNS, specs(), rowCount, 7);
+
+        // When
+        List<Map<String, Object>> rows = new ArrayList<>();
+        generator.generate(rows::add);
+
+        // Then
+        Set<String> codes = new HashSet<>();
+        int nullStatus = 0;
+        int open = 0;
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = rows.get(i);
+            assertEquals(1L + i, row.get("id"));
+            String code = (String) row.get("code");
+            assertTrue(code.matches("C-\\d{3}[A-Z]{2}"), code);
+            assertTrue(codes.add(code), "duplicate " + code);
+            BigDecimal price = (BigDecimal) row.get("price");
+            assertEquals(1, price.scale());
+            assertTrue(price.compareTo(new BigDecimal("10")) >= 0
+                    && price.compareTo(new BigDecimal("20")) <= 0, price.toString());
+            String day = (String) row.get("day");
+            assertTrue(day.compareTo("2024-01-01") >= 0 && day.compareTo("2024-12-31") <= 0, day);
+            Object status = row.get("status");
+            if (status == null) {
+                nullStatus++;
+            } else if (status.equals("OPEN")) {
+                open++;
+            } else {
+                assertEquals("CLOSED", status);
+            }
+        }
+        assertEquals(0.1, nullStatus / (double) rowCount, 0.02);
+        assertEquals(0.75, open / (double) (rowCount - nullStatus), 0.02);
+    }
+
+    @Test
+    void compile_InvalidSpecs_ShouldThrow() {
+        // Given
+        RowGenerateRequest.ColumnGenerator tooFew = generator("code");
+        tooFew.setPattern("##");
+        tooFew.setUnique(true);
+        RowGenerateRequest.ColumnGenerator keyNulls = generator("id");
+        keyNulls.setNullRate(0.5);
+        RowGenerateRequest.ColumnGenerator wrongValue = generator("price");
+        wrongValue.setValues(List.of("cheap"));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> RowGenerator.compile(COLUMNS, List.of(tooFew), 101, 0));
+        assertDoesNotThrow(() -> RowGenerator.compile(COLUMNS, List.of(tooFew), 100, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> RowGenerator.compile(COLUMNS, List.of(keyNulls), 10, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> RowGenerator.compile(COLUMNS, List.of(wrongValue), 10, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> RowGenerator.compile(COLUMNS, List.of(generator("missing")), 10, 0));
+    }
+
+    private static List<RowGenerateRequest.ColumnGenerator> specs() {
+        RowGenerateRequest.ColumnGenerator code = generator("code");
+        code.setPattern("C-###??");
+        code.setUnique(true);
+        RowGenerateRequest.ColumnGenerator price = generator("price");
+        price.setDistribution(ValueDistribution.NORMAL);
+        price.setMin("10");
+        price.setMax("20");
+        price.setScale(1);
+        price.setStddev(2.0);
+        RowGenerateRequest.ColumnGenerator day = generator("day");
+        day.setMin("2024-01-01");
+        day.setMax("2024-12-31");
+        RowGenerateRequest.ColumnGenerator status = generator("status");
+        status.setValues(List.of("OPEN", "CLOSED"));
+        status.setWeights(List.of(3.0, 1.0));
+        status.setNullRate(0.1);
+        return List.of(code, price, day, status);
+    }
+
+    private static List<Map<String, Object>> chunkZero(RowGenerator generator) {
+        return generator.chunk(0).subList(0, 100);
+    }
+
+    private static RowGenerateRequest.ColumnGenerator generator(String column) {
+        RowGenerateRequest.ColumnGenerator generator = new RowGenerateRequest.ColumnGenerator();
+        generator.setColumn(column);
+        return generator;
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
@@ -0,0 +1,97 @@
+package com.staticdata.platform.ingest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Column stats collector unit test
+ */
+class ColumnStatsCollectorTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+            column("status", DataFile.ColumnDefinition.DataType.STRING),
+            column("active", DataFile.ColumnDefinition.DataType.BOOLEAN),
+            column("score", DataFile.ColumnDefinition.DataType.DECIMAL));
+
+    @Test
+    void finish_ShouldProfileEachColumn() throws Exception {
+        // Given
+        ColumnStatsCollector collector = new ColumnStatsCollector();
+        for (int i = 0; i < 100_000; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i);
+            row.put("status", i % 10 == 0 ? "BLOCKED" : i % 2 == 0 ? "ACTIVE" : "PENDING");
+            if (i % 4 != 0) {
+                row.put("active", true);
+            }
+            row.put("extra", List.of(i));
+            collector.accept(row);
+        }
+        collector.accept(new ObjectMapper().readValue(
+                "{\"id\": \"n/a\", \"score\": -2.5, \"status\": null}",
+                new TypeReference<Map<String, Object>>() {}));
+
+        // When
+        List<DataFile.ColumnStats> stats = collector.finish(COLUMNS);
+
+        // Then
+        assertEquals(List.of("id", "status", "active", "score", "extra"),
+                stats.stream().map(DataFile.ColumnStats::getName).toList());
+        DataFile.ColumnStats id = stats.get(0);
+        assertEquals(0L, id.getNullCount());
+        assertEquals(0, id.getMin());
+        assertEquals(99_999, id.getMax());
+        assertEquals(100_000, id.getDistinctEstimate(), 100_000 * 0.05);
+        assertEquals(List.of(), id.getTopValues());
+
+        DataFile.ColumnStats status = stats.get(1);
+        assertEquals(1L, status.getNullCount());
+        assertEquals("ACTIVE", status.getMin());
+        assertEquals("PENDING", status.getMax());
+        assertEquals(3L, status.getDistinctEstimate());
+        assertEquals(List.of("PENDING", "ACTIVE", "BLOCKED"), status.getTopValues().stream()
+                .map(DataFile.ColumnStats.ValueCount::getValue).toList());
+        assertEquals(50_000L, status.getTopValues().get(0).getCount());
+        assertEquals(6.6, status.getAverageLength(), 0.01);
+
+        DataFile.ColumnStats active = stats.get(2);
+        assertEquals(25_001L, active.getNullCount());
+        assertEquals(true, active.getMin());
+        assertEquals(true, active.getMax());
+
+        DataFile.ColumnStats score = stats.get(3);
+        assertEquals(1L, score.getNonNullCount());
+        assertEquals(-2.5, score.getMin());
+
+        DataFile.ColumnStats extra = stats.get(4);
+        assertNull(extra.getDataType());
+        assertNull(extra.getMin());
+        assertEquals(1L, extra.getNullCount());
+    }
+
+    @Test
+    void finish_NoRows_ShouldReportDefinedColumns() {
+        // When
+        List<DataFile.ColumnStats> stats = ColumnStatsCollector.of(List.of(), COLUMNS);
+
+        // Then
+        assertEquals(4, stats.size());
+        assertEquals(0L, stats.get(0).getNonNullCount());
+        assertEquals(0L, stats.get(0).getDistinctEstimate());
+        assertNull(stats.get(0).getMin());
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
@@ -0,0 +1,136 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.RowValidationReport;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiled row validator and value parser unit test
+ */
+class CompiledRowValidatorTest {
+
+    @Test
+    void parseEpochDay_ShouldMatchLocalDate() {
+        // Then
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(),
+                ValueParsers.parseEpochDay("2024-02-29"));
+        assertEquals(LocalDate.of(1969, 12, 31).toEpochDay(),
+                ValueParsers.parseEpochDay("1969-12-31"));
+        assertEquals(ValueParsers.INVALID, ValueParsers.parseEpochDay("2023-02-29"));
+        assertEquals(ValueParsers.INVALID, ValueParsers.parseEpochDay("2024-02-30"));
+        assertEquals(ValueParsers.INVALID, ValueParsers.parseEpochDay("2024-13-01"));
+        assertEquals(ValueParsers.INVALID, ValueParsers.parseEpochDay("2024/01/01"));
+    }
+
+    @Test
+    void parseEpochMillis_ShouldMatchJavaTime() {
+        // Given
+        String withOffset = "2024-03-10T08:15:30.25+02:00";
+
+        // Then
+        assertEquals(OffsetDateTime.parse(withOffset).toInstant().toEpochMilli(),
+                ValueParsers.parseEpochMillis(withOffset));
+        assertEquals(OffsetDateTime.parse("2024-03-10T08:15Z").toInstant().toEpochMilli(),
+                ValueParsers.parseEpochMillis("2024-03-10 08:15"));
+        assertEquals(ValueParsers.INVALID, ValueParsers.parseEpochMillis("2024-03-10T24:00"));
+        assertEquals(ValueParsers.INVALID, ValueParsers.parseEpochMillis("2024-03-10T08:15+2"));
+    }
+
+    @Test
+    void numberParsers_ShouldHandleEdgeCases() {
+        // Then
+        assertTrue(ValueParsers.isLong("-9223372036854775808"));
+        assertTrue(ValueParsers.isLong("9223372036854775807"));
+        assertFalse(ValueParsers.isLong("9223372036854775808"));
+        assertFalse(ValueParsers.isLong("-"));
+        assertTrue(ValueParsers.isDecimal("-12.5e3"));
+        assertTrue(ValueParsers.isDecimal(".5"));
+        assertFalse(ValueParsers.isDecimal("1e"));
+        assertFalse(ValueParsers.isDecimal("."));
+        assertTrue(ValueParsers.isBoolean("TRUE"));
+        assertFalse(ValueParsers.isBoolean("yes"));
+    }
+
+    @Test
+    void forColumns_ShouldReuseCompiledValidator() {
+        // Given
+        List<DataFile.ColumnDefinition> columns =
+                List.of(column("id", DataFile.ColumnDefinition.DataType.INTEGER, true));
+
+        // When & Then
+        assertSame(CompiledRowValidator.forColumns(columns),
+                CompiledRowValidator.forColumns(
+                        List.of(column("id", DataFile.ColumnDefinition.DataType.INTEGER, true))));
+        assertNotSame(CompiledRowValidator.forColumns(columns),
+                CompiledRowValidator.forColumns(
+                        List.of(column("id", DataFile.ColumnDefinition.DataType.INTEGER, false))));
+    }
+
+    @Test
+    void validate_LargeRowList_ShouldReportFirstErrorsInRowOrder() {
+        // Given
+        CompiledRowValidator validator = CompiledRowValidator.forColumns(List.of(
+                column("id", DataFile.ColumnDefinition.DataType.INTEGER, true),
+                column("day", DataFile.ColumnDefinition.DataType.DATE, false)));
+        int rowCount = CompiledRowValidator.PARALLEL_THRESHOLD * 3;
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i % 1000 == 999 ? "x" + i : i);
+            row.put("day", "2024-01-01");
+            rows.add(row);
+        }
+
+        // When
+        RowValidationReport report = validator.validate(rows, 5);
+
+        // Then
+        assertFalse(report.getValid());
+        assertEquals(rowCount, report.getRowsChecked());
+        assertEquals(rowCount / 1000, report.getErrorCount());
+        assertTrue(report.getTruncated());
+        assertEquals(5, report.getErrors().size());
+        assertEquals(1000L, report.getErrors().get(0).getRow());
+        assertEquals(5000L, report.getErrors().get(4).getRow());
+        assertEquals("column 'id' expects INTEGER but got \"x999\"",
+                report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void validate_EmptyRequiredString_ShouldBeMissingInRowsAndColumns() {
+        // Given
+        List<DataFile.ColumnDefinition> columns = List.of(
+                column("code", DataFile.ColumnDefinition.DataType.STRING, true),
+                column("note", DataFile.ColumnDefinition.DataType.STRING, false));
+        CompiledRowValidator validator = CompiledRowValidator.forColumns(columns);
+        List<Map<String, Object>> rows = List.of(Map.of("code", "USD", "note", ""),
+                Map.of("code", "", "note", "empty code"));
+        ColumnarTable.Builder builder = ColumnarTable.builder(columns, rows.size());
+        rows.forEach(builder::accept);
+
+        // When
+        RowValidationReport fromRows = validator.validate(rows, 10);
+        RowValidationReport fromColumns = validator.validate(builder.build(), 10);
+
+        // Then
+        assertEquals(1, fromColumns.getErrorCount());
+        assertEquals(2L, fromColumns.getErrors().get(0).getRow());
+        assertEquals(fromRows, fromColumns);
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type, boolean required) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type)
+                .setRequired(required);
+    }
+}
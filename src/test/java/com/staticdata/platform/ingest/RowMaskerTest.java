@@ -0,0 +1,148 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.dto.MaskingRule;
+import com.staticdata.platform.enums.MaskingStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Row masker unit test
+ */
+class RowMaskerTest {
+
+    private static final byte[] SECRET = "test-secret".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void mask_ShouldKeepShapeAndBeDeterministic() {
+        // Given
+        RowMasker masker = new RowMasker(List.of(
+                rule("email", MaskingStrategy.HASH),
+                rule("phone", MaskingStrategy.HASH),
+                rule("salary", MaskingStrategy.HASH),
+                rule("note", MaskingStrategy.NULL)), SECRET, new TokenCache(16));
+
+        // When
+        Map<String, Object> first = maskedRow(masker);
+        Map<String, Object> second = maskedRow(masker);
+
+        // Then
+        assertEquals(first, second);
+        String email = (String) first.get("email");
+        assertTrue(email.matches("[a-z]{4}\\.[a-z]{3}@[a-z]{7}\\.[a-z]{3}"), email);
+        assertNotEquals("john.doe@example.com", email);
+        String phone = (String) first.get("phone");
+        assertTrue(phone.matches("\\+\\d{2} \\d{3}-\\d{4}"), phone);
+        long salary = (Long) first.get("salary");
+        assertTrue(salary >= 10_000 && salary <= 99_999, String.valueOf(salary));
+        assertFalse(first.containsKey("note"));
+        assertEquals("kept", first.get("city"));
+        assertNotEquals(first, maskedRow(new RowMasker(List.of(rule("email", MaskingStrategy.HASH)),
+                "other".getBytes(StandardCharsets.UTF_8), new TokenCache(16))));
+    }
+
+    @Test
+    void mask_TokenizeAndShift_ShouldStayConsistentAcrossFiles() {
+        // Given
+        MaskingRule customer = rule("customerId", MaskingStrategy.TOKENIZE);
+        customer.setNamespace("customer");
+        customer.setPrefix("C-");
+        MaskingRule visit = rule("visitDate", MaskingStrategy.SHIFT);
+        visit.setRange(30L);
+        visit.setOffsetColumn("customerId");
+        MaskingRule birth = rule("birthDate", MaskingStrategy.SHIFT);
+        birth.setRange(30L);
+        birth.setOffsetColumn("customerId");
+        RowMasker orders = new RowMasker(List.of(customer, visit, birth), SECRET,
+                new TokenCache(16));
+        MaskingRule id = rule("id", MaskingStrategy.TOKENIZE);
+        id.setNamespace("customer");
+        id.setPrefix("C-");
+        RowMasker customers = new RowMasker(List.of(id), SECRET, new TokenCache(16));
+
+        // When
+        Map<String, Object> order = new HashMap<>(Map.of("customerId", 42,
+                "visitDate", "2024-03-10", "birthDate", "1990-01-01T08:30:00"));
+        orders.mask(order);
+        Map<String, Object> person = new HashMap<>(Map.of("id", "42"));
+        customers.mask(person);
+
+        // Then
+        assertEquals(person.get("id"), order.get("customerId"));
+        assertTrue(((String) order.get("customerId")).matches("C-[0-9A-Z]{12}"));
+        long visitShift = ValueParsers.parseEpochDay((String) order.get("visitDate"))
+                - ValueParsers.parseEpochDay("2024-03-10");
+        long birthShift = (ValueParsers.parseEpochMillis((String) order.get("birthDate"))
+                - ValueParsers.parseEpochMillis("1990-01-01T08:30:00")) / 86_400_000L;
+        assertEquals(visitShift, birthShift);
+        assertTrue(Math.abs(visitShift) <= 30);
+    }
+
+    @Test
+    void maskingRowSink_ShouldKeepRowOrderAcrossChunks() {
+        // Given
+        RowMasker masker = new RowMasker(List.of(rule("name", MaskingStrategy.TOKENIZE)), SECRET,
+                new TokenCache(16));
+        List<Map<String, Object>> received = new ArrayList<>();
+        MaskingRowSink sink = new MaskingRowSink(masker, received::add);
+        int rowCount = 5 * MaskingRowSink.CHUNK_ROWS + 3;
+
+        // When
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("n", i);
+            row.put("name", "user" + i % 10);
+            sink.accept(row);
+        }
+        sink.finish();
+
+        // Then
+        assertEquals(rowCount, received.size());
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(i, received.get(i).get("n"));
+            assertEquals(received.get(i % 10).get("name"), received.get(i).get("name"));
+        }
+        assertNotEquals(received.get(0).get("name"), received.get(1).get("name"));
+    }
+
+    @Test
+    void constructor_InvalidRules_ShouldThrow() {
+        // Given
+        MaskingRule shiftWithoutRange = rule("age", MaskingStrategy.SHIFT);
+        MaskingRule prefixOnHash = rule("name", MaskingStrategy.HASH);
+        prefixOnHash.setPrefix("X");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new RowMasker(
+                List.of(shiftWithoutRange), SECRET, new TokenCache(16)));
+        assertThrows(IllegalArgumentException.class, () -> new RowMasker(
+                List.of(prefixOnHash), SECRET, new TokenCache(16)));
+        assertThrows(IllegalArgumentException.class, () -> new RowMasker(
+                List.of(rule("a", MaskingStrategy.NULL), rule("a", MaskingStrategy.HASH)),
+                SECRET, new TokenCache(16)));
+    }
+
+    private static Map<String, Object> maskedRow(RowMasker masker) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("email", "john.doe@example.com");
+        row.put("phone", "+86 138-0013");
+        row.put("salary", 52_000);
+        row.put("note", "secret");
+        row.put("city", "kept");
+        masker.mask(row);
+        return row;
+    }
+
+    private static MaskingRule rule(String column, MaskingStrategy strategy) {
+        MaskingRule rule = new MaskingRule();
+        rule.setColumn(column);
+        rule.setStrategy(strategy);
+        return rule;
+    }
+}
@@ -0,0 +1,112 @@
+package com.staticdata.platform.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.CreateDataFileRequest;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming request reader and row validation unit test
+ */
+class StreamingRequestReaderTest {
+
+    private final StreamingRequestReader reader = new StreamingRequestReader(new ObjectMapper());
+
+    @Test
+    void read_ShouldBindFieldsBeforeStreamingRows() throws Exception {
+        // Given
+        String body = """
+                {"name": "users", "organizationNodeId": 7,
+                 "columnDefinitions": [{"name": "id", "dataType": "INTEGER", "required": true}],
+                 "dataRows": [{"id": 1}, {"id": 2}, {"id": 3}]}
+                """;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<CreateDataFileRequest> started = new ArrayList<>();
+
+        // When
+        StreamingRequestReader.StreamedRequest<CreateDataFileRequest> streamed =
+                reader.read(stream(body), CreateDataFileRequest.class, request -> {
+                    started.add(request);
+                    return rows::add;
+                });
+
+        // Then
+        assertEquals(1, started.size());
+        assertEquals("users", streamed.request().getName());
+        assertEquals(7L, streamed.request().getOrganizationNodeId());
+        assertEquals(1, streamed.request().getColumnDefinitions().size());
+        assertNull(streamed.request().getDataRows());
+        assertTrue(streamed.hasRows());
+        assertEquals(3, streamed.rowCount());
+        assertEquals(3, rows.get(2).get("id"));
+    }
+
+    @Test
+    void read_WithoutRows_ShouldOnlyBindFields() throws Exception {
+        // When
+        StreamingRequestReader.StreamedRequest<CreateDataFileRequest> streamed =
+                reader.read(stream("{\"name\": \"users\"}"), CreateDataFileRequest.class,
+                        request -> fail("No rows expected"));
+
+        // Then
+        assertFalse(streamed.hasRows());
+        assertEquals("users", streamed.request().getName());
+    }
+
+    @Test
+    void read_WithFieldAfterRows_ShouldFail() {
+        // Given
+        String body = "{\"dataRows\": [{\"id\": 1}], \"name\": \"users\"}";
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> reader.read(stream(body), CreateDataFileRequest.class, request -> row -> {}));
+        assertTrue(e.getMessage().contains("'name'"));
+    }
+
+    @Test
+    void validatingSink_ShouldRejectFirstInvalidRow() {
+        // Given
+        List<DataFile.ColumnDefinition> columns = List.of(
+                column("id", DataFile.ColumnDefinition.DataType.INTEGER, true, null),
+                column("code", DataFile.ColumnDefinition.DataType.STRING, false, 3),
+                column("since", DataFile.ColumnDefinition.DataType.DATE, false, null));
+        List<Map<String, Object>> accepted = new ArrayList<>();
+        ValidatingRowSink sink = new ValidatingRowSink(columns, accepted::add);
+
+        // When
+        sink.accept(Map.of("id", 1, "code", "abc", "since", "2024-01-01"));
+        sink.accept(Map.of("id", "2", "extra", "ignored"));
+        IllegalArgumentException typeError = assertThrows(IllegalArgumentException.class,
+                () -> sink.accept(Map.of("id", 3, "since", "yesterday")));
+        IllegalArgumentException lengthError = assertThrows(IllegalArgumentException.class,
+                () -> sink.accept(Map.of("id", 4, "code", "abcd")));
+        IllegalArgumentException requiredError = assertThrows(IllegalArgumentException.class,
+                () -> sink.accept(Map.of("code", "x")));
+
+        // Then
+        assertEquals(2, accepted.size());
+        assertTrue(typeError.getMessage().startsWith("Row 3: column 'since' expects DATE"));
+        assertTrue(lengthError.getMessage().contains("maximum length 3"));
+        assertEquals("Row 5: column 'id' is required", requiredError.getMessage());
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type, boolean required, Integer maxLength) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type)
+                .setRequired(required).setMaxLength(maxLength);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
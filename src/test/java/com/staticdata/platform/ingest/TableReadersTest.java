@@ -0,0 +1,76 @@
+package com.staticdata.platform.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CSV and JSON table reader unit test
+ */
+class TableReadersTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void csvReader_ShouldTypeCanonicalValuesOnly() throws Exception {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("users.csv"),
+                "\uFEFFid,code,score,active,note\n1,007,2.50,true,\"a, b\"\n2,,-3,false,\n");
+        List<List<String>> headers = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        // When
+        new CsvTableReader(file).read(header -> {
+            headers.add(header);
+            return rows::add;
+        });
+
+        // Then
+        assertEquals(List.of("id", "code", "score", "active", "note"), headers.get(0));
+        assertEquals(2, rows.size());
+        assertEquals(1L, rows.get(0).get("id"));
+        assertEquals("007", rows.get(0).get("code"));
+        assertEquals(new BigDecimal("2.50"), rows.get(0).get("score"));
+        assertEquals(true, rows.get(0).get("active"));
+        assertEquals("a, b", rows.get(0).get("note"));
+        assertNull(rows.get(1).get("code"));
+        assertEquals(-3L, rows.get(1).get("score"));
+    }
+
+    @Test
+    void jsonReader_ShouldReadArrayOrDataRowsField() throws Exception {
+        // Given
+        Path array = Files.writeString(tempDir.resolve("array.json"),
+                "[{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"extra\": true}]");
+        Path request = Files.writeString(tempDir.resolve("request.json"),
+                "{\"name\": \"users\", \"columnDefinitions\": [{\"name\": \"id\"}],"
+                        + " \"dataRows\": [{\"id\": 3}]}");
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<List<String>> headers = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        TableConsumer consumer = header -> {
+            headers.add(header);
+            return rows::add;
+        };
+
+        // When
+        new JsonTableReader(array, objectMapper).read(consumer);
+        new JsonTableReader(request, objectMapper).read(consumer);
+
+        // Then
+        assertEquals(List.of(List.of("id", "name"), List.of("id")), headers);
+        assertEquals(3, rows.size());
+        assertEquals(true, rows.get(1).get("extra"));
+        assertEquals(3, rows.get(2).get("id"));
+    }
+}
@@ -0,0 +1,177 @@
+package com.staticdata.platform.ingest;
+
+import com.staticdata.platform.entity.DataFile;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * XLSX event-model reader unit test
+ */
+class XlsxWorkbookReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readSheet_ShouldStreamTypedRowsAndInferColumns() throws Exception {
+        // Given
+        Path workbook = tempDir.resolve("users.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(workbook)) {
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet users = wb.createSheet("users");
+            Row header = users.createRow(0);
+            header.createCell(0).setCellValue("id");
+            header.createCell(1).setCellValue("name");
+            header.createCell(2).setCellValue("score");
+            header.createCell(3).setCellValue("active");
+            header.createCell(4).setCellValue("joined");
+            for (int i = 1; i <= 3; i++) {
+                Row row = users.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("user" + i);
+                row.createCell(2).setCellValue(i + 0.5);
+                row.createCell(3).setCellValue(i % 2 == 0);
+                row.createCell(4).setCellValue(LocalDate.of(2024, 1, i));
+                row.getCell(4).setCellStyle(dateStyle);
+            }
+            wb.createSheet("empty");
+            wb.write(out);
+        }
+
+        // When
+        XlsxWorkbookReader reader = new XlsxWorkbookReader(workbook);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<InferringRowSink> sinks = new ArrayList<>();
+        reader.readSheet(0, header -> {
+            InferringRowSink sink = new InferringRowSink(header, rows::add);
+            sinks.add(sink);
+            return sink;
+        });
+
+        // Then
+        assertEquals(List.of("users", "empty"), reader.getSheetNames());
+        assertEquals(3, rows.size());
+        assertEquals(1L, rows.get(0).get("id"));
+        assertEquals("user2", rows.get(1).get("name"));
+        assertEquals(3.5, rows.get(2).get("score"));
+        assertEquals(true, rows.get(1).get("active"));
+        assertEquals("2024-01-03", rows.get(2).get("joined"));
+
+        List<DataFile.ColumnDefinition> columns = sinks.get(0).toColumnDefinitions();
+        assertEquals(DataFile.ColumnDefinition.DataType.INTEGER, columns.get(0).getDataType());
+        assertEquals(DataFile.ColumnDefinition.DataType.STRING, columns.get(1).getDataType());
+        assertEquals(DataFile.ColumnDefinition.DataType.DECIMAL, columns.get(2).getDataType());
+        assertEquals(DataFile.ColumnDefinition.DataType.BOOLEAN, columns.get(3).getDataType());
+        assertEquals(DataFile.ColumnDefinition.DataType.DATE, columns.get(4).getDataType());
+        assertTrue(columns.get(0).getRequired());
+    }
+
+    @Test
+    void readSheet_WithEmptySheet_ShouldNotStartTable() throws Exception {
+        // Given
+        Path workbook = tempDir.resolve("empty.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(workbook)) {
+            wb.createSheet("empty");
+            wb.write(out);
+        }
+
+        // When
+        List<List<String>> headers = new ArrayList<>();
+        new XlsxWorkbookReader(workbook).readSheet(0, header -> {
+            headers.add(header);
+            return row -> {};
+        });
+
+        // Then
+        assertTrue(headers.isEmpty());
+    }
+
+    @Test
+    void readSheet_With1904Dates_ShouldReadTheSameDates() throws Exception {
+        // Given
+        Path workbook = tempDir.resolve("mac.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(workbook)) {
+            (wb.getCTWorkbook().isSetWorkbookPr() ? wb.getCTWorkbook().getWorkbookPr()
+                    : wb.getCTWorkbook().addNewWorkbookPr()).setDate1904(true);
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = wb.createSheet("dates");
+            sheet.createRow(0).createCell(0).setCellValue("day");
+            sheet.createRow(1).createCell(0).setCellValue(LocalDate.of(2024, 1, 3));
+            sheet.getRow(1).getCell(0).setCellStyle(dateStyle);
+            wb.write(out);
+        }
+
+        // When
+        List<Map<String, Object>> rows = readRows(workbook);
+
+        // Then
+        assertEquals("2024-01-03", rows.get(0).get("day"));
+    }
+
+    @Test
+    void readSheet_WithEmptySharedStringValue_ShouldReadNullCell() throws Exception {
+        // Given
+        Path workbook = tempDir.resolve("blank.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(workbook)) {
+            Sheet sheet = wb.createSheet("users");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("id");
+            header.createCell(1).setCellValue("name");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue(1);
+            row.createCell(1).setCellValue("alice");
+            wb.write(out);
+        }
+        // Written by some tools: a shared string cell without an index
+        try (FileSystem zip = FileSystems.newFileSystem(workbook)) {
+            Path sheetXml = zip.getPath("/xl/worksheets/sheet1.xml");
+            String xml = Files.readString(sheetXml);
+            String blanked = xml.replace("<v>2</v></c></row></sheetData>",
+                    "<v></v></c></row></sheetData>");
+            assertNotEquals(xml, blanked);
+            Files.writeString(sheetXml, blanked);
+        }
+
+        // When
+        List<Map<String, Object>> rows = readRows(workbook);
+
+        // Then
+        assertEquals(1, rows.size());
+        assertEquals(1L, rows.get(0).get("id"));
+        assertNull(rows.get(0).get("name"));
+    }
+
+    @Test
+    void buildHeader_ShouldNameBlankAndDuplicateColumns() {
+        // When
+        List<String> header = XlsxWorkbookReader.buildHeader(new ArrayList<>(List.of("a", "a", " ")));
+
+        // Then
+        assertEquals(List.of("a", "a_2", "column_3"), header);
+        assertEquals(27, XlsxWorkbookReader.columnIndex("AB12"));
+    }
+
+    private static List<Map<String, Object>> readRows(Path workbook) throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        new XlsxWorkbookReader(workbook).readSheet(0, header -> rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,156 @@
+package com.staticdata.platform.perf;
+
+import com.staticdata.platform.dto.CreateDataFileRequest;
+import com.staticdata.platform.dto.CreateOrganizationNodeRequest;
+import com.staticdata.platform.dto.DataFileDto;
+import com.staticdata.platform.dto.LoginRequest;
+import com.staticdata.platform.dto.LoginResponse;
+import com.staticdata.platform.dto.OrganizationNodeDto;
+import com.staticdata.platform.dto.RegisterRequest;
+import com.staticdata.platform.dto.UserDto;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.entity.OrganizationNode;
+import com.staticdata.platform.generate.RowGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Seeds users, an organization tree and public data files through the REST API, the way real
+ * clients create them
+ */
+@Slf4j
+final class DataSeeder {
+
+    static final String PASSWORD = "perf-password";
+
+    private static final int SEED_THREADS = 8;
+
+    private final ApiClient client;
+    private final MacroBenchmarkSettings settings;
+
+    DataSeeder(ApiClient client, MacroBenchmarkSettings settings) {
+        this.client = client;
+        this.settings = settings;
+    }
+
+    SeededData seed() {
+        long started = System.currentTimeMillis();
+        List<SeededUser> users = new ArrayList<>();
+        for (int i = 0; i < settings.users(); i++) {
+            users.add(registerAndLogin("perf-user-" + i));
+        }
+        String adminToken = users.get(0).token();
+
+        long department = createNode(adminToken, "perf-department",
+                OrganizationNode.NodeType.DEPARTMENT, null);
+        long team = createNode(adminToken, "perf-team", OrganizationNode.NodeType.TEAM,
+                department);
+        long direction = createNode(adminToken, "perf-direction",
+                OrganizationNode.NodeType.BUSINESS_DIRECTION, team);
+        List<Long> modules = new ArrayList<>();
+        for (int i = 0; i < settings.modules(); i++) {
+            modules.add(createNode(adminToken, "perf-module-" + i,
+                    OrganizationNode.NodeType.MODULE, direction));
+        }
+
+        List<DataFile.ColumnDefinition> columns = columns();
+        ExecutorService executor = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<CompletableFuture<SeededFile>> futures = new ArrayList<>();
+            for (int i = 0; i < settings.files(); i++) {
+                int index = i;
+                futures.add(CompletableFuture.supplyAsync(() -> createFile(index, columns, users,
+                        modules), executor));
+            }
+            List<SeededFile> files = futures.stream().map(CompletableFuture::join).toList();
+            log.info("Seeded {} users, {} modules and {} files of {} rows in {} ms", users.size(),
+                    modules.size(), files.size(), settings.rowsPerFile(),
+                    System.currentTimeMillis() - started);
+            return new SeededData(users, modules, files);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SeededUser registerAndLogin(String username) {
+        RegisterRequest register = new RegisterRequest(username, username + "@perf.example.com",
+                PASSWORD, PASSWORD, "Perf User " + username);
+        client.call("POST", "/auth/register", null, register, UserDto.class);
+        LoginResponse login = client.call("POST", "/auth/login", null,
+                new LoginRequest().setUsername(username).setPassword(PASSWORD),
+                LoginResponse.class);
+        return new SeededUser(username, login.getAccessToken());
+    }
+
+    private long createNode(String token, String name, OrganizationNode.NodeType type,
+            Long parentId) {
+        CreateOrganizationNodeRequest request = new CreateOrganizationNodeRequest();
+        request.setName(name);
+        request.setType(type);
+        request.setParentId(parentId);
+        return client.call("POST", "/organization/nodes", token, request,
+                OrganizationNodeDto.class).getId();
+    }
+
+    private SeededFile createFile(int index, List<DataFile.ColumnDefinition> columns,
+            List<SeededUser> users, List<Long> modules) {
+        int owner = index % users.size();
+        RowGenerator generator = RowGenerator.compile(columns, null, settings.rowsPerFile(),
+                settings.seed() + index);
+        List<Map<String, Object>> rows = new ArrayList<>(settings.rowsPerFile());
+        for (long chunk = 0; chunk < generator.getChunkCount(); chunk++) {
+            rows.addAll(generator.chunk(chunk));
+        }
+        CreateDataFileRequest request = new CreateDataFileRequest();
+        request.setName("perf-file-" + index);
+        request.setDescription("Macro-benchmark file " + index);
+        request.setOrganizationNodeId(modules.get(index % modules.size()));
+        request.setAccessLevel(DataFile.AccessLevel.PUBLIC);
+        request.setColumnDefinitions(columns.stream().map(DataSeeder::toRequest).toList());
+        request.setDataRows(rows);
+        DataFileDto file = client.call("POST", "/data-files", users.get(owner).token(), request,
+                DataFileDto.class);
+        return new SeededFile(file.getId(), owner);
+    }
+
+    private static List<DataFile.ColumnDefinition> columns() {
+        return List.of(
+                column("id", DataFile.ColumnDefinition.DataType.INTEGER).setKey(true),
+                column("name", DataFile.ColumnDefinition.DataType.STRING),
+                column("price", DataFile.ColumnDefinition.DataType.DECIMAL),
+                column("active", DataFile.ColumnDefinition.DataType.BOOLEAN),
+                column("created", DataFile.ColumnDefinition.DataType.DATE),
+                column("notes", DataFile.ColumnDefinition.DataType.STRING));
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType dataType) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(dataType)
+                .setRequired(false);
+    }
+
+    private static CreateDataFileRequest.ColumnDefinitionRequest toRequest(
+            DataFile.ColumnDefinition column) {
+        CreateDataFileRequest.ColumnDefinitionRequest request =
+                new CreateDataFileRequest.ColumnDefinitionRequest();
+        request.setName(column.getName());
+        request.setDataType(column.getDataType());
+        request.setKey(column.getKey());
+        return request;
+    }
+
+    record SeededUser(String username, String token) {
+    }
+
+    record SeededFile(long id, int owner) {
+    }
+
+    record SeededData(List<SeededUser> users, List<Long> modules, List<SeededFile> files) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.staticdata.platform.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.TestcontainersConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end macro-benchmark: boots the application against PostgreSQL and Redis containers,
+ * seeds users, modules and files through the API, drives an open-loop mix of login, tree,
+ * query, get and update requests and writes latency percentiles and throughput to the report
+ * file. The run only gates on regressions once a baseline has been recorded with
+ * {@code -Dmacro.update-baseline=true}; no baseline is checked in yet, so by default it just
+ * reports. Run with
+ * <pre>
+ * mvn verify -Dmacro.benchmark=true [-Dmacro.rate=100 -Dmacro.files=500 ...]
+ * mvn verify -Dmacro.benchmark=true -Dmacro.update-baseline=true
+ * </pre>
+ * Settings are described in {@link MacroBenchmarkSettings}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "macro.benchmark", matches = "true")
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Per-request info logging would dominate the output of the run
+        "logging.level.com.staticdata.platform=WARN",
+        "logging.level.com.staticdata.platform.perf=INFO"})
+class MacroBenchmarkIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void mixedWorkloadStaysWithinBaseline() throws Exception {
+        // Given
+        MacroBenchmarkSettings settings = MacroBenchmarkSettings.fromSystemProperties();
+        ApiClient client = new ApiClient("http://127.0.0.1:" + port + "/api", objectMapper);
+        DataSeeder.SeededData data = new DataSeeder(client, settings).seed();
+
+        // When
+        log.info("Running {} req/s of {} for {} after {} of warmup", settings.rate(),
+                settings.mix(), settings.duration(), settings.warmup());
+        MacroBenchmarkReport report = new OpenLoopDriver(client, data, settings).run();
+
+        // Then
+        log.info("Macro-benchmark results:\n{}", report.toTable());
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(settings.report().toFile(), report);
+        if (settings.updateBaseline()) {
+            Files.createDirectories(settings.baseline().toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValue(settings.baseline().toFile(), report);
+            log.info("Wrote new baseline {}", settings.baseline());
+            return;
+        }
+        if (!Files.exists(settings.baseline())) {
+            log.warn("No baseline at {}, record one with -Dmacro.update-baseline=true",
+                    settings.baseline());
+            return;
+        }
+        MacroBenchmarkReport baseline = objectMapper.readValue(settings.baseline().toFile(),
+                MacroBenchmarkReport.class);
+        List<String> regressions = report.regressionsAgainst(baseline, settings.tolerance());
+        assertTrue(regressions.isEmpty(), "Regressions beyond " + settings.tolerance()
+                + "% of the baseline:\n" + String.join("\n", regressions));
+    }
+}
@@ -0,0 +1,146 @@
+package com.staticdata.platform.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency percentiles and throughput of a macro-benchmark run per operation, written as JSON;
+ * a checked-in report serves as the baseline of later runs
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+class MacroBenchmarkReport {
+
+    /**
+     * Absolute allowance on top of the relative tolerance, so sub-millisecond latencies do not
+     * fail on noise
+     */
+    static final double LATENCY_SLACK_MS = 1.0;
+
+    /**
+     * Allowed increase of the error rate, in percentage points
+     */
+    static final double ERROR_RATE_SLACK = 1.0;
+
+    private double rate;
+    private long durationSeconds;
+    private int files;
+    private int rowsPerFile;
+    private Map<String, OperationResult> operations = new TreeMap<>();
+
+    static MacroBenchmarkReport of(MacroBenchmarkSettings settings,
+            Map<WorkloadOperation, Histogram> latencies,
+            Map<WorkloadOperation, LongAdder> errors) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Map<String, OperationResult> operations = new TreeMap<>();
+        latencies.forEach((operation, histogram) -> {
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                return;
+            }
+            operations.put(operation.name(), new OperationResult(count,
+                    errors.get(operation).sum(), count / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        });
+        return new MacroBenchmarkReport(settings.rate(), settings.duration().toSeconds(),
+                settings.files(), settings.rowsPerFile(), operations);
+    }
+
+    /**
+     * Differences to the baseline that exceed the tolerance (in percent): slower p50 or p99,
+     * lower throughput or more errors. Runs with other settings are not comparable.
+     */
+    List<String> regressionsAgainst(MacroBenchmarkReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (baseline.rate != rate || baseline.files != files
+                || baseline.rowsPerFile != rowsPerFile) {
+            regressions.add(String.format(Locale.ROOT, "Baseline was recorded at %.1f req/s with "
+                    + "%d files of %d rows, this run used %.1f req/s with %d files of %d rows",
+                    baseline.rate, baseline.files, baseline.rowsPerFile, rate, files,
+                    rowsPerFile));
+            return regressions;
+        }
+        double factor = 1 + tolerance / 100;
+        baseline.operations.forEach((operation, before) -> {
+            OperationResult now = operations.get(operation);
+            if (now == null) {
+                regressions.add(operation + ": not run");
+                return;
+            }
+            if (now.p50Ms > before.p50Ms * factor + LATENCY_SLACK_MS) {
+                regressions.add(String.format(Locale.ROOT, "%s: p50 %.2f ms, baseline %.2f ms",
+                        operation, now.p50Ms, before.p50Ms));
+            }
+            if (now.p99Ms > before.p99Ms * factor + LATENCY_SLACK_MS) {
+                regressions.add(String.format(Locale.ROOT, "%s: p99 %.2f ms, baseline %.2f ms",
+                        operation, now.p99Ms, before.p99Ms));
+            }
+            if (now.throughput < before.throughput / factor) {
+                regressions.add(String.format(Locale.ROOT,
+                        "%s: throughput %.1f/s, baseline %.1f/s", operation, now.throughput,
+                        before.throughput));
+            }
+            if (now.errorRate() > before.errorRate() + ERROR_RATE_SLACK) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.2f%% errors, baseline %.2f%%",
+                        operation, now.errorRate(), before.errorRate()));
+            }
+        });
+        return regressions;
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-8s %8s %7s %9s %9s %9s %9s %9s %9s%n", "Op", "Count", "Errors", "Ops/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms"));
+        operations.entrySet().stream()
+                .sorted(Comparator.comparing(Map.Entry::getKey))
+                .forEach(entry -> {
+                    OperationResult result = entry.getValue();
+                    table.append(String.format(Locale.ROOT,
+                            "%-8s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                            result.count, result.errors, result.throughput, result.p50Ms,
+                            result.p90Ms, result.p99Ms, result.p999Ms, result.maxMs));
+                });
+        return table.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class OperationResult {
+        private long count;
+        private long errors;
+        private double throughput;
+        private double p50Ms;
+        private double p90Ms;
+        private double p99Ms;
+        private double p999Ms;
+        private double maxMs;
+
+        /**
+         * Errors in percent of the requests
+         */
+        double errorRate() {
+            return count == 0 ? 0 : errors * 100.0 / count;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.staticdata.platform.perf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MacroBenchmarkReport and WorkloadMix unit test
+ */
+class MacroBenchmarkReportTest {
+
+    @Test
+    void withinToleranceHasNoRegressions() {
+        // Given
+        MacroBenchmarkReport baseline = report(new MacroBenchmarkReport.OperationResult(
+                1000, 0, 20.0, 4.0, 8.0, 20.0, 40.0, 60.0));
+        MacroBenchmarkReport current = report(new MacroBenchmarkReport.OperationResult(
+                1000, 5, 19.0, 4.5, 9.0, 23.0, 80.0, 200.0));
+
+        // When
+        List<String> regressions = current.regressionsAgainst(baseline, 20);
+
+        // Then
+        assertTrue(regressions.isEmpty(), regressions.toString());
+    }
+
+    @Test
+    void slowerPercentilesLowerThroughputAndErrorsAreRegressions() {
+        // Given
+        MacroBenchmarkReport baseline = report(new MacroBenchmarkReport.OperationResult(
+                1000, 0, 20.0, 4.0, 8.0, 20.0, 40.0, 60.0));
+        MacroBenchmarkReport current = report(new MacroBenchmarkReport.OperationResult(
+                1000, 50, 10.0, 9.0, 18.0, 50.0, 80.0, 200.0));
+
+        // When
+        List<String> regressions = current.regressionsAgainst(baseline, 20);
+
+        // Then
+        assertEquals(4, regressions.size(), regressions.toString());
+    }
+
+    @Test
+    void otherSettingsAreNotCompared() {
+        // Given
+        MacroBenchmarkReport baseline = report(new MacroBenchmarkReport.OperationResult(
+                1000, 0, 20.0, 4.0, 8.0, 20.0, 40.0, 60.0));
+        MacroBenchmarkReport current = report(baseline.getOperations().get("GET"));
+        current.setRate(100);
+
+        // When
+        List<String> regressions = current.regressionsAgainst(baseline, 20);
+
+        // Then
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("Baseline was recorded at 50.0 req/s"));
+    }
+
+    @Test
+    void workloadMixFollowsTheWeights() {
+        // Given
+        WorkloadMix mix = WorkloadMix.parse("get=3, update=1, login=0");
+        Random random = new Random(1);
+        Map<WorkloadOperation, Integer> picks = new TreeMap<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            picks.merge(mix.pick(random), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(2, picks.size());
+        assertEquals(7500, picks.get(WorkloadOperation.GET), 200);
+        assertEquals(2500, picks.get(WorkloadOperation.UPDATE), 200);
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("get"));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("login=0"));
+    }
+
+    private static MacroBenchmarkReport report(MacroBenchmarkReport.OperationResult get) {
+        Map<String, MacroBenchmarkReport.OperationResult> operations = new TreeMap<>();
+        operations.put("GET", get);
+        return new MacroBenchmarkReport(50, 60, 200, 100, operations);
+    }
+}
@@ -0,0 +1,45 @@
+package com.staticdata.platform.perf;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Macro-benchmark settings, read from "macro.*" system properties (mvn -Dmacro.rate=100 ...)
+ *
+ * @param modules       functional modules the files are spread over
+ * @param users         registered users, owning the files in turn
+ * @param files         data files to seed
+ * @param rowsPerFile   generated rows of each file
+ * @param rate          mean arrival rate in requests per second (Poisson arrivals)
+ * @param warmup        run time before latencies are recorded
+ * @param duration      measured run time
+ * @param mix           weights of the workload operations
+ * @param seed          seed of the generated rows, the arrivals and the request choices
+ * @param baseline      baseline report to compare against
+ * @param report        where the report of this run is written
+ * @param tolerance     allowed regression against the baseline, in percent
+ * @param updateBaseline write this run as the new baseline instead of comparing
+ */
+record MacroBenchmarkSettings(int modules, int users, int files, int rowsPerFile, double rate,
+        Duration warmup, Duration duration, WorkloadMix mix, long seed, Path baseline,
+        Path report, double tolerance, boolean updateBaseline) {
+
+    static MacroBenchmarkSettings fromSystemProperties() {
+        return new MacroBenchmarkSettings(
+                Integer.getInteger("macro.modules", 10),
+                Integer.getInteger("macro.users", 20),
+                Integer.getInteger("macro.files", 200),
+                Integer.getInteger("macro.rows", 100),
+                Double.parseDouble(System.getProperty("macro.rate", "50")),
+                Duration.ofSeconds(Long.getLong("macro.warmup-seconds", 20)),
+                Duration.ofSeconds(Long.getLong("macro.duration-seconds", 60)),
+                WorkloadMix.parse(System.getProperty("macro.mix",
+                        "login=5,tree=15,query=30,get=40,update=10")),
+                Long.getLong("macro.seed", 42),
+                Path.of(System.getProperty("macro.baseline",
+                        "src/test/resources/perf/macro-baseline.json")),
+                Path.of(System.getProperty("macro.report", "target/macro-benchmark.json")),
+                Double.parseDouble(System.getProperty("macro.tolerance", "20")),
+                Boolean.getBoolean("macro.update-baseline"));
+    }
+}
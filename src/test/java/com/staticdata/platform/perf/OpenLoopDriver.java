@@ -0,0 +1,146 @@
+package com.staticdata.platform.perf;
+
+import com.staticdata.platform.dto.DataFileQueryRequest;
+import com.staticdata.platform.dto.LoginRequest;
+import com.staticdata.platform.dto.UpdateDataFileRequest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends the workload at Poisson arrivals of a fixed mean rate, whether or not earlier requests
+ * have completed (open loop), so a slow server builds up a queue instead of slowing the load
+ * down. Latency is measured from the time a request was scheduled to be sent, which includes
+ * any delay in sending it and avoids coordinated omission. Requests are handed to a pool of
+ * sender threads, as starting a request can block (e.g. while connecting) and would hold back
+ * the arrivals after it.
+ */
+final class OpenLoopDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final ApiClient client;
+    private final DataSeeder.SeededData data;
+    private final MacroBenchmarkSettings settings;
+
+    private final Map<WorkloadOperation, Histogram> latencies =
+            new EnumMap<>(WorkloadOperation.class);
+    private final Map<WorkloadOperation, LongAdder> errors =
+            new EnumMap<>(WorkloadOperation.class);
+
+    OpenLoopDriver(ApiClient client, DataSeeder.SeededData data,
+            MacroBenchmarkSettings settings) {
+        this.client = client;
+        this.data = data;
+        this.settings = settings;
+        for (WorkloadOperation operation : WorkloadOperation.values()) {
+            // Microseconds, auto-resizing, 3 significant digits
+            latencies.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    MacroBenchmarkReport run() throws InterruptedException, TimeoutException {
+        Random random = new Random(settings.seed());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        Phaser inFlight = new Phaser(1);
+        ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "macro-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            dispatch(random, start, measureFrom, end, inFlight, senders);
+            inFlight.awaitAdvanceInterruptibly(inFlight.arriveAndDeregister(),
+                    DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            senders.shutdownNow();
+        }
+        return MacroBenchmarkReport.of(settings, latencies, errors);
+    }
+
+    private void dispatch(Random random, long start, long measureFrom, long end,
+            Phaser inFlight, Executor senders) {
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long scheduled = start;
+        while (true) {
+            // Exponential gaps between arrivals make a Poisson process
+            scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            WorkloadOperation operation = settings.mix().pick(random);
+            boolean measured = scheduled >= measureFrom;
+            long intendedStart = scheduled;
+            // Random choices stay on this thread, sending happens on the pool
+            Supplier<CompletableFuture<HttpResponse<String>>> request =
+                    request(operation, random);
+            inFlight.register();
+            CompletableFuture.supplyAsync(request, senders)
+                    .thenCompose(Function.identity())
+                    .whenComplete((response, failure) -> {
+                        if (measured) {
+                            long latencyMicros = (System.nanoTime() - intendedStart) / 1_000;
+                            latencies.get(operation).recordValue(Math.max(latencyMicros, 1));
+                            if (failure != null || response.statusCode() >= 400) {
+                                errors.get(operation).increment();
+                            }
+                        }
+                        inFlight.arriveAndDeregister();
+                    });
+        }
+    }
+
+    private Supplier<CompletableFuture<HttpResponse<String>>> request(
+            WorkloadOperation operation, Random random) {
+        DataSeeder.SeededUser user = data.users().get(random.nextInt(data.users().size()));
+        DataSeeder.SeededFile file = data.files().get(random.nextInt(data.files().size()));
+        switch (operation) {
+            case LOGIN:
+                LoginRequest login = new LoginRequest().setUsername(user.username())
+                        .setPassword(DataSeeder.PASSWORD);
+                return () -> client.send("POST", "/auth/login", null, login);
+            case TREE:
+                return () -> client.send("GET", "/organization/tree", user.token(), null);
+            case QUERY:
+                DataFileQueryRequest query = new DataFileQueryRequest();
+                query.setOrganizationNodeId(
+                        data.modules().get(random.nextInt(data.modules().size())));
+                query.setSize(20);
+                return () -> client.send("POST", "/data-files/query", user.token(), query);
+            case GET:
+                return () -> client.send("GET", "/data-files/" + file.id(), user.token(),
+                        null);
+            case UPDATE:
+                UpdateDataFileRequest update = new UpdateDataFileRequest();
+                update.setDescription("Updated by the macro-benchmark " + random.nextInt(1_000));
+                String ownerToken = data.users().get(file.owner()).token();
+                return () -> client.send("PUT", "/data-files/" + file.id(), ownerToken, update);
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.staticdata.platform.perf;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of workload operations, parsed from e.g. "login=5,tree=15,query=30,get=40,update=10"
+ */
+final class WorkloadMix {
+
+    private final WorkloadOperation[] operations;
+    private final double[] cumulative;
+    private final Map<WorkloadOperation, Double> weights;
+
+    private WorkloadMix(Map<WorkloadOperation, Double> weights) {
+        this.weights = weights;
+        operations = weights.keySet().toArray(new WorkloadOperation[0]);
+        cumulative = new double[operations.length];
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]) / total;
+            cumulative[i] = sum;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException for unknown operations, negative weights or no weight
+     */
+    static WorkloadMix parse(String spec) {
+        Map<WorkloadOperation, Double> weights = new EnumMap<>(WorkloadOperation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid workload mix entry: " + part);
+            }
+            WorkloadOperation operation =
+                    WorkloadOperation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight of " + operation);
+            }
+            if (weight > 0) {
+                weights.put(operation, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Workload mix has no operations: " + spec);
+        }
+        return new WorkloadMix(weights);
+    }
+
+    WorkloadOperation pick(Random random) {
+        double value = random.nextDouble();
+        for (int i = 0; i < operations.length - 1; i++) {
+            if (value < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}
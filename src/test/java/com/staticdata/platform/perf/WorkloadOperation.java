@@ -0,0 +1,17 @@
+package com.staticdata.platform.perf;
+
+/**
+ * Requests of the macro-benchmark workload
+ */
+enum WorkloadOperation {
+    /** POST /auth/login */
+    LOGIN,
+    /** GET /organization/tree */
+    TREE,
+    /** POST /data-files/query, files of one module */
+    QUERY,
+    /** GET /data-files/{id} */
+    GET,
+    /** PUT /data-files/{id} by the owner, changing the description */
+    UPDATE
+}
@@ -0,0 +1,126 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowFilterOperator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bitmap index unit test
+ */
+class BitmapIndexTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+            column("status", DataFile.ColumnDefinition.DataType.STRING),
+            column("active", DataFile.ColumnDefinition.DataType.BOOLEAN),
+            column("email", DataFile.ColumnDefinition.DataType.STRING));
+
+    @Test
+    void filter_WithBitmaps_ShouldMatchScan() {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i);
+            if (i % 97 != 0) {
+                row.put("status", i % 1000 == 1 ? "BLOCKED" : i % 3 == 0 ? "ACTIVE" : "PENDING");
+            }
+            row.put("active", i % 501 == 0 ? "maybe" : i % 2 == 0);
+            row.put("email", "user" + i + "@example.com");
+            rows.add(row);
+        }
+        ColumnarTable.Builder builder = ColumnarTable.builder(COLUMNS, rows.size());
+        rows.forEach(builder::accept);
+        ColumnarTable table = builder.build();
+        BitmapIndex bitmaps = BitmapIndex.build(table, 8);
+
+        List<List<CellPredicate>> queries = List.of(
+                List.of(predicate("status", RowFilterOperator.EQ, "BLOCKED")),
+                List.of(predicate("status", RowFilterOperator.NE, "ACTIVE"),
+                        predicate("active", RowFilterOperator.EQ, true)),
+                List.of(in("status", "ACTIVE", "BLOCKED"),
+                        predicate("active", RowFilterOperator.NE, false)),
+                List.of(predicate("status", RowFilterOperator.IS_NULL, null),
+                        predicate("id", RowFilterOperator.LT, 5000)),
+                List.of(predicate("active", RowFilterOperator.NOT_NULL, null),
+                        predicate("status", RowFilterOperator.STARTS_WITH, "P")),
+                List.of(predicate("email", RowFilterOperator.CONTAINS, "99@")));
+
+        for (List<CellPredicate> query : queries) {
+            // When
+            int[] indexed = ColumnarScan.filter(table, query, bitmaps);
+
+            // Then
+            int[] expected = IntStream.range(0, rows.size())
+                    .filter(i -> query.stream()
+                            .allMatch(p -> p.test(rows.get(i).get(p.getColumn()))))
+                    .toArray();
+            assertArrayEquals(expected, indexed, query.toString());
+        }
+        assertTrue(bitmaps.covers(predicate("status", RowFilterOperator.EQ, "ACTIVE")));
+        assertFalse(bitmaps.covers(predicate("email", RowFilterOperator.EQ, "a")));
+    }
+
+    @Test
+    void rowBitmap_SparseAndDenseForms_ShouldCombine() {
+        // Given
+        int rowCount = 10_000;
+        RowBitmap sparse = RowBitmap.ofSorted(new int[] {3, 64, 65, 9_999}, 4, rowCount);
+        long[] words = new long[(rowCount + 63) / 64];
+        for (int row = 0; row < rowCount; row += 2) {
+            words[row >>> 6] |= 1L << row;
+        }
+        RowBitmap even = RowBitmap.ofWords(words, rowCount);
+
+        // When & Then
+        assertArrayEquals(new int[] {64}, sparse.and(even).toArray());
+        assertEquals(5_003, sparse.or(even).getCardinality());
+        assertEquals(5_000, even.not().getCardinality());
+        assertEquals(rowCount - 4, sparse.not().getCardinality());
+        assertTrue(even.not().contains(9_999));
+        assertEquals(rowCount, RowBitmap.all(rowCount).getCardinality());
+        assertArrayEquals(new int[] {3, 64, 65, 9_999},
+                sparse.or(RowBitmap.ofSorted(new int[] {64, 9_999}, 2, rowCount)).toArray());
+    }
+
+    private static CellPredicate predicate(String column, RowFilterOperator operator,
+            Object value) {
+        return CellPredicate.compile(filter(column, operator, value), type(column));
+    }
+
+    private static CellPredicate in(String column, Object... values) {
+        RowQueryRequest.RowFilter filter = filter(column, RowFilterOperator.IN, null);
+        filter.setValues(Arrays.asList(values));
+        return CellPredicate.compile(filter, type(column));
+    }
+
+    private static RowQueryRequest.RowFilter filter(String column, RowFilterOperator operator,
+            Object value) {
+        RowQueryRequest.RowFilter filter = new RowQueryRequest.RowFilter();
+        filter.setColumn(column);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        return filter;
+    }
+
+    private static DataFile.ColumnDefinition.DataType type(String column) {
+        return COLUMNS.stream().filter(c -> c.getName().equals(column)).findFirst()
+                .map(DataFile.ColumnDefinition::getDataType).orElse(null);
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
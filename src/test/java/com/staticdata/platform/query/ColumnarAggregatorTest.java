@@ -0,0 +1,183 @@
+package com.staticdata.platform.query;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.RowAggregateRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.AggregateFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columnar aggregator unit test
+ */
+class ColumnarAggregatorTest {
+
+    private static final DataFile.ColumnDefinition.DataType INTEGER =
+            DataFile.ColumnDefinition.DataType.INTEGER;
+    private static final DataFile.ColumnDefinition.DataType DECIMAL =
+            DataFile.ColumnDefinition.DataType.DECIMAL;
+    private static final DataFile.ColumnDefinition.DataType DATE =
+            DataFile.ColumnDefinition.DataType.DATE;
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", INTEGER),
+            column("price", DECIMAL),
+            column("active", DataFile.ColumnDefinition.DataType.BOOLEAN),
+            column("city", DataFile.ColumnDefinition.DataType.STRING),
+            column("since", DATE));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void aggregate_ShouldGroupTypedAndExceptionalCells() throws Exception {
+        // Given
+        ColumnarTable table = build(objectMapper.readValue("""
+                [{"id": 1, "price": 2.5, "active": true, "city": "Oslo", "since": "2024-03-01"},
+                 {"id": 2, "price": 4, "active": false, "city": "Bern", "since": "2024-01-15"},
+                 {"id": 3, "price": "n/a", "active": true, "city": "Oslo", "since": "later"},
+                 {"id": 9223372036854775807, "price": 1.5, "city": 42, "note": 42.0},
+                 {"id": 5, "active": true, "city": "Oslo", "since": "2023-12-31", "note": 42}]
+                """, new TypeReference<>() {}));
+        List<ColumnarAggregator.Aggregate> aggregates = List.of(
+                aggregate(AggregateFunction.COUNT, null, null),
+                aggregate(AggregateFunction.COUNT, "price", DECIMAL),
+                aggregate(AggregateFunction.SUM, "id", INTEGER),
+                aggregate(AggregateFunction.AVG, "price", DECIMAL),
+                aggregate(AggregateFunction.MIN, "since", DATE),
+                aggregate(AggregateFunction.MAX, "since", DATE));
+
+        // When
+        List<ColumnarAggregator.Group> groups = ColumnarAggregator.aggregate(table,
+                IntStream.range(0, 5).toArray(), List.of("city"), aggregates);
+
+        // Then
+        assertEquals(3, groups.size());
+        assertGroup(groups.get(0), List.of("Bern"), 1L, 1L, 2L, 4.0, "2024-01-15", "2024-01-15");
+        assertGroup(groups.get(1), List.of("Oslo"), 3L, 2L, 9L, 2.5, "2023-12-31", "later");
+        assertEquals(42, groups.get(2).key()[0]);
+        assertEquals(9223372036854775807L, groups.get(2).values()[2]);
+        assertNull(groups.get(2).values()[4]);
+    }
+
+    @Test
+    void aggregate_ShouldGroupByCanonicalValues() throws Exception {
+        // Given
+        ColumnarTable table = build(objectMapper.readValue("""
+                [{"id": 1, "note": 42, "active": true},
+                 {"id": 2, "note": 42.0, "active": true},
+                 {"id": 3, "note": "42", "active": false},
+                 {"id": 4, "active": false},
+                 {"id": 9223372036854775807, "note": "42"}]
+                """, new TypeReference<>() {}));
+        List<ColumnarAggregator.Aggregate> aggregates = List.of(
+                aggregate(AggregateFunction.SUM, "id", INTEGER),
+                aggregate(AggregateFunction.MAX, "note", null));
+
+        // When
+        List<ColumnarAggregator.Group> groups = ColumnarAggregator.aggregate(table,
+                IntStream.range(0, 5).toArray(), List.of("note", "active"), aggregates);
+
+        // Then
+        // Numbers and text compare as text in an untyped column, so the notes sort as equal
+        assertEquals(4, groups.size());
+        assertArrayEquals(new Object[] {"42", false}, groups.get(0).key());
+        assertArrayEquals(new Object[] {42, true}, groups.get(1).key());
+        assertEquals(3L, groups.get(1).values()[0]);
+        assertArrayEquals(new Object[] {"42", null}, groups.get(2).key());
+        assertEquals(9223372036854775807L, groups.get(2).values()[0]);
+        assertArrayEquals(new Object[] {null, false}, groups.get(3).key());
+        assertNull(groups.get(3).values()[1]);
+    }
+
+    @Test
+    void aggregate_LongSelection_ShouldMergeParallelPartials() {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        int rowCount = ColumnarAggregator.PARALLEL_THRESHOLD * 2 + 17;
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i);
+            row.put("price", i % 4 == 0 ? null : i / 4.0);
+            row.put("city", List.of("Oslo", "Zürich", "Bern").get(i % 3));
+            rows.add(row);
+        }
+        ColumnarTable table = build(rows);
+        int[] selected = IntStream.range(0, rowCount).filter(i -> i % 2 == 1).toArray();
+
+        // When
+        List<ColumnarAggregator.Group> groups = ColumnarAggregator.aggregate(table, selected,
+                List.of("city"), List.of(
+                        aggregate(AggregateFunction.COUNT, null, null),
+                        aggregate(AggregateFunction.SUM, "id", INTEGER),
+                        aggregate(AggregateFunction.MIN, "price", DECIMAL)));
+
+        // Then
+        assertEquals(List.of("Bern", "Oslo", "Zürich"),
+                groups.stream().map(g -> g.key()[0]).toList());
+        for (ColumnarAggregator.Group group : groups) {
+            int remainder = List.of("Oslo", "Zürich", "Bern").indexOf(group.key()[0]);
+            int[] ids = IntStream.of(selected).filter(i -> i % 3 == remainder).toArray();
+            assertEquals((long) ids.length, group.values()[0]);
+            assertEquals(IntStream.of(ids).asLongStream().sum(), group.values()[1]);
+            assertEquals(ids[0] / 4.0, group.values()[2]);
+        }
+    }
+
+    @Test
+    void aggregate_NoGroupColumns_ShouldReturnOneGroup() {
+        // Given
+        ColumnarTable table = build(List.of(Map.of("id", 1)));
+
+        // When
+        List<ColumnarAggregator.Group> groups = ColumnarAggregator.aggregate(table, new int[0],
+                List.of(), List.of(aggregate(AggregateFunction.COUNT, null, null),
+                        aggregate(AggregateFunction.SUM, "id", INTEGER)));
+
+        // Then
+        assertEquals(1, groups.size());
+        assertArrayEquals(new Object[] {0L, null}, groups.get(0).values());
+    }
+
+    @Test
+    void of_SumOfTextColumn_ShouldFail() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> aggregate(AggregateFunction.SUM,
+                "city", DataFile.ColumnDefinition.DataType.STRING));
+        assertThrows(IllegalArgumentException.class,
+                () -> aggregate(AggregateFunction.MIN, null, null));
+    }
+
+    private static void assertGroup(ColumnarAggregator.Group group, List<Object> key,
+            Object... values) {
+        assertEquals(key, List.of(group.key()));
+        assertArrayEquals(values, group.values());
+    }
+
+    private static ColumnarAggregator.Aggregate aggregate(AggregateFunction function,
+            String column, DataFile.ColumnDefinition.DataType type) {
+        RowAggregateRequest.RowAggregate aggregate = new RowAggregateRequest.RowAggregate();
+        aggregate.setFunction(function);
+        aggregate.setColumn(column);
+        return ColumnarAggregator.Aggregate.of(aggregate, type);
+    }
+
+    private static ColumnarTable build(List<Map<String, Object>> rows) {
+        ColumnarTable.Builder builder = ColumnarTable.builder(COLUMNS, rows.size());
+        rows.forEach(builder::accept);
+        return builder.build();
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
@@ -0,0 +1,164 @@
+package com.staticdata.platform.query;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.columnar.ColumnarSnapshot;
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowFilterOperator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columnar scan unit test
+ */
+class ColumnarScanTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+            column("price", DataFile.ColumnDefinition.DataType.DECIMAL),
+            column("active", DataFile.ColumnDefinition.DataType.BOOLEAN),
+            column("city", DataFile.ColumnDefinition.DataType.STRING),
+            column("since", DataFile.ColumnDefinition.DataType.DATE));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void filterAndSort_ShouldMatchRowMapEvaluation() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = objectMapper.readValue("""
+                [{"id": "7", "price": 0.1, "city": 42, "since": "yesterday", "note": 3},
+                 {"price": 2.5, "active": "yes", "since": "2024-1-5", "note": "b"}]
+                """, new TypeReference<>() {});
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i % 40);
+            row.put("price", i % 7 == 0 ? i : i / 8.0);
+            row.put("active", i % 3 == 0);
+            row.put("city", List.of("Oslo", "Zürich", "Bern", "Ålesund").get(i % 4));
+            row.put("since", String.format("2024-%02d-%02d", i % 12 + 1, i % 28 + 1));
+            if (i % 5 == 0) {
+                row.put("note", i % 2 == 0 ? i : "n" + i);
+            }
+            rows.add(row);
+        }
+        ColumnarTable.Builder builder = ColumnarTable.builder(COLUMNS, rows.size());
+        rows.forEach(builder::accept);
+        ColumnarTable table = builder.build();
+        Path file = tempDir.resolve("rows.sdpc");
+        ColumnarSnapshot.write(table, file, objectMapper);
+        ColumnarSnapshot snapshot = ColumnarSnapshot.open(file);
+
+        List<List<RowQueryRequest.RowFilter>> filterSets = List.of(
+                List.of(filter("id", RowFilterOperator.GTE, 10),
+                        filter("id", RowFilterOperator.LT, "30")),
+                List.of(filter("price", RowFilterOperator.GT, 0.1)),
+                List.of(filter("price", RowFilterOperator.LTE, "7")),
+                List.of(filter("active", RowFilterOperator.EQ, true)),
+                List.of(filter("city", RowFilterOperator.STARTS_WITH, "Z")),
+                List.of(filter("city", RowFilterOperator.NE, "Oslo")),
+                List.of(filter("since", RowFilterOperator.GT, "2024-06-15")),
+                List.of(filter("since", RowFilterOperator.LT, "2024-1-6")),
+                List.of(filter("note", RowFilterOperator.GT, 100)),
+                List.of(filter("active", RowFilterOperator.IS_NULL, null)),
+                List.of(in("city", "Bern", "Oslo"), in("id", 1, "2", 3.0)));
+        List<List<RowQueryRequest.RowSort>> sorts = List.of(
+                List.of(),
+                List.of(sort("city", Sort.Direction.ASC), sort("price", Sort.Direction.DESC)),
+                List.of(sort("since", Sort.Direction.DESC), sort("id", Sort.Direction.ASC)),
+                List.of(sort("note", Sort.Direction.ASC), sort("active", Sort.Direction.DESC)));
+
+        for (List<RowQueryRequest.RowFilter> filters : filterSets) {
+            for (List<RowQueryRequest.RowSort> sort : sorts) {
+                List<CellPredicate> predicates = filters.stream()
+                        .map(f -> CellPredicate.compile(f, type(f.getColumn()))).toList();
+                List<SortKey> keys = sort.stream().map(s -> SortKey.of(s, type(s.getColumn())))
+                        .toList();
+
+                // When
+                int[] expected = expected(rows, predicates, keys);
+                int[] fromTable = scan(table, predicates, keys);
+                int[] fromSnapshot = scan(snapshot, predicates, keys);
+
+                // Then
+                String query = filters + " " + sort;
+                assertArrayEquals(expected, fromTable, query);
+                assertArrayEquals(expected, fromSnapshot, query);
+            }
+        }
+    }
+
+    @Test
+    void compile_TextMatchOnNumberColumn_ShouldFail() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> CellPredicate.compile(
+                filter("id", RowFilterOperator.CONTAINS, "1"), type("id")));
+        assertThrows(IllegalArgumentException.class, () -> CellPredicate.compile(
+                filter("id", RowFilterOperator.EQ, "one"), type("id")));
+    }
+
+    private static int[] scan(ColumnarRows rows, List<CellPredicate> predicates,
+            List<SortKey> keys) {
+        int[] matched = ColumnarScan.filter(rows, predicates);
+        ColumnarScan.sort(rows, matched, keys);
+        return matched;
+    }
+
+    private static int[] expected(List<Map<String, Object>> rows, List<CellPredicate> predicates,
+            List<SortKey> keys) {
+        List<Integer> matched = new ArrayList<>(IntStream.range(0, rows.size())
+                .filter(i -> predicates.stream()
+                        .allMatch(p -> p.test(rows.get(i).get(p.getColumn()))))
+                .boxed().toList());
+        matched.sort((a, b) -> SortKey.rowComparator(keys).compare(rows.get(a), rows.get(b)));
+        return matched.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static DataFile.ColumnDefinition.DataType type(String column) {
+        return COLUMNS.stream().filter(c -> c.getName().equals(column)).findFirst()
+                .map(DataFile.ColumnDefinition::getDataType).orElse(null);
+    }
+
+    private static RowQueryRequest.RowFilter filter(String column, RowFilterOperator operator,
+            Object value) {
+        RowQueryRequest.RowFilter filter = new RowQueryRequest.RowFilter();
+        filter.setColumn(column);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        return filter;
+    }
+
+    private static RowQueryRequest.RowFilter in(String column, Object... values) {
+        RowQueryRequest.RowFilter filter = filter(column, RowFilterOperator.IN, null);
+        filter.setValues(Arrays.asList(values));
+        return filter;
+    }
+
+    private static RowQueryRequest.RowSort sort(String column, Sort.Direction direction) {
+        RowQueryRequest.RowSort sort = new RowQueryRequest.RowSort();
+        sort.setColumn(column);
+        sort.setDirection(direction);
+        return sort;
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
@@ -0,0 +1,77 @@
+package com.staticdata.platform.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * External row sorter unit test
+ */
+class ExternalRowSorterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void forEachSorted_SpilledRuns_ShouldMergeStably() throws Exception {
+        // Given
+        RowQueryRequest.RowSort sort = new RowQueryRequest.RowSort();
+        sort.setColumn("group");
+        Comparator<Map<String, Object>> comparator = SortKey.rowComparator(
+                List.of(SortKey.of(sort, DataFile.ColumnDefinition.DataType.INTEGER)));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(i % 10 == 0 ? Map.of("seq", i) : Map.of("group", (i * 37) % 13, "seq", i));
+        }
+        List<Map<String, Object>> sorted = new ArrayList<>();
+
+        // When
+        try (ExternalRowSorter sorter = new ExternalRowSorter(comparator, 64, tempDir,
+                new ObjectMapper())) {
+            rows.forEach(sorter::accept);
+            assertEquals(15, sorter.getSpilledRuns());
+            sorter.forEachSorted(sorted::add);
+        }
+
+        // Then
+        List<Map<String, Object>> expected = new ArrayList<>(rows);
+        expected.sort(comparator);
+        assertEquals(expected, sorted);
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void forEachSorted_VisitorStops_ShouldReturnFirstRows() throws Exception {
+        // Given
+        List<Map<String, Object>> firstRows = new ArrayList<>();
+
+        // When
+        try (ExternalRowSorter sorter = new ExternalRowSorter(
+                Comparator.comparing(row -> (Integer) row.get("n")), 3, tempDir,
+                new ObjectMapper())) {
+            for (int n : new int[] {5, 1, 4, 2, 3, 0}) {
+                sorter.accept(Map.of("n", n));
+            }
+            sorter.forEachSorted(row -> {
+                firstRows.add(row);
+                return firstRows.size() < 2;
+            });
+        }
+
+        // Then
+        assertEquals(List.of(Map.of("n", 0), Map.of("n", 1)), firstRows);
+    }
+}
@@ -0,0 +1,104 @@
+package com.staticdata.platform.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hash join unit test
+ */
+class HashJoinTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void probe_ShouldMatchCanonicalKeysInProbeOrder() throws IOException {
+        // Given
+        List<Map<String, Object>> customers = List.of(
+                Map.of("id", 1, "name", "Ada"),
+                Map.of("id", "2", "name", "Bob"),
+                Map.of("name", "Nobody"));
+        List<Map<String, Object>> orders = List.of(
+                Map.of("order", "a", "customerId", 2),
+                Map.of("order", "b", "customerId", 3),
+                Map.of("order", "c", "customerId", 1.0),
+                Map.of("order", "d"),
+                Map.of("order", "e", "customerId", "2"));
+
+        // When
+        List<String> inner = join(customers, orders, false, false, 100);
+        List<String> left = join(customers, orders, false, true, 100);
+
+        // Then
+        assertEquals(List.of("Bob-a", "Ada-c", "Bob-e"), inner);
+        assertEquals(List.of("Bob-a", "null-b", "Ada-c", "null-d", "Bob-e"), left);
+        assertEquals(List.of("Bob-a", "Ada-c", "Bob-e", "Nobody-null"),
+                join(customers, orders, true, false, 100));
+    }
+
+    @Test
+    void probe_BuildSideOverBuffer_ShouldJoinPartitionsLikeInMemory() throws IOException {
+        // Given
+        List<Map<String, Object>> customers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i % 700);
+            row.put("name", "c" + i);
+            customers.add(row);
+        }
+        customers.add(Map.of("name", "Nobody"));
+        List<Map<String, Object>> orders = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("order", "o" + i);
+            if (i % 11 != 0) {
+                row.put("customerId", String.valueOf(i % 900));
+            }
+            orders.add(row);
+        }
+
+        // When
+        List<String> inMemory = join(customers, orders, true, true, 5000);
+        List<String> spilled = join(customers, orders, true, true, 64);
+
+        // Then
+        assertEquals(inMemory.size(), spilled.size());
+        assertEquals(inMemory.stream().sorted().toList(), spilled.stream().sorted().toList());
+        assertTrue(inMemory.contains("Nobody-null"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * Join customers (build side) with orders (probe side) as "name-order" strings
+     */
+    private List<String> join(List<Map<String, Object>> customers,
+            List<Map<String, Object>> orders, boolean keepCustomers, boolean keepOrders,
+            int bufferRows) throws IOException {
+        List<String> joined = new ArrayList<>();
+        try (HashJoin join = new HashJoin("id", "customerId", keepCustomers, keepOrders,
+                bufferRows, customers.size(), tempDir, objectMapper)) {
+            customers.forEach(join.buildSink()::accept);
+            join.probe(sink -> orders.forEach(sink::accept), (customer, order) -> joined.add(
+                    (customer != null ? customer.get("name") : null) + "-"
+                            + (order != null ? order.get("order") : null)));
+            assertEquals(bufferRows < customers.size(), join.isSpilled());
+        }
+        return joined;
+    }
+}
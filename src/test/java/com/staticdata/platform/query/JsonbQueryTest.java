@@ -0,0 +1,69 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowFilterOperator;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jsonb query unit test
+ */
+class JsonbQueryTest {
+
+    @Test
+    void build_ShouldBindColumnsAndValues() {
+        // Given
+        List<CellPredicate> predicates = List.of(
+                predicate("age", DataFile.ColumnDefinition.DataType.INTEGER, RowFilterOperator.GTE,
+                        18),
+                predicate("name", DataFile.ColumnDefinition.DataType.STRING,
+                        RowFilterOperator.CONTAINS, "an"),
+                predicate("tags", DataFile.ColumnDefinition.DataType.JSON,
+                        RowFilterOperator.NOT_NULL, null));
+        RowQueryRequest.RowSort sort = new RowQueryRequest.RowSort();
+        sort.setColumn("name");
+        sort.setDirection(Sort.Direction.DESC);
+        List<SortKey> keys = List.of(SortKey.of(sort, DataFile.ColumnDefinition.DataType.STRING));
+
+        // When
+        JsonbQuery query = JsonbQuery.build(predicates, keys);
+
+        // Then
+        assertTrue(JsonbQuery.supports(predicates, keys));
+        assertEquals("(CASE WHEN jsonb_typeof(r -> ?) = 'number' THEN (r ->> ?)::numeric END)"
+                + " >= ? AND strpos((CASE WHEN jsonb_typeof(r -> ?) = 'string' THEN r ->> ? END)"
+                + " COLLATE \"C\", ?) > 0"
+                + " AND NOT (r -> ? IS NULL OR jsonb_typeof(r -> ?) = 'null')",
+                query.getCondition());
+        assertEquals(List.of("age", "age", new BigDecimal("18"), "name", "name", "an", "tags",
+                "tags"), query.getConditionArgs());
+        assertEquals("(CASE WHEN jsonb_typeof(r -> ?) = 'string' THEN r ->> ? END) COLLATE \"C\""
+                + " DESC", query.getOrderBy());
+        assertEquals(List.of("name", "name"), query.getOrderArgs());
+    }
+
+    @Test
+    void supports_ComparisonOnJsonColumn_ShouldBeFalse() {
+        // Given
+        List<CellPredicate> predicates = List.of(predicate("extra", null, RowFilterOperator.EQ, 1));
+
+        // When & Then
+        assertFalse(JsonbQuery.supports(predicates, List.of()));
+        assertEquals("TRUE", JsonbQuery.build(List.of(), List.of()).getCondition());
+    }
+
+    private static CellPredicate predicate(String column, DataFile.ColumnDefinition.DataType type,
+            RowFilterOperator operator, Object value) {
+        RowQueryRequest.RowFilter filter = new RowQueryRequest.RowFilter();
+        filter.setColumn(column);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        return CellPredicate.compile(filter, type);
+    }
+}
@@ -0,0 +1,79 @@
+package com.staticdata.platform.query;
+
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowFilterOperator;
+import com.staticdata.platform.ingest.ColumnStatsCollector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Selectivity unit test
+ */
+class SelectivityTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            new DataFile.ColumnDefinition().setName("age")
+                    .setDataType(DataFile.ColumnDefinition.DataType.INTEGER),
+            new DataFile.ColumnDefinition().setName("region")
+                    .setDataType(DataFile.ColumnDefinition.DataType.STRING));
+
+    @Test
+    void matchesNothing_ValueOutsideRange_ShouldBeTrue() {
+        // Given
+        List<DataFile.ColumnStats> stats = stats();
+
+        // When & Then
+        assertTrue(Selectivity.matchesNothing(
+                List.of(predicate("age", RowFilterOperator.GT, 80)), stats, 1000));
+        assertTrue(Selectivity.matchesNothing(
+                List.of(predicate("region", RowFilterOperator.EQ, "APAC")), stats, 1000));
+        assertTrue(Selectivity.matchesNothing(
+                List.of(predicate("age", RowFilterOperator.IS_NULL, null)), stats, 1000));
+        assertFalse(Selectivity.matchesNothing(
+                List.of(predicate("age", RowFilterOperator.GTE, 79)), stats, 1000));
+        assertFalse(Selectivity.matchesNothing(
+                List.of(predicate("region", RowFilterOperator.NE, "EU")), stats, 1000));
+        // Statistics of another row count are stale
+        assertFalse(Selectivity.matchesNothing(
+                List.of(predicate("age", RowFilterOperator.GT, 80)), stats, 1001));
+    }
+
+    @Test
+    void order_ShouldRunMostSelectiveFirst() {
+        // Given
+        CellPredicate adults = predicate("age", RowFilterOperator.GTE, 18);
+        CellPredicate europe = predicate("region", RowFilterOperator.EQ, "EU");
+        CellPredicate us = predicate("region", RowFilterOperator.EQ, "US");
+
+        // When
+        List<CellPredicate> ordered = Selectivity.order(List.of(adults, europe, us), stats(),
+                1000);
+
+        // Then
+        assertEquals(List.of(us, adults, europe), ordered);
+    }
+
+    private static List<DataFile.ColumnStats> stats() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(Map.of("age", i % 80, "region", i % 20 == 0 ? "US" : "EU"));
+        }
+        return ColumnStatsCollector.of(rows, COLUMNS);
+    }
+
+    private static CellPredicate predicate(String column, RowFilterOperator operator,
+            Object value) {
+        RowQueryRequest.RowFilter filter = new RowQueryRequest.RowFilter();
+        filter.setColumn(column);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        return CellPredicate.compile(filter, COLUMNS.stream()
+                .filter(c -> c.getName().equals(column)).findFirst().orElseThrow().getDataType());
+    }
+}
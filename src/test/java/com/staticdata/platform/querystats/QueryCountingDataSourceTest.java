@@ -0,0 +1,131 @@
+package com.staticdata.platform.querystats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * QueryCountingDataSource unit test
+ */
+class QueryCountingDataSourceTest {
+
+    private static final String SELECT_NODE = "select * from organization_nodes where id=?";
+    private static final String INSERT_ROW = "insert into data_file_rows values (?, ?)";
+
+    @AfterEach
+    void tearDown() {
+        QueryStatsContext.stop();
+    }
+
+    @Test
+    void countsStatementsRowsAndRepeatedStatements() throws SQLException {
+        // Given
+        Connection connection = mock(Connection.class);
+        PreparedStatement select = mock(PreparedStatement.class);
+        PreparedStatement insert = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(SELECT_NODE)).thenReturn(select);
+        when(connection.prepareStatement(INSERT_ROW)).thenReturn(insert);
+        when(select.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false, true, false, true, false);
+        when(insert.executeBatch()).thenReturn(new int[] {1, 1, Integer.MIN_VALUE});
+        DataSource dataSource = new QueryCountingDataSource(dataSource(connection));
+
+        // When
+        QueryStats stats = QueryStatsContext.measure(() -> {
+            try (Connection counted = dataSource.getConnection()) {
+                for (int i = 0; i < 3; i++) {
+                    try (PreparedStatement statement = counted.prepareStatement(SELECT_NODE);
+                            ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            // read the node
+                        }
+                    }
+                }
+                counted.prepareStatement(INSERT_ROW).executeBatch();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Then
+        assertEquals(4, stats.getStatements());
+        assertEquals(5, stats.getRows());
+        assertEquals(Map.of(SELECT_NODE, 3), stats.getRepeatedStatements(2));
+        assertTrue(stats.getRepeatedStatements(4).isEmpty());
+    }
+
+    @Test
+    void leavesStatementsAloneWhenNotCounting() throws SQLException {
+        // Given
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(SELECT_NODE)).thenReturn(statement);
+        DataSource dataSource = new QueryCountingDataSource(dataSource(connection));
+
+        // When
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(SELECT_NODE);
+
+        // Then
+        assertSame(statement, prepared);
+    }
+
+    @Test
+    void resultSetsDelegateCellReadsAndUnwrapToTheCountingWrapper() throws SQLException {
+        // Given
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(SELECT_NODE)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getObject(1)).thenReturn("Finance");
+        DataSource dataSource = new QueryCountingDataSource(dataSource(connection));
+        QueryStatsContext.start();
+
+        // When
+        ResultSet counted = dataSource.getConnection().prepareStatement(SELECT_NODE)
+                .executeQuery();
+
+        // Then
+        assertEquals("Finance", counted.getObject(1));
+        assertSame(counted, counted.unwrap(ResultSet.class));
+        assertTrue(counted.isWrapperFor(ResultSet.class));
+    }
+
+    @Test
+    void rethrowsDriverExceptions() throws SQLException {
+        // Given
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(SELECT_NODE)).thenReturn(statement);
+        when(statement.executeQuery()).thenThrow(new SQLException("relation does not exist"));
+        DataSource dataSource = new QueryCountingDataSource(dataSource(connection));
+        QueryStatsContext.start();
+
+        // When
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(SELECT_NODE);
+
+        // Then
+        SQLException e = assertThrows(SQLException.class, prepared::executeQuery);
+        assertEquals("relation does not exist", e.getMessage());
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
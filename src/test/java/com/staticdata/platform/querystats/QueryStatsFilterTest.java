@@ -0,0 +1,116 @@
+package com.staticdata.platform.querystats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * QueryStatsFilter unit test, including a per-endpoint query budget
+ */
+class QueryStatsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false, true, false, true, false);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        meterRegistry = new SimpleMeterRegistry();
+        QueryStatsFilter filter = new QueryStatsFilter(meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "headers", true);
+        ReflectionTestUtils.setField(filter, "warnStatements", 50);
+        ReflectionTestUtils.setField(filter, "warnTimeMs", 500L);
+        ReflectionTestUtils.setField(filter, "warnRepeated", 10);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new NodeController(
+                        new JdbcTemplate(new QueryCountingDataSource(target))))
+                .addFilters(filter)
+                .build();
+    }
+
+    @Test
+    void endpointStaysWithinItsQueryBudget() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/nodes/{id}/path", 3))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryStatsFilter.STATEMENTS_HEADER, "3"))
+                .andExpect(header().string(QueryStatsFilter.ROWS_HEADER, "3"))
+                .andReturn();
+
+        // Then
+        QueryStats stats = (QueryStats) result.getRequest()
+                .getAttribute(QueryStatsFilter.STATS_ATTRIBUTE);
+        assertTrue(stats.getStatements() <= 3, "Query budget exceeded: " + stats);
+        assertEquals(3, stats.getRepeatedStatements(3).values().iterator().next());
+        assertEquals(3.0, meterRegistry.get("sql.request.statements")
+                .tag("uri", "/nodes/{id}/path").summary().totalAmount());
+    }
+
+    @Test
+    void unmatchedPathsShareOneRoute() throws Exception {
+        // When
+        mockMvc.perform(get("/wp-login.php")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/foo/bar.env")).andExpect(status().isNotFound());
+
+        // Then
+        assertEquals(2L, meterRegistry.get("sql.request.statements")
+                .tag("uri", "NOT_FOUND").summary().count());
+        assertEquals(1, meterRegistry.find("sql.request.statements").summaries().size());
+    }
+
+    /**
+     * Loads one node per level, the shape of an N+1 pattern
+     */
+    @RestController
+    static class NodeController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        NodeController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/nodes/{id}/path")
+        List<Integer> path(@PathVariable int id) {
+            for (int level = 0; level < id; level++) {
+                jdbcTemplate.query("select name from organization_nodes where id = ?",
+                        (RowCallbackHandler) rs -> { }, level);
+            }
+            return List.of(id);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.enums.UsageResolution;
+import com.staticdata.platform.repository.ApiUsageSketchStore;
+import com.staticdata.platform.usage.UsageSketch;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * API usage analytics service unit test
+ */
+class ApiUsageAnalyticsServiceTest {
+
+    private static final long MINUTE = UsageResolution.MINUTE.getMillis();
+    private static final long HOUR = UsageResolution.HOUR.getMillis();
+    private static final long DAY = UsageResolution.DAY.getMillis();
+
+    private InMemorySketchStore store;
+    private ApiUsageAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any()))
+                .thenReturn(true);
+        store = new InMemorySketchStore();
+        analyticsService = new ApiUsageAnalyticsService(store, jdbcTemplate,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(analyticsService, "minuteRetentionDays", 7);
+        ReflectionTestUtils.setField(analyticsService, "hourRetentionDays", 90);
+    }
+
+    @Test
+    void rollUp_LateMinuteSketches_ShouldBeRolledIntoTheirHourAndDay() {
+        // Given
+        long day = 1000 * DAY;
+        store.insertSketches(UsageResolution.MINUTE, List.of(
+                sketch(day + 5 * HOUR + 10 * MINUTE, 3), sketch(day + 7 * HOUR, 2)));
+        analyticsService.rollUp(day + DAY + 3 * HOUR);
+        assertEquals(5, total(UsageResolution.DAY));
+
+        // When
+        store.insertSketches(UsageResolution.MINUTE, List.of(
+                sketch(day + 5 * HOUR + 59 * MINUTE, 4), sketch(day + 6 * HOUR, 1)));
+        analyticsService.rollUp(day + DAY + 3 * HOUR + MINUTE);
+
+        // Then
+        assertEquals(10, total(UsageResolution.HOUR));
+        assertEquals(Map.of(day + 5 * HOUR, 7L, day + 6 * HOUR, 1L, day + 7 * HOUR, 2L),
+                store.sumRequestCounts(UsageResolution.HOUR, day, day + DAY));
+        assertEquals(10, total(UsageResolution.DAY));
+        assertEquals(1, store.findSketches(UsageResolution.DAY, day, day + DAY, null, null)
+                .size());
+    }
+
+    private long total(UsageResolution resolution) {
+        return store.findSketches(resolution, 0, Long.MAX_VALUE, null, null).stream()
+                .mapToLong(UsageSketch::getRequestCount).sum();
+    }
+
+    private static UsageSketch sketch(long bucketStart, long requests) {
+        Histogram latency = UsageSketch.newHistogram();
+        latency.recordValueWithCount(1_000, requests);
+        return new UsageSketch(bucketStart, "/organization/tree", "GET", requests, 0, 0,
+                latency);
+    }
+
+    /**
+     * Sketch store keeping the sketches in a list
+     */
+    private static final class InMemorySketchStore extends ApiUsageSketchStore {
+
+        private final Map<UsageResolution, List<UsageSketch>> sketches = new HashMap<>();
+
+        InMemorySketchStore() {
+            super(null);
+        }
+
+        private List<UsageSketch> of(UsageResolution resolution) {
+            return sketches.computeIfAbsent(resolution, r -> new ArrayList<>());
+        }
+
+        @Override
+        public void insertSketches(UsageResolution resolution, List<UsageSketch> inserted) {
+            of(resolution).addAll(inserted);
+        }
+
+        @Override
+        public List<UsageSketch> findSketches(UsageResolution resolution, long from, long to,
+                String path, String method) {
+            return of(resolution).stream()
+                    .filter(s -> s.getBucketStart() >= from && s.getBucketStart() < to).toList();
+        }
+
+        @Override
+        public Long findLastBucket(UsageResolution resolution) {
+            return of(resolution).stream().map(UsageSketch::getBucketStart)
+                    .max(Long::compare).orElse(null);
+        }
+
+        @Override
+        public Long findFirstBucketFrom(UsageResolution resolution, long from) {
+            return of(resolution).stream().map(UsageSketch::getBucketStart)
+                    .filter(bucket -> bucket >= from).min(Long::compare).orElse(null);
+        }
+
+        @Override
+        public Map<Long, Long> sumRequestCounts(UsageResolution resolution, long from, long to) {
+            Map<Long, Long> counts = new HashMap<>();
+            findSketches(resolution, from, to, null, null).forEach(s ->
+                    counts.merge(s.getBucketStart(), s.getRequestCount(), Long::sum));
+            return counts;
+        }
+
+        @Override
+        public int deleteBuckets(UsageResolution resolution, long from, long to) {
+            int before = of(resolution).size();
+            of(resolution).removeIf(s -> s.getBucketStart() >= from && s.getBucketStart() < to);
+            return before - of(resolution).size();
+        }
+
+        @Override
+        public int deleteBefore(UsageResolution resolution, long before) {
+            return deleteBuckets(resolution, Long.MIN_VALUE, before);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.staticdata.platform.dto.ChunkedUploadDto;
+import com.staticdata.platform.dto.ChunkedUploadInitRequest;
+import com.staticdata.platform.dto.DataFileImportResult;
+import com.staticdata.platform.enums.ImportFormat;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.util.DataFileHashUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Chunked upload service unit test
+ */
+class ChunkedUploadServiceTest {
+
+    private static final byte[] CONTENT =
+            "id,name\n1,alpha\n2,beta\n3,gamma\n".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private DataFileImportService importService;
+    private ChunkedUploadService uploadService;
+    private Path assembledCopy;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        importService = mock(DataFileImportService.class);
+        uploadService = new ChunkedUploadService(importService,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(uploadService, "stagingDir", tempDir.toString());
+        ReflectionTestUtils.setField(uploadService, "maxFileSizeMb", 10L);
+        ReflectionTestUtils.setField(uploadService, "maxChunkSizeMb", 1);
+        ReflectionTestUtils.setField(uploadService, "sessionTtlHours", 24L);
+        uploadService.start();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("alice", null));
+        assembledCopy = tempDir.resolve("copy.csv");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void upload_ShouldAssembleChunksSentOutOfOrder() throws Exception {
+        // Given
+        when(importService.importFile(any(), eq(ImportFormat.CSV), eq("users.csv"), any()))
+                .thenAnswer(invocation -> {
+                    Files.copy((Path) invocation.getArgument(0), assembledCopy);
+                    return List.of(DataFileImportResult.builder().success(true).rowCount(3).build());
+                });
+        ChunkedUploadDto upload = uploadService.init(initRequest(10));
+
+        // When
+        put(upload.getUploadId(), 3);
+        put(upload.getUploadId(), 0);
+        put(upload.getUploadId(), 2);
+        ChunkedUploadDto state = put(upload.getUploadId(), 1);
+        List<DataFileImportResult> results = uploadService.complete(upload.getUploadId());
+
+        // Then
+        assertEquals(4, upload.getChunkCount());
+        assertEquals(List.of(0, 1, 2, 3), state.getReceivedChunks());
+        assertEquals((long) CONTENT.length, state.getReceivedBytes());
+        assertTrue(results.get(0).getSuccess());
+        assertArrayEquals(CONTENT, Files.readAllBytes(assembledCopy));
+        assertFalse(Files.exists(tempDir.resolve(upload.getUploadId())));
+    }
+
+    @Test
+    void putChunk_WithChecksumMismatch_ShouldRejectAndKeepChunkMissing() {
+        // Given
+        ChunkedUploadDto upload = uploadService.init(initRequest(10));
+
+        // When
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> uploadService.putChunk(upload.getUploadId(), 0, "00",
+                        new ByteArrayInputStream(chunk(0, 10))));
+
+        // Then
+        assertTrue(e.getMessage().contains("Checksum mismatch"));
+        assertTrue(uploadService.getUpload(upload.getUploadId()).getReceivedChunks().isEmpty());
+        BusinessException incomplete = assertThrows(BusinessException.class,
+                () -> uploadService.complete(upload.getUploadId()));
+        assertTrue(incomplete.getMessage().contains("missing chunks: [0, 1, 2, 3]"));
+        verify(importService, never()).importFile(any(), any(), any(), any());
+    }
+
+    @Test
+    void putChunk_WhileCompleting_ShouldBeRejected() throws Exception {
+        // Given
+        ChunkedUploadDto upload = uploadService.init(initRequest(10));
+        for (int i = 0; i < 4; i++) {
+            put(upload.getUploadId(), i);
+        }
+        when(importService.importFile(any(), eq(ImportFormat.CSV), eq("users.csv"), any()))
+                .thenAnswer(invocation -> {
+                    // When: a chunk is re-sent while the assembled file is imported
+                    BusinessException e = assertThrows(BusinessException.class,
+                            () -> put(upload.getUploadId(), 0));
+                    assertTrue(e.getMessage().contains("being completed"));
+                    Files.copy((Path) invocation.getArgument(0), assembledCopy);
+                    return List.of(DataFileImportResult.builder().success(true).rowCount(3).build());
+                });
+
+        // When
+        uploadService.complete(upload.getUploadId());
+
+        // Then
+        assertArrayEquals(CONTENT, Files.readAllBytes(assembledCopy));
+    }
+
+    private ChunkedUploadDto put(String uploadId, int index) {
+        byte[] data = chunk(index, 10);
+        return uploadService.putChunk(uploadId, index, DataFileHashUtils.md5Hex(data),
+                new ByteArrayInputStream(data));
+    }
+
+    private static byte[] chunk(int index, int chunkSize) {
+        return Arrays.copyOfRange(CONTENT, index * chunkSize,
+                Math.min(CONTENT.length, (index + 1) * chunkSize));
+    }
+
+    private static ChunkedUploadInitRequest initRequest(int chunkSize) {
+        ChunkedUploadInitRequest request = new ChunkedUploadInitRequest();
+        request.setOrganizationNodeId(1L);
+        request.setFileName("users.csv");
+        request.setTotalSize((long) CONTENT.length);
+        request.setChunkSize(chunkSize);
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarRows;
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Data file snapshot service unit test
+ */
+class DataFileSnapshotServiceTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            new DataFile.ColumnDefinition().setName("id")
+                    .setDataType(DataFile.ColumnDefinition.DataType.INTEGER));
+
+    @TempDir
+    Path tempDir;
+
+    private ColumnarTableService columnarTableService;
+    private DataFileSnapshotService snapshotService;
+    private DataFileMetadata dataFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        columnarTableService = mock(ColumnarTableService.class);
+        snapshotService = new DataFileSnapshotService(columnarTableService, new ObjectMapper());
+        ReflectionTestUtils.setField(snapshotService, "enabled", true);
+        ReflectionTestUtils.setField(snapshotService, "snapshotDir", tempDir.toString());
+        ReflectionTestUtils.setField(snapshotService, "maxOpen", 4);
+        ReflectionTestUtils.setField(snapshotService, "retentionHours", 72L);
+        snapshotService.start();
+        dataFile = new DataFileMetadata(1L, "file", "abc123", DataFile.AccessLevel.PUBLIC, 1L,
+                1L, DataFile.RowStorage.ROW_STORE, 2, COLUMNS, null, null);
+    }
+
+    @Test
+    void rows_ConcurrentFirstReads_ShouldBuildSnapshotOnce() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(columnarTableService.load(dataFile)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return table();
+        });
+
+        // When
+        CompletableFuture<ColumnarRows> first =
+                CompletableFuture.supplyAsync(() -> snapshotService.rows(dataFile));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        CompletableFuture<ColumnarRows> second =
+                CompletableFuture.supplyAsync(() -> snapshotService.rows(dataFile));
+        release.countDown();
+
+        // Then
+        ColumnarRows rows = first.get(10, TimeUnit.SECONDS);
+        assertSame(rows, second.get(10, TimeUnit.SECONDS));
+        assertEquals(Map.of("id", 2), rows.row(1));
+        verify(columnarTableService, times(1)).load(dataFile);
+    }
+
+    @Test
+    void rows_UnreadableSnapshot_ShouldBeRebuilt() throws Exception {
+        // Given
+        Files.writeString(tempDir.resolve("abc123.sdpc"), "written by an older version");
+        when(columnarTableService.load(dataFile)).thenReturn(table());
+
+        // When
+        ColumnarRows rows = snapshotService.rows(dataFile);
+
+        // Then
+        assertEquals(2, rows.getRowCount());
+        assertNotNull(snapshotService.mapped(dataFile));
+        verify(columnarTableService, times(1)).load(dataFile);
+    }
+
+    private static ColumnarTable table() {
+        ColumnarTable.Builder builder = ColumnarTable.builder(COLUMNS, 2);
+        builder.accept(Map.of("id", 1));
+        builder.accept(Map.of("id", 2));
+        return builder.build();
+    }
+}
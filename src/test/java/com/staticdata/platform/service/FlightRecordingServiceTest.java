@@ -0,0 +1,134 @@
+package com.staticdata.platform.service;
+
+import com.staticdata.platform.dto.FlightRecordingDto;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.exception.BusinessException;
+import com.staticdata.platform.exception.ResourceNotFoundException;
+import com.staticdata.platform.jfr.PlatformEvents;
+import com.staticdata.platform.jfr.TreeBuildEvent;
+import com.staticdata.platform.util.DataFileHashUtils;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FlightRecordingService unit test
+ */
+class FlightRecordingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FlightRecordingService recordingService;
+
+    @BeforeEach
+    void setUp() {
+        recordingService = new FlightRecordingService();
+        ReflectionTestUtils.setField(recordingService, "defaultSettings", "default");
+        ReflectionTestUtils.setField(recordingService, "maxAgeMinutes", 5L);
+        ReflectionTestUtils.setField(recordingService, "maxSizeMb", 16L);
+        ReflectionTestUtils.setField(recordingService, "dumpDir", tempDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordingService.closeRecording();
+    }
+
+    @Test
+    void recordsPlatformEventsUntilStopped() throws Exception {
+        // Given
+        recordingService.start(null);
+        DataFile dataFile = new DataFile();
+        dataFile.setId(42L);
+        dataFile.setName("Currencies");
+        dataFile.setRowCount(3);
+        dataFile.setDataRows(List.of());
+
+        // When
+        DataFileHashUtils.generateFileHash(dataFile);
+        TreeBuildEvent treeBuild = new TreeBuildEvent();
+        treeBuild.nodes = 7;
+        treeBuild.commit();
+        FlightRecordingDto stopped = recordingService.stop();
+        // Not recorded any more
+        DataFileHashUtils.generateFileHash(dataFile);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingService.dump());
+
+        // Then
+        assertEquals("STOPPED", stopped.getState());
+        assertEquals("default", stopped.getSettings());
+        assertEquals(5L, stopped.getMaxAgeMinutes());
+        assertEquals(16L * 1024 * 1024, stopped.getMaxSizeBytes());
+        assertNotNull(stopped.getStoppedAt());
+        List<RecordedEvent> hashes = eventsNamed(events, "FileHash");
+        assertEquals(1, hashes.size());
+        assertEquals(42L, hashes.get(0).getLong("fileId"));
+        assertEquals(3L, hashes.get(0).getLong("rows"));
+        assertTrue(hashes.get(0).getLong("bytes") > 0);
+        assertEquals(7, eventsNamed(events, "TreeBuild").get(0).getInt("nodes"));
+    }
+
+    @Test
+    void dumpKeepsARunningRecordingRunning() throws Exception {
+        // Given
+        recordingService.start("profile");
+
+        // When
+        Path file = recordingService.dump();
+
+        // Then
+        assertTrue(file.startsWith(tempDir));
+        assertTrue(file.getFileName().toString().endsWith(".jfr"));
+        FlightRecordingDto status = recordingService.getStatus();
+        assertEquals("RUNNING", status.getState());
+        assertEquals("profile", status.getSettings());
+        assertNull(status.getStoppedAt());
+    }
+
+    @Test
+    void rejectsInvalidTransitions() {
+        // Then
+        assertEquals("NONE", recordingService.getStatus().getState());
+        assertThrows(BusinessException.class, () -> recordingService.stop());
+        assertThrows(ResourceNotFoundException.class, () -> recordingService.dump());
+        assertThrows(BusinessException.class, () -> recordingService.start("custom"));
+
+        recordingService.start(null);
+        assertThrows(BusinessException.class, () -> recordingService.start(null));
+    }
+
+    @Test
+    void startReplacesTheStoppedRecording() {
+        // Given
+        recordingService.start(null);
+        recordingService.stop();
+
+        // When
+        FlightRecordingDto restarted = recordingService.start(null);
+
+        // Then
+        assertEquals("RUNNING", restarted.getState());
+        assertNull(restarted.getStoppedAt());
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName()
+                        .equals(PlatformEvents.PREFIX + name))
+                .toList();
+    }
+}
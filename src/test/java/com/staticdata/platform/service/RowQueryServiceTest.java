@@ -0,0 +1,133 @@
+package com.staticdata.platform.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarSnapshot;
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.dto.DataFileMetadata;
+import com.staticdata.platform.dto.RowQueryRequest;
+import com.staticdata.platform.dto.RowQueryResult;
+import com.staticdata.platform.entity.DataFile;
+import com.staticdata.platform.enums.RowQueryStrategy;
+import com.staticdata.platform.ingest.RowSink;
+import com.staticdata.platform.query.JsonbQuery;
+import com.staticdata.platform.repository.DataFileRowStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Row query service unit test
+ */
+class RowQueryServiceTest {
+
+    private static final List<DataFile.ColumnDefinition> COLUMNS = List.of(
+            column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+            column("a", DataFile.ColumnDefinition.DataType.INTEGER),
+            column("b", DataFile.ColumnDefinition.DataType.STRING));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private DataFileSnapshotService snapshotService;
+    private DataFileRowStore rowStore;
+    private RowQueryService rowQueryService;
+    private DataFileMetadata dataFile;
+    private List<Map<String, Object>> rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataFileService dataFileService = mock(DataFileService.class);
+        snapshotService = mock(DataFileSnapshotService.class);
+        rowStore = mock(DataFileRowStore.class);
+        rowQueryService = new RowQueryService(dataFileService, snapshotService,
+                mock(BitmapIndexService.class), rowStore, objectMapper);
+        ReflectionTestUtils.setField(rowQueryService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(rowQueryService, "sortBufferRows", 10);
+        ReflectionTestUtils.setField(rowQueryService, "sortDir", tempDir.toString());
+        rowQueryService.start();
+
+        rows = objectMapper.readValue("""
+                [{"id": 1, "a": null, "b": "x"},
+                 {"id": 2, "b": "y"},
+                 {"id": 3, "a": 5, "b": null}]
+                """, new TypeReference<>() {});
+        dataFile = new DataFileMetadata(1L, "file", "abc123", DataFile.AccessLevel.PUBLIC, 1L,
+                1L, DataFile.RowStorage.ROW_STORE, rows.size(), COLUMNS, null, null);
+        when(dataFileService.getAccessibleMetadata(1L)).thenReturn(dataFile);
+        when(rowStore.queryRows(eq(dataFile), any(), anyInt(), anyInt()))
+                .thenReturn(new DataFileRowStore.RowsPage(rows, rows.size()));
+        doAnswer(invocation -> {
+            RowSink sink = invocation.getArgument(1);
+            rows.forEach(sink::accept);
+            return null;
+        }).when(rowStore).streamRows(eq(dataFile), any());
+    }
+
+    @Test
+    void query_ExplicitNulls_ShouldBeReturnedAlikeByEveryStrategy() throws Exception {
+        for (List<String> columns : List.of(List.<String>of(), List.of("a", "b"))) {
+            // Given
+            RowQueryRequest request = new RowQueryRequest();
+            request.setColumns(columns);
+
+            // When
+            List<Map<String, Object>> snapshotRows =
+                    query(request, RowQueryStrategy.SNAPSHOT_SCAN);
+            List<Map<String, Object>> pushdownRows = query(request, RowQueryStrategy.PUSHDOWN);
+            List<Map<String, Object>> streamRows = query(request, RowQueryStrategy.STREAM_SORT);
+
+            // Then
+            List<Map<String, Object>> expected = columns.isEmpty() ? rows
+                    : objectMapper.readValue("""
+                            [{"a": null, "b": "x"}, {"b": "y"}, {"a": 5, "b": null}]
+                            """, new TypeReference<>() {});
+            assertEquals(expected, snapshotRows);
+            assertEquals(expected, pushdownRows);
+            assertEquals(expected, streamRows);
+        }
+    }
+
+    /**
+     * Run the request through one strategy and read back the serialized rows
+     */
+    private List<Map<String, Object>> query(RowQueryRequest request, RowQueryStrategy strategy)
+            throws Exception {
+        if (strategy == RowQueryStrategy.SNAPSHOT_SCAN) {
+            ColumnarTable.Builder builder = ColumnarTable.builder(COLUMNS, rows.size());
+            rows.forEach(builder::accept);
+            Path file = tempDir.resolve("abc123.sdpc");
+            ColumnarSnapshot.write(builder.build(), file, objectMapper);
+            when(snapshotService.mapped(dataFile)).thenReturn(ColumnarSnapshot.open(file));
+        } else {
+            when(snapshotService.mapped(dataFile)).thenReturn(null);
+        }
+        RowQueryResult result;
+        try (MockedStatic<JsonbQuery> jsonbQuery =
+                mockStatic(JsonbQuery.class, CALLS_REAL_METHODS)) {
+            jsonbQuery.when(() -> JsonbQuery.supports(any(), any()))
+                    .thenReturn(strategy != RowQueryStrategy.STREAM_SORT);
+            result = rowQueryService.query(1L, request);
+        }
+        assertEquals(strategy, result.getStrategy());
+        return objectMapper.readValue(objectMapper.writeValueAsString(result.getRows()),
+                new TypeReference<>() {});
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
@@ -0,0 +1,73 @@
+package com.staticdata.platform.sql;
+
+import com.staticdata.platform.enums.RowFilterOperator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query language parser unit test
+ */
+class SqlParserTest {
+
+    @Test
+    void parse_ShouldReadAllClauses() {
+        // When
+        SqlStatement statement = SqlParser.parse("""
+                select o.id, c."full name" AS name
+                FROM "Sales/Orders/orders" o JOIN 42 AS c ON o.customerId = c.id
+                WHERE o.total >= -1.5 AND c.city IN ('Oslo', 'Bern') AND c.name LIKE 'Jo%'
+                  AND o.note IS NOT NULL AND c.vip = true
+                ORDER BY o.total DESC, c.name LIMIT 20 OFFSET 40;
+                """);
+
+        // Then
+        assertEquals(List.of("o.id", "name"),
+                statement.select().stream().map(SqlStatement.SelectItem::name).toList());
+        assertEquals(new SqlStatement.TableRef("Sales/Orders/orders", null, "o"),
+                statement.tables().get(0));
+        assertEquals(new SqlStatement.TableRef(null, 42L, "c"), statement.tables().get(1));
+        assertEquals(new SqlStatement.JoinCondition(new SqlStatement.ColumnRef("o", "customerId"),
+                new SqlStatement.ColumnRef("c", "id")), statement.joins().get(0));
+        List<SqlStatement.Condition> where = statement.where();
+        assertEquals(RowFilterOperator.GTE, where.get(0).operator());
+        assertEquals(new BigDecimal("-1.5"), where.get(0).value());
+        assertEquals(List.of("Oslo", "Bern"), where.get(1).values());
+        assertEquals(RowFilterOperator.STARTS_WITH, where.get(2).operator());
+        assertEquals("Jo", where.get(2).value());
+        assertEquals(RowFilterOperator.NOT_NULL, where.get(3).operator());
+        assertEquals(true, where.get(4).value());
+        assertTrue(statement.orderBy().get(0).descending());
+        assertFalse(statement.orderBy().get(1).descending());
+        assertEquals(20, statement.limit());
+        assertEquals(40, statement.offset());
+    }
+
+    @Test
+    void parse_SelectStar_ShouldDefaultAliasToFileName() {
+        // When
+        SqlStatement statement = SqlParser.parse("SELECT * FROM \"Team/Module/it's\"\"here\"");
+
+        // Then
+        assertTrue(statement.select().isEmpty());
+        assertEquals("it's\"here", statement.tables().get(0).alias());
+        assertNull(statement.limit());
+    }
+
+    @Test
+    void parse_InvalidQuery_ShouldReportPosition() {
+        // When & Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> SqlParser.parse("SELECT a FROM t WHERE a = 1 OR b = 2"));
+        assertTrue(error.getMessage().startsWith("Syntax error at position 29"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SqlParser.parse("SELECT a FROM t WHERE a LIKE 'a%b%'"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SqlParser.parse("SELECT a FROM t LIMIT 10 extra"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SqlParser.parse("SELECT a FROM 'unclosed"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.staticdata.platform.sql;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staticdata.platform.columnar.ColumnarTable;
+import com.staticdata.platform.entity.DataFile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query language planner unit test
+ */
+class SqlPlannerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void plan_SingleFile_ShouldFilterSortAndLimit() throws Exception {
+        // Given
+        SqlPlanner.SqlTable customers = table(List.of(
+                column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+                column("name", DataFile.ColumnDefinition.DataType.STRING),
+                column("age", DataFile.ColumnDefinition.DataType.INTEGER)), """
+                [{"id": 1, "name": "Ada", "age": 36}, {"id": 2, "name": "Bob", "age": 17},
+                 {"id": 3, "name": "Cy", "age": 52}, {"id": 4, "name": "Di", "age": 41}]
+                """);
+
+        // When
+        SqlPlanner.SqlPlan plan = SqlPlanner.plan(SqlParser.parse(
+                "SELECT name, age AS years FROM \"Team/customers\" WHERE age >= 18 "
+                        + "ORDER BY age DESC LIMIT 2"), List.of(customers), 100, 100);
+        List<Map<String, Object>> rows = drain(plan);
+
+        // Then
+        assertEquals(List.of("name", "years"), plan.columns());
+        assertEquals(List.of(Map.of("name", "Cy", "years", 52),
+                Map.of("name", "Di", "years", 41)), rows);
+        assertTrue(plan.limit().hasMore());
+        assertEquals(List.of("Project name, years", "  Limit 2",
+                "    Scan \"Team/customers\" (3 of 4 rows, 1 condition, sorted, 2 columns)"),
+                plan.explain());
+    }
+
+    @Test
+    void plan_Join_ShouldHashJoinAndSortJoinedRows() throws Exception {
+        // Given
+        SqlPlanner.SqlTable orders = table(List.of(
+                column("order", DataFile.ColumnDefinition.DataType.STRING),
+                column("customerId", DataFile.ColumnDefinition.DataType.STRING),
+                column("total", DataFile.ColumnDefinition.DataType.DECIMAL)), """
+                [{"order": "a", "customerId": "2", "total": 10.5},
+                 {"order": "b", "customerId": "1", "total": 99},
+                 {"order": "c", "customerId": "9", "total": 5},
+                 {"order": "d", "customerId": "1", "total": 20}]
+                """);
+        SqlPlanner.SqlTable customers = table(List.of(
+                column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+                column("name", DataFile.ColumnDefinition.DataType.STRING)), """
+                [{"id": 1, "name": "Ada"}, {"id": 2, "name": "Bob"}, {"id": 3, "name": "Cy"}]
+                """);
+
+        // When
+        SqlPlanner.SqlPlan plan = SqlPlanner.plan(SqlParser.parse("""
+                SELECT o."order", c.name FROM orders o JOIN customers c ON c.id = o.customerId
+                WHERE o.total > 6 ORDER BY c.name, o.total DESC
+                """), List.of(orders, customers), 100, 100);
+
+        // Then
+        assertEquals(List.of(Map.of("o.order", "b", "c.name", "Ada"),
+                Map.of("o.order", "d", "c.name", "Ada"),
+                Map.of("o.order", "a", "c.name", "Bob")), drain(plan));
+        assertFalse(plan.limit().hasMore());
+        assertEquals("      Hash join on o.customerId = c.id", plan.explain().get(3));
+    }
+
+    @Test
+    void plan_ExplicitNulls_ShouldBeSelectedApartFromMissingKeys() throws Exception {
+        // Given
+        SqlPlanner.SqlTable file = table(List.of(
+                column("id", DataFile.ColumnDefinition.DataType.INTEGER),
+                column("name", DataFile.ColumnDefinition.DataType.STRING)), """
+                [{"id": 1, "name": null}, {"id": 2}, {"id": 3, "name": "Cy"}]
+                """);
+
+        // When
+        SqlPlanner.SqlPlan plan = SqlPlanner.plan(SqlParser.parse(
+                "SELECT name AS who, id FROM f ORDER BY id"), List.of(file), 100, 100);
+
+        // Then
+        assertEquals(objectMapper.readValue("""
+                [{"who": null, "id": 1}, {"id": 2}, {"who": "Cy", "id": 3}]
+                """, new TypeReference<List<Map<String, Object>>>() {}), drain(plan));
+    }
+
+    @Test
+    void plan_InvalidReferences_ShouldFail() throws Exception {
+        // Given
+        SqlPlanner.SqlTable file = table(List.of(
+                column("id", DataFile.ColumnDefinition.DataType.INTEGER)), "[{\"id\": 1}]");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> SqlPlanner.plan(
+                SqlParser.parse("SELECT missing FROM f"), List.of(file), 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> SqlPlanner.plan(
+                SqlParser.parse("SELECT id FROM a JOIN b ON a.id = b.id"), List.of(file, file),
+                100, 100));
+        assertThrows(IllegalArgumentException.class, () -> SqlPlanner.plan(
+                SqlParser.parse("SELECT id FROM f LIMIT 500"), List.of(file), 100, 100));
+    }
+
+    private static List<Map<String, Object>> drain(SqlPlanner.SqlPlan plan) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map<String, Object> row = plan.root().next(); row != null; row = plan.root().next()) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private SqlPlanner.SqlTable table(List<DataFile.ColumnDefinition> columns, String json)
+            throws Exception {
+        List<Map<String, Object>> rows = objectMapper.readValue(json, new TypeReference<>() {});
+        ColumnarTable.Builder builder = ColumnarTable.builder(columns, rows.size());
+        rows.forEach(builder::accept);
+        Map<String, DataFile.ColumnDefinition.DataType> types = new HashMap<>();
+        columns.forEach(c -> types.put(c.getName(), c.getDataType()));
+        return new SqlPlanner.SqlTable(builder.build(), types, () -> null);
+    }
+
+    private static DataFile.ColumnDefinition column(String name,
+            DataFile.ColumnDefinition.DataType type) {
+        return new DataFile.ColumnDefinition().setName(name).setDataType(type);
+    }
+}
@@ -0,0 +1,129 @@
+package com.staticdata.platform.usage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Usage ring buffer and aggregator unit test
+ */
+class UsageRingBufferTest {
+
+    @Test
+    void offer_FullBuffer_ShouldDropAndKeepOrder() {
+        // Given
+        UsageRingBuffer<Integer> buffer = new UsageRingBuffer<>(5);
+
+        // When
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            accepted += buffer.offer(i) ? 1 : 0;
+        }
+        List<Integer> drained = new ArrayList<>();
+        buffer.drain(drained::add, 3);
+        boolean afterDrain = buffer.offer(10);
+        buffer.drain(drained::add, 100);
+
+        // Then
+        assertEquals(8, buffer.capacity());
+        assertEquals(8, accepted);
+        assertEquals(2, buffer.getDropped());
+        assertTrue(afterDrain);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 10), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void offer_ConcurrentProducers_ShouldDeliverEveryAcceptedElementOnce() throws Exception {
+        // Given
+        UsageRingBuffer<Long> buffer = new UsageRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+
+        // When
+        List<Future<Integer>> accepted = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            accepted.add(executor.submit(() -> {
+                start.await();
+                int count = 0;
+                for (int i = 0; i < perProducer; i++) {
+                    count += buffer.offer(base + i) ? 1 : 0;
+                }
+                return count;
+            }));
+        }
+        Set<Long> received = new HashSet<>();
+        long[] lastPerProducer = new long[producers];
+        Arrays.fill(lastPerProducer, -1);
+        boolean[] ordered = {true};
+        start.countDown();
+        executor.shutdown();
+        while (!done.get()) {
+            done.set(executor.awaitTermination(1, TimeUnit.MILLISECONDS));
+            buffer.drain(value -> {
+                received.add(value);
+                int producer = (int) (value / perProducer);
+                ordered[0] &= value > lastPerProducer[producer];
+                lastPerProducer[producer] = value;
+            }, 4096);
+        }
+        buffer.drain(received::add, Integer.MAX_VALUE);
+
+        // Then
+        int total = 0;
+        for (Future<Integer> count : accepted) {
+            total += count.get();
+        }
+        assertEquals(total, received.size());
+        assertEquals((long) producers * perProducer, total + buffer.getDropped());
+        assertTrue(ordered[0]);
+    }
+
+    @Test
+    void aggregator_ShouldSumPerMinuteAndCloseOnlyPastMinutes() {
+        // Given
+        UsageAggregator aggregator = new UsageAggregator();
+        long minute = 1_700_000_040_000L;
+
+        // When
+        aggregator.add(new UsageEvent(minute + 1_000, "/data-files/{id}", "GET", 200,
+                2_000_000, -1, 100));
+        aggregator.add(new UsageEvent(minute + 59_999, "/data-files/{id}", "GET", 200,
+                6_000_000, 10, 300));
+        aggregator.add(new UsageEvent(minute + 2_000, "/data-files/{id}", "GET", 404,
+                1_000_000, -1, 50));
+        aggregator.add(new UsageEvent(minute + 60_000, "/data-files/{id}", "GET", 200,
+                1_000_000, -1, 10));
+        List<UsageAggregator.UsageBucket> closed = aggregator.closeBefore(minute + 60_500);
+
+        // Then
+        assertEquals(2, closed.size());
+        assertEquals(1, aggregator.getOpenBuckets());
+        UsageAggregator.UsageBucket ok = closed.stream().filter(b -> b.getStatus() == 200)
+                .findFirst().orElseThrow();
+        assertEquals(minute, ok.getMinute());
+        assertEquals(2, ok.getCount());
+        assertEquals(8_000_000, ok.getTotalNanos());
+        assertEquals(6_000_000, ok.getMaxNanos());
+        assertEquals(10, ok.getRequestBytes());
+        assertEquals(400, ok.getResponseBytes());
+        assertEquals(1, aggregator.closeAll().size());
+        assertEquals(0, aggregator.getOpenBuckets());
+    }
+}
@@ -0,0 +1,93 @@
+package com.staticdata.platform.usage;
+
+import com.staticdata.platform.enums.UsageResolution;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Usage sketch and range planner unit test
+ */
+class UsageSketchTest {
+
+    private static final long MINUTE = UsageResolution.MINUTE.getMillis();
+    private static final long HOUR = UsageResolution.HOUR.getMillis();
+    private static final long DAY = UsageResolution.DAY.getMillis();
+
+    @Test
+    void rollUp_ShouldMergeExactlyAndSurviveEncoding() {
+        // Given
+        UsageAggregator aggregator = new UsageAggregator();
+        long hour = 1000 * DAY + 5 * HOUR;
+        for (int i = 0; i < 1000; i++) {
+            aggregator.add(new UsageEvent(hour + (i % 120) * MINUTE / 2, "/organization/tree",
+                    "GET", i % 100 == 0 ? 500 : i % 50 == 0 ? 404 : 200, (i + 1) * 1_000_000L,
+                    -1, 10));
+        }
+        List<UsageSketch> minutes = new ArrayList<>();
+        for (UsageSketch sketch : UsageSketch.ofBuckets(aggregator.closeAll())) {
+            // Through the stored form
+            minutes.add(new UsageSketch(sketch.getBucketStart(), sketch.getPath(),
+                    sketch.getMethod(), sketch.getRequestCount(), sketch.getClientErrorCount(),
+                    sketch.getServerErrorCount(),
+                    UsageSketch.decodeLatency(sketch.encodeLatency())));
+        }
+
+        // When
+        List<UsageSketch> hours = UsageSketch.rollUp(minutes, HOUR);
+
+        // Then
+        assertEquals(60, minutes.size());
+        assertEquals(1, hours.size());
+        UsageSketch sketch = hours.get(0);
+        assertEquals(hour, sketch.getBucketStart());
+        assertEquals(1000, sketch.getRequestCount());
+        assertEquals(10, sketch.getServerErrorCount());
+        assertEquals(10, sketch.getClientErrorCount());
+        Histogram latency = sketch.getLatency();
+        assertEquals(1000, latency.getTotalCount());
+        assertEquals(500_000, latency.getValueAtPercentile(50), 5_000);
+        assertEquals(990_000, latency.getValueAtPercentile(99), 10_000);
+        assertEquals(1_000_000, latency.getMaxValue(), 10_000);
+        assertThrows(IllegalArgumentException.class,
+                () -> UsageSketch.decodeLatency(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+
+    @Test
+    void plan_ShouldUseCoarsestRolledUpBuckets() {
+        // Given
+        long from = 10 * DAY + 22 * HOUR + 30 * MINUTE;
+        long to = 14 * DAY + 3 * HOUR + 15 * MINUTE;
+
+        // When
+        List<UsageRangePlanner.Segment> rolledUp = UsageRangePlanner.plan(from, to,
+                15 * DAY, 15 * DAY);
+        List<UsageRangePlanner.Segment> recentDays = UsageRangePlanner.plan(from, to,
+                14 * DAY + 2 * HOUR, 13 * DAY);
+        List<UsageRangePlanner.Segment> nothing = UsageRangePlanner.plan(from, to, 0, 0);
+
+        // Then
+        assertEquals(List.of(
+                new UsageRangePlanner.Segment(UsageResolution.MINUTE, from, 10 * DAY + 23 * HOUR),
+                new UsageRangePlanner.Segment(UsageResolution.HOUR, 10 * DAY + 23 * HOUR,
+                        11 * DAY),
+                new UsageRangePlanner.Segment(UsageResolution.DAY, 11 * DAY, 14 * DAY),
+                new UsageRangePlanner.Segment(UsageResolution.HOUR, 14 * DAY, 14 * DAY + 3 * HOUR),
+                new UsageRangePlanner.Segment(UsageResolution.MINUTE, 14 * DAY + 3 * HOUR, to)),
+                rolledUp);
+        assertEquals(List.of(
+                new UsageRangePlanner.Segment(UsageResolution.MINUTE, from, 10 * DAY + 23 * HOUR),
+                new UsageRangePlanner.Segment(UsageResolution.HOUR, 10 * DAY + 23 * HOUR,
+                        11 * DAY),
+                new UsageRangePlanner.Segment(UsageResolution.DAY, 11 * DAY, 13 * DAY),
+                new UsageRangePlanner.Segment(UsageResolution.HOUR, 13 * DAY, 14 * DAY + 2 * HOUR),
+                new UsageRangePlanner.Segment(UsageResolution.MINUTE, 14 * DAY + 2 * HOUR, to)),
+                recentDays);
+        assertEquals(List.of(new UsageRangePlanner.Segment(UsageResolution.MINUTE, from, to)),
+                nothing);
+    }
+}